@@ -14,6 +14,7 @@ package org.sonatype.nexus.repository.maven.internal.matcher;
 
 import org.sonatype.nexus.repository.maven.MavenPathParser;
 import org.sonatype.nexus.repository.maven.internal.Constants;
+import org.sonatype.nexus.repository.view.PathConstraint;
 
 /**
  * Matcher that matches for Maven archetype catalog only.
@@ -27,6 +28,7 @@ public class MavenArchetypeCatalogMatcher
 
   public MavenArchetypeCatalogMatcher(final MavenPathParser mavenPathParser) {
     super(mavenPathParser,
-        withHashes((String path) -> path.equals(ARCHETYPE_CATALOG_REQ_PATH)));
+        withHashes((String path) -> path.equals(ARCHETYPE_CATALOG_REQ_PATH)),
+        withHashes(ARCHETYPE_CATALOG_REQ_PATH, path -> PathConstraint.literal(path, false)));
   }
 }
@@ -14,6 +14,7 @@ package org.sonatype.nexus.repository.maven.internal.matcher;
 
 import org.sonatype.nexus.repository.maven.MavenPath;
 import org.sonatype.nexus.repository.maven.MavenPathParser;
+import org.sonatype.nexus.repository.view.PathConstraint;
 
 import static org.sonatype.nexus.repository.maven.internal.Constants.INDEX_FILE_BASE_PATH;
 
@@ -26,6 +27,7 @@ public class MavenIndexMatcher
     extends MavenMatcherSupport
 {
   public MavenIndexMatcher(final MavenPathParser mavenPathParser) {
-    super(mavenPathParser, (String path) -> path != null && path.startsWith("/" + INDEX_FILE_BASE_PATH));
+    super(mavenPathParser, (String path) -> path != null && path.startsWith("/" + INDEX_FILE_BASE_PATH),
+        PathConstraint.prefix("/" + INDEX_FILE_BASE_PATH, false));
   }
 }
@@ -12,12 +12,19 @@
  */
 package org.sonatype.nexus.repository.maven.internal.matcher;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.repository.maven.MavenPath;
 import org.sonatype.nexus.repository.maven.MavenPath.HashType;
 import org.sonatype.nexus.repository.maven.MavenPathParser;
 import org.sonatype.nexus.repository.view.Context;
 import org.sonatype.nexus.repository.view.Matcher;
+import org.sonatype.nexus.repository.view.PathConstraint;
 
 import com.google.common.base.Predicate;
 
@@ -49,13 +56,44 @@ public class MavenMatcherSupport
     };
   }
 
+  /**
+   * Returns a {@link PathConstraint} satisfied by the given path and its Maven2 hash variants, mirroring
+   * {@link #withHashes(Predicate)}.
+   *
+   * @since 3.89
+   */
+  public static PathConstraint withHashes(final String path, final Function<String, PathConstraint> constraint) {
+    List<PathConstraint> constraints = new ArrayList<>();
+    constraints.add(constraint.apply(path));
+    for (HashType hashType : HashType.values()) {
+      constraints.add(constraint.apply(path + "." + hashType.getExt()));
+    }
+    return PathConstraint.anyOf(constraints);
+  }
+
   private final MavenPathParser mavenPathParser;
 
   private final Predicate<String> predicate;
 
+  @Nullable
+  private final PathConstraint pathConstraint;
+
   public MavenMatcherSupport(final MavenPathParser mavenPathParser, final Predicate<String> predicate) {
+    this(mavenPathParser, predicate, null);
+  }
+
+  /**
+   * @param pathConstraint constraint satisfied by every path the predicate accepts, see {@link #pathConstraint()}
+   * @since 3.89
+   */
+  public MavenMatcherSupport(
+      final MavenPathParser mavenPathParser,
+      final Predicate<String> predicate,
+      @Nullable final PathConstraint pathConstraint)
+  {
     this.mavenPathParser = checkNotNull(mavenPathParser);
     this.predicate = checkNotNull(predicate);
+    this.pathConstraint = pathConstraint;
   }
 
   @Override
@@ -68,4 +106,10 @@ public class MavenMatcherSupport
     }
     return false;
   }
+
+  @Nullable
+  @Override
+  public PathConstraint pathConstraint() {
+    return pathConstraint;
+  }
 }
@@ -13,6 +13,7 @@
 package org.sonatype.nexus.repository.maven.internal.matcher;
 
 import org.sonatype.nexus.repository.maven.MavenPathParser;
+import org.sonatype.nexus.repository.view.PathConstraint;
 
 /**
  * Matcher that matches anything in .meta folder (legacy paths from nx2)
@@ -25,6 +26,7 @@ public class MavenNx2MetaFilesMatcher
   private static final String META_FILES_REQ_PATH = "/.meta/";
 
   public MavenNx2MetaFilesMatcher(final MavenPathParser mavenPathParser) {
-    super(mavenPathParser, (String path) -> path != null && path.startsWith(META_FILES_REQ_PATH));
+    super(mavenPathParser, (String path) -> path != null && path.startsWith(META_FILES_REQ_PATH),
+        PathConstraint.prefix(META_FILES_REQ_PATH, false));
   }
 }
@@ -15,6 +15,7 @@ package org.sonatype.nexus.repository.maven.internal.matcher;
 import org.sonatype.nexus.repository.maven.MavenPath;
 import org.sonatype.nexus.repository.maven.MavenPathParser;
 import org.sonatype.nexus.repository.maven.internal.Constants;
+import org.sonatype.nexus.repository.view.PathConstraint;
 
 /**
  * Matcher that matches for Maven repository metadata only, and sets {@link MavenPath} in context attributes.
@@ -28,6 +29,7 @@ public class MavenRepositoryMetadataMatcher
 
   public MavenRepositoryMetadataMatcher(final MavenPathParser mavenPathParser) {
     super(mavenPathParser,
-        withHashes((String path) -> path.endsWith(MAVEN_METADATA_REQ_PATH)));
+        withHashes((String path) -> path.endsWith(MAVEN_METADATA_REQ_PATH)),
+        withHashes(MAVEN_METADATA_REQ_PATH, path -> PathConstraint.suffix(path, false)));
   }
 }
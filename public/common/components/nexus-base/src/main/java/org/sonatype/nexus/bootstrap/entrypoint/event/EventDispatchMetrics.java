@@ -0,0 +1,230 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.bootstrap.entrypoint.event;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.reflect.TypeToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Records per event type dispatch metrics for {@link EventManagerImpl}.
+ *
+ * For each event type this tracks the number of posts, the number of registered synchronous and asynchronous
+ * subscribers, and the time asynchronous deliveries spend queued and running. Each synchronous delivery is timed
+ * per subscriber method by {@link EventDispatcher}, and deliveries that exceed the configured threshold are logged
+ * naming that subscriber, so slow subscribers on the upload/download path can be found.
+ *
+ * @since 3.89
+ */
+class EventDispatchMetrics
+{
+  private static final Logger log = LoggerFactory.getLogger(EventDispatchMetrics.class);
+
+  private static final String PREFIX = name(EventManagerImpl.class, "events");
+
+  /**
+   * Tracks the event type being posted to the async bus, so deliveries scheduled by Guava can be attributed.
+   */
+  private static final ThreadLocal<Class<?>> ASYNC_EVENT_TYPE = new ThreadLocal<>();
+
+  private final MetricRegistry registry;
+
+  private final long slowThresholdNanos;
+
+  private final Map<Class<?>, EventTypeMetrics> metricsByType = new ConcurrentHashMap<>();
+
+  private final Map<Method, Timer> subscriberTimers = new ConcurrentHashMap<>();
+
+  private final Map<Class<?>, Set<String>> syncSubscribers = new ConcurrentHashMap<>();
+
+  private final Map<Class<?>, Set<String>> asyncSubscribers = new ConcurrentHashMap<>();
+
+  EventDispatchMetrics(final MetricRegistry registry, final long slowThresholdMillis) {
+    this.registry = checkNotNull(registry);
+    this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+  }
+
+  /**
+   * Indexes the {@link Subscribe} methods of the given handler so subscriber counts can be reported per event type.
+   */
+  void registered(final Object handler, final boolean async) {
+    for (Method method : EventDispatcher.subscriberMethods(handler.getClass())) {
+      Class<?> eventType = method.getParameterTypes()[0];
+      subscribers(async).computeIfAbsent(eventType, k -> new CopyOnWriteArraySet<>()).add(describe(handler, method));
+    }
+  }
+
+  void unregistered(final Object handler, final boolean async) {
+    for (Method method : EventDispatcher.subscriberMethods(handler.getClass())) {
+      Set<String> names = subscribers(async).get(method.getParameterTypes()[0]);
+      if (names != null) {
+        names.remove(describe(handler, method));
+      }
+    }
+  }
+
+  /**
+   * Records that the given event was posted.
+   */
+  void posted(final Object event) {
+    metricsFor(event.getClass()).posted.mark();
+  }
+
+  /**
+   * Records how long the given subscriber held the posting thread while receiving the event.
+   */
+  void delivered(final EventSubscriber subscriber, final Object event, final long elapsedNanos) {
+    subscriberTimers.computeIfAbsent(subscriber.getMethod(), this::subscriberTimer)
+        .update(elapsedNanos, TimeUnit.NANOSECONDS);
+    if (elapsedNanos > slowThresholdNanos) {
+      log.warn("Synchronous delivery of {} to {} took {} ms", event.getClass().getName(),
+          describe(subscriber.getTarget(), subscriber.getMethod()), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+  }
+
+  /**
+   * Runs the asynchronous posting of the given event, so that deliveries scheduled while posting are attributed.
+   */
+  void postAsync(final Object event, final Runnable post) {
+    Class<?> previous = ASYNC_EVENT_TYPE.get();
+    ASYNC_EVENT_TYPE.set(event.getClass());
+    try {
+      post.run();
+    }
+    finally {
+      if (previous != null) {
+        ASYNC_EVENT_TYPE.set(previous);
+      }
+      else {
+        ASYNC_EVENT_TYPE.remove();
+      }
+    }
+  }
+
+  /**
+   * Wraps the given executor so each asynchronous delivery records its queue wait and run time.
+   */
+  Executor instrument(final Executor executor) {
+    checkNotNull(executor);
+    return command -> executor.execute(instrumentDelivery(command));
+  }
+
+  private Runnable instrumentDelivery(final Runnable command) {
+    Class<?> eventType = ASYNC_EVENT_TYPE.get();
+    if (eventType == null) {
+      return command;
+    }
+    EventTypeMetrics metrics = metricsFor(eventType);
+    long queued = System.nanoTime();
+    return () -> {
+      long start = System.nanoTime();
+      metrics.asyncQueueWait.update(start - queued, TimeUnit.NANOSECONDS);
+      try {
+        command.run();
+      }
+      finally {
+        metrics.asyncDispatch.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    };
+  }
+
+  private EventTypeMetrics metricsFor(final Class<?> eventType) {
+    return metricsByType.computeIfAbsent(eventType, EventTypeMetrics::new);
+  }
+
+  /**
+   * Subscriber timers are shared by all instances of the handler, to keep the number of metrics bounded.
+   */
+  private Timer subscriberTimer(final Method method) {
+    return registry.timer(name(PREFIX, "subscriber", method.getDeclaringClass().getName() + '#' + describe(method)));
+  }
+
+  private Map<Class<?>, Set<String>> subscribers(final boolean async) {
+    return async ? asyncSubscribers : syncSubscribers;
+  }
+
+  private static int countSubscribers(final Map<Class<?>, Set<String>> subscribers, final Class<?> eventType) {
+    return matchingSubscribers(subscribers, eventType).size();
+  }
+
+  /**
+   * Subscribers receive events of their parameter type and any subtype, mirroring Guava's dispatch rules.
+   */
+  private static List<String> matchingSubscribers(
+      final Map<Class<?>, Set<String>> subscribers,
+      final Class<?> eventType)
+  {
+    List<String> matches = new ArrayList<>();
+    for (Class<?> type : TypeToken.of(eventType).getTypes().rawTypes()) {
+      Set<String> names = subscribers.get(type);
+      if (names != null) {
+        matches.addAll(names);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Identifies the subscriber by handler instance as well as method, so several instances of the same handler class
+   * are counted and reported separately.
+   */
+  private static String describe(final Object handler, final Method method) {
+    return handler.getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(handler)) + '#'
+        + describe(method);
+  }
+
+  private static String describe(final Method method) {
+    return method.getName() + '(' + method.getParameterTypes()[0].getSimpleName() + ')';
+  }
+
+  /**
+   * Metrics kept for each posted event type.
+   */
+  private class EventTypeMetrics
+  {
+    final Meter posted;
+
+    final Timer asyncQueueWait;
+
+    final Timer asyncDispatch;
+
+    EventTypeMetrics(final Class<?> eventType) {
+      String prefix = name(PREFIX, eventType.getName());
+      posted = registry.meter(name(prefix, "posted"));
+      asyncQueueWait = registry.timer(name(prefix, "async", "queueWait"));
+      asyncDispatch = registry.timer(name(prefix, "async", "dispatch"));
+      Gauge<Integer> syncCount = () -> countSubscribers(syncSubscribers, eventType);
+      Gauge<Integer> asyncCount = () -> countSubscribers(asyncSubscribers, eventType);
+      registry.gauge(name(prefix, "sync", "subscribers"), () -> syncCount);
+      registry.gauge(name(prefix, "async", "subscribers"), () -> asyncCount);
+    }
+  }
+}
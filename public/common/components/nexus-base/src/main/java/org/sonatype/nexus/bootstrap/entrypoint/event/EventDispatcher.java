@@ -0,0 +1,201 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.bootstrap.entrypoint.event;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.bootstrap.entrypoint.event.EventSubscriber.SubscriberInvocationException;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.primitives.Primitives;
+import com.google.common.reflect.TypeToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reentrant event dispatcher that replaces Guava's {@link EventBus} for {@link EventManagerImpl}.
+ *
+ * Handlers use the same {@link Subscribe} annotations, but subscriber methods are resolved once at registration
+ * and linked to direct invokers (see {@link EventSubscriber}). The subscribers for each concrete event type, taking
+ * the event's class hierarchy into account, are computed on first post and cached until the next registration
+ * change, so posting an event is a map lookup followed by direct calls. The cache is only filled while holding the
+ * registration lock, so a post racing with a registration change can't cache a stale list of subscribers.
+ *
+ * Like the reentrant Guava bus, each event is delivered immediately to every subscriber via the executor, in
+ * hierarchy order (the event's class first, then its supertypes) and registration order within each type. When
+ * given {@link EventDispatchMetrics}, each delivery is timed so slow subscribers can be identified individually.
+ *
+ * @since 3.89
+ */
+class EventDispatcher
+{
+  private static final EventSubscriber[] NO_SUBSCRIBERS = new EventSubscriber[0];
+
+  private static final Map<Class<?>, List<Method>> subscriberMethodsCache = new ConcurrentHashMap<>();
+
+  private final Logger logger;
+
+  private final Executor executor;
+
+  private final Map<Class<?>, Set<EventSubscriber>> subscribersByType = new ConcurrentHashMap<>();
+
+  private final Map<Class<?>, EventSubscriber[]> dispatchCache = new ConcurrentHashMap<>();
+
+  private final Object registrationLock = new Object();
+
+  @Nullable
+  private final EventDispatchMetrics metrics;
+
+  EventDispatcher(final String identifier, final Executor executor) {
+    this(identifier, executor, null);
+  }
+
+  EventDispatcher(final String identifier, final Executor executor, @Nullable final EventDispatchMetrics metrics) {
+    checkNotNull(identifier);
+    this.logger = LoggerFactory.getLogger(EventBus.class.getName() + "." + identifier);
+    this.executor = checkNotNull(executor);
+    this.metrics = metrics;
+  }
+
+  /**
+   * Registers all {@link Subscribe} methods on the given handler.
+   */
+  void register(final Object handler) {
+    synchronized (registrationLock) {
+      for (Method method : subscriberMethods(handler.getClass())) {
+        EventSubscriber subscriber = new EventSubscriber(handler, method);
+        subscribersByType.computeIfAbsent(subscriber.getEventType(), k -> new CopyOnWriteArraySet<>()).add(subscriber);
+      }
+      dispatchCache.clear();
+    }
+  }
+
+  /**
+   * Unregisters all {@link Subscribe} methods on the given handler.
+   *
+   * @throws IllegalArgumentException if the handler was not previously registered
+   */
+  void unregister(final Object handler) {
+    synchronized (registrationLock) {
+      for (Method method : subscriberMethods(handler.getClass())) {
+        Class<?> eventType = method.getParameterTypes()[0];
+        Set<EventSubscriber> subscribers = subscribersByType.get(Primitives.wrap(eventType));
+        boolean removed = subscribers != null && subscribers.remove(new EventSubscriber(handler, method));
+        checkArgument(removed, "missing event subscriber for an annotated method. Is %s registered?", handler);
+      }
+      dispatchCache.clear();
+    }
+  }
+
+  /**
+   * Posts the event to all subscribers of its type or any of its supertypes.
+   */
+  void post(final Object event) {
+    for (EventSubscriber subscriber : subscribers(event.getClass())) {
+      executor.execute(() -> deliver(subscriber, event));
+    }
+  }
+
+  /**
+   * Returns the subscribers that will receive events of the given type, in delivery order.
+   */
+  List<EventSubscriber> getSubscribers(final Class<?> eventType) {
+    return Arrays.asList(subscribers(eventType));
+  }
+
+  private EventSubscriber[] subscribers(final Class<?> eventType) {
+    EventSubscriber[] subscribers = dispatchCache.get(eventType);
+    if (subscribers == null) {
+      synchronized (registrationLock) {
+        subscribers = dispatchCache.computeIfAbsent(eventType, this::resolveSubscribers);
+      }
+    }
+    return subscribers;
+  }
+
+  private EventSubscriber[] resolveSubscribers(final Class<?> eventType) {
+    List<EventSubscriber> resolved = new ArrayList<>();
+    for (Class<?> type : TypeToken.of(eventType).getTypes().rawTypes()) {
+      Collection<EventSubscriber> subscribers = subscribersByType.get(type);
+      if (subscribers != null) {
+        resolved.addAll(subscribers);
+      }
+    }
+    return resolved.isEmpty() ? NO_SUBSCRIBERS : resolved.toArray(NO_SUBSCRIBERS);
+  }
+
+  private void deliver(final EventSubscriber subscriber, final Object event) {
+    if (metrics == null) {
+      invoke(subscriber, event);
+      return;
+    }
+    long start = System.nanoTime();
+    try {
+      invoke(subscriber, event);
+    }
+    finally {
+      metrics.delivered(subscriber, event, System.nanoTime() - start);
+    }
+  }
+
+  private void invoke(final EventSubscriber subscriber, final Object event) {
+    try {
+      subscriber.invoke(event);
+    }
+    catch (Exception e) { // NOSONAR: match EventBus, which logs exceptions thrown by subscribers but lets errors through
+      // checked exceptions thrown by subscribers linked with LambdaMetafactory arrive here unwrapped
+      Throwable cause = e instanceof SubscriberInvocationException ? e.getCause() : e;
+      logger.error("Could not dispatch event {} to subscriber {} method [{}]",
+          event, subscriber.getTarget(), subscriber.getMethod(), cause);
+    }
+  }
+
+  /**
+   * Finds {@link Subscribe} methods across the handler's type hierarchy; overridden methods are only included once.
+   */
+  static List<Method> subscriberMethods(final Class<?> handlerType) {
+    return subscriberMethodsCache.computeIfAbsent(handlerType, EventDispatcher::findSubscriberMethods);
+  }
+
+  private static List<Method> findSubscriberMethods(final Class<?> handlerType) {
+    Map<String, Method> methods = new LinkedHashMap<>();
+    for (Class<?> type : TypeToken.of(handlerType).getTypes().rawTypes()) {
+      for (Method method : type.getDeclaredMethods()) {
+        if (method.isAnnotationPresent(Subscribe.class) && !method.isSynthetic()) {
+          Class<?>[] parameterTypes = method.getParameterTypes();
+          checkArgument(parameterTypes.length == 1,
+              "Method %s has @Subscribe annotation but has %s parameters. Subscriber methods must have exactly 1 parameter.",
+              method, parameterTypes.length);
+          methods.putIfAbsent(method.getName() + Arrays.toString(parameterTypes), method);
+        }
+      }
+    }
+    return List.copyOf(methods.values());
+  }
+}
@@ -14,6 +14,7 @@ package org.sonatype.nexus.bootstrap.entrypoint.event;
 
 import java.util.List;
 
+import javax.annotation.Nullable;
 import jakarta.inject.Inject;
 
 import org.sonatype.goodies.lifecycle.LifecycleSupport;
@@ -26,16 +27,15 @@ import org.sonatype.nexus.common.property.SystemPropertiesHelper;
 import org.sonatype.nexus.jmx.reflect.ManagedAttribute;
 import org.sonatype.nexus.jmx.reflect.ManagedObject;
 
+import com.codahale.metrics.SharedMetricRegistries;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.eventbus.EventBus;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static org.sonatype.nexus.common.app.ManagedLifecycle.Phase.EVENTS;
-import static org.sonatype.nexus.common.event.EventBusFactory.reentrantAsyncEventBus;
-import static org.sonatype.nexus.common.event.EventBusFactory.reentrantEventBus;
 
 @Component
 @ManagedLifecycle(phase = EVENTS)
@@ -48,18 +48,36 @@ public class EventManagerImpl
   static final int HOST_THREAD_POOL_SIZE =
       SystemPropertiesHelper.getInteger("org.sonatype.nexus.internal.event.EventManagerImpl.poolSize", 500);
 
+  static final boolean METRICS_ENABLED =
+      SystemPropertiesHelper.getBoolean("nexus.event.metrics.enabled", true);
+
+  static final int SLOW_DISPATCH_THRESHOLD_MILLIS =
+      SystemPropertiesHelper.getInteger("nexus.event.slowDispatchThresholdMillis", 100);
+
   private final EventExecutor eventExecutor;
 
-  private final EventBus eventBus;
+  private final EventDispatcher eventBus;
+
+  private final EventDispatcher asyncBus;
 
-  private final EventBus asyncBus;
+  @Nullable
+  private final EventDispatchMetrics dispatchMetrics;
 
   @Inject
   public EventManagerImpl(final EventExecutor eventExecutor, final List<EventAware> eventListeners) {
     this.eventExecutor = checkNotNull(eventExecutor);
 
-    this.eventBus = reentrantEventBus("nexus");
-    this.asyncBus = reentrantAsyncEventBus("nexus.async", eventExecutor);
+    if (METRICS_ENABLED) {
+      this.dispatchMetrics =
+          new EventDispatchMetrics(SharedMetricRegistries.getOrCreate("nexus"), SLOW_DISPATCH_THRESHOLD_MILLIS);
+    }
+    else {
+      this.dispatchMetrics = null;
+    }
+
+    this.eventBus = new EventDispatcher("nexus", directExecutor(), dispatchMetrics);
+    this.asyncBus = new EventDispatcher("nexus.async",
+        dispatchMetrics != null ? dispatchMetrics.instrument(eventExecutor) : eventExecutor);
 
     eventListeners.forEach(this::register);
   }
@@ -75,6 +93,10 @@ public class EventManagerImpl
       eventBus.register(object);
     }
 
+    if (dispatchMetrics != null) {
+      dispatchMetrics.registered(object, async);
+    }
+
     log.trace("Registered {}{}", async ? "ASYNC " : "", object);
   }
 
@@ -89,25 +111,41 @@ public class EventManagerImpl
       eventBus.unregister(object);
     }
 
+    if (dispatchMetrics != null) {
+      dispatchMetrics.unregistered(object, async);
+    }
+
     log.trace("Unregistered {}{}", async ? "ASYNC " : "", object);
   }
 
   @Override
   public void post(final Object event) {
     // notify synchronous subscribers before going asynchronous
+    if (dispatchMetrics != null) {
+      dispatchMetrics.posted(event);
+    }
     eventBus.post(event);
 
     if (isAffinityEnabled() && event instanceof HasAffinity) {
       String affinity = ((HasAffinity) event).getAffinity();
       if (affinity != null) {
-        eventExecutor.executeWithAffinity(affinity, () -> asyncBus.post(event));
+        eventExecutor.executeWithAffinity(affinity, () -> postAsync(event));
       }
       else {
         // unexpected state, fall back to previous behaviour
         log.warn("Event {} requested 'null' affinity", event);
-        asyncBus.post(event);
+        postAsync(event);
       }
     }
+    else {
+      postAsync(event);
+    }
+  }
+
+  private void postAsync(final Object event) {
+    if (dispatchMetrics != null) {
+      dispatchMetrics.postAsync(event, () -> asyncBus.post(event));
+    }
     else {
       asyncBus.post(event);
     }
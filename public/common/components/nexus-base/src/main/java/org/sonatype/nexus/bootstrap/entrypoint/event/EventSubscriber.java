@@ -0,0 +1,188 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.bootstrap.entrypoint.event;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.primitives.Primitives;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * A single {@code @Subscribe} method bound to its target, invoked without reflection.
+ *
+ * Where possible the method is linked to a generated {@link BiConsumer} using {@link LambdaMetafactory}, which the
+ * JIT can inline like a direct call. When that isn't possible (for example the target lives in a different class
+ * loader) it falls back to an adapted {@link MethodHandle}. Invokers take the target as an argument and are cached
+ * per method, so handlers that are registered and unregistered repeatedly don't generate a new class each time.
+ *
+ * Subscribers that are not marked with {@link AllowConcurrentEvents} are invoked while holding a lock, matching
+ * Guava's {@code EventBus} behaviour.
+ *
+ * @since 3.89
+ */
+final class EventSubscriber
+{
+  private static final MethodType INVOKER_TYPE = methodType(void.class, Object.class, Object.class);
+
+  /**
+   * Invokers per subscriber method, keyed by declaring class so they don't keep unloaded class loaders reachable.
+   */
+  private static final ClassValue<Map<Method, BiConsumer<Object, Object>>> INVOKERS = new ClassValue<>()
+  {
+    @Override
+    protected Map<Method, BiConsumer<Object, Object>> computeValue(final Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  private final Object target;
+
+  private final Method method;
+
+  private final Class<?> eventType;
+
+  private final BiConsumer<Object, Object> invoker;
+
+  private final boolean concurrent;
+
+  EventSubscriber(final Object target, final Method method) {
+    this.target = checkNotNull(target);
+    this.method = checkNotNull(method);
+    this.eventType = Primitives.wrap(method.getParameterTypes()[0]);
+    this.invoker = INVOKERS.get(method.getDeclaringClass()).computeIfAbsent(method, EventSubscriber::createInvoker);
+    this.concurrent = method.isAnnotationPresent(AllowConcurrentEvents.class);
+  }
+
+  Object getTarget() {
+    return target;
+  }
+
+  Method getMethod() {
+    return method;
+  }
+
+  Class<?> getEventType() {
+    return eventType;
+  }
+
+  @VisibleForTesting
+  BiConsumer<Object, Object> getInvoker() {
+    return invoker;
+  }
+
+  /**
+   * Delivers the event to the subscriber; any exception thrown by the subscriber is propagated.
+   */
+  void invoke(final Object event) {
+    if (concurrent) {
+      invoker.accept(target, event);
+    }
+    else {
+      synchronized (this) {
+        invoker.accept(target, event);
+      }
+    }
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof EventSubscriber)) {
+      return false;
+    }
+    EventSubscriber that = (EventSubscriber) o;
+    return target == that.target && method.equals(that.method);
+  }
+
+  @Override
+  public int hashCode() {
+    return (31 + method.hashCode()) * 31 + System.identityHashCode(target);
+  }
+
+  @Override
+  public String toString() {
+    return target.getClass().getName() + '#' + method.getName() + '(' + eventType.getSimpleName() + ')';
+  }
+
+  @SuppressWarnings("unchecked")
+  private static BiConsumer<Object, Object> createInvoker(final Method method) {
+    Class<?> declaringClass = method.getDeclaringClass();
+    try {
+      Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+      CallSite site = LambdaMetafactory.metafactory(
+          lookup,
+          "accept",
+          methodType(BiConsumer.class),
+          INVOKER_TYPE,
+          lookup.unreflect(method),
+          methodType(void.class, declaringClass, Primitives.wrap(method.getParameterTypes()[0])));
+      return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+    }
+    catch (Throwable e) { // NOSONAR: fall back to a plain method handle whatever the reason
+      return methodHandleInvoker(unreflect(method).asType(INVOKER_TYPE));
+    }
+  }
+
+  private static BiConsumer<Object, Object> methodHandleInvoker(final MethodHandle handle) {
+    return (target, event) -> {
+      try {
+        handle.invokeExact(target, event);
+      }
+      catch (RuntimeException | Error e) {
+        throw e;
+      }
+      catch (Throwable e) {
+        throw new SubscriberInvocationException(e);
+      }
+    };
+  }
+
+  private static MethodHandle unreflect(final Method method) {
+    try {
+      if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+        method.setAccessible(true);
+      }
+      return MethodHandles.lookup().unreflect(method);
+    }
+    catch (IllegalAccessException | RuntimeException e) {
+      throw new IllegalArgumentException("Unable to access subscriber method " + method, e);
+    }
+  }
+
+  /**
+   * Wraps checked exceptions thrown by subscriber methods that don't declare them.
+   */
+  static class SubscriberInvocationException
+      extends RuntimeException
+  {
+    SubscriberInvocationException(final Throwable cause) {
+      super(cause);
+    }
+  }
+}
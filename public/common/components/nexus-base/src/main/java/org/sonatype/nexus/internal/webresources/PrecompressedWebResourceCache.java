@@ -0,0 +1,326 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.webresources;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.goodies.common.ByteSize;
+import org.sonatype.nexus.common.app.ManagedLifecycle;
+import org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport;
+import org.sonatype.nexus.webresources.WebResource;
+import org.sonatype.nexus.webresources.WebResource.Prepareable;
+import org.sonatype.nexus.webresources.WebResourceService;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.base.Stopwatch;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.common.app.ManagedLifecycle.Phase.SERVICES;
+
+/**
+ * In-memory cache of static {@link WebResource}s, each held with a precompressed copy and a strong entity tag.
+ *
+ * Compressible resources are compressed once, when the cache starts or on first use, so serving the UI doesn't spend
+ * CPU on compression. Gzip copies are made here; brotli copies are only available when the build ships a
+ * {@code .br} sibling next to the resource, because there is no brotli encoder on the server classpath.
+ *
+ * @since 3.89
+ */
+@Component
+@Singleton
+@ManagedLifecycle(phase = SERVICES)
+public class PrecompressedWebResourceCache
+    extends StateGuardLifecycleSupport
+{
+  public static final String GZIP = "gzip";
+
+  public static final String BROTLI = "br";
+
+  private static final Set<String> COMPRESSIBLE_TYPES = Set.of(
+      "application/javascript",
+      "application/x-javascript",
+      "application/json",
+      "application/xml",
+      "image/svg+xml");
+
+  private static final Splitter LIST_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+  private static final Splitter PARAM_SPLITTER = Splitter.on(';').trimResults();
+
+  private final WebResourceService webResources;
+
+  private final boolean enabled;
+
+  private final long minSize;
+
+  private final long maxSize;
+
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+  @Inject
+  public PrecompressedWebResourceCache(
+      final WebResourceService webResources,
+      @Value("${nexus.webresources.precompress.enabled:true}") final boolean enabled,
+      @Value("${nexus.webresources.precompress.minSize:512b}") final ByteSize minSize,
+      @Value("${nexus.webresources.precompress.maxSize:32mb}") final ByteSize maxSize)
+  {
+    this.webResources = checkNotNull(webResources);
+    this.enabled = enabled;
+    this.minSize = minSize.toBytes();
+    this.maxSize = maxSize.toBytes();
+  }
+
+  @Override
+  protected void doStart() {
+    if (!enabled) {
+      log.info("Precompressed web resources disabled");
+      return;
+    }
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    long contentBytes = 0;
+    long gzipBytes = 0;
+    for (WebResource resource : webResources.getResources()) {
+      Entry entry = get(resource);
+      if (entry != null) {
+        contentBytes += entry.content.length;
+        gzipBytes += entry.gzip != null ? entry.gzip.length : entry.content.length;
+      }
+    }
+    log.info("Precompressed {} web resources ({} -> {} bytes) in {}", entries.size(), contentBytes, gzipBytes,
+        stopwatch);
+  }
+
+  @Override
+  protected void doStop() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the cached form of the given resource, loading it if necessary.
+   *
+   * @return {@code null} if the resource can't be cached, in which case it should be served directly
+   */
+  @Nullable
+  public Entry get(final WebResource resource) {
+    if (!enabled || !isCompressible(resource)) {
+      return null;
+    }
+    Entry entry = entries.get(resource.getPath());
+    if (entry == null || entry.resource != resource) {
+      try {
+        entry = load(resource);
+      }
+      catch (IOException | RuntimeException e) {
+        log.warn("Unable to precompress web resource {}", resource.getPath(), log.isDebugEnabled() ? e : null);
+        return null;
+      }
+      entries.put(resource.getPath(), entry);
+    }
+    return entry;
+  }
+
+  private boolean isCompressible(final WebResource resource) {
+    if (!resource.isCacheable() || resource instanceof Prepareable) {
+      return false;
+    }
+    long size = resource.getSize();
+    if (size < minSize || size > maxSize) {
+      return false;
+    }
+    String contentType = resource.getContentType();
+    if (contentType == null) {
+      return false;
+    }
+    String mimeType = PARAM_SPLITTER.split(contentType).iterator().next().toLowerCase(Locale.ENGLISH);
+    return mimeType.startsWith("text/") || COMPRESSIBLE_TYPES.contains(mimeType);
+  }
+
+  private Entry load(final WebResource resource) throws IOException {
+    byte[] content = read(resource);
+    byte[] gzip = gzip(content);
+    byte[] brotli = null;
+    WebResource sibling = webResources.getResource(resource.getPath() + ".br");
+    if (sibling != null && !(sibling instanceof Prepareable)) {
+      brotli = read(sibling);
+    }
+    String hash = Hashing.sha256().hashBytes(content).toString().substring(0, 32);
+    return new Entry(resource, content, gzip.length < content.length ? gzip : null, brotli, hash);
+  }
+
+  private static byte[] read(final WebResource resource) throws IOException {
+    try (InputStream in = resource.getInputStream()) {
+      return ByteStreams.toByteArray(in);
+    }
+  }
+
+  private static byte[] gzip(final byte[] content) throws IOException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 4 + 64);
+    try (OutputStream out = new GZIPOutputStream(buffer)
+    {
+      {
+        def.setLevel(Deflater.BEST_COMPRESSION);
+      }
+    }) {
+      out.write(content);
+    }
+    return buffer.toByteArray();
+  }
+
+  /**
+   * A cached web resource with its precompressed copies.
+   */
+  public static final class Entry
+  {
+    private final WebResource resource;
+
+    private final byte[] content;
+
+    @Nullable
+    private final byte[] gzip;
+
+    @Nullable
+    private final byte[] brotli;
+
+    private final String hash;
+
+    @VisibleForTesting
+    Entry(
+        final WebResource resource,
+        final byte[] content,
+        @Nullable final byte[] gzip,
+        @Nullable final byte[] brotli,
+        final String hash)
+    {
+      this.resource = resource;
+      this.content = content;
+      this.gzip = gzip;
+      this.brotli = brotli;
+      this.hash = hash;
+    }
+
+    public WebResource getResource() {
+      return resource;
+    }
+
+    /**
+     * Picks the best precompressed encoding acceptable to the client.
+     *
+     * @return {@code null} if the content should be sent unencoded
+     */
+    @Nullable
+    public String negotiate(@Nullable final String acceptEncoding) {
+      if (acceptEncoding == null || (gzip == null && brotli == null)) {
+        return null;
+      }
+      // -1 means the coding wasn't listed explicitly, so it may still be accepted through "*"
+      float gzipQuality = -1;
+      float brotliQuality = -1;
+      for (String coding : LIST_SPLITTER.split(acceptEncoding)) {
+        Iterable<String> parts = PARAM_SPLITTER.split(coding);
+        String name = parts.iterator().next().toLowerCase(Locale.ENGLISH);
+        float quality = quality(parts);
+        if (GZIP.equals(name) || "x-gzip".equals(name)) {
+          gzipQuality = quality;
+        }
+        else if (BROTLI.equals(name)) {
+          brotliQuality = quality;
+        }
+        else if ("*".equals(name)) {
+          gzipQuality = gzipQuality < 0 ? quality : gzipQuality;
+          brotliQuality = brotliQuality < 0 ? quality : brotliQuality;
+        }
+      }
+      if (brotli != null && brotliQuality > 0 && brotliQuality >= gzipQuality) {
+        return BROTLI;
+      }
+      if (gzip != null && gzipQuality > 0) {
+        return GZIP;
+      }
+      return null;
+    }
+
+    public byte[] getContent(@Nullable final String encoding) {
+      if (GZIP.equals(encoding) && gzip != null) {
+        return gzip;
+      }
+      if (BROTLI.equals(encoding) && brotli != null) {
+        return brotli;
+      }
+      return content;
+    }
+
+    /**
+     * Strong entity tag of the given representation; each encoding gets a distinct tag.
+     */
+    public String getETag(@Nullable final String encoding) {
+      return encoding == null ? '"' + hash + '"' : '"' + hash + '-' + encoding + '"';
+    }
+
+    /**
+     * @return {@code true} if any tag in the given {@code If-None-Match} header matches some representation of this
+     * resource
+     */
+    public boolean matches(@Nullable final String ifNoneMatch) {
+      if (ifNoneMatch == null) {
+        return false;
+      }
+      for (String tag : LIST_SPLITTER.split(ifNoneMatch)) {
+        if ("*".equals(tag)) {
+          return true;
+        }
+        if (tag.startsWith("W/")) {
+          tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+          String opaque = tag.substring(1, tag.length() - 1);
+          if (opaque.equals(hash) || opaque.startsWith(hash + '-')) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+
+    private static float quality(final Iterable<String> parts) {
+      for (String param : parts) {
+        if (param.startsWith("q=")) {
+          try {
+            return Float.parseFloat(param.substring(2));
+          }
+          catch (NumberFormatException e) {
+            return 0;
+          }
+        }
+      }
+      return 1;
+    }
+  }
+}
@@ -14,7 +14,9 @@ package org.sonatype.nexus.internal.webresources;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.regex.Pattern;
 
+import javax.annotation.Nullable;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
@@ -24,12 +26,14 @@ import javax.servlet.http.HttpServletResponse;
 import org.sonatype.goodies.common.Time;
 import org.sonatype.nexus.common.app.BaseUrlHolder;
 import org.sonatype.nexus.common.app.WebFilterPriority;
+import org.sonatype.nexus.internal.webresources.PrecompressedWebResourceCache.Entry;
 import org.sonatype.nexus.servlet.ServletHelper;
 import org.sonatype.nexus.servlet.XFrameOptions;
 import org.sonatype.nexus.webresources.WebResource;
 import org.sonatype.nexus.webresources.WebResource.Prepareable;
 import org.sonatype.nexus.webresources.WebResourceService;
 
+import com.google.common.annotations.VisibleForTesting;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
@@ -40,11 +44,16 @@ import org.springframework.stereotype.Component;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.net.HttpHeaders.ACCEPT_ENCODING;
 import static com.google.common.net.HttpHeaders.CACHE_CONTROL;
+import static com.google.common.net.HttpHeaders.CONTENT_ENCODING;
 import static com.google.common.net.HttpHeaders.CONTENT_LENGTH;
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static com.google.common.net.HttpHeaders.ETAG;
 import static com.google.common.net.HttpHeaders.IF_MODIFIED_SINCE;
+import static com.google.common.net.HttpHeaders.IF_NONE_MATCH;
 import static com.google.common.net.HttpHeaders.LAST_MODIFIED;
+import static com.google.common.net.HttpHeaders.VARY;
 import static com.google.common.net.HttpHeaders.X_FRAME_OPTIONS;
 import static com.google.common.net.HttpHeaders.X_XSS_PROTECTION;
 import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
@@ -70,17 +79,42 @@ public class WebResourceServlet
 
   private final XFrameOptions xframeOptions;
 
+  @Nullable
+  private final PrecompressedWebResourceCache precompressedResources;
+
   private static final String INDEX_PATH = "/index.html";
 
+  /**
+   * Script and style chunks named by the UI bundler's {@code [name].[contenthash:8]} pattern, such as
+   * {@code main.1a2b3c4d.js}, never change content. Hashes made only of digits are left out, so names carrying a
+   * date or build number, such as {@code foo.20240101.js}, are not mistaken for them.
+   */
+  private static final Pattern CONTENT_HASHED_NAME = Pattern.compile("\\.(?=[0-9]*[a-f])[0-9a-f]{8}\\.(?:js|css)$");
+
+  private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+  public WebResourceServlet(
+      final WebResourceService webResources,
+      final XFrameOptions xframeOptions,
+      final Time maxAge)
+  {
+    this(webResources, xframeOptions, maxAge, null);
+  }
+
+  /**
+   * @since 3.89
+   */
   @Inject
   public WebResourceServlet(
       final WebResourceService webResources,
       final XFrameOptions xframeOptions,
-      @Value("${nexus.webresources.maxAge:30days}") final Time maxAge)
+      @Value("${nexus.webresources.maxAge:30days}") final Time maxAge,
+      @Nullable final PrecompressedWebResourceCache precompressedResources)
   {
     this.webResources = checkNotNull(webResources);
     this.maxAgeSeconds = checkNotNull(maxAge.toSeconds());
     this.xframeOptions = checkNotNull(xframeOptions);
+    this.precompressedResources = precompressedResources;
     log.info("Max-age: {} ({} seconds)", maxAge, maxAgeSeconds);
   }
 
@@ -132,6 +166,12 @@ public class WebResourceServlet
     response.setHeader(X_FRAME_OPTIONS, xframeOptions.getValueForPath(request.getPathInfo()));
     response.setHeader(X_XSS_PROTECTION, "0");
 
+    Entry cached = precompressedResources != null ? precompressedResources.get(resource) : null;
+    if (cached != null) {
+      servePrecompressed(cached, request, response);
+      return;
+    }
+
     // support resources which need to be prepared before serving
     if (resource instanceof Prepareable) {
       resource = ((Prepareable) resource).prepare();
@@ -153,13 +193,7 @@ public class WebResourceServlet
     }
     response.setHeader(CONTENT_LENGTH, String.valueOf(size));
 
-    // set max-age if cacheable
-    if (resource.isCacheable()) {
-      response.setHeader(CACHE_CONTROL, "max-age=" + maxAgeSeconds);
-    }
-    else {
-      ServletHelper.addNoCacheResponseHeaders(response);
-    }
+    setCacheHeaders(resource, response);
 
     // honor if-modified-since GETs
     long ifModifiedSince = request.getDateHeader(IF_MODIFIED_SINCE);
@@ -177,4 +211,60 @@ public class WebResourceServlet
       }
     }
   }
+
+  /**
+   * Serves a cached resource from memory, picking a precompressed copy when the client accepts one.
+   */
+  private void servePrecompressed(
+      final Entry cached,
+      final HttpServletRequest request,
+      final HttpServletResponse response) throws IOException
+  {
+    WebResource resource = cached.getResource();
+    String encoding = cached.negotiate(request.getHeader(ACCEPT_ENCODING));
+
+    response.setHeader(CONTENT_TYPE, resource.getContentType());
+    response.setDateHeader(LAST_MODIFIED, resource.getLastModified());
+    response.setHeader(ETAG, cached.getETag(encoding));
+    response.setHeader(VARY, ACCEPT_ENCODING);
+    setCacheHeaders(resource, response);
+
+    // entity tags take precedence over time-stamps for conditional GETs
+    String ifNoneMatch = request.getHeader(IF_NONE_MATCH);
+    long ifModifiedSince = request.getDateHeader(IF_MODIFIED_SINCE);
+    if (ifNoneMatch != null ? cached.matches(ifNoneMatch)
+        : ifModifiedSince > -1 && resource.getLastModified() <= ifModifiedSince) {
+      response.setStatus(SC_NOT_MODIFIED);
+      return;
+    }
+
+    byte[] content = cached.getContent(encoding);
+    if (encoding != null) {
+      response.setHeader(CONTENT_ENCODING, encoding);
+    }
+    response.setHeader(CONTENT_LENGTH, String.valueOf(content.length));
+    if ("GET".equalsIgnoreCase(request.getMethod())) {
+      response.getOutputStream().write(content);
+    }
+  }
+
+  private void setCacheHeaders(final WebResource resource, final HttpServletResponse response) {
+    // set max-age if cacheable; content-hashed names can be cached for good
+    if (resource.isCacheable()) {
+      if (isContentHashed(resource.getPath())) {
+        response.setHeader(CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL);
+      }
+      else {
+        response.setHeader(CACHE_CONTROL, "max-age=" + maxAgeSeconds);
+      }
+    }
+    else {
+      ServletHelper.addNoCacheResponseHeaders(response);
+    }
+  }
+
+  @VisibleForTesting
+  static boolean isContentHashed(final String path) {
+    return CONTENT_HASHED_NAME.matcher(path).find();
+  }
 }
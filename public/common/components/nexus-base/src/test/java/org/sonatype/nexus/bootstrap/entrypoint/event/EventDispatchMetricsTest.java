@@ -0,0 +1,134 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.bootstrap.entrypoint.event;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.eventbus.Subscribe;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class EventDispatchMetricsTest
+    extends TestSupport
+{
+  private static final String PREFIX = "org.sonatype.nexus.bootstrap.entrypoint.event.EventManagerImpl.events.";
+
+  private MetricRegistry registry;
+
+  private EventDispatchMetrics underTest;
+
+  @Before
+  public void setUp() {
+    registry = new MetricRegistry();
+    underTest = new EventDispatchMetrics(registry, 1000);
+  }
+
+  @Test
+  public void recordsPostsPerEventType() {
+    underTest.posted("event");
+    underTest.posted("event");
+    underTest.posted(1);
+
+    assertThat(registry.meter(PREFIX + "java.lang.String.posted").getCount(), is(2L));
+    assertThat(registry.meter(PREFIX + "java.lang.Integer.posted").getCount(), is(1L));
+  }
+
+  @Test
+  public void recordsSyncDeliveriesPerSubscriber() {
+    EventDispatcher dispatcher = new EventDispatcher("test", directExecutor(), underTest);
+    dispatcher.register(new Handler());
+    dispatcher.register(new Handler());
+    dispatcher.post("event");
+    dispatcher.post(1);
+
+    String handler = PREFIX + "subscriber." + Handler.class.getName();
+    assertThat(registry.timer(handler + "#on(String)").getCount(), is(2L));
+    assertThat(registry.timer(handler + "#on(Object)").getCount(), is(4L));
+  }
+
+  @Test
+  public void recordsAsyncDeliveriesScheduledWhilePosting() {
+    underTest.postAsync("event", () -> {
+      underTest.instrument(directExecutor()).execute(() -> { });
+      underTest.instrument(directExecutor()).execute(() -> { });
+    });
+
+    // deliveries scheduled outside of posting are not attributed
+    underTest.instrument(directExecutor()).execute(() -> { });
+
+    assertThat(registry.timer(PREFIX + "java.lang.String.async.queueWait").getCount(), is(2L));
+    assertThat(registry.timer(PREFIX + "java.lang.String.async.dispatch").getCount(), is(2L));
+  }
+
+  @Test
+  public void countsSubscribersIncludingSupertypes() {
+    Handler handler = new Handler();
+    underTest.registered(handler, false);
+    underTest.registered(new AsyncHandler(), true);
+    underTest.posted("event");
+
+    assertThat(gauge(PREFIX + "java.lang.String.sync.subscribers"), is(2));
+    assertThat(gauge(PREFIX + "java.lang.String.async.subscribers"), is(1));
+
+    underTest.unregistered(handler, false);
+
+    assertThat(gauge(PREFIX + "java.lang.String.sync.subscribers"), is(0));
+  }
+
+  @Test
+  public void countsEachInstanceOfTheSameHandlerClass() {
+    Handler first = new Handler();
+    Handler second = new Handler();
+    underTest.registered(first, false);
+    underTest.registered(second, false);
+    underTest.posted("event");
+
+    assertThat(gauge(PREFIX + "java.lang.String.sync.subscribers"), is(4));
+
+    underTest.unregistered(first, false);
+
+    assertThat(gauge(PREFIX + "java.lang.String.sync.subscribers"), is(2));
+  }
+
+  private Object gauge(final String name) {
+    Gauge<?> gauge = registry.getGauges().get(name);
+    return gauge.getValue();
+  }
+
+  private static class Handler
+  {
+    @Subscribe
+    public void on(final String event) {
+      // no-op
+    }
+
+    @Subscribe
+    public void on(final Object event) {
+      // no-op
+    }
+  }
+
+  private static class AsyncHandler
+  {
+    @Subscribe
+    public void on(final CharSequence event) {
+      // no-op
+    }
+  }
+}
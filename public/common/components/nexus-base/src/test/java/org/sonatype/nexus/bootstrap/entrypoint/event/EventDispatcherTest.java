@@ -0,0 +1,267 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.bootstrap.entrypoint.event;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+
+import com.google.common.eventbus.Subscribe;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class EventDispatcherTest
+    extends TestSupport
+{
+  private EventDispatcher underTest;
+
+  private List<String> recorded;
+
+  @Before
+  public void setUp() {
+    underTest = new EventDispatcher("test", directExecutor());
+    recorded = new ArrayList<>();
+  }
+
+  @Test
+  public void reentrantDispatch() {
+    underTest.register(new Subscriber1());
+    underTest.register(new Subscriber2());
+    underTest.post(new EventA());
+
+    assertThat(recorded, contains("EventA -->", "EventB -->", "EventC -->", "<-- EventC", "<-- EventB", "<-- EventA"));
+  }
+
+  @Test
+  public void dispatchFollowsEventHierarchy() {
+    underTest.register(new HierarchySubscriber());
+    underTest.post(new EventD());
+
+    assertThat(recorded, contains("EventD", "EventC", "Object"));
+  }
+
+  @Test
+  public void overriddenSubscriberIsOnlyCalledOnce() {
+    underTest.register(new OverridingSubscriber());
+    underTest.post(new EventC());
+
+    assertThat(recorded, contains("override"));
+  }
+
+  @Test
+  public void primitiveParametersReceiveBoxedEvents() {
+    underTest.register(new PrimitiveSubscriber());
+    underTest.post(42);
+
+    assertThat(recorded, contains("42"));
+  }
+
+  @Test
+  public void subscriberFailureDoesNotStopDispatch() {
+    underTest.register(new FailingSubscriber());
+    underTest.register(new HierarchySubscriber());
+    underTest.post(new EventC());
+
+    assertThat(recorded, contains("EventC", "Object"));
+  }
+
+  @Test
+  public void checkedSubscriberExceptionsAreLogged() {
+    underTest.register(new CheckedFailingSubscriber());
+    underTest.register(new HierarchySubscriber());
+    underTest.post(new EventC());
+
+    assertThat(recorded, contains("EventC", "Object"));
+  }
+
+  @Test
+  public void unregisterRemovesSubscribers() {
+    HierarchySubscriber subscriber = new HierarchySubscriber();
+    underTest.register(subscriber);
+    assertThat(underTest.getSubscribers(EventD.class), hasSize(3));
+
+    underTest.unregister(subscriber);
+    assertThat(underTest.getSubscribers(EventD.class), empty());
+
+    underTest.post(new EventD());
+    assertThat(recorded, empty());
+  }
+
+  @Test(expected = AssertionError.class)
+  public void subscriberErrorsPropagate() {
+    underTest.register(new ErrorSubscriber());
+    underTest.post(new EventC());
+  }
+
+  @Test
+  public void invokersAreSharedAcrossInstances() throws Exception {
+    Method method = HierarchySubscriber.class.getDeclaredMethod("onC", EventC.class);
+    EventSubscriber first = new EventSubscriber(new HierarchySubscriber(), method);
+    EventSubscriber second = new EventSubscriber(new HierarchySubscriber(), method);
+
+    assertThat(second.getInvoker(), sameInstance(first.getInvoker()));
+  }
+
+  @Test
+  public void unregisterHandlerWithSeveralSubscribersForTheSameEvent() {
+    DuplicateSubscriber subscriber = new DuplicateSubscriber();
+    underTest.register(subscriber);
+    assertThat(underTest.getSubscribers(EventC.class), hasSize(2));
+
+    underTest.unregister(subscriber);
+    assertThat(underTest.getSubscribers(EventC.class), empty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unregisterUnknownHandler() {
+    underTest.unregister(new HierarchySubscriber());
+  }
+
+  static class EventA
+  {
+    // empty
+  }
+
+  static class EventB
+  {
+    // empty
+  }
+
+  static class EventC
+  {
+    // empty
+  }
+
+  static class EventD
+      extends EventC
+  {
+    // empty
+  }
+
+  private class Subscriber1
+  {
+    @Subscribe
+    public void on(final EventA event) {
+      recorded.add("EventA -->");
+      underTest.post(new EventB());
+      recorded.add("<-- EventA");
+    }
+
+    @Subscribe
+    public void on(final EventC event) {
+      recorded.add("EventC -->");
+      recorded.add("<-- EventC");
+    }
+  }
+
+  private class Subscriber2
+  {
+    @Subscribe
+    public void on(final EventB event) {
+      recorded.add("EventB -->");
+      underTest.post(new EventC());
+      recorded.add("<-- EventB");
+    }
+  }
+
+  private class HierarchySubscriber
+  {
+    @Subscribe
+    void onD(final EventD event) {
+      recorded.add("EventD");
+    }
+
+    @Subscribe
+    void onC(final EventC event) {
+      recorded.add("EventC");
+    }
+
+    @Subscribe
+    void onObject(final Object event) {
+      recorded.add("Object");
+    }
+  }
+
+  private class BaseSubscriber
+  {
+    @Subscribe
+    public void on(final EventC event) {
+      recorded.add("base");
+    }
+  }
+
+  private class OverridingSubscriber
+      extends BaseSubscriber
+  {
+    @Override
+    @Subscribe
+    public void on(final EventC event) {
+      recorded.add("override");
+    }
+  }
+
+  private class PrimitiveSubscriber
+  {
+    @Subscribe
+    public void on(final int event) {
+      recorded.add(String.valueOf(event));
+    }
+  }
+
+  private static class FailingSubscriber
+  {
+    @Subscribe
+    public void on(final EventC event) {
+      throw new IllegalStateException("expected");
+    }
+  }
+
+  private static class CheckedFailingSubscriber
+  {
+    @Subscribe
+    public void on(final EventC event) throws IOException {
+      throw new IOException("expected");
+    }
+  }
+
+  private class DuplicateSubscriber
+  {
+    @Subscribe
+    public void first(final EventC event) {
+      recorded.add("first");
+    }
+
+    @Subscribe
+    public void second(final EventC event) {
+      recorded.add("second");
+    }
+  }
+
+  private static class ErrorSubscriber
+  {
+    @Subscribe
+    public void on(final EventC event) {
+      throw new AssertionError("boom");
+    }
+  }
+}
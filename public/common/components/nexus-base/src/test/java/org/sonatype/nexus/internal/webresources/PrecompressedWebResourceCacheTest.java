@@ -0,0 +1,159 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.webresources;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.sonatype.goodies.common.ByteSize;
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.internal.webresources.PrecompressedWebResourceCache.Entry;
+import org.sonatype.nexus.webresources.WebResource;
+import org.sonatype.nexus.webresources.WebResourceService;
+
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.sonatype.nexus.internal.webresources.PrecompressedWebResourceCache.BROTLI;
+import static org.sonatype.nexus.internal.webresources.PrecompressedWebResourceCache.GZIP;
+
+/**
+ * Tests for {@link PrecompressedWebResourceCache}.
+ */
+public class PrecompressedWebResourceCacheTest
+    extends TestSupport
+{
+  private static final byte[] SCRIPT = Strings.repeat("console.log('hello');\n", 100).getBytes(UTF_8);
+
+  @Mock
+  private WebResourceService webResources;
+
+  private PrecompressedWebResourceCache underTest;
+
+  @Before
+  public void setUp() {
+    underTest = new PrecompressedWebResourceCache(webResources, true, ByteSize.bytes(512), ByteSize.megaBytes(1));
+  }
+
+  @Test
+  public void testStartPrecompressesResources() throws Exception {
+    WebResource script = resource("/static/app.js", "application/javascript", SCRIPT);
+    when(webResources.getResources()).thenReturn(List.of(script));
+
+    underTest.start();
+    Entry entry = underTest.get(script);
+
+    assertThat(entry, notNullValue());
+    assertThat(entry.getContent(null), is(SCRIPT));
+    assertThat(gunzip(entry.getContent(GZIP)), is(SCRIPT));
+    verify(script, times(1)).getInputStream();
+  }
+
+  @Test
+  public void testSkipsResourcesThatShouldNotBeCompressed() throws Exception {
+    WebResource image = resource("/static/logo.png", "image/png", SCRIPT);
+    WebResource small = resource("/static/small.js", "application/javascript", "x".getBytes(UTF_8));
+    WebResource generated = resource("/static/state.js", "application/javascript", SCRIPT);
+    when(generated.isCacheable()).thenReturn(false);
+
+    assertThat(underTest.get(image), nullValue());
+    assertThat(underTest.get(small), nullValue());
+    assertThat(underTest.get(generated), nullValue());
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    underTest = new PrecompressedWebResourceCache(webResources, false, ByteSize.bytes(512), ByteSize.megaBytes(1));
+
+    assertThat(underTest.get(resource("/static/app.js", "text/javascript", SCRIPT)), nullValue());
+  }
+
+  @Test
+  public void testNegotiateEncoding() throws Exception {
+    byte[] brotli = "brotli".getBytes(UTF_8);
+    WebResource script = resource("/static/app.js", "application/javascript; charset=UTF-8", SCRIPT);
+    WebResource sibling = resource("/static/app.js.br", "application/octet-stream", brotli);
+    when(webResources.getResource("/static/app.js.br")).thenReturn(sibling);
+
+    Entry entry = underTest.get(script);
+
+    assertThat(entry.negotiate(null), nullValue());
+    assertThat(entry.negotiate("identity"), nullValue());
+    assertThat(entry.negotiate("gzip, deflate"), is(GZIP));
+    assertThat(entry.negotiate("gzip, deflate, br"), is(BROTLI));
+    assertThat(entry.negotiate("br;q=0.5, gzip"), is(GZIP));
+    assertThat(entry.negotiate("br;q=0, *"), is(GZIP));
+    assertThat(entry.negotiate("*;q=0"), nullValue());
+    assertThat(entry.getContent(BROTLI), is(brotli));
+  }
+
+  @Test
+  public void testETagPerEncoding() throws Exception {
+    Entry entry = underTest.get(resource("/static/app.js", "application/javascript", SCRIPT));
+
+    String etag = entry.getETag(null);
+    String gzipEtag = entry.getETag(GZIP);
+
+    assertThat(etag.startsWith("\""), is(true));
+    assertThat(gzipEtag, not(etag));
+    assertThat(entry.matches(etag), is(true));
+    assertThat(entry.matches("\"other\", W/" + gzipEtag), is(true));
+    assertThat(entry.matches("*"), is(true));
+    assertThat(entry.matches("\"other\""), is(false));
+    assertThat(entry.matches(null), is(false));
+  }
+
+  @Test
+  public void testReloadsReplacedResource() throws Exception {
+    byte[] updated = Strings.repeat("console.log('updated');\n", 100).getBytes(UTF_8);
+    Entry original = underTest.get(resource("/static/app.js", "application/javascript", SCRIPT));
+    Entry replaced = underTest.get(resource("/static/app.js", "application/javascript", updated));
+
+    assertThat(replaced.getContent(null), is(updated));
+    assertThat(replaced.getETag(null), not(original.getETag(null)));
+  }
+
+  private static WebResource resource(final String path, final String contentType, final byte[] content)
+      throws IOException
+  {
+    WebResource resource = mock(WebResource.class);
+    when(resource.getPath()).thenReturn(path);
+    when(resource.getContentType()).thenReturn(contentType);
+    when(resource.getSize()).thenReturn((long) content.length);
+    when(resource.isCacheable()).thenReturn(true);
+    when(resource.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(content));
+    return resource;
+  }
+
+  private static byte[] gunzip(final byte[] content) throws IOException {
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+      return ByteStreams.toByteArray(in);
+    }
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.webresources;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class WebResourceServletTest
+    extends TestSupport
+{
+  @Test
+  public void bundlerChunksAreContentHashed() {
+    assertThat(WebResourceServlet.isContentHashed("/static/main.1a2b3c4d.js"), is(true));
+    assertThat(WebResourceServlet.isContentHashed("/static/vendor.deadbeef.css"), is(true));
+  }
+
+  @Test
+  public void datesAndVersionsAreNotContentHashed() {
+    assertThat(WebResourceServlet.isContentHashed("/static/foo-20240101.js"), is(false));
+    assertThat(WebResourceServlet.isContentHashed("/static/foo.20240101.js"), is(false));
+    assertThat(WebResourceServlet.isContentHashed("/static/lib-1a2b3c4d.js"), is(false));
+    assertThat(WebResourceServlet.isContentHashed("/static/nexus-coreui-bundle.js"), is(false));
+    assertThat(WebResourceServlet.isContentHashed("/static/main.1a2b3c4d.js.map"), is(false));
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.nexus.blobstore.api.BlobId;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.sonatype.nexus.blobstore.api.BlobStore.BLOB_NAME_HEADER;
+import static org.sonatype.nexus.blobstore.api.BlobStore.CREATED_BY_HEADER;
+
+/**
+ * Measures blob id allocation and the location strategies that turn ids into storage paths, which run for every
+ * blob read and write.
+ *
+ * @since 3.89
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlobIdLocationBenchmark
+{
+  private final VolumeChapterLocationStrategy volumeChapter = new VolumeChapterLocationStrategy();
+
+  private final DefaultBlobIdLocationResolver resolver = new DefaultBlobIdLocationResolver();
+
+  private final Map<String, String> headers = Map.of(BLOB_NAME_HEADER, "org/example/example/1.0/example-1.0.jar",
+      CREATED_BY_HEADER, "admin");
+
+  private String id;
+
+  private BlobId legacyBlobId;
+
+  private BlobId dateBasedBlobId;
+
+  @Setup
+  public void setUp() {
+    id = UUID.randomUUID().toString();
+    legacyBlobId = new BlobId(id);
+    dateBasedBlobId = new BlobId(id, OffsetDateTime.of(2025, 6, 1, 12, 30, 0, 0, ZoneOffset.UTC));
+  }
+
+  @Benchmark
+  public BlobId newBlobId() {
+    return new BlobId(id);
+  }
+
+  @Benchmark
+  public BlobId fromHeaders() {
+    return resolver.fromHeaders(headers);
+  }
+
+  @Benchmark
+  public String volumeChapterLocation() {
+    return volumeChapter.location(legacyBlobId);
+  }
+
+  @Benchmark
+  public String resolveLegacyLocation() {
+    return resolver.getLocation(legacyBlobId);
+  }
+
+  @Benchmark
+  public String resolveDateBasedLocation() {
+    return resolver.getLocation(dateBasedBlobId);
+  }
+
+  @Benchmark
+  public int blobIdHashCode() {
+    return new BlobId(id).hashCode();
+  }
+}
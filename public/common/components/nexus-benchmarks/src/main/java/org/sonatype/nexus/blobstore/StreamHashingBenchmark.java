@@ -0,0 +1,107 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.nexus.common.hash.HashAlgorithm;
+import org.sonatype.nexus.common.hash.MultiHashingInputStream;
+import org.sonatype.nexus.common.hash.ParallelMultiHashingInputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static org.sonatype.nexus.common.hash.HashAlgorithm.MD5;
+import static org.sonatype.nexus.common.hash.HashAlgorithm.SHA1;
+import static org.sonatype.nexus.common.hash.HashAlgorithm.SHA256;
+import static org.sonatype.nexus.common.hash.HashAlgorithm.SHA512;
+
+/**
+ * Measures the digesting streams every upload passes through: {@link MetricsInputStream} on the blob store write
+ * path, and {@link MultiHashingInputStream} / {@link ParallelMultiHashingInputStream} when content is ingested.
+ *
+ * @since 3.89
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamHashingBenchmark
+{
+  private static final List<HashAlgorithm> ALGORITHMS = List.of(MD5, SHA1, SHA256, SHA512);
+
+  @Param({"1024", "65536", "1048576", "16777216"})
+  public int payloadSize;
+
+  @Param({"8192"})
+  public int bufferSize;
+
+  private byte[] payload;
+
+  private byte[] buffer;
+
+  @Setup
+  public void setUp() {
+    payload = new byte[payloadSize];
+    new Random(payloadSize).nextBytes(payload);
+    buffer = new byte[bufferSize];
+  }
+
+  @Benchmark
+  public String metricsInputStream() throws IOException {
+    try (MetricsInputStream input = new MetricsInputStream(new ByteArrayInputStream(payload))) {
+      drain(input);
+      return input.getMessageDigest();
+    }
+  }
+
+  @Benchmark
+  public void multiHashingInputStream(final Blackhole blackhole) throws IOException {
+    try (MultiHashingInputStream input = new MultiHashingInputStream(ALGORITHMS, new ByteArrayInputStream(payload))) {
+      drain(input);
+      blackhole.consume(input.hashes());
+    }
+  }
+
+  @Benchmark
+  public void parallelMultiHashingInputStream(final Blackhole blackhole) throws IOException {
+    try (MultiHashingInputStream input =
+        new ParallelMultiHashingInputStream(ALGORITHMS, new ByteArrayInputStream(payload))) {
+      drain(input);
+      blackhole.consume(input.hashes());
+    }
+  }
+
+  private void drain(final InputStream input) throws IOException {
+    while (input.read(buffer) >= 0) {
+      // digest as a side effect
+    }
+  }
+}
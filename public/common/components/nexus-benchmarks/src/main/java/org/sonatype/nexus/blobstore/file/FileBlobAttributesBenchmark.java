@@ -0,0 +1,105 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.file;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.nexus.blobstore.api.BlobMetrics;
+import org.sonatype.nexus.common.io.DirectoryHelper;
+
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.sonatype.nexus.blobstore.api.BlobStore.BLOB_NAME_HEADER;
+import static org.sonatype.nexus.blobstore.api.BlobStore.CONTENT_TYPE_HEADER;
+import static org.sonatype.nexus.blobstore.api.BlobStore.CREATED_BY_HEADER;
+import static org.sonatype.nexus.blobstore.api.BlobStore.CREATED_BY_IP_HEADER;
+import static org.sonatype.nexus.blobstore.api.BlobStore.REPO_NAME_HEADER;
+
+/**
+ * Measures writing and reading the {@code .properties} attribute file kept next to every file blob. Each benchmark
+ * thread works on its own file, so running with more threads measures contention on the underlying file system.
+ *
+ * @since 3.89
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileBlobAttributesBenchmark
+{
+  /**
+   * Number of extra headers stored beyond the standard ones, to model formats that attach more attributes.
+   */
+  @Param({"0", "16"})
+  public int extraHeaders;
+
+  private Path directory;
+
+  private FileBlobAttributes attributes;
+
+  @Setup
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("blob-attributes");
+
+    Map<String, String> headers = new HashMap<>();
+    headers.put(BLOB_NAME_HEADER, "org/example/example/1.0/example-1.0.jar");
+    headers.put(CREATED_BY_HEADER, "admin");
+    headers.put(CREATED_BY_IP_HEADER, "127.0.0.1");
+    headers.put(CONTENT_TYPE_HEADER, "application/java-archive");
+    headers.put(REPO_NAME_HEADER, "maven-releases");
+    for (int i = 0; i < extraHeaders; i++) {
+      headers.put("extra-header-" + i, "value-" + i);
+    }
+    BlobMetrics metrics = new BlobMetrics(new DateTime(), "2fd4e1c67a2d28fced849ee1bb76e7391b93eb12", 1048576L);
+
+    attributes = new FileBlobAttributes(directory.resolve("blob.properties"), headers, metrics);
+    attributes.store();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    DirectoryHelper.deleteIfExists(directory);
+  }
+
+  @Benchmark
+  public FileBlobAttributes store() throws IOException {
+    attributes.store();
+    return attributes;
+  }
+
+  @Benchmark
+  public FileBlobAttributes load() throws IOException {
+    FileBlobAttributes loaded = new FileBlobAttributes(attributes.getPath());
+    loaded.load();
+    return loaded;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.nexus.blobstore.BlobStoreReconciliationLogger;
+import org.sonatype.nexus.blobstore.DefaultBlobIdLocationResolver;
+import org.sonatype.nexus.blobstore.MockBlobStoreConfiguration;
+import org.sonatype.nexus.blobstore.api.Blob;
+import org.sonatype.nexus.blobstore.api.metrics.BlobStoreMetricsService;
+import org.sonatype.nexus.blobstore.file.internal.SimpleFileOperations;
+import org.sonatype.nexus.blobstore.quota.BlobStoreQuotaUsageChecker;
+import org.sonatype.nexus.common.app.ApplicationDirectories;
+import org.sonatype.nexus.common.io.DirectoryHelper;
+import org.sonatype.nexus.common.log.DryRunPrefix;
+import org.sonatype.nexus.common.node.NodeAccess;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.sonatype.nexus.blobstore.BlobStoreSupport.CONTENT_PREFIX;
+import static org.sonatype.nexus.blobstore.api.BlobStore.BLOB_NAME_HEADER;
+import static org.sonatype.nexus.blobstore.api.BlobStore.CREATED_BY_HEADER;
+
+/**
+ * Measures {@link FileBlobStore#create} end to end against a blob store in a temporary directory: content copy with
+ * SHA-1 digest, attribute file, and the atomic moves into place. Collaborators outside the write path are stubbed.
+ *
+ * Blobs written during an iteration are removed after it, so long runs do not fill the disk.
+ *
+ * @since 3.89
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileBlobStoreCreateBenchmark
+{
+  private static final Map<String, String> HEADERS = Map.of(BLOB_NAME_HEADER, "org/example/example-1.0.jar",
+      CREATED_BY_HEADER, "admin");
+
+  @Param({"1024", "65536", "1048576"})
+  public int payloadSize;
+
+  private byte[] payload;
+
+  private Path directory;
+
+  private FileBlobStore blobStore;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() throws Exception {
+    payload = new byte[payloadSize];
+    new Random(payloadSize).nextBytes(payload);
+
+    directory = Files.createTempDirectory("file-blob-store");
+
+    ApplicationDirectories directories = mock(ApplicationDirectories.class, withSettings().stubOnly());
+    when(directories.getWorkDirectory(FileBlobStore.BASEDIR)).thenReturn(directory.toFile());
+    NodeAccess nodeAccess = mock(NodeAccess.class, withSettings().stubOnly());
+    when(nodeAccess.getId()).thenReturn("benchmark");
+
+    blobStore = new FileBlobStore(
+        new DefaultBlobIdLocationResolver(),
+        new SimpleFileOperations(),
+        directories,
+        mock(BlobStoreMetricsService.class, withSettings().stubOnly()),
+        nodeAccess,
+        new DryRunPrefix(""),
+        mock(BlobStoreReconciliationLogger.class, withSettings().stubOnly()),
+        0L,
+        mock(BlobStoreQuotaUsageChecker.class, withSettings().stubOnly()),
+        mock(FileBlobDeletionIndex.class, withSettings().stubOnly()));
+
+    MockBlobStoreConfiguration configuration = new MockBlobStoreConfiguration("benchmark", FileBlobStore.TYPE);
+    configuration.attributes(FileBlobStore.CONFIG_KEY).set(FileBlobStore.PATH_KEY, directory.toString());
+    blobStore.init(configuration);
+    blobStore.start();
+  }
+
+  @TearDown(Level.Iteration)
+  public void removeBlobs() throws IOException {
+    DirectoryHelper.emptyIfExists(blobStore.getAbsoluteBlobDir().resolve(CONTENT_PREFIX));
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    blobStore.stop();
+    DirectoryHelper.deleteIfExists(directory);
+  }
+
+  @Benchmark
+  public Blob create() {
+    return blobStore.create(new ByteArrayInputStream(payload), HEADERS);
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.s3.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ServiceClientConfiguration;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+/**
+ * Local stand-in for S3 covering the upload calls made by the {@link S3Uploader}s. Request bodies are read and
+ * discarded, and each request can be delayed to model the round trip to a remote endpoint.
+ *
+ * @since 3.89
+ */
+class InMemoryS3Client
+    implements S3Client
+{
+  private static final S3ServiceClientConfiguration CONFIGURATION = S3ServiceClientConfiguration.builder()
+      .region(Region.US_EAST_1)
+      .credentialsProvider(AnonymousCredentialsProvider.create())
+      .build();
+
+  private final long latencyNanos;
+
+  private final LongAdder bytesReceived = new LongAdder();
+
+  private final LongAdder requests = new LongAdder();
+
+  InMemoryS3Client(final long latencyMillis) {
+    this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+  }
+
+  long getBytesReceived() {
+    return bytesReceived.sum();
+  }
+
+  long getRequests() {
+    return requests.sum();
+  }
+
+  @Override
+  public PutObjectResponse putObject(final PutObjectRequest request, final RequestBody body) {
+    return PutObjectResponse.builder().eTag(receive(body)).build();
+  }
+
+  @Override
+  public CreateMultipartUploadResponse createMultipartUpload(final CreateMultipartUploadRequest request) {
+    roundTrip();
+    return CreateMultipartUploadResponse.builder()
+        .bucket(request.bucket())
+        .key(request.key())
+        .uploadId(UUID.randomUUID().toString())
+        .build();
+  }
+
+  @Override
+  public UploadPartResponse uploadPart(final UploadPartRequest request, final RequestBody body) {
+    return UploadPartResponse.builder().eTag(receive(body)).build();
+  }
+
+  @Override
+  public CompleteMultipartUploadResponse completeMultipartUpload(final CompleteMultipartUploadRequest request) {
+    roundTrip();
+    return CompleteMultipartUploadResponse.builder().bucket(request.bucket()).key(request.key()).build();
+  }
+
+  @Override
+  public AbortMultipartUploadResponse abortMultipartUpload(final AbortMultipartUploadRequest request) {
+    roundTrip();
+    return AbortMultipartUploadResponse.builder().build();
+  }
+
+  @Override
+  public S3ServiceClientConfiguration serviceClientConfiguration() {
+    return CONFIGURATION;
+  }
+
+  @Override
+  public String serviceName() {
+    return SERVICE_NAME;
+  }
+
+  @Override
+  public void close() {
+    // nothing to release
+  }
+
+  private String receive(final RequestBody body) {
+    byte[] buffer = new byte[8192];
+    long total = 0;
+    try (InputStream input = body.contentStreamProvider().newStream()) {
+      int read;
+      while ((read = input.read(buffer)) >= 0) {
+        total += read;
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    bytesReceived.add(total);
+    roundTrip();
+    return Long.toHexString(total);
+  }
+
+  private void roundTrip() {
+    requests.increment();
+    if (latencyNanos > 0) {
+      LockSupport.parkNanos(latencyNanos);
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.blobstore.s3.internal;
+
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.goodies.lifecycle.Lifecycle;
+import org.sonatype.nexus.blobstore.MockBlobStoreConfiguration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the {@link S3Uploader}s split blobs into parts and issue them, against an {@link InMemoryS3Client}
+ * so results reflect chunking, buffering and request parallelism rather than the network. A per-request latency can
+ * be simulated to see how well each uploader overlaps round trips.
+ *
+ * @since 3.89
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class S3UploadBenchmark
+{
+  private static final String BUCKET = "benchmark";
+
+  @Param({"parallel", "multipart"})
+  public String uploader;
+
+  @Param({"1048576", "16777216", "67108864"})
+  public int payloadSize;
+
+  @Param({"5242880"})
+  public int chunkSize;
+
+  /**
+   * Upload threads for the parallel uploader; ignored by the multipart uploader, which uploads parts in sequence.
+   */
+  @Param({"1", "4", "8"})
+  public int parallelism;
+
+  @Param({"0", "10"})
+  public long latencyMillis;
+
+  private byte[] payload;
+
+  private EncryptingS3Client s3;
+
+  private S3Uploader underTest;
+
+  @Setup
+  public void setUp() throws Exception {
+    payload = new byte[payloadSize];
+    new Random(payloadSize).nextBytes(payload);
+
+    s3 = new EncryptingS3Client(new InMemoryS3Client(latencyMillis), new MockBlobStoreConfiguration());
+
+    switch (uploader) {
+      case "parallel":
+        ParallelUploader parallelUploader = new ParallelUploader(chunkSize, parallelism);
+        parallelUploader.start();
+        underTest = parallelUploader;
+        break;
+      case "multipart":
+        underTest = new MultipartUploader(chunkSize);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown uploader: " + uploader);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    if (underTest instanceof Lifecycle lifecycle) {
+      lifecycle.stop();
+    }
+    s3.close();
+  }
+
+  @Benchmark
+  public void upload() {
+    underTest.upload(s3, BUCKET, "content/vol-01/chap-01/" + payloadSize + ".bytes", new ByteArrayInputStream(payload));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.bootstrap.entrypoint.event;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static org.sonatype.nexus.common.event.EventBusFactory.reentrantEventBus;
+
+/**
+ * Compares posting through {@link EventDispatcher} with the reentrant Guava {@link EventBus} it replaced, for the
+ * same subscribers. Events are posted as a subtype so both implementations resolve the event hierarchy.
+ *
+ * @since 3.89
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDispatchBenchmark
+{
+  @Param({"1", "10", "100"})
+  public int subscribers;
+
+  /**
+   * Whether subscribers are marked {@link AllowConcurrentEvents}; those that are not are invoked under a lock.
+   */
+  @Param({"true", "false"})
+  public boolean concurrent;
+
+  private final Object event = new ChildEvent();
+
+  private EventDispatcher dispatcher;
+
+  private EventBus eventBus;
+
+  @Setup
+  public void setUp() {
+    dispatcher = new EventDispatcher("benchmark", directExecutor());
+    eventBus = reentrantEventBus("benchmark");
+    for (int i = 0; i < subscribers; i++) {
+      Object subscriber = concurrent ? new ConcurrentSubscriber() : new SerialSubscriber();
+      dispatcher.register(subscriber);
+      eventBus.register(subscriber);
+    }
+  }
+
+  @Benchmark
+  public void eventDispatcher() {
+    dispatcher.post(event);
+  }
+
+  @Benchmark
+  public void guavaEventBus() {
+    eventBus.post(event);
+  }
+
+  public static class ParentEvent
+  {
+  }
+
+  public static class ChildEvent
+      extends ParentEvent
+  {
+  }
+
+  public static class ConcurrentSubscriber
+  {
+    private long received;
+
+    @Subscribe
+    @AllowConcurrentEvents
+    public void on(final ParentEvent event) {
+      received++;
+    }
+  }
+
+  public static class SerialSubscriber
+  {
+    private long received;
+
+    @Subscribe
+    public void on(final ParentEvent event) {
+      received++;
+    }
+  }
+}
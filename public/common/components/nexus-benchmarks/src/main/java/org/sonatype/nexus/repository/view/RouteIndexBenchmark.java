@@ -0,0 +1,181 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.view;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.view.matchers.ActionMatcher;
+import org.sonatype.nexus.repository.view.matchers.PrefixMatcher;
+import org.sonatype.nexus.repository.view.matchers.RegexMatcher;
+import org.sonatype.nexus.repository.view.matchers.SuffixMatcher;
+import org.sonatype.nexus.repository.view.matchers.token.TokenMatcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static org.sonatype.nexus.repository.http.HttpMethods.GET;
+import static org.sonatype.nexus.repository.http.HttpMethods.HEAD;
+import static org.sonatype.nexus.repository.http.HttpMethods.PUT;
+import static org.sonatype.nexus.repository.view.matchers.logic.LogicMatchers.and;
+import static org.sonatype.nexus.repository.view.matchers.logic.LogicMatchers.or;
+
+/**
+ * Compares route selection through {@link RouteIndex} with the linear first-match scan it replaced in
+ * {@link Router}. Each invocation routes a fixed mix of request paths, so results are per path.
+ *
+ * @since 3.89
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteIndexBenchmark
+{
+  private static final int PATHS = 8;
+
+  private static final int WIDE_ROUTES = 64;
+
+  /**
+   * Route table shape: {@code maven} mirrors the Maven recipe, {@code raw} is the single catch-all route of the raw
+   * recipe, and {@code wide} has one token route per API path as in formats with many endpoints.
+   */
+  @Param({"maven", "raw", "wide"})
+  public String table;
+
+  private final Repository repository = (Repository) Proxy.newProxyInstance(Repository.class.getClassLoader(),
+      new Class<?>[]{Repository.class}, (proxy, method, args) -> null);
+
+  private List<Route> routes;
+
+  private RouteIndex routeIndex;
+
+  private Request[] requests;
+
+  @Setup
+  public void setUp() {
+    List<String> paths;
+    switch (table) {
+      case "maven":
+        routes = mavenRoutes();
+        paths = List.of(
+            "/org/example/example/1.0/example-1.0.jar",
+            "/org/example/example/1.0/example-1.0.pom.sha1",
+            "/org/example/example/maven-metadata.xml",
+            "/org/example/example/maven-metadata.xml.sha1",
+            "/.index/nexus-maven-repository-index.properties",
+            "/archetype-catalog.xml",
+            "/.meta/prefixes.txt",
+            "/com/example/deep/group/artifact/2.3.4/artifact-2.3.4-sources.jar");
+        break;
+      case "raw":
+        routes = List.of(route(new PrefixMatcher("/")));
+        paths = List.of(
+            "/index.html",
+            "/docs/guide/install.html",
+            "/downloads/tool-1.2.3.tar.gz",
+            "/a",
+            "/images/logo.svg",
+            "/releases/2025/06/notes.txt",
+            "/scripts/install.sh",
+            "/downloads/tool-1.2.3.tar.gz.sha256");
+        break;
+      case "wide":
+        routes = wideRoutes();
+        paths = new ArrayList<>();
+        for (int i = 0; i < PATHS; i++) {
+          int service = i * (WIDE_ROUTES / PATHS) + (WIDE_ROUTES / PATHS - 1);
+          paths.add(String.format("/api/v1/service-%02d/component-%d/%d.0", service, i, i));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown route table: " + table);
+    }
+
+    routeIndex = new RouteIndex(routes);
+    requests = paths.stream()
+        .map(path -> new Request.Builder().action(GET).path(path).build())
+        .toArray(Request[]::new);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PATHS)
+  public void routeIndex(final Blackhole blackhole) {
+    for (Request request : requests) {
+      blackhole.consume(routeIndex.find(new Context(repository, request)));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PATHS)
+  public void linearScan(final Blackhole blackhole) {
+    for (Request request : requests) {
+      blackhole.consume(scan(new Context(repository, request)));
+    }
+  }
+
+  @Nullable
+  private Route scan(final Context context) {
+    for (Route route : routes) {
+      if (route.getMatcher().matches(context)) {
+        return route;
+      }
+    }
+    return null;
+  }
+
+  private static List<Route> mavenRoutes() {
+    return List.of(
+        route(new SuffixMatcher("/archetype-catalog.xml")),
+        route(and(new PrefixMatcher("/.index/"), or(new ActionMatcher(GET), new ActionMatcher(HEAD)))),
+        route(or(
+            new SuffixMatcher("/maven-metadata.xml"),
+            new SuffixMatcher("/maven-metadata.xml.md5"),
+            new SuffixMatcher("/maven-metadata.xml.sha1"),
+            new SuffixMatcher("/maven-metadata.xml.sha256"),
+            new SuffixMatcher("/maven-metadata.xml.sha512"))),
+        route(new PrefixMatcher("/.meta/")),
+        route(and(new RegexMatcher("/.+/[^/]+/[^/]+"), new ActionMatcher(GET, HEAD, PUT))));
+  }
+
+  private static List<Route> wideRoutes() {
+    List<Route> wide = new ArrayList<>();
+    for (int i = 0; i < WIDE_ROUTES; i++) {
+      wide.add(route(new TokenMatcher(String.format("/api/v1/service-%02d/{name}/{version}", i))));
+    }
+    wide.add(route(new PrefixMatcher("/")));
+    return wide;
+  }
+
+  private static Route route(final Matcher matcher) {
+    return new Route(matcher, List.of(Context::proceed));
+  }
+}
@@ -12,6 +12,7 @@
  */
 package org.sonatype.nexus.blobstore.api;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Map;
@@ -19,6 +20,9 @@ import java.util.Optional;
 
 import javax.annotation.Nullable;
 
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Closeables;
+
 /**
  * A handle for binary data stored within a {@link BlobStore}.
  *
@@ -46,6 +50,29 @@ public interface Blob
    */
   InputStream getInputStream();
 
+  /**
+   * Opens an input stream to at most {@code length} bytes of the blob's content starting at {@code offset}. Unlike
+   * {@link #getInputStream()} the returned stream is not required to support {@link InputStream#mark(int)}.
+   *
+   * Blob stores that can read a range without streaming the preceding content should override this; by default the
+   * full stream is opened and skipped forward.
+   *
+   * @throws BlobStoreException may be thrown if the blob is {@link BlobStore#delete deleted} or
+   *           {@link BlobStore#delete hard deleted}.
+   * @since 3.89
+   */
+  default InputStream getInputStream(final long offset, final long length) {
+    InputStream inputStream = getInputStream();
+    try {
+      ByteStreams.skipFully(inputStream, offset);
+    }
+    catch (IOException e) {
+      Closeables.closeQuietly(inputStream);
+      throw new BlobStoreException(e, getId());
+    }
+    return ByteStreams.limit(inputStream, length);
+  }
+
   /**
    * Provides metrics about this Blob.
    *
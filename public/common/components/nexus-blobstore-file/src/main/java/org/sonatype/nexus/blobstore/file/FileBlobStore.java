@@ -88,6 +88,7 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.HashCode;
+import com.google.common.io.ByteStreams;
 import jakarta.inject.Inject;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.AgeFileFilter;
@@ -1285,6 +1286,26 @@ public class FileBlobStore
       }
     }
 
+    /**
+     * Seeks straight to the requested offset rather than reading through the preceding content.
+     */
+    @Override
+    public InputStream getInputStream(final long offset, final long length) {
+      Path contentPath = contentPath(getId());
+      try {
+        checkExists(contentPath, getId());
+        return performanceLogger.maybeWrapForPerformanceLogging(
+            ByteStreams.limit(fileOperations.openInputStream(contentPath, offset), length));
+      }
+      catch (BlobStoreException e) {
+        markStale();
+        throw e;
+      }
+      catch (Exception e) {
+        throw new BlobStoreException(e, getId());
+      }
+    }
+
     private FileBlobStore owner() {
       return FileBlobStore.this;
     }
@@ -92,6 +92,13 @@ public interface FileOperations
 
   InputStream openInputStream(Path path) throws IOException;
 
+  /**
+   * Opens the file positioned at the given offset without reading the bytes before it.
+   *
+   * @since 3.89
+   */
+  InputStream openInputStream(Path path, long offset) throws IOException;
+
   /**
    * Returns true if the file existed before deletion, false otherwise.
    */
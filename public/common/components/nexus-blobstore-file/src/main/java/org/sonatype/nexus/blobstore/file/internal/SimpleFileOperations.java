@@ -15,6 +15,8 @@ package org.sonatype.nexus.blobstore.file.internal;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.FileSystemException;
 import java.nio.file.Files;
@@ -24,6 +26,8 @@ import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.blobstore.MetricsInputStream;
@@ -51,6 +55,9 @@ public class SimpleFileOperations
 {
   public static final int MAX_RETRIES = 3;
 
+  // explicit lock rather than a monitor, so virtual threads blocked on directory I/O don't pin their carrier
+  private final Lock directoryLock = new ReentrantLock();
+
   @Override
   public StreamMetrics create(final Path path, final InputStream data) throws IOException {
     checkNotNull(path);
@@ -219,6 +226,20 @@ public class SimpleFileOperations
     return Files.newInputStream(path, StandardOpenOption.READ);
   }
 
+  @Override
+  public InputStream openInputStream(final Path path, final long offset) throws IOException {
+    checkNotNull(path);
+    checkArgument(offset >= 0, "Offset must not be negative");
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      return Channels.newInputStream(channel.position(offset));
+    }
+    catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
   @Override
   public boolean delete(final Path path) throws IOException {
     checkNotNull(path);
@@ -269,7 +290,8 @@ public class SimpleFileOperations
    * Removes the directory if and only if the directory is empty.
    */
   @Override
-  public synchronized boolean deleteEmptyDirectory(final Path directory) {
+  public boolean deleteEmptyDirectory(final Path directory) {
+    directoryLock.lock();
     try {
       if (isDirectoryEmpty(directory)) {
         Files.deleteIfExists(directory);
@@ -279,6 +301,9 @@ public class SimpleFileOperations
     catch (IOException e) {
       log.debug("Unable to remove directory {}", directory, e);
     }
+    finally {
+      directoryLock.unlock();
+    }
     return false;
   }
 
@@ -86,6 +86,7 @@ import software.amazon.awssdk.transfer.s3.S3TransferManager;
 import software.amazon.awssdk.transfer.s3.model.CompletedUpload;
 import software.amazon.awssdk.transfer.s3.model.UploadRequest;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Optional.ofNullable;
 import static org.sonatype.nexus.blobstore.s3.S3BlobStoreConfigurationHelper.CONFIG_KEY;
 import static org.sonatype.nexus.blobstore.s3.internal.S3BlobStore.ENCRYPTION_KEY;
@@ -341,6 +342,23 @@ public class EncryptingS3Client
     return getObject(GetObjectRequest.builder().bucket(bucketName).key(key).build());
   }
 
+  /**
+   * Fetches {@code length} bytes of the object starting at {@code offset} using a ranged GET.
+   */
+  public ResponseInputStream<GetObjectResponse> getObject(
+      final String bucketName,
+      final String key,
+      final long offset,
+      final long length)
+  {
+    checkArgument(offset >= 0 && length > 0, "Invalid range offset=%s length=%s", offset, length);
+    return getObject(GetObjectRequest.builder()
+        .bucket(bucketName)
+        .key(key)
+        .range("bytes=" + offset + "-" + (offset + length - 1))
+        .build());
+  }
+
   public HeadObjectResponse getObjectMetadata(final String bucket, final String key) {
     return delegate.headObject(HeadObjectRequest.builder()
         .bucket(bucket)
@@ -66,19 +66,20 @@ public class MultipartCopier
   @Override
   public void copy(
       final EncryptingS3Client s3,
-      final String bucket,
+      final String sourceBucket,
       final String sourcePath,
+      final String destinationBucket,
       final String destinationPath)
   {
-    final HeadObjectResponse metadataResult = s3.getObjectMetadata(bucket, sourcePath);
+    final HeadObjectResponse metadataResult = s3.getObjectMetadata(sourceBucket, sourcePath);
     long length = metadataResult.contentLength();
 
     try {
       if (length < chunkSize) {
-        copySinglePart(s3, bucket, sourcePath, destinationPath);
+        copySinglePart(s3, sourceBucket, sourcePath, destinationBucket, destinationPath);
       }
       else {
-        copyMultiPart(s3, bucket, sourcePath, destinationPath, length);
+        copyMultiPart(s3, sourceBucket, sourcePath, destinationBucket, destinationPath, length);
       }
     }
     catch (SdkClientException e) {
@@ -88,17 +89,19 @@ public class MultipartCopier
 
   private void copySinglePart(
       final EncryptingS3Client s3,
-      final String bucket,
+      final String sourceBucket,
       final String sourcePath,
+      final String destinationBucket,
       final String destinationPath)
   {
-    s3.copyObject(bucket, sourcePath, bucket, destinationPath);
+    s3.copyObject(sourceBucket, sourcePath, destinationBucket, destinationPath);
   }
 
   private void copyMultiPart(
       final EncryptingS3Client s3,
-      final String bucket,
+      final String sourceBucket,
       final String sourcePath,
+      final String destinationBucket,
       final String destinationPath,
       final long length)
   {
@@ -109,7 +112,7 @@ public class MultipartCopier
       long offset = 0;
 
       CreateMultipartUploadRequest initiateRequest = CreateMultipartUploadRequest.builder()
-          .bucket(bucket)
+          .bucket(destinationBucket)
           .key(destinationPath)
           .build();
       uploadId = s3.createMultipartUpload(initiateRequest).uploadId();
@@ -126,9 +129,9 @@ public class MultipartCopier
           log.trace("Copying chunk {} for {} from byte {} to {}, size {}", partNumber, uploadId, offset,
               offset + partSize - 1, partSize);
           UploadPartCopyRequest part = UploadPartCopyRequest.builder()
-              .sourceBucket(bucket)
+              .sourceBucket(sourceBucket)
               .sourceKey(sourcePath)
-              .destinationBucket(bucket)
+              .destinationBucket(destinationBucket)
               .destinationKey(destinationPath)
               .uploadId(uploadId)
               .partNumber(partNumber)
@@ -148,7 +151,7 @@ public class MultipartCopier
           .parts(completedParts)
           .build();
       CompleteMultipartUploadRequest compRequest = CompleteMultipartUploadRequest.builder()
-          .bucket(bucket)
+          .bucket(destinationBucket)
           .key(destinationPath)
           .uploadId(uploadId)
           .multipartUpload(completedUpload)
@@ -160,13 +163,13 @@ public class MultipartCopier
       if (uploadId != null) {
         try {
           s3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
-              .bucket(bucket)
+              .bucket(destinationBucket)
               .key(destinationPath)
               .uploadId(uploadId)
               .build());
         }
         catch (Exception inner) {
-          log.error("Error aborting S3 multipart copy to bucket {} with key {} {}", bucket, destinationPath,
+          log.error("Error aborting S3 multipart copy to bucket {} with key {} {}", destinationBucket, destinationPath,
               log.isDebugEnabled() ? "Inner Exception: " + inner : null);
         }
       }
@@ -58,17 +58,24 @@ public class ParallelCopier
 
   @Override
   @Timed
-  public void copy(final EncryptingS3Client s3, final String bucket, final String srcKey, final String destKey) {
-    long length = s3.getObjectMetadata(bucket, srcKey).contentLength();
+  public void copy(
+      final EncryptingS3Client s3,
+      final String sourceBucket,
+      final String srcKey,
+      final String destinationBucket,
+      final String destKey)
+  {
+    long length = s3.getObjectMetadata(sourceBucket, srcKey).contentLength();
 
     try {
       if (length < chunkSize) {
-        s3.copyObject(bucket, srcKey, bucket, destKey);
+        s3.copyObject(sourceBucket, srcKey, destinationBucket, destKey);
       }
       else {
         final AtomicInteger offset = new AtomicInteger(1);
-        parallelRequests(s3, bucket, destKey,
-            () -> (uploadId -> copyParts(s3, uploadId, bucket, srcKey, destKey, length, offset)));
+        parallelRequests(s3, destinationBucket, destKey,
+            () -> (uploadId -> copyParts(s3, uploadId, sourceBucket, srcKey, destinationBucket, destKey, length,
+                offset)));
       }
     }
     catch (SdkClientException e) {
@@ -79,8 +86,9 @@ public class ParallelCopier
   private List<CompletedPart> copyParts(
       final EncryptingS3Client s3,
       final String uploadId,
-      final String bucket,
+      final String sourceBucket,
       final String srcKey,
+      final String destinationBucket,
       final String destKey,
       final long size,
       final AtomicInteger offset)
@@ -92,9 +100,9 @@ public class ParallelCopier
       final long firstByte = getFirstByte(partNumber, chunkSize);
       final long lastByte = getLastByte(size, partNumber, chunkSize);
       UploadPartCopyRequest request = UploadPartCopyRequest.builder()
-          .sourceBucket(bucket)
+          .sourceBucket(sourceBucket)
           .sourceKey(srcKey)
-          .destinationBucket(bucket)
+          .destinationBucket(destinationBucket)
           .destinationKey(destKey)
           .uploadId(uploadId)
           .partNumber(partNumber)
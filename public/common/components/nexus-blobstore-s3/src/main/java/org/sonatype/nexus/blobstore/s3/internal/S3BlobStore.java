@@ -19,6 +19,7 @@ import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -55,6 +56,7 @@ import org.sonatype.nexus.blobstore.api.softdeleted.SoftDeletedBlobIndex;
 import org.sonatype.nexus.blobstore.metrics.MonitoringBlobStoreMetrics;
 import org.sonatype.nexus.blobstore.quota.BlobStoreQuotaUsageChecker;
 import org.sonatype.nexus.blobstore.s3.S3BlobStoreConfigurationHelper;
+import org.sonatype.nexus.common.collect.NestedAttributesMap;
 import org.sonatype.nexus.common.log.DryRunPrefix;
 import org.sonatype.nexus.common.stateguard.Guarded;
 import org.sonatype.nexus.common.time.DateHelper;
@@ -97,6 +99,7 @@ import static java.util.Optional.ofNullable;
 import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.sonatype.nexus.blobstore.DirectPathLocationStrategy.DIRECT_PATH_ROOT;
 import static org.sonatype.nexus.blobstore.api.OperationType.UPLOAD;
+import static org.sonatype.nexus.blobstore.s3.S3BlobStoreConfigurationHelper.CONFIG_KEY;
 import static org.sonatype.nexus.blobstore.s3.internal.S3BlobStoreException.buildException;
 import static org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport.State.FAILED;
 import static org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport.State.NEW;
@@ -148,6 +151,10 @@ public class S3BlobStore
 
   public static final String TYPE_KEY = "type";
 
+  private static final List<String> CLIENT_CONFIGURATION_KEYS = List.of(ACCESS_KEY_ID_KEY, SECRET_ACCESS_KEY_KEY,
+      SESSION_TOKEN_KEY, ASSUME_ROLE_KEY, REGION_KEY, ENDPOINT_KEY, SIGNERTYPE_KEY, FORCE_PATH_STYLE_KEY,
+      ENCRYPTION_TYPE, ENCRYPTION_KEY);
+
   public static final String TYPE_V1 = "s3/1";
 
   public static final String DIRECT_PATH_PREFIX = CONTENT_PREFIX + "/" + DIRECT_PATH_ROOT;
@@ -396,14 +403,40 @@ public class S3BlobStore
     }, null);
   }
 
+  /**
+   * Moves between S3 blob stores are done with server-side copies when both stores are reached through the same
+   * endpoint, credentials and encryption settings; only the bucket and prefix may differ.
+   */
   @Override
   public boolean isInternalMoveSupported(final BlobStore destBlobStore) {
-    return false;
+    return destBlobStore instanceof S3BlobStore destS3BlobStore && destS3BlobStore != this &&
+        sharesClientConfiguration(destS3BlobStore);
   }
 
   @Override
+  @Guarded(by = STARTED)
+  @Timed
   public Blob moveInternal(final BlobStore destBlobStore, final BlobId blobId, final Map<String, String> headers) {
-    throw new UnsupportedOperationException("Internal move operation is not supported.");
+    checkArgument(isInternalMoveSupported(destBlobStore), "Internal move to %s is not supported",
+        destBlobStore.getBlobStoreConfiguration().getName());
+    S3BlobStore destS3BlobStore = (S3BlobStore) destBlobStore;
+    // soft-deleted blobs are moved as well; the caller carries their deleted state over to the destination
+    Blob sourceBlob = checkNotNull(get(blobId, true));
+    String sourcePath = contentPath(sourceBlob.getId());
+    String destBucket = destS3BlobStore.getConfiguredBucket();
+    log.trace("Copying blob {} from bucket {} to bucket {}", blobId, getConfiguredBucket(), destBucket);
+    return destS3BlobStore.create(headers, destination -> {
+      copier.copy(s3, getConfiguredBucket(), sourcePath, destBucket, destination);
+      BlobMetrics metrics = sourceBlob.getMetrics();
+      return new StreamMetrics(metrics.getContentSize(), metrics.getSha1Hash());
+    }, blobId);
+  }
+
+  private boolean sharesClientConfiguration(final S3BlobStore other) {
+    NestedAttributesMap config = blobStoreConfiguration.attributes(CONFIG_KEY);
+    NestedAttributesMap otherConfig = other.getBlobStoreConfiguration().attributes(CONFIG_KEY);
+    return CLIENT_CONFIGURATION_KEYS.stream()
+        .allMatch(key -> Objects.equals(config.get(key), otherConfig.get(key)));
   }
 
   @Override
@@ -727,6 +760,18 @@ public class S3BlobStore
       return performanceLogger.maybeWrapForPerformanceLogging(inputStream);
     }
 
+    /**
+     * Uses a ranged GET so only the requested bytes are transferred from the bucket.
+     */
+    @Override
+    public InputStream getInputStream(final long offset, final long length) {
+      if (length == 0) {
+        return InputStream.nullInputStream();
+      }
+      final InputStream inputStream = s3.getObject(getConfiguredBucket(), contentPath(getId()), offset, length);
+      return performanceLogger.maybeWrapForPerformanceLogging(inputStream);
+    }
+
     @VisibleForTesting
     S3BlobStore owner() {
       return S3BlobStore.this;
@@ -23,5 +23,19 @@ public interface S3Copier
   /**
    * Copies a file in s3.
    */
-  void copy(EncryptingS3Client s3, String bucket, String sourcePath, String destinationPath);
+  default void copy(EncryptingS3Client s3, String bucket, String sourcePath, String destinationPath) {
+    copy(s3, bucket, sourcePath, bucket, destinationPath);
+  }
+
+  /**
+   * Copies a file in s3 to another bucket reachable with the same client.
+   *
+   * @since 3.89
+   */
+  void copy(
+      EncryptingS3Client s3,
+      String sourceBucket,
+      String sourcePath,
+      String destinationBucket,
+      String destinationPath);
 }
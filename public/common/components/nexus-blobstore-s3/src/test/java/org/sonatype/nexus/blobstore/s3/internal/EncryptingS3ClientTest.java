@@ -795,4 +795,16 @@ public class EncryptingS3ClientTest
       verify(transferManager).upload(any(UploadRequest.class));
     }
   }
+
+  @Test
+  void getObject_withRange_requestsOnlyThoseBytes() {
+    final ArgumentCaptor<GetObjectRequest> captor = ArgumentCaptor.forClass(GetObjectRequest.class);
+
+    clientUnderTest.getObject("bucketName", "objectKey", 100, 50);
+
+    verify(delegate).getObject(captor.capture());
+    assertEquals("bucketName", captor.getValue().bucket());
+    assertEquals("objectKey", captor.getValue().key());
+    assertEquals("bytes=100-149", captor.getValue().range());
+  }
 }
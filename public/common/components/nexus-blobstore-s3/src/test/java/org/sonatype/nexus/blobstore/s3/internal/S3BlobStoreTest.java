@@ -631,6 +631,71 @@ public class S3BlobStoreTest
     assertThat(blobStore.isOwner(blob), is(true));
   }
 
+  @Test
+  public void testInternalMoveSupportedBetweenStoresSharingClientConfiguration() throws Exception {
+    blobStore.init(config);
+
+    S3BlobStore otherBucket = createBlobStore();
+    MockBlobStoreConfiguration otherBucketConfig = new MockBlobStoreConfiguration();
+    otherBucketConfig.setAttributes(new HashMap<>(Map.of("s3", new HashMap<>(Map.of("bucket", "otherbucket")))));
+    otherBucket.init(otherBucketConfig);
+
+    S3BlobStore otherEndpoint = createBlobStore();
+    MockBlobStoreConfiguration otherEndpointConfig = new MockBlobStoreConfiguration();
+    otherEndpointConfig.setAttributes(new HashMap<>(
+        Map.of("s3", new HashMap<>(Map.of("bucket", "otherbucket", "endpoint", "http://localhost:9000")))));
+    otherEndpoint.init(otherEndpointConfig);
+
+    assertThat(blobStore.isInternalMoveSupported(otherBucket), is(true));
+    assertThat(blobStore.isInternalMoveSupported(otherEndpoint), is(false));
+    assertThat(blobStore.isInternalMoveSupported(blobStore), is(false));
+  }
+
+  @Test
+  public void testMoveInternalCopiesServerSideToTheTargetBucket() throws Exception {
+    blobStore.init(config);
+    blobStore.start();
+
+    S3BlobStore target = createBlobStore();
+    MockBlobStoreConfiguration targetConfig = new MockBlobStoreConfiguration();
+    targetConfig.setAttributes(new HashMap<>(Map.of("s3", new HashMap<>(Map.of("bucket", "otherbucket")))));
+    target.init(targetConfig);
+    target.start();
+
+    BlobId blobId = new BlobId("test");
+    Blob moved = blobStore.moveInternal(target, blobId, Map.of(BLOB_NAME_HEADER, "test", CREATED_BY_HEADER, "admin"));
+
+    assertThat(moved.getId(), is(blobId));
+    verify(copier).copy(s3, "mybucket", "myPrefix/" + bytesLocation(blobId), "otherbucket", bytesLocation(blobId));
+  }
+
+  @Test
+  public void testMoveInternalIncludesSoftDeletedBlobs() throws Exception {
+    blobStore.init(config);
+    blobStore.start();
+
+    S3BlobStore target = createBlobStore();
+    MockBlobStoreConfiguration targetConfig = new MockBlobStoreConfiguration();
+    targetConfig.setAttributes(new HashMap<>(Map.of("s3", new HashMap<>(Map.of("bucket", "otherbucket")))));
+    target.init(targetConfig);
+    target.start();
+
+    String deletedContents = attributesContents + """
+            deleted=true
+            deletedReason=removed by cleanup
+            deletedDateTime=1496358700000
+        """;
+    when(s3.getObject(eq("mybucket"), anyString())).thenAnswer(invocation -> getResponseInputStream(deletedContents));
+
+    BlobId blobId = new BlobId("test");
+    Blob moved = blobStore.moveInternal(target, blobId, Map.of(BLOB_NAME_HEADER, "test", CREATED_BY_HEADER, "admin"));
+
+    assertThat(moved.getId(), is(blobId));
+    verify(copier).copy(s3, "mybucket", "myPrefix/" + bytesLocation(blobId), "otherbucket", bytesLocation(blobId));
+    // the deleted state is carried over by the blob store manager, not by the move itself
+    verify(deletedBlobIndex, never()).createRecord(blobId);
+  }
+
   @Test
   public void testDeleteIfTempDeletesBlobWhenTempBlobHeaderIsPresent() throws Exception {
     blobStore.init(config);
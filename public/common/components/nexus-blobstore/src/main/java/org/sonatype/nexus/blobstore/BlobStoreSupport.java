@@ -40,6 +40,7 @@ import org.sonatype.nexus.blobstore.api.BlobStoreException;
 import org.sonatype.nexus.blobstore.api.BlobStoreUsageChecker;
 import org.sonatype.nexus.blobstore.metrics.MonitoringBlobStoreMetrics;
 import org.sonatype.nexus.common.log.DryRunPrefix;
+import org.sonatype.nexus.common.profiling.BlobStoreOperationEvent;
 import org.sonatype.nexus.common.stateguard.Guarded;
 import org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport;
 import org.sonatype.nexus.common.stateguard.Transitions;
@@ -210,6 +211,8 @@ public abstract class BlobStoreSupport<T extends AttributesLocation>
     checkArgument(headers.containsKey(BLOB_NAME_HEADER), "Missing header: %s", BLOB_NAME_HEADER);
     checkArgument(headers.containsKey(CREATED_BY_HEADER), "Missing header: %s", CREATED_BY_HEADER);
 
+    BlobStoreOperationEvent event = newOperationEvent("create");
+    event.begin();
     long start = System.nanoTime();
     Blob blob = null;
     try {
@@ -220,6 +223,10 @@ public abstract class BlobStoreSupport<T extends AttributesLocation>
       updateTimer("create", elapsed);
       if (blob != null) {
         performanceLogger.logCreate(blob, elapsed);
+        event.finish(idOf(blob.getId()), sizeOf(blob));
+      }
+      else {
+        event.finish(null, -1);
       }
     }
     return blob;
@@ -240,7 +247,14 @@ public abstract class BlobStoreSupport<T extends AttributesLocation>
   @Timed
   @MonitoringBlobStoreMetrics(operationType = DOWNLOAD)
   public Blob get(final BlobId blobId, final boolean includeDeleted) {
-    return getWithRetries(blobId, includeDeleted);
+    BlobStoreOperationEvent event = newOperationEvent("get");
+    event.begin();
+    try {
+      return getWithRetries(blobId, includeDeleted);
+    }
+    finally {
+      event.finish(idOf(blobId), -1);
+    }
   }
 
   private Blob getWithRetries(final BlobId blobId, final boolean includeDeleted) {
@@ -320,6 +334,8 @@ public abstract class BlobStoreSupport<T extends AttributesLocation>
   public boolean delete(final BlobId blobId, final String reason) {
     checkNotNull(blobId);
 
+    BlobStoreOperationEvent event = newOperationEvent("delete");
+    event.begin();
     long start = System.nanoTime();
     try {
       return doDelete(blobId, reason);
@@ -328,6 +344,7 @@ public abstract class BlobStoreSupport<T extends AttributesLocation>
       long elapsed = System.nanoTime() - start;
       updateTimer("delete", elapsed);
       performanceLogger.logDelete(elapsed);
+      event.finish(idOf(blobId), -1);
     }
   }
 
@@ -503,6 +520,21 @@ public abstract class BlobStoreSupport<T extends AttributesLocation>
     return attributeFilePath.getFullPath().replace(".bytes", "");
   }
 
+  private BlobStoreOperationEvent newOperationEvent(final String operation) {
+    return new BlobStoreOperationEvent(
+        blobStoreConfiguration != null ? blobStoreConfiguration.getName() : null, operation);
+  }
+
+  @Nullable
+  private static String idOf(@Nullable final BlobId blobId) {
+    return blobId != null ? blobId.asUniqueString() : null;
+  }
+
+  private static long sizeOf(final Blob blob) {
+    BlobMetrics metrics = blob.getMetrics();
+    return metrics != null ? metrics.getContentSize() : -1;
+  }
+
   private void updateTimer(final String name, final long value) {
     if (metricRegistry != null) {
       Timer timer = timers.computeIfAbsent(name,
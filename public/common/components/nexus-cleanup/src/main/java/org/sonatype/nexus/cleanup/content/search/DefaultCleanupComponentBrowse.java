@@ -12,8 +12,11 @@
  */
 package org.sonatype.nexus.cleanup.content.search;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.BiPredicate;
@@ -22,6 +25,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import javax.annotation.Nullable;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
@@ -37,9 +41,12 @@ import org.sonatype.nexus.repository.content.Asset;
 import org.sonatype.nexus.repository.content.Component;
 import org.sonatype.nexus.repository.content.facet.ContentFacet;
 import org.sonatype.nexus.repository.content.fluent.FluentComponent;
+import org.sonatype.nexus.repository.content.fluent.FluentComponents;
 import org.sonatype.nexus.repository.query.QueryOptions;
 import org.sonatype.nexus.scheduling.CancelableHelper;
 
+import com.google.common.base.Strings;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -58,13 +65,27 @@ public class DefaultCleanupComponentBrowse
 
   private final Map<String, ComponentCleanupEvaluator> componentCriteria;
 
-  @Inject
+  private final boolean sqlFilterEnabled;
+
   public DefaultCleanupComponentBrowse(
       final List<ComponentCleanupEvaluator> componentCriteriaList,
       final List<AssetCleanupEvaluator> assetCriteriaList)
+  {
+    this(componentCriteriaList, assetCriteriaList, true);
+  }
+
+  /**
+   * @since 3.89
+   */
+  @Inject
+  public DefaultCleanupComponentBrowse(
+      final List<ComponentCleanupEvaluator> componentCriteriaList,
+      final List<AssetCleanupEvaluator> assetCriteriaList,
+      @Value("${nexus.cleanup.sqlFilter.enabled:true}") final boolean sqlFilterEnabled)
   {
     this.componentCriteria = QualifierUtil.buildQualifierBeanMap(checkNotNull(componentCriteriaList));
     this.assetCriteria = QualifierUtil.buildQualifierBeanMap(checkNotNull(assetCriteriaList));
+    this.sqlFilterEnabled = sqlFilterEnabled;
   }
 
   @Override
@@ -78,7 +99,12 @@ public class DefaultCleanupComponentBrowse
 
   @Override
   public Stream<FluentComponent> browseIncludingAssets(final CleanupPolicy policy, final Repository repository) {
-    return Continuations.streamOf(repository.facet(ContentFacet.class).components()::browseEager)
+    FluentComponents components = repository.facet(ContentFacet.class).components();
+    Optional<SqlFilter> sqlFilter = createSqlFilter(repository, policy);
+    ContinuationBrowse<FluentComponent> browser = sqlFilter.isPresent()
+        ? components.byFilter(sqlFilter.get().condition(), sqlFilter.get().params())::browseEager
+        : components::browseEager;
+    return Continuations.streamOf(browser::browse)
         .filter(createComponentFilter(repository, policy));
   }
 
@@ -161,7 +187,8 @@ public class DefaultCleanupComponentBrowse
     componentFilters.add(createAssetFilter(repository, policy));
 
     return component -> {
-      Iterable<Asset> assets = component.assets()
+      // use the assets fetched with the component when it was browsed eagerly
+      Iterable<Asset> assets = component.assets(true)
           .stream()
           .map(Asset.class::cast)
           .collect(Collectors.toList());
@@ -218,7 +245,8 @@ public class DefaultCleanupComponentBrowse
   }
 
   /**
-   * Returns a Continuation-based browser of components that are eligible for cleanup.
+   * Returns a Continuation-based browser of components that are eligible for cleanup. Criteria which can be expressed
+   * in SQL are applied by the database so only likely candidates are browsed.
    *
    * @param repository the Repository to browse
    * @param policy the Cleanup Policy to use for filtering
@@ -228,6 +256,53 @@ public class DefaultCleanupComponentBrowse
       final Repository repository,
       final CleanupPolicy policy)
   {
-    return repository.facet(ContentFacet.class).components()::browse;
+    FluentComponents components = repository.facet(ContentFacet.class).components();
+    Optional<SqlFilter> sqlFilter = createSqlFilter(repository, policy);
+    if (sqlFilter.isPresent()) {
+      return components.byFilter(sqlFilter.get().condition(), sqlFilter.get().params())::browse;
+    }
+    return components::browse;
+  }
+
+  /**
+   * Combines the SQL conditions of the policy's criteria, if any can be expressed in SQL.
+   */
+  private Optional<SqlFilter> createSqlFilter(final Repository repository, final CleanupPolicy policy) {
+    if (!sqlFilterEnabled) {
+      return Optional.empty();
+    }
+
+    List<String> conditions = new ArrayList<>();
+    Map<String, Object> params = new HashMap<>();
+    int index = 0;
+    for (Entry<String, String> entry : getFilterableCriteria(repository, policy).entrySet()) {
+      ComponentCleanupEvaluator componentEvaluator = componentCriteria.get(entry.getKey());
+      if (componentEvaluator != null) {
+        addCondition(conditions,
+            componentEvaluator.getSqlFilter(repository, entry.getValue(), "cleanup" + index++, params));
+      }
+      AssetCleanupEvaluator assetEvaluator = assetCriteria.get(entry.getKey());
+      if (assetEvaluator != null) {
+        addCondition(conditions,
+            assetEvaluator.getSqlFilter(repository, entry.getValue(), "cleanup" + index++, params));
+      }
+    }
+
+    if (conditions.isEmpty()) {
+      return Optional.empty();
+    }
+    log.debug("Pushing down cleanup criteria of policy {} for repository {}: {}", policy.getName(),
+        repository.getName(), conditions);
+    return Optional.of(new SqlFilter(String.join(" AND ", conditions), params));
+  }
+
+  private static void addCondition(final List<String> conditions, @Nullable final String condition) {
+    if (!Strings.isNullOrEmpty(condition)) {
+      conditions.add("(" + condition + ")");
+    }
+  }
+
+  private record SqlFilter(String condition, Map<String, Object> params)
+  {
   }
 }
@@ -12,8 +12,11 @@
  */
 package org.sonatype.nexus.cleanup.datastore.search.criteria;
 
+import java.util.Map;
 import java.util.function.Predicate;
 
+import javax.annotation.Nullable;
+
 import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.content.Asset;
 
@@ -32,4 +35,30 @@ public interface AssetCleanupEvaluator
    * @return the predicate
    */
   Predicate<Asset> getPredicate(Repository repository, String value);
+
+  /**
+   * Creates a SQL condition on the repository's {@code <format>_component} table which holds for every component
+   * containing an asset the {@link #getPredicate predicate} could accept. It is only used to narrow the components
+   * browsed from the database and the predicate is still applied afterwards, so the condition may be looser than the
+   * predicate but never stricter.
+   *
+   * Parameters should be added to {@code filterParams} under names starting with {@code paramPrefix} and referred to as
+   * <code>#{filterParams.name}</code>.
+   *
+   * @param repository the source repository of the components
+   * @param value the value associated with the CleanupPolicy for use with this criteria
+   * @param paramPrefix the prefix to use for parameter names
+   * @param filterParams the parameters of the condition
+   * @return the condition, or {@code null} if the criteria cannot be expressed in SQL
+   * @since 3.89
+   */
+  @Nullable
+  default String getSqlFilter(
+      final Repository repository,
+      final String value,
+      final String paramPrefix,
+      final Map<String, Object> filterParams)
+  {
+    return null;
+  }
 }
@@ -18,9 +18,13 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BooleanSupplier;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Nullable;
 import jakarta.inject.Inject;
@@ -39,14 +43,19 @@ import org.sonatype.nexus.repository.content.fluent.FluentComponent;
 import org.sonatype.nexus.repository.manager.RepositoryManager;
 import org.sonatype.nexus.repository.task.DeletionProgress;
 import org.sonatype.nexus.repository.types.GroupType;
+import org.sonatype.nexus.scheduling.TaskInterruptedException;
+import org.sonatype.nexus.thread.NexusThreadFactory;
 
 import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
 import org.springframework.beans.factory.annotation.Value;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.Objects.nonNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.sonatype.nexus.cleanup.config.CleanupPolicyConstants.RETAIN_KEY;
 import static org.sonatype.nexus.cleanup.config.CleanupPolicyConstants.RETAIN_SORT_BY_KEY;
+import static org.sonatype.nexus.thread.NexusExecutorService.forCurrentSubject;
 import org.springframework.stereotype.Component;
 
 /**
@@ -80,6 +89,24 @@ public class CleanupServiceImpl
 
   private final CleanupFeatureCheck cleanupFeatureCheck;
 
+  private final int repositoryConcurrency;
+
+  public CleanupServiceImpl(
+      final RepositoryManager repositoryManager,
+      final CleanupPolicyStorage cleanupPolicyStorage,
+      final CleanupMethod cleanupMethod,
+      final GroupType groupType,
+      final int cleanupRetryLimit,
+      final CleanupBrowseServiceFactory browseServiceFactory,
+      @Nullable final CleanupFeatureCheck cleanupFeatureCheck)
+  {
+    this(repositoryManager, cleanupPolicyStorage, cleanupMethod, groupType, cleanupRetryLimit, browseServiceFactory,
+        cleanupFeatureCheck, 1);
+  }
+
+  /**
+   * @since 3.89
+   */
   @Inject
   public CleanupServiceImpl(
       final RepositoryManager repositoryManager,
@@ -88,7 +115,8 @@ public class CleanupServiceImpl
       final GroupType groupType,
       @Value("${nexus.cleanup.retries:3}") final int cleanupRetryLimit,
       final CleanupBrowseServiceFactory browseServiceFactory,
-      @Nullable final CleanupFeatureCheck cleanupFeatureCheck)
+      @Nullable final CleanupFeatureCheck cleanupFeatureCheck,
+      @Value("${nexus.cleanup.repositoryConcurrency:1}") final int repositoryConcurrency)
   {
     this.repositoryManager = checkNotNull(repositoryManager);
     this.cleanupMethod = checkNotNull(cleanupMethod);
@@ -97,19 +125,77 @@ public class CleanupServiceImpl
     this.cleanupRetryLimit = cleanupRetryLimit;
     this.browseServiceFactory = checkNotNull(browseServiceFactory);
     this.cleanupFeatureCheck = cleanupFeatureCheck;
+    this.repositoryConcurrency = Math.max(1, repositoryConcurrency);
   }
 
   @Override
   public void cleanup(final BooleanSupplier cancelledCheck) {
     AtomicLong totalDeletedCount = new AtomicLong(0L);
-    repositoryManager.browse().forEach(repository -> {
-      if (!cancelledCheck.getAsBoolean() && !repository.getType().equals(groupType)) {
-        totalDeletedCount.addAndGet(this.cleanup(repository, cancelledCheck));
-      }
-    });
+    if (repositoryConcurrency == 1) {
+      repositoryManager.browse().forEach(repository -> {
+        if (!cancelledCheck.getAsBoolean() && !repository.getType().equals(groupType)) {
+          totalDeletedCount.addAndGet(this.cleanup(repository, cancelledCheck));
+        }
+      });
+    }
+    else {
+      cleanupInParallel(totalDeletedCount, cancelledCheck);
+    }
     log.info("{} assets cleaned up across all repositories", totalDeletedCount.get());
   }
 
+  /**
+   * Cleans up to {@code nexus.cleanup.repositoryConcurrency} repositories at a time. Repositories are independent of
+   * each other, the policies of a single repository are still applied one after another.
+   */
+  private void cleanupInParallel(final AtomicLong totalDeletedCount, final BooleanSupplier cancelledCheck) {
+    List<Repository> repositories = StreamSupport.stream(repositoryManager.browse().spliterator(), false)
+        .filter(repository -> !repository.getType().equals(groupType))
+        .toList();
+    if (repositories.isEmpty()) {
+      return;
+    }
+
+    ExecutorService executor = forCurrentSubject(newFixedThreadPool(
+        Math.min(repositoryConcurrency, repositories.size()),
+        new NexusThreadFactory("cleanup", "Cleanup repositories")));
+    try {
+      List<Future<?>> futures = repositories.stream()
+          .<Future<?>>map(repository -> executor.submit(() -> {
+            if (!cancelledCheck.getAsBoolean()) {
+              totalDeletedCount.addAndGet(this.cleanup(repository, cancelledCheck));
+            }
+          }))
+          .toList();
+
+      Throwable failure = null;
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        }
+        catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+          else {
+            failure.addSuppressed(e.getCause());
+          }
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new TaskInterruptedException("Cleanup was interrupted", true);
+        }
+      }
+      if (failure != null) {
+        Throwables.throwIfUnchecked(failure);
+        throw new RuntimeException(failure);
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
   private Long cleanup(final Repository repository, final BooleanSupplier cancelledCheck) {
     AtomicLong deleted = new AtomicLong(0L);
     findPolicies(repository).forEach(policy -> {
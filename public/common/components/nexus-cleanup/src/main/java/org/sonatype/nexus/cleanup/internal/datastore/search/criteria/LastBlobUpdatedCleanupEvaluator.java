@@ -13,6 +13,7 @@
 package org.sonatype.nexus.cleanup.internal.datastore.search.criteria;
 
 import java.time.OffsetDateTime;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.BiPredicate;
 import java.util.stream.StreamSupport;
@@ -68,4 +69,23 @@ public class LastBlobUpdatedCleanupEvaluator
       return false;
     };
   }
+
+  /*
+   * No asset may have had its blob created since the cut time.
+   */
+  @Override
+  public String getSqlFilter(
+      final Repository repository,
+      final String value,
+      final String paramPrefix,
+      final Map<String, Object> filterParams)
+  {
+    String format = repository.getFormat().getValue();
+    filterParams.put(paramPrefix, OffsetDateTime.now().minusSeconds(Long.valueOf(value)));
+
+    return String.format("NOT EXISTS (SELECT 1 FROM %1$s_asset a"
+        + " JOIN %1$s_asset_blob b ON b.asset_blob_id = a.asset_blob_id"
+        + " WHERE a.component_id = %1$s_component.component_id"
+        + " AND b.blob_created >= #{filterParams.%2$s})", format, paramPrefix);
+  }
 }
@@ -12,15 +12,22 @@
  */
 package org.sonatype.nexus.cleanup.internal.datastore.search.criteria;
 
+import java.util.Map;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
+import javax.annotation.Nullable;
+import jakarta.inject.Inject;
+
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.cleanup.datastore.search.criteria.AssetCleanupEvaluator;
+import org.sonatype.nexus.common.db.DatabaseCheck;
 import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.content.Asset;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import static org.sonatype.nexus.cleanup.config.CleanupPolicyConstants.REGEX_KEY;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
@@ -39,6 +46,26 @@ public class RegexCleanupEvaluator
     extends ComponentSupport
     implements AssetCleanupEvaluator
 {
+  /*
+   * Escapes which mean the same to PostgreSQL regular expressions as they do to Java.
+   */
+  private static final String PORTABLE_ESCAPES = ".\\/-^$*+?(){}[]|dDwWsS";
+
+  @Nullable
+  private final DatabaseCheck databaseCheck;
+
+  public RegexCleanupEvaluator() {
+    this(null);
+  }
+
+  /**
+   * @since 3.89
+   */
+  @Inject
+  public RegexCleanupEvaluator(@Nullable final DatabaseCheck databaseCheck) {
+    this.databaseCheck = databaseCheck;
+  }
+
   /*
    * Value is expected to be a regular expression which Java understands.
    */
@@ -56,4 +83,88 @@ public class RegexCleanupEvaluator
           String.format("Repository %s specifies an invalid regular expression.", repository.getName()), e);
     }
   }
+
+  /*
+   * Some asset of the component must match the expression. H2 evaluates it with Java itself; PostgreSQL is only given
+   * expressions made of constructs that both engines read the same way.
+   */
+  @Override
+  @Nullable
+  public String getSqlFilter(
+      final Repository repository,
+      final String value,
+      final String paramPrefix,
+      final Map<String, Object> filterParams)
+  {
+    if (databaseCheck == null || !isValid(value)) {
+      return null;
+    }
+
+    String condition;
+    if (databaseCheck.isPostgresql()) {
+      if (!isPortable(value)) {
+        log.debug("Not pushing down regular expression '{}' for repository {}", value, repository.getName());
+        return null;
+      }
+      condition = "a.path ~ #{filterParams.%2$s}";
+    }
+    else {
+      condition = "REGEXP_LIKE(a.path, #{filterParams.%2$s})";
+    }
+    filterParams.put(paramPrefix, "^(?:" + value + ")$");
+
+    return String.format("EXISTS (SELECT 1 FROM %1$s_asset a WHERE a.component_id = %1$s_component.component_id AND "
+        + condition + ")", repository.getFormat().getValue(), paramPrefix);
+  }
+
+  private static boolean isValid(final String regex) {
+    try {
+      Pattern.compile(regex);
+      return true;
+    }
+    catch (PatternSyntaxException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Checks the expression only uses literals, simple character classes, groups, alternation, greedy or reluctant
+   * quantifiers and escapes that PostgreSQL interprets like Java does.
+   */
+  @VisibleForTesting
+  static boolean isPortable(final String regex) {
+    boolean inClass = false;
+    char previous = 0;
+    for (int i = 0; i < regex.length(); i++) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        if (++i == regex.length() || PORTABLE_ESCAPES.indexOf(regex.charAt(i)) < 0) {
+          return false;
+        }
+        previous = 0;
+        continue;
+      }
+      if (inClass) {
+        if (c == '[' || (c == '&' && previous == '&')) {
+          return false;
+        }
+        inClass = c != ']';
+      }
+      else if (c == '[') {
+        inClass = true;
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+          return false;
+        }
+      }
+      else if (c == '(' && i + 1 < regex.length() && regex.charAt(i + 1) == '?'
+          && !regex.startsWith("?:", i + 1)) {
+        return false;
+      }
+      else if (c == '+' && (previous == '*' || previous == '+' || previous == '?' || previous == '}')) {
+        return false;
+      }
+      previous = c;
+    }
+    return !inClass;
+  }
 }
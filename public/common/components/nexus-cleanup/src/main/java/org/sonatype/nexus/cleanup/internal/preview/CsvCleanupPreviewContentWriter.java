@@ -19,7 +19,9 @@ import java.io.UncheckedIOException;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import jakarta.inject.Singleton;
 
@@ -29,16 +31,30 @@ import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.rest.api.AssetXO;
 import org.sonatype.nexus.repository.rest.api.ComponentXO;
 
+import com.google.common.base.Stopwatch;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.springframework.stereotype.Component;
 
+/**
+ * Writes cleanup preview results as CSV while they are being browsed.
+ *
+ * Rows are flushed to the client at least once a second so large previews start downloading immediately, and
+ * progress is logged periodically. Only the component being written is held in memory.
+ */
 @Component
 @Singleton
 public class CsvCleanupPreviewContentWriter
     extends ComponentSupport
 {
-  public void write(
+  private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+  private static final long PROGRESS_INTERVAL_SECONDS = 60;
+
+  /**
+   * @return the number of components written
+   */
+  public long write(
       final Repository repository,
       final Stream<ComponentXO> components,
       final OutputStream outputStream) throws IOException
@@ -52,6 +68,9 @@ public class CsvCleanupPreviewContentWriter
 
     AtomicInteger flushCount = new AtomicInteger();
     AtomicInteger totalCount = new AtomicInteger();
+    AtomicLong componentCount = new AtomicLong();
+    Stopwatch sinceFlush = Stopwatch.createStarted();
+    Stopwatch sinceProgress = Stopwatch.createStarted();
     try (OutputStreamWriter outputStreamWriter = new OutputStreamWriter(outputStream);
         CSVPrinter printer = new CSVPrinter(outputStreamWriter, csvFormat)) {
 
@@ -65,14 +84,23 @@ public class CsvCleanupPreviewContentWriter
                     getDate(asset.getBlobCreated()));
                 totalCount.incrementAndGet();
               }
+              componentCount.incrementAndGet();
 
-              if (flushCount.get() == Continuations.BROWSE_LIMIT) {
+              if (flushCount.get() == Continuations.BROWSE_LIMIT
+                  || sinceFlush.elapsed(TimeUnit.MILLISECONDS) >= FLUSH_INTERVAL_MILLIS) {
                 printer.flush();
                 flushCount.set(0);
+                sinceFlush.reset().start();
               }
               else {
                 flushCount.incrementAndGet();
               }
+
+              if (sinceProgress.elapsed(TimeUnit.SECONDS) >= PROGRESS_INTERVAL_SECONDS) {
+                log.info("Cleanup preview of repository {} has written {} components and {} assets so far",
+                    repository.getName(), componentCount.get(), totalCount.get());
+                sinceProgress.reset().start();
+              }
             }
             catch (IOException e) {
               throw new UncheckedIOException(e);
@@ -86,6 +114,7 @@ public class CsvCleanupPreviewContentWriter
     }
 
     log.debug("Finished CSV content for the repository {}. Total lines {}.", repository.getName(), totalCount.get());
+    return componentCount.get();
   }
 
   private static String getDate(Date date) {
@@ -101,6 +101,7 @@ import static org.sonatype.nexus.cleanup.internal.rest.CleanupPolicyResource.RES
 import static org.sonatype.nexus.cleanup.storage.CleanupPolicy.ALL_FORMATS;
 import static org.sonatype.nexus.cleanup.storage.CleanupPolicyReleaseType.PRERELEASES;
 import static org.sonatype.nexus.common.app.FeatureFlags.CLEANUP_PREVIEW_ENABLED_NAMED_VALUE;
+import static org.sonatype.nexus.repository.CleanupDryRunEvent.COMPONENT_COUNT;
 import static org.sonatype.nexus.repository.CleanupDryRunEvent.FINISHED_AT_IN_MILLISECONDS;
 import static org.sonatype.nexus.repository.CleanupDryRunEvent.STARTED_AT_IN_MILLISECONDS;
 import static org.sonatype.nexus.rest.APIConstants.INTERNAL_API_PREFIX;
@@ -412,9 +413,10 @@ public class CleanupPolicyResource
       Stream<ComponentXO> components =
           cleanupPreviewHelper.get().getSearchResultsStream(xo, repository, null);
 
-      csvCleanupPreviewContentWriter.write(repository, components, output);
+      long componentCount = csvCleanupPreviewContentWriter.write(repository, components, output);
 
       cleanupDryRunXO.put(FINISHED_AT_IN_MILLISECONDS, System.currentTimeMillis());
+      cleanupDryRunXO.put(COMPONENT_COUNT, componentCount);
       eventManager.post(new CleanupDryRunEvent(cleanupDryRunXO));
     };
     String policyName = name == null ? "CleanupPreview" : name;
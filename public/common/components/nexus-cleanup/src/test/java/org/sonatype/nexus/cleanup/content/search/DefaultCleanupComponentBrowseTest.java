@@ -156,8 +156,8 @@ class DefaultCleanupComponentBrowseTest
     when(fluentAsset.hasBlob()).thenReturn(true);
     when(fluentAsset2.hasBlob()).thenReturn(false);
 
-    when(fluentComponent.assets()).thenReturn(List.of(fluentAsset));
-    when(fluentComponent2.assets()).thenReturn(List.of(fluentAsset2));
+    when(fluentComponent.assets(true)).thenReturn(List.of(fluentAsset));
+    when(fluentComponent2.assets(true)).thenReturn(List.of(fluentAsset2));
   }
 
   private void validateResult(final Stream<FluentComponent> result) {
@@ -35,6 +35,9 @@ import org.sonatype.nexus.repository.types.GroupType;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import org.apache.shiro.mgt.DefaultSecurityManager;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.util.ThreadContext;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -167,6 +170,22 @@ public class CleanupServiceImplTest
     verify(cleanupMethod).run(eq(repository2), argThat(streamContains(component3)), eq(cancelledCheck));
   }
 
+  @Test
+  public void cleanupRepositoriesInParallel() {
+    underTest = new CleanupServiceImpl(repositoryManager, cleanupPolicyStorage, cleanupMethod,
+        new GroupType(), RETRY_LIMIT, cleanupBrowseFactory, cleanupFeatureCheck, 2);
+    ThreadContext.bind(new Subject.Builder(new DefaultSecurityManager()).buildSubject());
+    try {
+      underTest.cleanup(cancelledCheck);
+    }
+    finally {
+      ThreadContext.unbindSubject();
+    }
+
+    verify(cleanupMethod).run(eq(repository1), argThat(streamContains(component1, component2)), eq(cancelledCheck));
+    verify(cleanupMethod).run(eq(repository2), argThat(streamContains(component3)), eq(cancelledCheck));
+  }
+
   @Test
   public void fetchMultiplePoliciesForEachRepositoryAndRunCleanup() {
     String[] policyNamesForRepo1 = {"abc", "def", "ghi"};
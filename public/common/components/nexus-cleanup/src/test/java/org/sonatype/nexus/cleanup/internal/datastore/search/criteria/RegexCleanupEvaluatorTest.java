@@ -12,6 +12,8 @@
  */
 package org.sonatype.nexus.cleanup.internal.datastore.search.criteria;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Predicate;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -20,11 +22,14 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.Mock;
 import org.sonatype.goodies.testsupport.Test5Support;
+import org.sonatype.nexus.common.db.DatabaseCheck;
+import org.sonatype.nexus.repository.Format;
 import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.content.Asset;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -64,4 +69,43 @@ class RegexCleanupEvaluatorTest
     when(repository.getName()).thenReturn("test-repo");
     assertThrows(RuntimeException.class, () -> underTest.getPredicate(repository, invalidRegex));
   }
+
+  @ParameterizedTest
+  @CsvSource({
+      ".*\\.jar, true",
+      "^src/.*, true",
+      "(?:org|com)/[a-z0-9_\\-]+/.*-SNAPSHOT.*, true",
+      "'[^/]+/\\d{1,3}/.*?', true",
+      "(?i).*\\.jar, false",
+      ".*(?=\\.jar), false",
+      ".*\\bfoo, false",
+      ".*+\\.jar, false",
+      "[a-z&&[^x]]+, false",
+      "(a)\\1, false"
+  })
+  void testIsPortable(final String regex, final boolean expectedResult) {
+    assertThat(RegexCleanupEvaluator.isPortable(regex), is(expectedResult));
+  }
+
+  @Test
+  void testSqlFilter() {
+    DatabaseCheck databaseCheck = mock(DatabaseCheck.class);
+    Format format = mock(Format.class);
+    when(repository.getFormat()).thenReturn(format);
+    when(format.getValue()).thenReturn("raw");
+    Map<String, Object> params = new HashMap<>();
+
+    when(databaseCheck.isPostgresql()).thenReturn(true);
+    underTest = new RegexCleanupEvaluator(databaseCheck);
+    assertThat(underTest.getSqlFilter(repository, ".*\\.jar", "p", params),
+        is("EXISTS (SELECT 1 FROM raw_asset a WHERE a.component_id = raw_component.component_id AND "
+            + "a.path ~ #{filterParams.p})"));
+    assertThat(params.get("p"), is("^(?:.*\\.jar)$"));
+    assertThat(underTest.getSqlFilter(repository, "(?i).*\\.jar", "p", params), nullValue());
+
+    when(databaseCheck.isPostgresql()).thenReturn(false);
+    assertThat(underTest.getSqlFilter(repository, "(?i).*\\.jar", "p", params),
+        is("EXISTS (SELECT 1 FROM raw_asset a WHERE a.component_id = raw_component.component_id AND "
+            + "REGEXP_LIKE(a.path, #{filterParams.p}))"));
+  }
 }
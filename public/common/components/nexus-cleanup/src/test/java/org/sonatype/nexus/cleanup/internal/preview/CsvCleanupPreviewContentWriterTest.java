@@ -0,0 +1,69 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.cleanup.internal.preview;
+
+import java.io.ByteArrayOutputStream;
+import java.util.stream.Stream;
+
+import org.sonatype.goodies.testsupport.Test5Support;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.rest.api.AssetXO;
+import org.sonatype.nexus.repository.rest.api.ComponentXO;
+import org.sonatype.nexus.repository.rest.api.DefaultComponentXO;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class CsvCleanupPreviewContentWriterTest
+    extends Test5Support
+{
+  @Mock
+  private Repository repository;
+
+  private final CsvCleanupPreviewContentWriter underTest = new CsvCleanupPreviewContentWriter();
+
+  @Test
+  void testWritesOneRowPerAsset() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    long count = underTest.write(repository,
+        Stream.of(component("foo", "/foo/1.0/foo.jar", "/foo/1.0/foo.pom"), component("bar", "/bar/1.0/bar.jar")),
+        output);
+
+    assertThat(count, is(2L));
+    assertThat(output.toString(UTF_8).replace("\r\n", "\n"), is(
+        "Namespace,Name,Version,Path,Blob Store Name,Asset Size,Downloaded Date ISO-8601,Published Date ISO-8601\n"
+            + "org,foo,1.0,/foo/1.0/foo.jar,default,10,,\n"
+            + "org,foo,1.0,/foo/1.0/foo.pom,default,10,,\n"
+            + "org,bar,1.0,/bar/1.0/bar.jar,default,10,,\n"));
+  }
+
+  private static ComponentXO component(final String name, final String... paths) {
+    ComponentXO component = new DefaultComponentXO();
+    component.setGroup("org");
+    component.setName(name);
+    component.setVersion("1.0");
+    component.setAssets(Stream.of(paths).map(path -> {
+      AssetXO asset = new AssetXO();
+      asset.setPath(path);
+      asset.setBlobStoreName("default");
+      asset.setFileSize(10L);
+      return asset;
+    }).toList());
+    return component;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.common.profiling;
+
+import javax.annotation.Nullable;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event marking a blob store operation.
+ *
+ * @since 3.89
+ */
+@Name(BlobStoreOperationEvent.NAME)
+@Label("Blob Store Operation")
+@Description("Create, get or delete of a blob")
+@Category({"Nexus", "Blob Store"})
+@StackTrace(false)
+public final class BlobStoreOperationEvent
+    extends Event
+{
+  public static final String NAME = "org.sonatype.nexus.BlobStoreOperation";
+
+  @Label("Blob Store")
+  private final String blobStore;
+
+  @Label("Operation")
+  private final String operation;
+
+  @Label("Blob Id")
+  private String blobId;
+
+  @Label("Size")
+  @DataAmount
+  private long size = -1;
+
+  public BlobStoreOperationEvent(final String blobStore, final String operation) {
+    this.blobStore = blobStore;
+    this.operation = operation;
+  }
+
+  /**
+   * Ends the event for the given blob and commits it if it passes the configured threshold.
+   *
+   * @param blobId the blob involved, if known
+   * @param size   the blob size in bytes, or {@code -1} if unknown
+   */
+  public void finish(@Nullable final String blobId, final long size) {
+    end();
+    if (shouldCommit()) {
+      this.blobId = blobId;
+      this.size = size;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.common.profiling;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Continuous low-overhead profiling backed by a JDK Flight Recorder ring buffer.
+ *
+ * @since 3.89
+ */
+public interface ContinuousProfiler
+{
+  /**
+   * @return {@code true} if the continuous recording is running
+   */
+  boolean isRecording();
+
+  /**
+   * Writes the most recent {@code window} of the continuous recording to the given file in JFR format.
+   *
+   * @throws IllegalStateException if the continuous recording is not running
+   */
+  void dump(Duration window, Path target) throws IOException;
+}
@@ -0,0 +1,69 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.common.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event marking a request served by a repository.
+ *
+ * @since 3.89
+ */
+@Name(RepositoryRequestEvent.NAME)
+@Label("Repository Request")
+@Description("Request dispatched to a repository view")
+@Category({"Nexus", "Repository"})
+@StackTrace(false)
+public final class RepositoryRequestEvent
+    extends Event
+{
+  public static final String NAME = "org.sonatype.nexus.RepositoryRequest";
+
+  @Label("Repository")
+  private final String repository;
+
+  @Label("Format")
+  private final String format;
+
+  @Label("Method")
+  private final String method;
+
+  @Label("Path")
+  private final String path;
+
+  @Label("Status")
+  private int status;
+
+  public RepositoryRequestEvent(final String repository, final String format, final String method, final String path) {
+    this.repository = repository;
+    this.format = format;
+    this.method = method;
+    this.path = path;
+  }
+
+  /**
+   * Ends the event with the given response status and commits it if it passes the configured threshold.
+   */
+  public void finish(final int status) {
+    end();
+    if (shouldCommit()) {
+      this.status = status;
+      commit();
+    }
+  }
+}
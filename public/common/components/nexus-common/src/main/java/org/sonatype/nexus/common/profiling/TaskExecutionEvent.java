@@ -0,0 +1,65 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.common.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event marking the execution of a scheduled task.
+ *
+ * @since 3.89
+ */
+@Name(TaskExecutionEvent.NAME)
+@Label("Task Execution")
+@Description("Execution of a scheduled task")
+@Category({"Nexus", "Task"})
+@StackTrace(false)
+public final class TaskExecutionEvent
+    extends Event
+{
+  public static final String NAME = "org.sonatype.nexus.TaskExecution";
+
+  @Label("Task Id")
+  private final String taskId;
+
+  @Label("Type")
+  private final String type;
+
+  @Label("Name")
+  private final String name;
+
+  @Label("Succeeded")
+  private boolean succeeded;
+
+  public TaskExecutionEvent(final String taskId, final String type, final String name) {
+    this.taskId = taskId;
+    this.type = type;
+    this.name = name;
+  }
+
+  /**
+   * Ends the event with the given outcome and commits it if it passes the configured threshold.
+   */
+  public void finish(final boolean succeeded) {
+    end();
+    if (shouldCommit()) {
+      this.succeeded = succeeded;
+      commit();
+    }
+  }
+}
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 /**
@@ -28,10 +29,23 @@ public class FlushableZipOutputStream
 {
   private boolean syncFlush;
 
+  private boolean stored;
+
   public FlushableZipOutputStream(final OutputStream out) {
     super(out);
   }
 
+  /**
+   * Tracks whether the current entry is {@link ZipEntry#STORED}; sync-flushing the deflater would corrupt it.
+   *
+   * @since 3.89
+   */
+  @Override
+  public void putNextEntry(final ZipEntry entry) throws IOException {
+    super.putNextEntry(entry);
+    stored = entry.getMethod() == ZipEntry.STORED;
+  }
+
   public void setSyncFlush(final boolean syncFlush) {
     this.syncFlush = syncFlush;
   }
@@ -40,7 +54,7 @@ public class FlushableZipOutputStream
    * Copied (unmodified sans formatting) from {@link DeflaterOutputStream#flush()}.
    */
   public void flush() throws IOException {
-    if (syncFlush && !def.finished()) {
+    if (syncFlush && !stored && !def.finished()) {
       int len = 0;
       while ((len = def.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH)) > 0) {
         out.write(buf, 0, len);
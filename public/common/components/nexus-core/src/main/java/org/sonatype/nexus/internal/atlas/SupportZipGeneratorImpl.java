@@ -18,16 +18,29 @@ import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -44,10 +57,13 @@ import org.sonatype.nexus.supportzip.SupportBundle.ContentSource;
 import org.sonatype.nexus.supportzip.SupportBundle.ContentSource.Type;
 import org.sonatype.nexus.supportzip.SupportBundleCustomizer;
 import org.sonatype.nexus.supportzip.SupportZipGenerator;
+import org.sonatype.nexus.thread.NexusThreadFactory;
 
+import com.google.common.base.Splitter;
 import com.google.common.io.CountingOutputStream;
 import org.springframework.beans.factory.annotation.Value;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static org.sonatype.nexus.supportzip.SupportBundle.ContentSource.Type.*;
@@ -78,14 +94,58 @@ public class SupportZipGeneratorImpl
    */
   private final ByteSize maxZipFileSize;
 
+  /**
+   * The number of content sources prepared concurrently.
+   */
+  private final int prepareThreads;
+
+  /**
+   * The time any one content source may spend preparing before it is left out of the ZIP file.
+   */
+  private final Duration sourceTimeout;
+
+  /**
+   * The compression level used for entries without a type specific level.
+   */
+  private final int compressionLevel;
+
+  private final Map<Type, Integer> typeCompressionLevels;
+
+  /**
+   * Entries with these extensions are already compressed and are stored as-is.
+   */
+  private static final List<String> PRECOMPRESSED_EXTENSIONS = Arrays.asList(".gz", ".zip", ".bz2", ".xz");
+
+  /**
+   * How long to wait between checks on a source which has not started preparing yet.
+   */
+  private static final long PENDING_POLL_MILLIS = 100;
+
   private static int archivedLogSize;
 
+  SupportZipGeneratorImpl(
+      final DownloadService downloadService,
+      final List<SupportBundleCustomizer> bundleCustomizers,
+      final ByteSize maxFileSize,
+      final ByteSize maxZipFileSize)
+  {
+    this(downloadService, bundleCustomizers, maxFileSize, maxZipFileSize, 4, Duration.ofMinutes(2),
+        Deflater.DEFAULT_COMPRESSION, "");
+  }
+
+  /**
+   * @since 3.89
+   */
   @Inject
   SupportZipGeneratorImpl(
       final DownloadService downloadService,
       final List<SupportBundleCustomizer> bundleCustomizers,
       final @Value("${atlas.supportZipGenerator.maxFileSize:30mb}") ByteSize maxFileSize,
-      final @Value("${atlas.supportZipGenerator.maxZipFileSize:50mb}") ByteSize maxZipFileSize)
+      final @Value("${atlas.supportZipGenerator.maxZipFileSize:50mb}") ByteSize maxZipFileSize,
+      final @Value("${atlas.supportZipGenerator.prepareThreads:4}") int prepareThreads,
+      final @Value("${atlas.supportZipGenerator.sourceTimeout:2m}") Duration sourceTimeout,
+      final @Value("${atlas.supportZipGenerator.compressionLevel:-1}") int compressionLevel,
+      final @Value("${atlas.supportZipGenerator.compressionLevels:}") String compressionLevels)
   {
     this.bundleCustomizers = checkNotNull(bundleCustomizers);
     this.downloadService = checkNotNull(downloadService);
@@ -95,6 +155,14 @@ public class SupportZipGeneratorImpl
 
     this.maxZipFileSize = maxZipFileSize;
     log.info("Maximum ZIP file size: {}", maxZipFileSize);
+
+    checkArgument(prepareThreads > 0, "prepareThreads must be positive");
+    this.prepareThreads = prepareThreads;
+    this.sourceTimeout = checkNotNull(sourceTimeout);
+    this.compressionLevel = checkLevel(compressionLevel);
+    this.typeCompressionLevels = parseCompressionLevels(compressionLevels);
+    log.debug("Preparing sources with {} threads, {} per source; compression level {} {}", prepareThreads,
+        sourceTimeout, compressionLevel, typeCompressionLevels);
   }
 
   @Override
@@ -141,7 +209,8 @@ public class SupportZipGeneratorImpl
       final String prefix,
       final OutputStream outputStream)
   {
-    List<ContentSource> sources = null;
+    List<Preparation> preparations = null;
+    ExecutorService executor = null;
     SupportBundle bundle = new SupportBundle();
     try {
       // customize the bundle
@@ -152,26 +221,20 @@ public class SupportZipGeneratorImpl
       checkState(!bundle.getSources().isEmpty(), "At least one bundle source must be configured");
 
       // filter only sources which user requested;
-      sources = filterSources(request, bundle);
+      List<ContentSource> sources = filterSources(request, bundle);
       checkState(!sources.isEmpty(), "At least one content source must be configured");
 
-      // prepare bundle sources
-      List<ContentSource> preparedSources = sources.stream()
-          .map(source -> {
-            log.debug("Preparing bundle source: {}", source);
-            try {
-              source.prepare();
-              return source;
-            }
-            catch (Exception e) {
-              log.error("Failed to prepare source {}", source.getClass(), e);
-              return null;
-            }
-          })
-          .filter(Objects::nonNull)
-          .collect(Collectors.toList());
+      // prepare bundle sources in the background, highest priority first; entries are written in the same order as
+      // soon as their source is ready
+      sources.sort(Comparator.naturalOrder());
+      executor = Executors.newFixedThreadPool(Math.min(prepareThreads, sources.size()),
+          new NexusThreadFactory("support-zip", "support-zip"));
+      preparations = sources.stream().map(Preparation::new).collect(Collectors.toList());
+      for (Preparation preparation : preparations) {
+        preparation.submit(executor);
+      }
 
-      return new ZipCreator(outputStream, preparedSources, prefix, request.isLimitFileSizes(), request.isLimitZipSize())
+      return new ZipCreator(outputStream, preparations, prefix, request.isLimitFileSizes(), request.isLimitZipSize())
           .createZip();
     }
     catch (Exception e) {
@@ -179,17 +242,11 @@ public class SupportZipGeneratorImpl
       return false;
     }
     finally {
-      if (sources != null) {
-        // cleanup bundle sources
-        sources.forEach(source -> {
-          log.debug("Cleaning bundle source: {}", source);
-          try {
-            source.cleanup();
-          }
-          catch (Exception e) {
-            log.warn("Bundle source cleanup failed", e);
-          }
-        });
+      if (preparations != null) {
+        preparations.forEach(Preparation::release);
+      }
+      if (executor != null) {
+        executor.shutdownNow();
       }
     }
   }
@@ -251,6 +308,35 @@ public class SupportZipGeneratorImpl
         .collect(Collectors.toList());
   }
 
+  private int compressionLevel(final Type type) {
+    return typeCompressionLevels.getOrDefault(type, compressionLevel);
+  }
+
+  private static boolean isPrecompressed(final String path) {
+    String name = path.toLowerCase(Locale.ENGLISH);
+    return PRECOMPRESSED_EXTENSIONS.stream().anyMatch(name::endsWith);
+  }
+
+  private static int checkLevel(final int level) {
+    checkArgument(level == Deflater.DEFAULT_COMPRESSION
+            || (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION),
+        "Invalid compression level: %s", level);
+    return level;
+  }
+
+  /**
+   * Parses per-type compression levels, eg. {@code "LOG=1,TASKLOG=1,JMX=9"}.
+   */
+  private static Map<Type, Integer> parseCompressionLevels(final String value) {
+    Map<Type, Integer> levels = new EnumMap<>(Type.class);
+    if (value != null && !value.isBlank()) {
+      Splitter.on(',').trimResults().omitEmptyStrings().withKeyValueSeparator('=').split(value)
+          .forEach((type, level) -> levels.put(Type.valueOf(type.trim().toUpperCase(Locale.ENGLISH)),
+              checkLevel(Integer.parseInt(level.trim()))));
+    }
+    return levels;
+  }
+
   private static int percentCompressed(final long compressed, final long uncompressed) {
     return (int) (100 - ((compressed / uncompressed) * 100));
   }
@@ -264,11 +350,120 @@ public class SupportZipGeneratorImpl
     return archivedLogSize;
   }
 
+  /**
+   * Tracks the background preparation of a single {@link ContentSource}.
+   *
+   * Each source gets its own time budget, counted from when it actually starts preparing. Sources which exceed
+   * their budget are left out of the ZIP file; whichever side finishes last is responsible for the cleanup.
+   */
+  private class Preparation
+  {
+    private static final int PENDING = 0;
+
+    private static final int RUNNING = 1;
+
+    private static final int DONE = 2;
+
+    private static final int ABANDONED = 3;
+
+    private final ContentSource source;
+
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+
+    private volatile long startedNanos;
+
+    private Future<?> future;
+
+    Preparation(final ContentSource source) {
+      this.source = source;
+    }
+
+    ContentSource getSource() {
+      return source;
+    }
+
+    void submit(final ExecutorService executor) {
+      future = executor.submit(this::prepare);
+    }
+
+    private Void prepare() throws Exception {
+      if (!state.compareAndSet(PENDING, RUNNING)) {
+        return null;
+      }
+      startedNanos = System.nanoTime();
+      log.debug("Preparing bundle source: {}", source);
+      try {
+        source.prepare();
+        return null;
+      }
+      finally {
+        if (!state.compareAndSet(RUNNING, DONE)) {
+          // abandoned while preparing; nobody else will touch this source
+          cleanup();
+        }
+      }
+    }
+
+    /**
+     * Waits for the source to be prepared.
+     *
+     * @return true if the source was prepared and its content can be included
+     */
+    boolean await() throws InterruptedException {
+      while (true) {
+        long started = startedNanos;
+        long waitNanos = started == 0
+            ? TimeUnit.MILLISECONDS.toNanos(PENDING_POLL_MILLIS)
+            : sourceTimeout.toNanos() - (System.nanoTime() - started);
+        try {
+          future.get(Math.max(waitNanos, 0), TimeUnit.NANOSECONDS);
+          return true;
+        }
+        catch (ExecutionException e) {
+          log.error("Failed to prepare source {}", source.getClass(), e.getCause());
+          return false;
+        }
+        catch (TimeoutException e) {
+          if (started != 0 && state.compareAndSet(RUNNING, ABANDONED)) {
+            log.warn("Skipping {}; not prepared within {}", source.getPath(), sourceTimeout);
+            future.cancel(true);
+            return false;
+          }
+        }
+      }
+    }
+
+    /**
+     * Releases the source once the ZIP file has been written, abandoning it if it is still preparing.
+     */
+    void release() {
+      if (future == null) {
+        return;
+      }
+      if (state.compareAndSet(PENDING, ABANDONED) || state.compareAndSet(RUNNING, ABANDONED)) {
+        future.cancel(true);
+      }
+      else if (state.get() == DONE) {
+        cleanup();
+      }
+    }
+
+    private void cleanup() {
+      log.debug("Cleaning bundle source: {}", source);
+      try {
+        source.cleanup();
+      }
+      catch (Exception e) {
+        log.warn("Bundle source cleanup failed", e);
+      }
+    }
+  }
+
   private class ZipCreator
   {
     private final OutputStream outputStream;
 
-    private final List<ContentSource> sources;
+    private final List<Preparation> preparations;
 
     private final String prefix;
 
@@ -280,13 +475,13 @@ public class SupportZipGeneratorImpl
 
     public ZipCreator(
         final OutputStream outputStream,
-        final List<ContentSource> sources,
+        final List<Preparation> preparations,
         final String prefix,
         final boolean limitFileSizes,
         final boolean limitZipSize)
     {
       this.outputStream = outputStream;
-      this.sources = sources;
+      this.preparations = preparations;
       this.prefix = prefix;
       this.limitFileSizes = limitFileSizes;
       this.limitZipSize = limitZipSize;
@@ -316,7 +511,7 @@ public class SupportZipGeneratorImpl
 
       try (FlushableZipOutputStream zip = new FlushableZipOutputStream(stream)) {
         // setup zip too sync-flush so we can detect compressed size for partially written files
-        zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+        zip.setLevel(compressionLevel);
         zip.setSyncFlush(true);
 
         // add directory entries
@@ -325,47 +520,59 @@ public class SupportZipGeneratorImpl
         // TODO: Sort out how to deal with obfuscation, if its specific or general
         // TODO: ... this should be a detail of the content source
 
-        // add content entries, sorted so highest priority are processed first
-        sources.sort(Comparator.naturalOrder());
-        sources.forEach(source -> {
-          // skipping over archived files that cause the zip to be too large or are past the file size limit
+        // add content entries, already sorted so highest priority are processed first
+        for (Preparation preparation : preparations) {
+          if (!preparation.await()) {
+            continue;
+          }
+          ContentSource source = preparation.getSource();
+          boolean precompressed = isPrecompressed(source.getPath());
+
+          // skipping over archived and precompressed files that cause the zip to be too large or are past the file
+          // size limit
           // TODO: figure out how to handle .gz file truncation gracefully
-          if (source.getType() == ARCHIVEDLOG
+          if ((source.getType() == ARCHIVEDLOG || precompressed)
               && (limitFileSizes && source.getSize() > maxContentSize || limitZipSize && source.getSize() +
                   stream.getCount() > maxZipSize)) {
             log.warn("Skipping {} due to size limit", source.getPath());
-            return;
+            continue;
           }
 
           log.debug("Adding content entry: {} {} bytes", source, source.getSize());
 
           ZipEntry entry = null;
           try {
-            entry = addEntry(zip, source.getPath());
-
-            try (InputStream input = source.getContent()) {
-              // determine if the current file is a log file
-              boolean isLogFile = source.getType() == LOG || source.getType() == TASKLOG || source.getType() == AUDITLOG
-                  || source.getType() == ARCHIVEDLOG;
-              // only apply truncation logic to log files
-              byte[] buff = new byte[chunkSize];
-              int len;
-              long writtenBytes = 0;
-              while ((len = input.read(buff)) != -1) {
-                // truncate content if max file size or max ZIP size reached
-                if ((isLogFile && limitFileSizes && writtenBytes + len > maxContentSize) ||
-                    (limitZipSize && stream.getCount() + len > maxZipSize)) {
-                  log.warn("Truncating source contents; limit reached: {}", source.getPath());
-                  zip.write(TRUNCATED_TOKEN.getBytes());
-                  truncated.set(true);
-                  break;
+            if (precompressed) {
+              entry = addStoredEntry(zip, source);
+            }
+            else {
+              zip.setLevel(compressionLevel(source.getType()));
+              entry = addEntry(zip, source.getPath());
+
+              try (InputStream input = source.getContent()) {
+                // determine if the current file is a log file
+                boolean isLogFile = source.getType() == LOG || source.getType() == TASKLOG
+                    || source.getType() == AUDITLOG || source.getType() == ARCHIVEDLOG;
+                // only apply truncation logic to log files
+                byte[] buff = new byte[chunkSize];
+                int len;
+                long writtenBytes = 0;
+                while ((len = input.read(buff)) != -1) {
+                  // truncate content if max file size or max ZIP size reached
+                  if ((isLogFile && limitFileSizes && writtenBytes + len > maxContentSize) ||
+                      (limitZipSize && stream.getCount() + len > maxZipSize)) {
+                    log.warn("Truncating source contents; limit reached: {}", source.getPath());
+                    zip.write(TRUNCATED_TOKEN.getBytes());
+                    truncated.set(true);
+                    break;
+                  }
+
+                  zip.write(buff, 0, len);
+                  writtenBytes += len;
+
+                  // flush so we can detect compressed size for partially written files
+                  zip.flush();
                 }
-
-                zip.write(buff, 0, len);
-                writtenBytes += len;
-
-                // flush so we can detect compressed size for partially written files
-                zip.flush();
               }
             }
           }
@@ -376,7 +583,7 @@ public class SupportZipGeneratorImpl
           if (entry != null) {
             closeEntry(zip, entry);
           }
-        });
+        }
 
         // add truncated marker if we truncated anything
         if (truncated.get()) {
@@ -386,6 +593,10 @@ public class SupportZipGeneratorImpl
       catch (IOException e) {
         throw new UncheckedIOException(e);
       }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while preparing support ZIP sources", e);
+      }
 
       if (log.isDebugEnabled()) {
         log.debug("ZIP file (in={} out={}) bytes, compressed: {}%",
@@ -414,6 +625,32 @@ public class SupportZipGeneratorImpl
       }
     }
 
+    // helper to copy already compressed content as a STORED entry, which needs its size and CRC up front;
+    // the content is read once into a temporary file so a failing source never leaves a partial entry behind
+    private ZipEntry addStoredEntry(final ZipOutputStream zip, final ContentSource source) throws Exception {
+      Path copy = Files.createTempFile("support-zip-", ".tmp");
+      try {
+        CRC32 crc = new CRC32();
+        long size;
+        try (CheckedInputStream input = new CheckedInputStream(source.getContent(), crc)) {
+          size = Files.copy(input, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        String path = source.getPath().startsWith("/") ? source.getPath() : "/" + source.getPath();
+        ZipEntry entry = new ZipEntry(prefix + path);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(size);
+        entry.setCompressedSize(size);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        Files.copy(copy, zip);
+        return entry;
+      }
+      finally {
+        Files.deleteIfExists(copy);
+      }
+    }
+
     // helper to close entry
     private void closeEntry(final ZipOutputStream zip, final ZipEntry entry) {
       try {
@@ -443,8 +680,8 @@ public class SupportZipGeneratorImpl
 
       // add unique directory entries
       Set<String> dirs = new TreeSet<>();
-      sources.forEach(it -> {
-        List<String> path = Arrays.asList(it.getPath().split("/"));
+      preparations.forEach(it -> {
+        List<String> path = Arrays.asList(it.getSource().getPath().split("/"));
         if (path.size() > 1) {
           // eg. "foo/bar/baz" -> [ "foo", "foo/bar" ]
           for (int i = 1; i < path.size(); i++) {
@@ -0,0 +1,141 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.atlas.customizers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.common.profiling.ContinuousProfiler;
+import org.sonatype.nexus.internal.profiling.ProfileSummary;
+import org.sonatype.nexus.supportzip.GeneratedContentSourceSupport;
+import org.sonatype.nexus.supportzip.SupportBundle;
+import org.sonatype.nexus.supportzip.SupportBundleCustomizer;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.sonatype.nexus.supportzip.SupportBundle.ContentSource.Priority.DEFAULT;
+import static org.sonatype.nexus.supportzip.SupportBundle.ContentSource.Priority.OPTIONAL;
+import static org.sonatype.nexus.supportzip.SupportBundle.ContentSource.Type.METRICS;
+
+/**
+ * Adds the continuous profiling recording, and a summary of it, to the support bundle.
+ *
+ * @since 3.89
+ */
+@Component
+@Singleton
+public class ProfilingCustomizer
+    extends ComponentSupport
+    implements SupportBundleCustomizer
+{
+  private static final int SUMMARY_LIMIT = 50;
+
+  private final ContinuousProfiler profiler;
+
+  private final Duration window;
+
+  @Inject
+  public ProfilingCustomizer(
+      final ContinuousProfiler profiler,
+      @Value("${nexus.profiling.supportZipWindow:15m}") final Duration window)
+  {
+    this.profiler = checkNotNull(profiler);
+    this.window = checkNotNull(window);
+  }
+
+  @Override
+  public void customize(final SupportBundle supportBundle) {
+    if (!profiler.isRecording()) {
+      log.debug("Continuous profiling not running; nothing to add");
+      return;
+    }
+
+    SharedRecording recording = new SharedRecording();
+
+    // the summary is small and readable without tooling, so it goes in ahead of the recording
+    supportBundle.add(new GeneratedContentSourceSupport(METRICS, "info/profiling-summary.txt", DEFAULT)
+    {
+      @Override
+      protected void generate(final File file) throws Exception {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file.toPath(), UTF_8))) {
+          ProfileSummary.of(recording.get()).write(out, SUMMARY_LIMIT);
+        }
+      }
+
+      @Override
+      public void cleanup() throws Exception {
+        super.cleanup();
+        recording.release();
+      }
+    });
+
+    supportBundle.add(new GeneratedContentSourceSupport(METRICS, "info/profiling.jfr", OPTIONAL)
+    {
+      @Override
+      protected void generate(final File file) throws Exception {
+        Files.copy(recording.get(), file.toPath(), REPLACE_EXISTING);
+      }
+
+      @Override
+      public void cleanup() throws Exception {
+        super.cleanup();
+        recording.release();
+      }
+    });
+  }
+
+  /**
+   * Recording dumped once, by whichever entry is prepared first, and deleted once both entries are cleaned up.
+   */
+  private class SharedRecording
+  {
+    private int users = 2;
+
+    private Path recording;
+
+    synchronized Path get() throws Exception {
+      if (recording == null) {
+        Path file = Files.createTempFile("profiling-", ".jfr");
+        // in case an entry is abandoned before it is prepared, and so never cleaned up
+        file.toFile().deleteOnExit();
+        try {
+          profiler.dump(window, file);
+        }
+        catch (Exception e) {
+          Files.deleteIfExists(file);
+          throw e;
+        }
+        recording = file;
+      }
+      return recording;
+    }
+
+    synchronized void release() throws IOException {
+      if (--users == 0 && recording != null) {
+        Files.deleteIfExists(recording);
+        recording = null;
+      }
+    }
+  }
+}
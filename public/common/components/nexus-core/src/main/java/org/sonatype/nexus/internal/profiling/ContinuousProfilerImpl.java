@@ -0,0 +1,186 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.profiling;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.goodies.common.ByteSize;
+import org.sonatype.nexus.common.app.ManagedLifecycle;
+import org.sonatype.nexus.common.profiling.BlobStoreOperationEvent;
+import org.sonatype.nexus.common.profiling.ContinuousProfiler;
+import org.sonatype.nexus.common.profiling.RepositoryRequestEvent;
+import org.sonatype.nexus.common.profiling.TaskExecutionEvent;
+import org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport;
+
+import com.google.common.annotations.VisibleForTesting;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.management.jfr.FlightRecorderMXBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static org.sonatype.nexus.common.app.ManagedLifecycle.Phase.KERNEL;
+
+/**
+ * {@link ContinuousProfiler} that keeps a JDK Flight Recorder ring buffer running for the lifetime of the node.
+ *
+ * The recording starts from the JDK's "default" settings, which are designed for continuous use in production, with
+ * sampling and I/O thresholds tuned down further and the Nexus request, task and blob store events enabled.
+ *
+ * @since 3.89
+ */
+@Component
+@Singleton
+@ManagedLifecycle(phase = KERNEL)
+public class ContinuousProfilerImpl
+    extends StateGuardLifecycleSupport
+    implements ContinuousProfiler
+{
+  static final String RECORDING_NAME = "nexus-continuous";
+
+  private static final int STREAM_BLOCK_SIZE = 1024 * 1024;
+
+  private final boolean enabled;
+
+  private final Duration maxAge;
+
+  private final long maxSize;
+
+  private final Duration eventThreshold;
+
+  @Nullable
+  private volatile Recording recording;
+
+  @Inject
+  public ContinuousProfilerImpl(
+      @Value("${nexus.profiling.enabled:false}") final boolean enabled,
+      @Value("${nexus.profiling.maxAge:30m}") final Duration maxAge,
+      @Value("${nexus.profiling.maxSize:64mb}") final ByteSize maxSize,
+      @Value("${nexus.profiling.eventThreshold:10ms}") final Duration eventThreshold)
+  {
+    this.enabled = enabled;
+    this.maxAge = checkNotNull(maxAge);
+    this.maxSize = maxSize.toBytes();
+    this.eventThreshold = checkNotNull(eventThreshold);
+  }
+
+  @Override
+  protected void doStart() throws IOException, ParseException {
+    if (!enabled) {
+      log.debug("Continuous profiling disabled");
+      return;
+    }
+    if (!FlightRecorder.isAvailable()) {
+      log.warn("Continuous profiling enabled, but Flight Recorder is not available in this JVM");
+      return;
+    }
+
+    Recording newRecording = new Recording(settings(eventThreshold));
+    newRecording.setName(RECORDING_NAME);
+    newRecording.setToDisk(true);
+    newRecording.setMaxAge(maxAge);
+    newRecording.setMaxSize(maxSize);
+    newRecording.start();
+    recording = newRecording;
+
+    log.info("Continuous profiling started; keeping up to {} or {} bytes", maxAge, maxSize);
+  }
+
+  @Override
+  protected void doStop() {
+    Recording current = recording;
+    recording = null;
+    if (current != null) {
+      current.close();
+      log.info("Continuous profiling stopped");
+    }
+  }
+
+  @Override
+  public boolean isRecording() {
+    Recording current = recording;
+    return current != null && current.getState() == RecordingState.RUNNING;
+  }
+
+  @Override
+  public void dump(final Duration window, final Path target) throws IOException {
+    checkArgument(!window.isNegative() && !window.isZero(), "Window must be positive: %s", window);
+    Recording current = recording;
+    checkState(current != null && current.getState() == RecordingState.RUNNING, "Continuous profiling is not running");
+
+    Instant end = Instant.now();
+    Instant start = end.minus(window);
+
+    // stopped copy holds everything recorded so far, while the ring buffer keeps running
+    try (Recording snapshot = current.copy(true)) {
+      FlightRecorderMXBean flightRecorder = ManagementFactory.getPlatformMXBean(FlightRecorderMXBean.class);
+      long streamId = flightRecorder.openStream(snapshot.getId(), Map.of(
+          "startTime", start.toString(),
+          "endTime", end.toString(),
+          "blockSize", String.valueOf(STREAM_BLOCK_SIZE)));
+      try (OutputStream out = Files.newOutputStream(target)) {
+        byte[] block;
+        while ((block = flightRecorder.readStream(streamId)) != null) {
+          out.write(block);
+        }
+      }
+      finally {
+        flightRecorder.closeStream(streamId);
+      }
+    }
+    log.debug("Dumped {} of continuous profiling to {}", window, target);
+  }
+
+  /**
+   * JDK "default" settings with lower overhead thresholds plus the Nexus events.
+   */
+  @VisibleForTesting
+  static Map<String, String> settings(final Duration eventThreshold) throws IOException, ParseException {
+    Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+
+    settings.put("jdk.ExecutionSample#period", "20 ms");
+    settings.put("jdk.ObjectAllocationSample#throttle", "100/s");
+    settings.put("jdk.JavaMonitorEnter#threshold", "50 ms");
+    settings.put("jdk.ThreadPark#threshold", "50 ms");
+    settings.put("jdk.SocketRead#threshold", "50 ms");
+    settings.put("jdk.SocketWrite#threshold", "50 ms");
+    settings.put("jdk.FileRead#threshold", "50 ms");
+    settings.put("jdk.FileWrite#threshold", "50 ms");
+
+    String threshold = eventThreshold.toMillis() + " ms";
+    for (String event : new String[]{
+        RepositoryRequestEvent.NAME, TaskExecutionEvent.NAME, BlobStoreOperationEvent.NAME}) {
+      settings.put(event + "#enabled", "true");
+      settings.put(event + "#threshold", threshold);
+    }
+    return settings;
+  }
+}
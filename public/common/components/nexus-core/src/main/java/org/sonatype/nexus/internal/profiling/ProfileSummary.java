@@ -0,0 +1,174 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.profiling;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.common.profiling.BlobStoreOperationEvent;
+import org.sonatype.nexus.common.profiling.RepositoryRequestEvent;
+import org.sonatype.nexus.common.profiling.TaskExecutionEvent;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Summarizes a Flight Recorder recording into plain-text hot method, allocation and Nexus operation reports.
+ *
+ * @since 3.89
+ */
+public class ProfileSummary
+{
+  private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+
+  private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+
+  private final Map<String, Long> hotMethods = new HashMap<>();
+
+  private final Map<String, Long> allocatedTypes = new HashMap<>();
+
+  private final Map<String, Long> allocationSites = new HashMap<>();
+
+  private final Map<String, OperationStats> operations = new HashMap<>();
+
+  private long executionSamples;
+
+  private long allocatedBytes;
+
+  /**
+   * Reads every event in the given recording.
+   */
+  public static ProfileSummary of(final Path recording) throws IOException {
+    ProfileSummary summary = new ProfileSummary();
+    try (RecordingFile file = new RecordingFile(recording)) {
+      while (file.hasMoreEvents()) {
+        summary.add(file.readEvent());
+      }
+    }
+    return summary;
+  }
+
+  void add(final RecordedEvent event) {
+    switch (event.getEventType().getName()) {
+      case EXECUTION_SAMPLE:
+        executionSamples++;
+        hotMethods.merge(topFrame(event.getStackTrace()), 1L, Long::sum);
+        break;
+      case ALLOCATION_SAMPLE:
+        long weight = event.getLong("weight");
+        allocatedBytes += weight;
+        allocatedTypes.merge(event.getClass("objectClass").getName(), weight, Long::sum);
+        allocationSites.merge(topFrame(event.getStackTrace()), weight, Long::sum);
+        break;
+      case RepositoryRequestEvent.NAME:
+        addOperation("request " + event.getString("repository"), event.getDuration());
+        break;
+      case TaskExecutionEvent.NAME:
+        addOperation("task " + event.getString("type"), event.getDuration());
+        break;
+      case BlobStoreOperationEvent.NAME:
+        addOperation("blob " + event.getString("blobStore") + ' ' + event.getString("operation"), event.getDuration());
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Writes the reports, listing at most {@code limit} entries in each.
+   */
+  public void write(final PrintWriter out, final int limit) {
+    out.printf("Hot methods (%d execution samples)%n", executionSamples);
+    for (Entry<String, Long> entry : top(hotMethods, limit)) {
+      out.printf("  %6.2f%%  %8d  %s%n", percent(entry.getValue(), executionSamples), entry.getValue(), entry.getKey());
+    }
+
+    out.printf("%nAllocated types (%d bytes sampled)%n", allocatedBytes);
+    for (Entry<String, Long> entry : top(allocatedTypes, limit)) {
+      out.printf("  %6.2f%%  %14d  %s%n", percent(entry.getValue(), allocatedBytes), entry.getValue(), entry.getKey());
+    }
+
+    out.printf("%nAllocation sites (%d bytes sampled)%n", allocatedBytes);
+    for (Entry<String, Long> entry : top(allocationSites, limit)) {
+      out.printf("  %6.2f%%  %14d  %s%n", percent(entry.getValue(), allocatedBytes), entry.getValue(), entry.getKey());
+    }
+
+    out.printf("%nNexus operations above threshold, by total time%n");
+    operations.entrySet()
+        .stream()
+        .sorted(Comparator.comparing((Entry<String, OperationStats> e) -> e.getValue().total).reversed())
+        .limit(limit)
+        .forEach(e -> out.printf("  %8d  total %10d ms  max %8d ms  %s%n",
+            e.getValue().count, e.getValue().total.toMillis(), e.getValue().max.toMillis(), e.getKey()));
+    out.flush();
+  }
+
+  private void addOperation(final String key, final Duration duration) {
+    operations.computeIfAbsent(key, k -> new OperationStats()).add(duration);
+  }
+
+  private static List<Entry<String, Long>> top(final Map<String, Long> counts, final int limit) {
+    return counts.entrySet()
+        .stream()
+        .sorted(Entry.<String, Long>comparingByValue().reversed())
+        .limit(limit)
+        .collect(toList());
+  }
+
+  private static double percent(final long value, final long total) {
+    return total == 0 ? 0 : value * 100.0 / total;
+  }
+
+  private static String topFrame(@Nullable final RecordedStackTrace stackTrace) {
+    if (stackTrace != null) {
+      for (RecordedFrame frame : stackTrace.getFrames()) {
+        if (frame.isJavaFrame()) {
+          RecordedMethod method = frame.getMethod();
+          return method.getType().getName() + '.' + method.getName();
+        }
+      }
+    }
+    return "<unknown>";
+  }
+
+  private static final class OperationStats
+  {
+    private long count;
+
+    private Duration total = Duration.ZERO;
+
+    private Duration max = Duration.ZERO;
+
+    private void add(final Duration duration) {
+      count++;
+      total = total.plus(duration);
+      if (duration.compareTo(max) > 0) {
+        max = duration;
+      }
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.webhooks;
+
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Webhook request waiting to be delivered, with its payload already rendered as JSON.
+ *
+ * @since 3.89
+ */
+final class WebhookDelivery
+{
+  private final String webhookId;
+
+  private final String deliveryId;
+
+  private final String url;
+
+  @Nullable
+  private final String secret;
+
+  private final String body;
+
+  private final long queuedAt;
+
+  private int attempts;
+
+  WebhookDelivery(
+      final String webhookId,
+      final String deliveryId,
+      final String url,
+      @Nullable final String secret,
+      final String body,
+      final long queuedAt,
+      final int attempts)
+  {
+    this.webhookId = checkNotNull(webhookId);
+    this.deliveryId = checkNotNull(deliveryId);
+    this.url = checkNotNull(url);
+    this.secret = secret;
+    this.body = checkNotNull(body);
+    this.queuedAt = queuedAt;
+    this.attempts = attempts;
+  }
+
+  String webhookId() {
+    return webhookId;
+  }
+
+  String deliveryId() {
+    return deliveryId;
+  }
+
+  String url() {
+    return url;
+  }
+
+  @Nullable
+  String secret() {
+    return secret;
+  }
+
+  String body() {
+    return body;
+  }
+
+  /**
+   * Epoch millis when the delivery was first queued.
+   */
+  long queuedAt() {
+    return queuedAt;
+  }
+
+  /**
+   * Number of failed attempts so far.
+   */
+  int attempts() {
+    return attempts;
+  }
+
+  int recordFailedAttempt() {
+    return ++attempts;
+  }
+
+  /**
+   * Can this delivery be sent in the same request as the other one?
+   */
+  boolean canBatchWith(final WebhookDelivery other) {
+    return webhookId.equals(other.webhookId) && url.equals(other.url) && Objects.equals(secret, other.secret);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{" +
+        "webhookId='" + webhookId + '\'' +
+        ", deliveryId='" + deliveryId + '\'' +
+        ", url=" + url +
+        ", attempts=" + attempts +
+        '}';
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.webhooks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.security.PasswordHelper;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Keeps webhook deliveries that were still queued at shutdown, so they can be sent after a restart.
+ *
+ * Secrets are stored encrypted. Deliveries that were being sent at shutdown are not kept.
+ *
+ * @since 3.89
+ */
+class WebhookDeliveryJournal
+    extends ComponentSupport
+{
+  private static final TypeReference<List<Entry>> ENTRIES = new TypeReference<>() { };
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final Path file;
+
+  private final PasswordHelper passwordHelper;
+
+  WebhookDeliveryJournal(final File directory, final PasswordHelper passwordHelper) {
+    this.file = checkNotNull(directory).toPath().resolve("pending-deliveries.json");
+    this.passwordHelper = checkNotNull(passwordHelper);
+  }
+
+  /**
+   * Saves the given deliveries, replacing any saved before.
+   */
+  void save(final Collection<WebhookDelivery> deliveries) throws IOException {
+    List<Entry> entries = deliveries.stream().map(this::toEntry).toList();
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    objectMapper.writeValue(temp.toFile(), entries);
+    Files.move(temp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+    log.info("Saved {} pending webhook deliveries", entries.size());
+  }
+
+  /**
+   * Loads and forgets the saved deliveries. A journal that can't be read is moved aside and treated as empty.
+   */
+  List<WebhookDelivery> load() throws IOException {
+    if (!Files.exists(file)) {
+      return List.of();
+    }
+    List<WebhookDelivery> deliveries;
+    try {
+      deliveries = objectMapper.readValue(file.toFile(), ENTRIES).stream()
+          .map(this::fromEntry)
+          .toList();
+    }
+    catch (Exception e) {
+      Path corrupt = file.resolveSibling(file.getFileName() + ".corrupt");
+      log.warn("Could not load pending webhook deliveries, moving {} to {}", file, corrupt,
+          log.isDebugEnabled() ? e : e.toString());
+      Files.move(file, corrupt, REPLACE_EXISTING);
+      return List.of();
+    }
+    Files.delete(file);
+    log.info("Loaded {} pending webhook deliveries", deliveries.size());
+    return deliveries;
+  }
+
+  private Entry toEntry(final WebhookDelivery delivery) {
+    return new Entry(delivery.webhookId(), delivery.deliveryId(), delivery.url(),
+        delivery.secret() != null ? passwordHelper.encrypt(delivery.secret()) : null, delivery.body(),
+        delivery.queuedAt(), delivery.attempts());
+  }
+
+  private WebhookDelivery fromEntry(final Entry entry) {
+    return new WebhookDelivery(entry.webhookId(), entry.deliveryId(), entry.url(),
+        entry.secret() != null ? passwordHelper.decrypt(entry.secret()) : null, entry.body(), entry.queuedAt(),
+        entry.attempts());
+  }
+
+  record Entry(
+      String webhookId,
+      String deliveryId,
+      String url,
+      @Nullable String secret,
+      String body,
+      long queuedAt,
+      int attempts)
+  {
+  }
+}
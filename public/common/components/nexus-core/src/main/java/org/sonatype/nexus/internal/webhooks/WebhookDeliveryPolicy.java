@@ -0,0 +1,61 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.webhooks;
+
+import java.time.Duration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * How queued webhook requests are delivered.
+ *
+ * @param queueCapacity maximum number of deliveries waiting across all endpoints; further requests are dropped
+ * @param endpointConcurrency maximum number of requests sent to one endpoint at the same time
+ * @param endpointRate maximum number of requests per second sent to one endpoint, {@code 0} for no limit
+ * @param batchSize maximum number of deliveries sent in one request, as a JSON array when more than one
+ * @param maxRetries number of times a delivery is retried after a connection failure or a 429/5xx response
+ * @param retryDelay delay before the first retry, doubled for each further retry
+ * @param maxRetryDelay upper bound of the delay between retries
+ * @since 3.89
+ */
+record WebhookDeliveryPolicy(
+    int queueCapacity,
+    int endpointConcurrency,
+    double endpointRate,
+    int batchSize,
+    int maxRetries,
+    Duration retryDelay,
+    Duration maxRetryDelay)
+{
+  static final WebhookDeliveryPolicy DEFAULT =
+      new WebhookDeliveryPolicy(10_000, 4, 0, 1, 5, Duration.ofSeconds(1), Duration.ofMinutes(5));
+
+  WebhookDeliveryPolicy {
+    checkArgument(queueCapacity > 0, "Queue capacity must be greater than zero");
+    checkArgument(endpointConcurrency > 0, "Endpoint concurrency must be greater than zero");
+    checkArgument(endpointRate >= 0, "Endpoint rate must not be negative");
+    checkArgument(batchSize > 0, "Batch size must be greater than zero");
+    checkArgument(maxRetries >= 0, "Retries must not be negative");
+    checkNotNull(retryDelay);
+    checkNotNull(maxRetryDelay);
+  }
+
+  /**
+   * Delay before the given retry, starting from {@code 1}.
+   */
+  Duration delayBeforeRetry(final int retry) {
+    Duration delay = retryDelay.multipliedBy(1L << Math.min(retry - 1, 30));
+    return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.webhooks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Deliveries waiting for one webhook endpoint, with the number of workers currently draining them.
+ *
+ * While an endpoint is paused after a failed delivery no new work is handed out, so a slow or failing receiver
+ * backs off as a whole instead of being retried delivery by delivery.
+ *
+ * @since 3.89
+ */
+final class WebhookEndpoint
+{
+  private final String url;
+
+  @Nullable
+  private final RateLimiter rateLimiter;
+
+  private final Deque<WebhookDelivery> pending = new ArrayDeque<>();
+
+  private int active;
+
+  private boolean paused;
+
+  WebhookEndpoint(final String url, final double permitsPerSecond) {
+    this.url = checkNotNull(url);
+    this.rateLimiter = permitsPerSecond > 0 ? RateLimiter.create(permitsPerSecond) : null;
+  }
+
+  String url() {
+    return url;
+  }
+
+  synchronized void add(final WebhookDelivery delivery) {
+    pending.addLast(delivery);
+  }
+
+  /**
+   * Claims a worker slot if there is work to hand out and fewer than {@code maxActive} workers are draining.
+   */
+  synchronized boolean tryStart(final int maxActive) {
+    if (!paused && !pending.isEmpty() && active < maxActive) {
+      active++;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Takes up to {@code max} deliveries that can share a request; when there is nothing to hand out the caller's
+   * worker slot is released in the same step, so work added concurrently is never left without a worker.
+   */
+  synchronized List<WebhookDelivery> pollOrFinish(final int max) {
+    if (paused || pending.isEmpty()) {
+      active--;
+      return List.of();
+    }
+    List<WebhookDelivery> batch = new ArrayList<>(max);
+    WebhookDelivery first = pending.pollFirst();
+    batch.add(first);
+    while (batch.size() < max && !pending.isEmpty() && first.canBatchWith(pending.peekFirst())) {
+      batch.add(pending.pollFirst());
+    }
+    return batch;
+  }
+
+  /**
+   * Releases a worker slot claimed by {@link #tryStart(int)} that never started draining.
+   */
+  synchronized void finish() {
+    active--;
+  }
+
+  /**
+   * Puts the deliveries back at the head of the queue and stops handing out work until {@link #resume()}.
+   */
+  synchronized void pause(final List<WebhookDelivery> batch) {
+    for (int i = batch.size() - 1; i >= 0; i--) {
+      pending.addFirst(batch.get(i));
+    }
+    paused = true;
+  }
+
+  /**
+   * Stops handing out work until {@link #resume()}.
+   */
+  synchronized void pause() {
+    paused = true;
+  }
+
+  synchronized void resume() {
+    paused = false;
+  }
+
+  /**
+   * Removes and returns every pending delivery.
+   */
+  synchronized List<WebhookDelivery> drainPending() {
+    List<WebhookDelivery> drained = new ArrayList<>(pending);
+    pending.clear();
+    return drained;
+  }
+
+  synchronized int size() {
+    return pending.size();
+  }
+
+  /**
+   * Waits until the endpoint's rate limit allows another request.
+   */
+  void acquirePermit() {
+    if (rateLimiter != null) {
+      rateLimiter.acquire();
+    }
+  }
+}
@@ -15,11 +15,24 @@ package org.sonatype.nexus.internal.webhooks;
 import java.io.IOException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor.AbortPolicy;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.Nullable;
 import javax.crypto.Mac;
@@ -28,15 +41,23 @@ import jakarta.inject.Inject;
 import jakarta.inject.Provider;
 import jakarta.inject.Singleton;
 
-import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.goodies.common.InternalAccessible;
+import org.sonatype.nexus.common.app.ApplicationDirectories;
+import org.sonatype.nexus.common.app.ManagedLifecycle;
 import org.sonatype.nexus.common.event.EventAware;
+import org.sonatype.nexus.common.stateguard.StateGuardLifecycleSupport;
+import org.sonatype.nexus.httpclient.config.HttpClientConfigurationChangedEvent;
+import org.sonatype.nexus.security.PasswordHelper;
 import org.sonatype.nexus.thread.NexusThreadFactory;
 import org.sonatype.nexus.webhooks.Webhook;
 import org.sonatype.nexus.webhooks.WebhookRequest;
 import org.sonatype.nexus.webhooks.WebhookRequestSendEvent;
 import org.sonatype.nexus.webhooks.WebhookService;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.codahale.metrics.Timer;
 import com.codahale.metrics.annotation.Gauge;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -61,18 +82,26 @@ import org.springframework.beans.factory.annotation.Value;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.lang.Thread.MIN_PRIORITY;
+import static java.util.stream.Collectors.joining;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
+import static org.sonatype.nexus.common.app.ManagedLifecycle.Phase.SERVICES;
 import org.springframework.stereotype.Component;
 
 /**
  * Default {@link WebhookService} implementation.
  *
+ * Queued requests wait in a bounded queue per endpoint. Each endpoint is sent to by a limited number of workers,
+ * optionally rate limited and batching several deliveries into one request, and backs off exponentially when it
+ * fails. On stop, requests in flight are allowed to finish before the deliveries still queued are collected; they can
+ * be kept for the next start with {@code nexus.webhook.queue.persistent}. Requests queued after stop are rejected.
+ *
  * @since 3.1
  */
 @Component
+@ManagedLifecycle(phase = SERVICES)
 @Singleton
 public class WebhookServiceImpl
-    extends ComponentSupport
+    extends StateGuardLifecycleSupport
     implements WebhookService, EventAware, EventAware.Asynchronous
 {
   private static final String WEBHOOK_ID_HEADER = "X-Nexus-Webhook-ID";
@@ -86,6 +115,10 @@ public class WebhookServiceImpl
 
   private static final BaseEncoding HEX = BaseEncoding.base16().lowerCase();
 
+  private static final String METRICS_PREFIX = "nexus.webhooks.delivery";
+
+  private static final Duration STOP_TIMEOUT = Duration.ofSeconds(30);
+
   private final ObjectMapper objectMapper = new ObjectMapper()
       .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
       .setSerializationInclusion(JsonInclude.Include.NON_NULL);
@@ -94,28 +127,111 @@ public class WebhookServiceImpl
 
   private final List<Webhook> webhooks;
 
-  private final ThreadPoolExecutor threadPoolExecutor;
+  private final WebhookDeliveryPolicy policy;
+
+  @Nullable
+  private final WebhookDeliveryJournal journal;
+
+  private final int poolSize;
+
+  private volatile ThreadPoolExecutor threadPoolExecutor;
+
+  private volatile ScheduledExecutorService retryScheduler;
+
+  // queue() holds the read lock, so once stop holds the write lock no delivery can slip in behind it
+  private final ReadWriteLock stopLock = new ReentrantReadWriteLock();
+
+  private volatile boolean stopping;
+
+  private final Map<String, WebhookEndpoint> endpoints = new ConcurrentHashMap<>();
+
+  private final AtomicInteger backlog = new AtomicInteger();
+
+  private final AtomicBoolean saturated = new AtomicBoolean();
+
+  private final Timer deliveryLatency;
+
+  private final Meter retries;
+
+  private final Meter failures;
+
+  private final Meter dropped;
+
+  @Nullable
+  private volatile CloseableHttpClient httpClient;
+
+  public WebhookServiceImpl(
+      final Provider<CloseableHttpClient> httpClientProvider,
+      final List<Webhook> webhooks,
+      final int poolSize)
+  {
+    this(httpClientProvider, webhooks, poolSize, WebhookDeliveryPolicy.DEFAULT, null);
+  }
 
   @Inject
   public WebhookServiceImpl(
       final Provider<CloseableHttpClient> httpClientProvider,
       final List<Webhook> webhooks,
-      @Value("${nexus.webhook.pool.size:128}") final int poolSize)
+      final ApplicationDirectories applicationDirectories,
+      final PasswordHelper passwordHelper,
+      @Value("${nexus.webhook.pool.size:128}") final int poolSize,
+      @Value("${nexus.webhook.queue.capacity:10000}") final int queueCapacity,
+      @Value("${nexus.webhook.queue.persistent:false}") final boolean persistent,
+      @Value("${nexus.webhook.endpoint.concurrency:4}") final int endpointConcurrency,
+      @Value("${nexus.webhook.endpoint.rate:0}") final double endpointRate,
+      @Value("${nexus.webhook.batch.size:1}") final int batchSize,
+      @Value("${nexus.webhook.retry.max:5}") final int maxRetries,
+      @Value("${nexus.webhook.retry.delay:1s}") final Duration retryDelay,
+      @Value("${nexus.webhook.retry.maxDelay:5m}") final Duration maxRetryDelay)
+  {
+    this(httpClientProvider, webhooks, poolSize,
+        new WebhookDeliveryPolicy(queueCapacity, endpointConcurrency, endpointRate, batchSize, maxRetries, retryDelay,
+            maxRetryDelay),
+        persistent ? new WebhookDeliveryJournal(applicationDirectories.getWorkDirectory("webhooks"), passwordHelper)
+            : null);
+  }
+
+  @VisibleForTesting
+  WebhookServiceImpl(
+      final Provider<CloseableHttpClient> httpClientProvider,
+      final List<Webhook> webhooks,
+      final int poolSize,
+      final WebhookDeliveryPolicy policy,
+      @Nullable final WebhookDeliveryJournal journal)
   {
     this.httpClientProvider = checkNotNull(httpClientProvider);
     this.webhooks = checkNotNull(webhooks);
+    this.policy = checkNotNull(policy);
+    this.journal = journal;
 
     checkArgument(poolSize > 0, "Pool size must be greater than zero");
-    this.threadPoolExecutor = new ThreadPoolExecutor(
+    this.poolSize = poolSize;
+    this.threadPoolExecutor = newThreadPoolExecutor(poolSize);
+    this.retryScheduler = newRetryScheduler();
+
+    MetricRegistry registry = SharedMetricRegistries.getOrCreate("nexus");
+    this.deliveryLatency = registry.timer(METRICS_PREFIX + ".latency");
+    this.retries = registry.meter(METRICS_PREFIX + ".retries");
+    this.failures = registry.meter(METRICS_PREFIX + ".failures");
+    this.dropped = registry.meter(METRICS_PREFIX + ".dropped");
+  }
+
+  private static ThreadPoolExecutor newThreadPoolExecutor(final int poolSize) {
+    return new ThreadPoolExecutor(
         poolSize, // core-size
         poolSize, // max-size
         0L, // keep-alive
         TimeUnit.MILLISECONDS,
-        new LinkedBlockingQueue<>(), // allow queueing up of requests
+        new LinkedBlockingQueue<>(), // holds at most one task per endpoint worker, deliveries wait per endpoint
         new NexusThreadFactory("webhookService", "requestRool", MIN_PRIORITY),
         new AbortPolicy());
   }
 
+  private static ScheduledExecutorService newRetryScheduler() {
+    return Executors.newSingleThreadScheduledExecutor(
+        new NexusThreadFactory("webhookService", "retryScheduler", MIN_PRIORITY));
+  }
+
   /**
    * Attempt to extract response body as string.
    */
@@ -150,6 +266,64 @@ public class WebhookServiceImpl
     return HEX.encode(bytes);
   }
 
+  @Override
+  protected void doStart() throws Exception {
+    if (threadPoolExecutor.isShutdown()) {
+      // restarted after a stop
+      threadPoolExecutor = newThreadPoolExecutor(poolSize);
+      retryScheduler = newRetryScheduler();
+      endpoints.values().forEach(WebhookEndpoint::resume);
+    }
+    stopping = false;
+    if (journal != null) {
+      try {
+        journal.load().forEach(this::enqueue);
+      }
+      catch (IOException e) {
+        log.warn("Could not load pending webhook deliveries, starting without them", e);
+      }
+    }
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    // scheduled retries are dropped, their deliveries wait at the head of their endpoint's queue
+    retryScheduler.shutdownNow();
+    awaitTermination(retryScheduler);
+
+    Lock lock = stopLock.writeLock();
+    lock.lock();
+    try {
+      // paused endpoints hand out no more work, so workers exit once their request in flight is done
+      endpoints.values().forEach(WebhookEndpoint::pause);
+      stopping = true;
+    }
+    finally {
+      lock.unlock();
+    }
+
+    threadPoolExecutor.shutdown();
+    if (!awaitTermination(threadPoolExecutor)) {
+      log.warn("Webhook requests still in flight after {}, they will not be retried", STOP_TIMEOUT);
+      threadPoolExecutor.shutdownNow();
+    }
+
+    // deliveries which failed while stopping have been put back, so they are collected here as well
+    List<WebhookDelivery> pending = new ArrayList<>();
+    endpoints.values().forEach(endpoint -> pending.addAll(endpoint.drainPending()));
+    backlog.addAndGet(-pending.size());
+    if (journal != null) {
+      journal.save(pending);
+    }
+    else if (!pending.isEmpty()) {
+      log.info("Discarding {} webhook deliveries queued at stop", pending.size());
+    }
+  }
+
+  private boolean awaitTermination(final ExecutorService executor) throws InterruptedException {
+    return executor.awaitTermination(STOP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
   @Override
   public List<Webhook> getWebhooks() {
     return ImmutableList.copyOf(webhooks);
@@ -158,14 +332,22 @@ public class WebhookServiceImpl
   @Override
   public void queue(final WebhookRequest request) {
     checkNotNull(request);
-    threadPoolExecutor.execute(() -> {
-      try {
-        send(request);
-      }
-      catch (Exception e) {
-        log.error("Failed to send webhook request:{}", request, e);
+    Lock lock = stopLock.readLock();
+    lock.lock();
+    try {
+      if (stopping) {
+        dropped.mark();
+        log.warn("Webhook service is stopped, rejected webhook request:{}", request);
+        return;
       }
-    });
+      enqueue(toDelivery(request));
+    }
+    catch (Exception e) {
+      log.error("Failed to queue webhook request:{}", request, e);
+    }
+    finally {
+      lock.unlock();
+    }
   }
 
   /**
@@ -180,27 +362,158 @@ public class WebhookServiceImpl
     queue(event.getRequest());
   }
 
+  /**
+   * Drops the shared HTTP client so the next request picks up the new configuration.
+   */
+  @Subscribe
+  @AllowConcurrentEvents
+  void on(final HttpClientConfigurationChangedEvent event) {
+    CloseableHttpClient previous = httpClient;
+    httpClient = null;
+    if (previous != null) {
+      // connections are pooled by the shared connection manager, so closing the client doesn't affect other requests
+      try {
+        previous.close();
+      }
+      catch (IOException e) {
+        log.debug("Failed to close webhook HTTP client", e);
+      }
+    }
+  }
+
   @Override
   public void send(final WebhookRequest request) throws Exception {
     checkNotNull(request);
 
     log.debug("Sending webhook request: {}", request);
 
-    Webhook webhook = request.getWebhook();
-    String json = objectMapper.writeValueAsString(request.getPayload());
+    post(List.of(toDelivery(request)));
+  }
+
+  private WebhookDelivery toDelivery(final WebhookRequest request) throws IOException {
+    return new WebhookDelivery(request.getWebhook().getId(), request.getId(), request.getUrl().toString(),
+        request.getSecret(), objectMapper.writeValueAsString(request.getPayload()), System.currentTimeMillis(), 0);
+  }
+
+  private void enqueue(final WebhookDelivery delivery) {
+    if (backlog.incrementAndGet() > policy.queueCapacity()) {
+      backlog.decrementAndGet();
+      dropped.mark();
+      if (saturated.compareAndSet(false, true)) {
+        log.warn("Webhook delivery queue is full ({} deliveries), dropping new deliveries until it drains",
+            policy.queueCapacity());
+      }
+      log.debug("Dropped webhook delivery: {}", delivery);
+      return;
+    }
+    if (saturated.get() && saturated.compareAndSet(true, false)) {
+      log.info("Webhook delivery queue is accepting deliveries again");
+    }
+
+    WebhookEndpoint endpoint =
+        endpoints.computeIfAbsent(delivery.url(), url -> new WebhookEndpoint(url, policy.endpointRate()));
+    endpoint.add(delivery);
+    startWorkers(endpoint);
+  }
+
+  private void startWorkers(final WebhookEndpoint endpoint) {
+    while (endpoint.tryStart(policy.endpointConcurrency())) {
+      try {
+        threadPoolExecutor.execute(() -> drain(endpoint));
+      }
+      catch (RejectedExecutionException e) {
+        endpoint.finish();
+        log.warn("Webhook delivery to {} was rejected, it will be retried with the next request to it",
+            endpoint.url());
+        return;
+      }
+    }
+  }
 
-    HttpPost httpPost = new HttpPost(request.getUrl());
-    httpPost.setHeader(WEBHOOK_ID_HEADER, webhook.getId());
-    httpPost.setHeader(WEBHOOK_DELIVERY_HEADER, request.getId());
+  /**
+   * Sends deliveries to the endpoint until there are none left, or the endpoint is paused after a failure.
+   */
+  private void drain(final WebhookEndpoint endpoint) {
+    List<WebhookDelivery> batch;
+    while (!(batch = endpoint.pollOrFinish(policy.batchSize())).isEmpty()) {
+      endpoint.acquirePermit();
+      try {
+        post(batch);
+        completed(batch);
+      }
+      catch (Exception e) {
+        failed(endpoint, batch, e);
+      }
+    }
+  }
+
+  private void completed(final List<WebhookDelivery> batch) {
+    backlog.addAndGet(-batch.size());
+    long now = System.currentTimeMillis();
+    batch.forEach(delivery -> deliveryLatency.update(now - delivery.queuedAt(), TimeUnit.MILLISECONDS));
+  }
+
+  private void failed(final WebhookEndpoint endpoint, final List<WebhookDelivery> batch, final Exception cause) {
+    int attempts = 0;
+    for (WebhookDelivery delivery : batch) {
+      attempts = Math.max(attempts, delivery.recordFailedAttempt());
+    }
+    if (isRetryable(cause) && attempts <= policy.maxRetries()) {
+      Duration delay = policy.delayBeforeRetry(attempts);
+      log.debug("Failed to send webhook request to {}, retry {} of {} in {}", endpoint.url(), attempts,
+          policy.maxRetries(), delay, cause);
+      retries.mark(batch.size());
+      endpoint.pause(batch);
+      try {
+        retryScheduler.schedule(() -> {
+          endpoint.resume();
+          startWorkers(endpoint);
+        }, delay.toMillis(), TimeUnit.MILLISECONDS);
+      }
+      catch (RejectedExecutionException e) {
+        // stopping; the batch is back in the endpoint's queue and is collected with the other pending deliveries
+        log.debug("Not scheduling retry to {} while stopping", endpoint.url());
+      }
+    }
+    else {
+      backlog.addAndGet(-batch.size());
+      failures.mark(batch.size());
+      log.error("Failed to send webhook request:{}", batch, cause);
+    }
+  }
+
+  /**
+   * Connection problems, throttling and server errors are worth retrying; other responses will not change.
+   */
+  private static boolean isRetryable(final Exception cause) {
+    if (cause instanceof HttpResponseException responseException) {
+      int code = responseException.getStatusCode();
+      return code == 429 || code >= 500;
+    }
+    return cause instanceof IOException;
+  }
+
+  /**
+   * Posts the deliveries in one request, as a JSON array when there is more than one.
+   */
+  private void post(final List<WebhookDelivery> batch) throws Exception {
+    WebhookDelivery first = batch.get(0);
+    String json = batch.size() == 1
+        ? first.body()
+        : batch.stream().map(WebhookDelivery::body).collect(joining(",", "[", "]"));
+
+    HttpPost httpPost = new HttpPost(first.url());
+    httpPost.setHeader(WEBHOOK_ID_HEADER, first.webhookId());
+    httpPost.setHeader(WEBHOOK_DELIVERY_HEADER,
+        batch.stream().map(WebhookDelivery::deliveryId).collect(joining(",")));
     // generate HMAC signature of body if secret is present
-    if (!isEmpty(request.getSecret())) {
-      httpPost.setHeader(WEBHOOK_SIGNATURE_HEADER, sign(json, request.getSecret()));
+    if (!isEmpty(first.secret())) {
+      httpPost.setHeader(WEBHOOK_SIGNATURE_HEADER, sign(json, first.secret()));
     }
     httpPost.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
 
     log.debug("Sending POST request: {}", httpPost);
-    try (CloseableHttpClient httpClient = httpClientProvider.get();
-        CloseableHttpResponse putResponse = httpClient.execute(httpPost)) {
+    try (CloseableHttpResponse putResponse = httpClient().execute(httpPost)) {
 
       StatusLine status = putResponse.getStatusLine();
       log.debug("Response status: {}", status);
@@ -214,16 +527,43 @@ public class WebhookServiceImpl
         }
         throw new HttpResponseException(code, message);
       }
+      // consume the response so the connection can be kept alive and reused
+      EntityUtils.consume(putResponse.getEntity());
     }
   }
 
+  /**
+   * Client shared by all requests, so each one doesn't pay for building a new client.
+   */
+  private CloseableHttpClient httpClient() {
+    CloseableHttpClient client = httpClient;
+    if (client == null) {
+      synchronized (this) {
+        client = httpClient;
+        if (client == null) {
+          client = httpClientProvider.get();
+          httpClient = client;
+        }
+      }
+    }
+    return client;
+  }
+
+  @VisibleForTesting
+  boolean isStopping() {
+    return stopping;
+  }
+
   @VisibleForTesting
   public boolean isCalmPeriod() {
-    return threadPoolExecutor.getQueue().isEmpty() && threadPoolExecutor.getActiveCount() == 0;
+    return backlog.get() == 0 && threadPoolExecutor.getActiveCount() == 0;
   }
 
+  /**
+   * Number of deliveries waiting to be sent, or being sent.
+   */
   @Gauge(name = "nexus.webhooks.service.executor.queueSize")
   public int webhookQueueSize() {
-    return threadPoolExecutor.getQueue().size();
+    return backlog.get();
   }
 }
@@ -30,7 +30,12 @@ import org.sonatype.nexus.common.log.SupportZipGeneratorRequest;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import static org.junit.Assert.*;
@@ -506,6 +511,180 @@ public class SupportZipGeneratorImplTest
     assertTrue(truncatedFound);
   }
 
+  @Test
+  public void slowSourcesAreSkippedOnceTheirTimeBudgetIsExceeded() throws Exception {
+    TestGeneratedContentSourceSupport slowSource = new TestGeneratedContentSourceSupport(
+        SupportBundle.ContentSource.Type.JMX, "info/jmx.json", SupportBundle.ContentSource.Priority.OPTIONAL)
+    {
+      @Override
+      protected void generate(final File file) {
+        try {
+          Thread.sleep(5000);
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        super.generate(file);
+      }
+    };
+    SupportBundleCustomizer slowCustomizer = bundle -> bundle.add(slowSource);
+
+    SupportZipGeneratorRequest req = new SupportZipGeneratorRequest();
+    req.setLog(true);
+    req.setJmx(true);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    SupportZipGeneratorImpl generator = new SupportZipGeneratorImpl(downloadService,
+        ImmutableList.of(mockLogCustomizer, slowCustomizer), ByteSize.bytes(0), ByteSize.bytes(0), 2,
+        Duration.ofMillis(200), Deflater.DEFAULT_COMPRESSION, "");
+
+    long start = System.nanoTime();
+    generator.generate(req, "prefix", out);
+    assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5000);
+
+    ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()));
+    ZipEntry entry;
+    boolean logFound = false, jmxFound = false;
+    while ((entry = zip.getNextEntry()) != null) {
+      if (entry.getName().equals("prefix/log/nexus.log")) {
+        logFound = true;
+      }
+      if (entry.getName().equals("prefix/info/jmx.json")) {
+        jmxFound = true;
+      }
+    }
+
+    assertTrue(logFound);
+    assertFalse(jmxFound);
+  }
+
+  @Test
+  public void precompressedSourcesAreStoredWithoutRecompression() throws Exception {
+    ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+      gzip.write(new byte[10000]);
+    }
+    byte[] archive = gzipped.toByteArray();
+    GeneratedContentSourceSupport archivedSource = new GeneratedContentSourceSupport(
+        SupportBundle.ContentSource.Type.ARCHIVEDLOG, "log/archived-logs/nexus.log.gz",
+        SupportBundle.ContentSource.Priority.OPTIONAL)
+    {
+      @Override
+      protected void generate(final File file) throws Exception {
+        Files.write(file.toPath(), archive);
+      }
+    };
+    SupportBundleCustomizer archivedCustomizer = bundle -> bundle.add(archivedSource);
+
+    SupportZipGeneratorRequest req = new SupportZipGeneratorRequest();
+    req.setLog(true);
+    Path zipFile = Files.createTempFile("support", ".zip");
+    try {
+      SupportZipGeneratorImpl generator = new SupportZipGeneratorImpl(downloadService,
+          ImmutableList.of(mockLogCustomizer, archivedCustomizer), ByteSize.bytes(0), ByteSize.bytes(0));
+      try (OutputStream out = Files.newOutputStream(zipFile)) {
+        generator.generate(req, "prefix", out);
+      }
+
+      try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+        ZipEntry archived = zip.getEntry("prefix/log/archived-logs/nexus.log.gz");
+        assertEquals(ZipEntry.STORED, archived.getMethod());
+        try (InputStream input = zip.getInputStream(archived)) {
+          assertArrayEquals(archive, input.readAllBytes());
+        }
+        assertEquals(ZipEntry.DEFLATED, zip.getEntry("prefix/log/nexus.log").getMethod());
+      }
+    }
+    finally {
+      Files.delete(zipFile);
+    }
+  }
+
+  @Test
+  public void precompressedSourcesFailingPartwayAreSkipped() throws Exception {
+    GeneratedContentSourceSupport failingSource = new GeneratedContentSourceSupport(
+        SupportBundle.ContentSource.Type.ARCHIVEDLOG, "log/archived-logs/nexus.log.gz",
+        SupportBundle.ContentSource.Priority.REQUIRED)
+    {
+      @Override
+      protected void generate(final File file) throws Exception {
+        Files.write(file.toPath(), new byte[20000]);
+      }
+
+      @Override
+      public InputStream getContent() throws Exception {
+        return new FilterInputStream(super.getContent())
+        {
+          private int count;
+
+          @Override
+          public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (count > 5000) {
+              throw new IOException("expected");
+            }
+            int read = super.read(b, off, len);
+            count += Math.max(read, 0);
+            return read;
+          }
+        };
+      }
+    };
+    SupportBundleCustomizer failingCustomizer = bundle -> bundle.add(failingSource);
+
+    SupportZipGeneratorRequest req = new SupportZipGeneratorRequest();
+    req.setLog(true);
+    Path zipFile = Files.createTempFile("support", ".zip");
+    try {
+      SupportZipGeneratorImpl generator = new SupportZipGeneratorImpl(downloadService,
+          ImmutableList.of(failingCustomizer, mockLogCustomizer), ByteSize.bytes(0), ByteSize.bytes(0));
+      try (OutputStream out = Files.newOutputStream(zipFile)) {
+        generator.generate(req, "prefix", out);
+      }
+
+      try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+        assertNull(zip.getEntry("prefix/log/archived-logs/nexus.log.gz"));
+        assertNotNull(zip.getEntry("prefix/log/nexus.log"));
+      }
+    }
+    finally {
+      Files.delete(zipFile);
+    }
+  }
+
+  @Test
+  public void compressionLevelIsConfigurablePerType() throws Exception {
+    logContentSource.setContentSize(10000);
+    sysInfoContentSource.setContentSize(10000);
+
+    SupportZipGeneratorRequest req = new SupportZipGeneratorRequest();
+    req.setLog(true);
+    req.setSystemInformation(true);
+    Path zipFile = Files.createTempFile("support", ".zip");
+    try {
+      SupportZipGeneratorImpl generator = new SupportZipGeneratorImpl(downloadService,
+          ImmutableList.of(mockLogCustomizer, mockSysInfoCustomizer), ByteSize.bytes(0), ByteSize.bytes(0), 2,
+          Duration.ofMinutes(1), Deflater.BEST_COMPRESSION, "log=0");
+      try (OutputStream out = Files.newOutputStream(zipFile)) {
+        generator.generate(req, "prefix", out);
+      }
+
+      try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+        ZipEntry logEntry = zip.getEntry("prefix/log/nexus.log");
+        assertTrue(logEntry.getCompressedSize() >= logEntry.getSize());
+        ZipEntry sysInfo = zip.getEntry("prefix/info/sysinfo.json");
+        assertTrue(sysInfo.getCompressedSize() < sysInfo.getSize());
+      }
+    }
+    finally {
+      Files.delete(zipFile);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidCompressionLevelsAreRejected() {
+    new SupportZipGeneratorImpl(downloadService, ImmutableList.of(mockLogCustomizer), ByteSize.bytes(0),
+        ByteSize.bytes(0), 2, Duration.ofMinutes(1), Deflater.DEFAULT_COMPRESSION, "LOG=10");
+  }
+
   static class TestGeneratedContentSourceSupport
       extends GeneratedContentSourceSupport
   {
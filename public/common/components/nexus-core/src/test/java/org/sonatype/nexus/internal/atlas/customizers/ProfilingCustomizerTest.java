@@ -0,0 +1,116 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.atlas.customizers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.common.profiling.ContinuousProfiler;
+import org.sonatype.nexus.supportzip.SupportBundle;
+import org.sonatype.nexus.supportzip.SupportBundle.ContentSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProfilingCustomizerTest
+    extends TestSupport
+{
+  private static final Duration WINDOW = Duration.ofMinutes(15);
+
+  @Mock
+  private ContinuousProfiler profiler;
+
+  private ProfilingCustomizer underTest;
+
+  @Before
+  public void setup() {
+    underTest = new ProfilingCustomizer(profiler, WINDOW);
+  }
+
+  @Test
+  public void nothingAddedWhenNotRecording() {
+    SupportBundle supportBundle = new SupportBundle();
+    underTest.customize(supportBundle);
+
+    assertThat(supportBundle.getSources(), is(empty()));
+  }
+
+  @Test
+  public void recordingAndSummaryAddedWhenRecording() throws Exception {
+    when(profiler.isRecording()).thenReturn(true);
+    doAnswer(invocation -> Files.write(invocation.getArgument(1, Path.class), new byte[]{1, 2, 3}))
+        .when(profiler).dump(eq(WINDOW), any(Path.class));
+
+    SupportBundle supportBundle = new SupportBundle();
+    underTest.customize(supportBundle);
+
+    List<ContentSource> sources = supportBundle.getSources();
+    assertThat(sources.stream().map(ContentSource::getPath).toList(),
+        contains("info/profiling-summary.txt", "info/profiling.jfr"));
+
+    ContentSource recording = sources.get(1);
+    recording.prepare();
+    try {
+      assertThat(recording.getSize(), is(3L));
+    }
+    finally {
+      recording.cleanup();
+    }
+  }
+
+  @Test
+  public void recordingIsDumpedOnceForBothEntries() throws Exception {
+    List<Path> dumps = new ArrayList<>();
+    when(profiler.isRecording()).thenReturn(true);
+    doAnswer(invocation -> dumps.add(Files.write(invocation.getArgument(1, Path.class), new byte[]{1, 2, 3})))
+        .when(profiler).dump(eq(WINDOW), any(Path.class));
+
+    SupportBundle supportBundle = new SupportBundle();
+    underTest.customize(supportBundle);
+    ContentSource summary = supportBundle.getSources().get(0);
+    ContentSource recording = supportBundle.getSources().get(1);
+
+    recording.prepare();
+    try {
+      // not a real recording, so only the dump matters here
+      summary.prepare();
+    }
+    catch (Exception e) {
+      // expected
+    }
+
+    verify(profiler).dump(eq(WINDOW), any(Path.class));
+    assertThat(dumps, hasSize(1));
+
+    recording.cleanup();
+    assertThat(Files.exists(dumps.get(0)), is(true));
+    summary.cleanup();
+    assertThat(Files.exists(dumps.get(0)), is(false));
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.internal.profiling;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.sonatype.goodies.common.ByteSize;
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.common.profiling.BlobStoreOperationEvent;
+import org.sonatype.nexus.common.profiling.RepositoryRequestEvent;
+
+import jdk.jfr.EventType;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Tests for {@link ContinuousProfilerImpl} and {@link ProfileSummary}.
+ */
+public class ContinuousProfilerImplTest
+    extends TestSupport
+{
+  private ContinuousProfilerImpl underTest;
+
+  @After
+  public void tearDown() throws Exception {
+    if (underTest != null && underTest.isStarted()) {
+      underTest.stop();
+    }
+  }
+
+  @Test
+  public void testDisabledByDefault() throws Exception {
+    underTest = profiler(false);
+    underTest.start();
+
+    assertThat(underTest.isRecording(), is(false));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testDumpRequiresRecording() throws Exception {
+    underTest = profiler(false);
+    underTest.start();
+
+    underTest.dump(Duration.ofMinutes(1), util.createTempDir().toPath().resolve("recording.jfr"));
+  }
+
+  @Test
+  public void testSettingsEnableNexusEvents() throws Exception {
+    Map<String, String> settings = ContinuousProfilerImpl.settings(Duration.ofMillis(25));
+
+    assertThat(settings, hasEntry(RepositoryRequestEvent.NAME + "#enabled", "true"));
+    assertThat(settings, hasEntry(RepositoryRequestEvent.NAME + "#threshold", "25 ms"));
+    assertThat(settings, hasEntry("jdk.ExecutionSample#period", "20 ms"));
+  }
+
+  @Test
+  public void testDumpAndSummarizeRecording() throws Exception {
+    underTest = profiler(true);
+    underTest.start();
+    assertThat(underTest.isRecording(), is(true));
+
+    RepositoryRequestEvent request = new RepositoryRequestEvent("maven-central", "maven2", "GET", "/junit/junit.pom");
+    request.begin();
+    Thread.sleep(20);
+    request.finish(200);
+
+    BlobStoreOperationEvent quick = new BlobStoreOperationEvent("default", "get");
+    quick.begin();
+    quick.finish("quick", -1);
+
+    Path recording = util.createTempDir().toPath().resolve("recording.jfr");
+    underTest.dump(Duration.ofMinutes(5), recording);
+
+    assertThat(underTest.isRecording(), is(true));
+    assertThat(eventNames(recording), hasItem(RepositoryRequestEvent.NAME));
+    assertThat(eventNames(recording), not(hasItem(BlobStoreOperationEvent.NAME)));
+
+    StringWriter summary = new StringWriter();
+    ProfileSummary.of(recording).write(new PrintWriter(summary), 10);
+
+    assertThat(summary.toString(), containsString("Hot methods"));
+    assertThat(summary.toString(), containsString("Allocated types"));
+    assertThat(summary.toString(), containsString("request maven-central"));
+  }
+
+  private static ContinuousProfilerImpl profiler(final boolean enabled) {
+    return new ContinuousProfilerImpl(enabled, Duration.ofMinutes(5), ByteSize.megaBytes(16), Duration.ofMillis(10));
+  }
+
+  private static List<String> eventNames(final Path recording) throws Exception {
+    assertThat(Files.size(recording) > 0, is(true));
+    return RecordingFile.readAllEvents(recording)
+        .stream()
+        .map(RecordedEvent::getEventType)
+        .map(EventType::getName)
+        .toList();
+  }
+}
@@ -12,12 +12,18 @@
  */
 package org.sonatype.nexus.internal.webhooks;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.inject.Provider;
 
@@ -28,6 +34,7 @@ import org.sonatype.nexus.repository.Format;
 import org.sonatype.nexus.repository.Type;
 import org.sonatype.nexus.repository.webhooks.GlobalRepositoryWebhook;
 import org.sonatype.nexus.repository.webhooks.GlobalRepositoryWebhook.RepositoryWebhookPayload;
+import org.sonatype.nexus.security.PasswordHelper;
 import org.sonatype.nexus.webhooks.Webhook;
 import org.sonatype.nexus.webhooks.WebhookRequest;
 
@@ -44,7 +51,14 @@ import org.mockito.Mock;
 import static java.util.Collections.emptyList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.sonatype.nexus.internal.webhooks.WebhookServiceImpl.WEBHOOK_SIGNATURE_HEADER;
 import static org.sonatype.nexus.repository.webhooks.GlobalRepositoryWebhook.EventAction.CREATED;
@@ -69,6 +83,14 @@ public class WebhookServiceImplTest
   @Mock
   private InitiatorProvider initiatorProvider;
 
+  @Mock
+  private StatusLine statusLine;
+
+  @Mock
+  private PasswordHelper passwordHelper;
+
+  private CloseableHttpResponse response;
+
   private ArgumentCaptor<HttpPost> postCaptor;
 
   private WebhookServiceImpl underTest;
@@ -103,8 +125,7 @@ public class WebhookServiceImplTest
     when(httpClientProvider.get()).thenReturn(httpClient);
 
     postCaptor = ArgumentCaptor.forClass(HttpPost.class);
-    CloseableHttpResponse response = mock(CloseableHttpResponse.class);
-    StatusLine statusLine = mock(StatusLine.class);
+    response = mock(CloseableHttpResponse.class);
     when(statusLine.getStatusCode()).thenReturn(200);
     when(response.getStatusLine()).thenReturn(statusLine);
     when(httpClient.execute(postCaptor.capture())).thenReturn(response);
@@ -139,4 +160,204 @@ public class WebhookServiceImplTest
     assertThat(EntityUtils.toString(post.getEntity()), equalTo(expectedPayload));
     assertThat(post.getFirstHeader(WEBHOOK_SIGNATURE_HEADER).getValue(), equalTo(SIGNATURE));
   }
+
+  @Test
+  public void reusesHttpClientBetweenRequests() throws Exception {
+    underTest.send(request());
+    underTest.send(request());
+
+    verify(httpClientProvider, times(1)).get();
+    verify(httpClient, times(2)).execute(any(HttpPost.class));
+  }
+
+  @Test
+  public void retriesServerErrors() throws Exception {
+    underTest = new WebhookServiceImpl(httpClientProvider, emptyList(), 1, policy(10, 1), null);
+    when(statusLine.getStatusCode()).thenReturn(503, 200);
+
+    underTest.queue(request());
+
+    verify(httpClient, timeout(5000).times(2)).execute(any(HttpPost.class));
+  }
+
+  @Test
+  public void doesNotRetryClientErrors() throws Exception {
+    underTest = new WebhookServiceImpl(httpClientProvider, emptyList(), 1, policy(10, 1), null);
+    when(statusLine.getStatusCode()).thenReturn(404);
+
+    underTest.queue(request());
+
+    verify(httpClient, after(200).times(1)).execute(any(HttpPost.class));
+  }
+
+  @Test
+  public void batchesDeliveriesQueuedForTheSameEndpoint() throws Exception {
+    underTest = new WebhookServiceImpl(httpClientProvider, emptyList(), 1, policy(10, 10), null);
+    CountDownLatch release = blockFirstRequest();
+
+    WebhookRequest first = request();
+    WebhookRequest second = request();
+    WebhookRequest third = request();
+    underTest.queue(first);
+    verify(httpClient, timeout(5000)).execute(any(HttpPost.class));
+    underTest.queue(second);
+    underTest.queue(third);
+    release.countDown();
+
+    verify(httpClient, timeout(5000).times(2)).execute(any(HttpPost.class));
+    HttpPost batch = postCaptor.getAllValues().get(1);
+    assertThat(EntityUtils.toString(batch.getEntity()), startsWith("[{"));
+    assertThat(batch.getFirstHeader("X-Nexus-Webhook-Delivery").getValue(),
+        equalTo(second.getId() + "," + third.getId()));
+  }
+
+  @Test
+  public void dropsDeliveriesWhenTheQueueIsFull() throws Exception {
+    underTest = new WebhookServiceImpl(httpClientProvider, emptyList(), 1, policy(1, 1), null);
+    CountDownLatch release = blockFirstRequest();
+
+    underTest.queue(request());
+    verify(httpClient, timeout(5000)).execute(any(HttpPost.class));
+    underTest.queue(request());
+    assertThat(underTest.webhookQueueSize(), equalTo(1));
+    release.countDown();
+
+    verify(httpClient, after(200).times(1)).execute(any(HttpPost.class));
+  }
+
+  @Test
+  public void keepsQueuedDeliveriesAcrossRestart() throws Exception {
+    when(passwordHelper.encrypt(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    when(passwordHelper.decrypt(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    WebhookDeliveryJournal journal = new WebhookDeliveryJournal(util.createTempDir(), passwordHelper);
+
+    underTest = new WebhookServiceImpl(httpClientProvider, emptyList(), 1, policy(10, 1), journal);
+    underTest.start();
+    CountDownLatch release = blockFirstRequest();
+
+    WebhookRequest queued = request();
+    underTest.queue(request());
+    verify(httpClient, timeout(5000)).execute(any(HttpPost.class));
+    underTest.queue(queued);
+    stopWhileSending(release);
+
+    WebhookServiceImpl restarted = new WebhookServiceImpl(httpClientProvider, emptyList(), 1, policy(10, 1), journal);
+    restarted.start();
+
+    verify(httpClient, timeout(5000).times(2)).execute(any(HttpPost.class));
+    HttpPost post = postCaptor.getAllValues().get(1);
+    assertThat(post.getFirstHeader("X-Nexus-Webhook-Delivery").getValue(), equalTo(queued.getId()));
+    assertThat(post.getFirstHeader(WEBHOOK_SIGNATURE_HEADER).getValue(), notNullValue());
+  }
+
+  @Test
+  public void startsWithoutDeliveriesWhenTheJournalIsCorrupt() throws Exception {
+    File directory = util.createTempDir();
+    Path file = directory.toPath().resolve("pending-deliveries.json");
+    Files.writeString(file, "[{\"webhookId\":\"test\",\"deliv");
+    WebhookDeliveryJournal journal = new WebhookDeliveryJournal(directory, passwordHelper);
+
+    underTest = new WebhookServiceImpl(httpClientProvider, emptyList(), 1, policy(10, 1), journal);
+    underTest.start();
+
+    assertThat(underTest.webhookQueueSize(), equalTo(0));
+    assertThat(Files.exists(file), equalTo(false));
+    assertThat(Files.exists(directory.toPath().resolve("pending-deliveries.json.corrupt")), equalTo(true));
+
+    underTest.queue(request());
+    verify(httpClient, timeout(5000)).execute(any(HttpPost.class));
+  }
+
+  @Test
+  public void keepsDeliveriesFailingWhileStoppingAndRejectsLaterRequests() throws Exception {
+    when(passwordHelper.encrypt(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    when(passwordHelper.decrypt(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    WebhookDeliveryJournal journal = new WebhookDeliveryJournal(util.createTempDir(), passwordHelper);
+    WebhookDeliveryPolicy policy =
+        new WebhookDeliveryPolicy(10, 1, 0, 1, 2, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    when(statusLine.getStatusCode()).thenReturn(503, 200);
+
+    underTest = new WebhookServiceImpl(httpClientProvider, emptyList(), 1, policy, journal);
+    underTest.start();
+    CountDownLatch release = blockFirstRequest();
+
+    WebhookRequest inFlight = request();
+    underTest.queue(inFlight);
+    verify(httpClient, timeout(5000)).execute(any(HttpPost.class));
+    stopWhileSending(release);
+
+    underTest.queue(request());
+    verify(httpClient, after(200).times(1)).execute(any(HttpPost.class));
+    assertThat(underTest.webhookQueueSize(), equalTo(0));
+    assertThat(underTest.isCalmPeriod(), equalTo(true));
+
+    WebhookServiceImpl restarted = new WebhookServiceImpl(httpClientProvider, emptyList(), 1, policy, journal);
+    restarted.start();
+
+    verify(httpClient, timeout(5000).times(2)).execute(any(HttpPost.class));
+    HttpPost post = postCaptor.getAllValues().get(1);
+    assertThat(post.getFirstHeader("X-Nexus-Webhook-Delivery").getValue(), equalTo(inFlight.getId()));
+  }
+
+  @Test
+  public void sendsAgainWhenRestartedAfterStop() throws Exception {
+    underTest = new WebhookServiceImpl(httpClientProvider, emptyList(), 1, policy(10, 1), null);
+    underTest.start();
+    underTest.stop();
+    underTest.start();
+
+    underTest.queue(request());
+
+    verify(httpClient, timeout(5000)).execute(any(HttpPost.class));
+  }
+
+  /**
+   * Stops the service while a request is in flight, releasing the request once no more work is handed out.
+   */
+  private void stopWhileSending(final CountDownLatch release) throws Exception {
+    Thread stopping = new Thread(() -> {
+      try {
+        underTest.stop();
+      }
+      catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    stopping.start();
+    for (int i = 0; i < 500 && !underTest.isStopping(); i++) {
+      Thread.sleep(10);
+    }
+    assertThat(underTest.isStopping(), equalTo(true));
+    release.countDown();
+    stopping.join(TimeUnit.SECONDS.toMillis(5));
+    assertThat(stopping.isAlive(), equalTo(false));
+  }
+
+  private static WebhookDeliveryPolicy policy(final int queueCapacity, final int batchSize) {
+    return new WebhookDeliveryPolicy(queueCapacity, 1, 0, batchSize, 2, Duration.ofMillis(10), Duration.ofMillis(10));
+  }
+
+  /**
+   * Holds the first request until the returned latch is released.
+   */
+  private CountDownLatch blockFirstRequest() throws IOException {
+    CountDownLatch release = new CountDownLatch(1);
+    when(httpClient.execute(postCaptor.capture())).thenAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      return response;
+    }).thenReturn(response);
+    return release;
+  }
+
+  private WebhookRequest request() throws Exception {
+    RepositoryWebhookPayload.RepositoryPayload repository = new RepositoryWebhookPayload.RepositoryPayload("name",
+        new TestType(), new TestFormat());
+
+    WebhookRequest request = new WebhookRequest();
+    request.setUrl(new URI("http://localhost/webhook"));
+    request.setSecret("secret");
+    request.setWebhook(new GlobalRepositoryWebhook(nodeAccess, initiatorProvider));
+    request.setPayload(new RepositoryWebhookPayload(CREATED, repository, "nodeId", new Date(), "initiator"));
+    return request;
+  }
 }
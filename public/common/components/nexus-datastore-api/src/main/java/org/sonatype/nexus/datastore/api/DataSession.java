@@ -55,4 +55,13 @@ public interface DataSession<T extends Transaction>
    * @since 3.26
    */
   String sqlDialect();
+
+  /**
+   * Returns {@code true} if this session reads from a replica, which may lag behind the primary.
+   *
+   * @since 3.89
+   */
+  default boolean isReadReplica() {
+    return false;
+  }
 }
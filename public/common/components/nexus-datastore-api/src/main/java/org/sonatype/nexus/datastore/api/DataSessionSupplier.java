@@ -40,6 +40,16 @@ public interface DataSessionSupplier
    */
   DataSession<?> openSerializableTransactionSession(String storeName);
 
+  /**
+   * Opens a new read-only {@link DataSession} against the named data store, which may be served by a read replica.
+   *
+   * @throws DataStoreNotFoundException if the store does not exist
+   * @since 3.89
+   */
+  default DataSession<?> openReadOnlySession(final String storeName) {
+    return openSession(storeName);
+  }
+
   /**
    * Opens a new JDBC {@link Connection} to the named data store.
    *
@@ -15,6 +15,7 @@ package org.sonatype.nexus.datastore.mybatis;
 import java.util.List;
 
 import javax.annotation.Nullable;
+import javax.sql.DataSource;
 
 import org.sonatype.nexus.common.app.FrozenException;
 import org.sonatype.nexus.datastore.api.DataAccessException;
@@ -44,12 +45,35 @@ import org.apache.ibatis.transaction.TransactionFactory;
 final class DataAccessSqlSession
     extends DefaultSqlSession
 {
+  @Nullable
+  private Runnable writeCommitted;
+
+  private boolean wrote;
+
   public DataAccessSqlSession(final Configuration configuration) {
     this(configuration, null);
   }
 
   public DataAccessSqlSession(final Configuration configuration, final TransactionIsolationLevel isolationLevel) {
-    super(configuration, newExecutor(configuration, isolationLevel));
+    super(configuration, newExecutor(configuration, configuration.getEnvironment().getDataSource(), isolationLevel));
+  }
+
+  /**
+   * Creates a session whose connection comes from the given data source instead of the configured environment.
+   *
+   * @since 3.89
+   */
+  public DataAccessSqlSession(final Configuration configuration, final DataSource dataSource) {
+    super(configuration, newExecutor(configuration, dataSource, null));
+  }
+
+  /**
+   * Registers a callback to run each time this session commits a transaction that wrote data.
+   *
+   * @since 3.89
+   */
+  public void onWriteCommitted(final Runnable callback) {
+    this.writeCommitted = callback;
   }
 
   @Override
@@ -80,7 +104,9 @@ final class DataAccessSqlSession
   @Override
   public int update(final String statement, final Object parameter) {
     try {
-      return super.update(statement, parameter);
+      int result = super.update(statement, parameter);
+      wrote = true;
+      return result;
     }
     catch (PersistenceException e) {
       throw unwrapMyBatisException(e);
@@ -91,6 +117,10 @@ final class DataAccessSqlSession
   public void commit(final boolean force) {
     try {
       super.commit(force);
+      if (wrote && writeCommitted != null) {
+        writeCommitted.run();
+      }
+      wrote = false;
     }
     catch (PersistenceException e) {
       throw unwrapMyBatisException(e);
@@ -101,6 +131,7 @@ final class DataAccessSqlSession
   public void rollback(final boolean force) {
     try {
       super.rollback(force);
+      wrote = false;
     }
     catch (PersistenceException e) {
       throw unwrapMyBatisException(e);
@@ -130,13 +161,14 @@ final class DataAccessSqlSession
    */
   private static Executor newExecutor(
       final Configuration configuration,
+      final DataSource dataSource,
       @Nullable TransactionIsolationLevel isolationLevel)
   {
     Transaction tx = null;
     try {
       Environment environment = configuration.getEnvironment();
       TransactionFactory txFactory = environment.getTransactionFactory();
-      tx = txFactory.newTransaction(environment.getDataSource(), isolationLevel, false);
+      tx = txFactory.newTransaction(dataSource, isolationLevel, false);
       return configuration.newExecutor(tx);
     }
     catch (Exception e) {
@@ -35,10 +35,20 @@ public final class MyBatisDataSession
 {
   private final SqlSession session;
 
+  private final boolean readReplica;
+
   private Actions actions = new Actions();
 
   public MyBatisDataSession(final SqlSession session) {
+    this(session, false);
+  }
+
+  /**
+   * @since 3.89
+   */
+  public MyBatisDataSession(final SqlSession session, final boolean readReplica) {
     this.session = checkNotNull(session);
+    this.readReplica = readReplica;
   }
 
   @Override
@@ -71,6 +81,11 @@ public final class MyBatisDataSession
     return session.getConfiguration().getDatabaseId();
   }
 
+  @Override
+  public boolean isReadReplica() {
+    return readReplica;
+  }
+
   @Override
   protected void doCommit() {
     callHooks(actions.preCommit);
@@ -29,6 +29,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +55,7 @@ import org.sonatype.nexus.common.entity.EntityUUID;
 import org.sonatype.nexus.common.io.FileFinder;
 import org.sonatype.nexus.common.log.LogManager;
 import org.sonatype.nexus.common.log.LoggerLevel;
+import org.sonatype.nexus.common.property.SystemPropertiesHelper;
 import org.sonatype.nexus.common.stateguard.Guarded;
 import org.sonatype.nexus.common.stateguard.StatePrerequisitesInvalidException;
 import org.sonatype.nexus.common.thread.TcclBlock;
@@ -82,6 +85,8 @@ import org.sonatype.nexus.datastore.mybatis.handlers.SetTypeHandler;
 import org.sonatype.nexus.security.PasswordHelper;
 import org.sonatype.nexus.transaction.TransactionIsolation;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
 import com.google.common.base.Splitter.MapSplitter;
@@ -101,6 +106,7 @@ import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.TransactionIsolationLevel;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
 import org.apache.ibatis.type.BaseTypeHandler;
 import org.apache.ibatis.type.OffsetDateTimeTypeHandler;
@@ -138,7 +144,13 @@ import static org.sonatype.nexus.common.thread.TcclBlock.begin;
 import static org.sonatype.nexus.crypto.PhraseService.LEGACY_PHRASE_SERVICE;
 import static org.sonatype.nexus.datastore.mybatis.MyBatisDataStoreDescriptor.ADVANCED;
 import static org.sonatype.nexus.datastore.mybatis.MyBatisDataStoreDescriptor.JDBC_URL;
+import static org.sonatype.nexus.datastore.mybatis.MyBatisDataStoreDescriptor.PASSWORD;
+import static org.sonatype.nexus.datastore.mybatis.MyBatisDataStoreDescriptor.READ_JDBC_URL;
+import static org.sonatype.nexus.datastore.mybatis.MyBatisDataStoreDescriptor.READ_MAX_STALENESS;
+import static org.sonatype.nexus.datastore.mybatis.MyBatisDataStoreDescriptor.READ_PASSWORD;
+import static org.sonatype.nexus.datastore.mybatis.MyBatisDataStoreDescriptor.READ_USERNAME;
 import static org.sonatype.nexus.datastore.mybatis.MyBatisDataStoreDescriptor.SCHEMA;
+import static org.sonatype.nexus.datastore.mybatis.MyBatisDataStoreDescriptor.USERNAME;
 import static org.sonatype.nexus.datastore.mybatis.PlaceholderTypes.configurePlaceholderTypes;
 import static org.sonatype.nexus.datastore.mybatis.SensitiveAttributes.buildSensitiveAttributeFilter;
 
@@ -169,6 +181,17 @@ public class MyBatisDataStore
 
   private static final int DEFAULT_CONTENT_STORE_MAX_POOL_SIZE = 100;
 
+  private static final int DEFAULT_READ_MAX_STALENESS_SECONDS = 5;
+
+  private static final boolean STATEMENT_METRICS_ENABLED =
+      SystemPropertiesHelper.getBoolean("nexus.datastore.statementMetrics.enabled", true);
+
+  private static final long SLOW_STATEMENT_THRESHOLD_MILLIS =
+      SystemPropertiesHelper.getLong("nexus.datastore.slowStatementThresholdMillis", 0);
+
+  private static final Set<String> READ_REPLICA_KEYS =
+      ImmutableSet.of(READ_JDBC_URL, READ_USERNAME, READ_PASSWORD, READ_MAX_STALENESS);
+
   private final List<TransactionalStoreSupport> declaredAccessTypes;
 
   private final List<TypeHandler> declaredTypeHandlers;
@@ -189,10 +212,16 @@ public class MyBatisDataStore
 
   private HikariDataSource dataSource;
 
+  @Nullable
+  private MyBatisReadReplica readReplica;
+
   private Configuration mybatisConfig;
 
   private Optional<Configuration> previousConfig = empty();
 
+  @Nullable
+  private StatementMetricsInterceptor statementMetrics;
+
   @Nullable
   private Predicate<String> sensitiveAttributeFilter;
 
@@ -258,6 +287,7 @@ public class MyBatisDataStore
 
     HikariConfig hikariConfig = configureHikari(storeName, attributes);
     dataSource = new HikariDataSource(hikariConfig);
+    readReplica = configureReadReplica(storeName, attributes);
 
     if (logManager != null) {
       // Re-enable Hikari logging
@@ -312,9 +342,13 @@ public class MyBatisDataStore
         executeH2Shutdown();
       }
       dataSource.close();
+      if (readReplica != null) {
+        readReplica.close();
+      }
     }
     finally {
       dataSource = null;
+      readReplica = null;
     }
   }
 
@@ -401,18 +435,48 @@ public class MyBatisDataStore
   @Guarded(by = STARTED)
   @Override
   public MyBatisDataSession openSession() {
-    return new MyBatisDataSession(new DataAccessSqlSession(mybatisConfig));
+    return new MyBatisDataSession(primarySession(null));
   }
 
   @Guarded(by = STARTED)
   @Override
   public MyBatisDataSession openSession(final TransactionIsolation isolationLevel) {
     return switch (isolationLevel) {
-      case SERIALIZABLE -> new MyBatisDataSession(new DataAccessSqlSession(mybatisConfig, SERIALIZABLE));
-      default -> new MyBatisDataSession(new DataAccessSqlSession(mybatisConfig));
+      case SERIALIZABLE -> new MyBatisDataSession(primarySession(SERIALIZABLE));
+      case READ_ONLY -> openReadOnlySession();
+      default -> new MyBatisDataSession(primarySession(null));
     };
   }
 
+  /**
+   * Opens a session against the primary; with a read replica configured, committed writes are reported to it so
+   * read-only sessions on this node don't observe data older than their own writes.
+   */
+  private DataAccessSqlSession primarySession(@Nullable final TransactionIsolationLevel isolationLevel) {
+    DataAccessSqlSession session = new DataAccessSqlSession(mybatisConfig, isolationLevel);
+    MyBatisReadReplica replica = readReplica;
+    if (replica != null) {
+      session.onWriteCommitted(replica::writeCommitted);
+    }
+    return session;
+  }
+
+  /**
+   * Opens a session against the read replica when one is configured and not too stale, otherwise the primary.
+   */
+  private MyBatisDataSession openReadOnlySession() {
+    MyBatisReadReplica replica = readReplica;
+    if (replica != null && replica.isUsable()) {
+      return new MyBatisDataSession(new DataAccessSqlSession(mybatisConfig, replica.getDataSource()), true);
+    }
+    return new MyBatisDataSession(primarySession(null));
+  }
+
+  @VisibleForTesting
+  boolean hasReadReplica() {
+    return readReplica != null;
+  }
+
   @Guarded(by = STARTED)
   @Override
   public Connection openConnection() throws SQLException {
@@ -535,6 +599,7 @@ public class MyBatisDataStore
     Properties properties = new Properties();
     properties.put("poolName", storeName);
     properties.putAll(attributes);
+    READ_REPLICA_KEYS.forEach(properties::remove);
     if (properties.getProperty(JDBC_URL, "").contains("${karaf.data}")) {
       String jdbcUrl = properties.getProperty(JDBC_URL);
       jdbcUrl = jdbcUrl.replace("${karaf.data}", directories.getWorkDirectory("db", true).toString());
@@ -560,7 +625,44 @@ public class MyBatisDataStore
       properties.remove(SCHEMA);
     }
 
-    return new HikariConfig(properties);
+    HikariConfig hikariConfig = new HikariConfig(properties);
+    if (STATEMENT_METRICS_ENABLED) {
+      // publishes connection wait, usage and pool size, unless another live pool already uses this name
+      MetricRegistry registry = SharedMetricRegistries.getOrCreate("nexus");
+      if (!registry.getMetrics().containsKey(MetricRegistry.name(storeName, "pool", "Wait"))) {
+        hikariConfig.setMetricRegistry(registry);
+      }
+    }
+    return hikariConfig;
+  }
+
+  /**
+   * Creates the optional read replica; it shares the primary's settings apart from the connection details.
+   */
+  @Nullable
+  private MyBatisReadReplica configureReadReplica(final String storeName, final Map<String, String> attributes) {
+    String readJdbcUrl = attributes.get(READ_JDBC_URL);
+    if (isBlank(readJdbcUrl)) {
+      return null;
+    }
+
+    Map<String, String> replicaAttributes = new HashMap<>(attributes);
+    replicaAttributes.put(JDBC_URL, readJdbcUrl);
+    if (!isBlank(attributes.get(READ_USERNAME))) {
+      replicaAttributes.put(USERNAME, attributes.get(READ_USERNAME));
+      replicaAttributes.put(PASSWORD, attributes.getOrDefault(READ_PASSWORD, ""));
+    }
+
+    HikariConfig replicaConfig = configureHikari(storeName + "-read", replicaAttributes);
+    replicaConfig.setReadOnly(true);
+
+    int maxStaleness = Optional.ofNullable(attributes.get(READ_MAX_STALENESS))
+        .filter(value -> !isBlank(value))
+        .map(Integer::parseInt)
+        .orElse(DEFAULT_READ_MAX_STALENESS_SECONDS);
+
+    info("Routing read-only sessions to {} (max staleness {}s)", readJdbcUrl, maxStaleness);
+    return new MyBatisReadReplica(replicaConfig, dataSource, Duration.ofSeconds(maxStaleness));
   }
 
   /**
@@ -624,6 +726,14 @@ public class MyBatisDataStore
     // generate new entity ids on-demand
     register(new EntityInterceptor(new FrozenChecker(frozenMarker)));
 
+    // record per-statement latency and row counts
+    if (STATEMENT_METRICS_ENABLED) {
+      statementMetrics = new StatementMetricsInterceptor(
+          SharedMetricRegistries.getOrCreate("nexus"), mybatisConfig.getEnvironment().getId(),
+          SLOW_STATEMENT_THRESHOLD_MILLIS);
+      register(statementMetrics);
+    }
+
     // security handlers that used to only exist in the config store
     register(new PasswordCharacterArrayTypeHandler(passwordHelper));
     register(new PrincipalCollectionTypeHandler());
@@ -773,6 +883,10 @@ public class MyBatisDataStore
     // lower-case prefix of the access type, excluding the package; for example MavenAssetDAO / AssetDAO = maven
     String prefix = extractPrefix(accessType.getSimpleName(), templateType.getSimpleName());
 
+    if (statementMetrics != null) {
+      statementMetrics.registerFormat(accessType.getName(), prefix);
+    }
+
     // the variable in the schema XML that we'll replace with the local prefix
     String placeholder = templateType.getAnnotation(SchemaTemplate.class).value();
 
@@ -51,6 +51,30 @@ public class MyBatisDataStoreDescriptor
 
   public static final String ADVANCED = "advanced";
 
+  /**
+   * Optional JDBC URL of a read replica that serves read-only sessions.
+   *
+   * @since 3.89
+   */
+  public static final String READ_JDBC_URL = "readJdbcUrl";
+
+  /**
+   * @since 3.89
+   */
+  public static final String READ_USERNAME = "readUsername";
+
+  /**
+   * @since 3.89
+   */
+  public static final String READ_PASSWORD = "readPassword";
+
+  /**
+   * Maximum replication lag in seconds before read-only sessions fall back to the primary.
+   *
+   * @since 3.89
+   */
+  public static final String READ_MAX_STALENESS = "readMaxStaleness";
+
   private interface Messages
       extends MessageBundle
   {
@@ -68,6 +92,18 @@ public class MyBatisDataStoreDescriptor
 
     @DefaultMessage("Advanced")
     String advancedLabel();
+
+    @DefaultMessage("Read replica JDBC URL")
+    String readJdbcUrlLabel();
+
+    @DefaultMessage("Read replica username")
+    String readUsernameLabel();
+
+    @DefaultMessage("Read replica password")
+    String readPasswordLabel();
+
+    @DefaultMessage("Read replica maximum staleness (seconds)")
+    String readMaxStalenessLabel();
   }
 
   private static final Messages messages = I18N.create(Messages.class);
@@ -77,7 +113,11 @@ public class MyBatisDataStoreDescriptor
       new StringTextFormField(USERNAME, messages.usernameLabel(), null, false),
       new PasswordFormField(PASSWORD, messages.passwordLabel(), null, false),
       new StringTextFormField(SCHEMA, messages.schemaLabel(), null, false),
-      new TextAreaFormField(ADVANCED, messages.advancedLabel(), null, false));
+      new TextAreaFormField(ADVANCED, messages.advancedLabel(), null, false),
+      new StringTextFormField(READ_JDBC_URL, messages.readJdbcUrlLabel(), null, false),
+      new StringTextFormField(READ_USERNAME, messages.readUsernameLabel(), null, false),
+      new PasswordFormField(READ_PASSWORD, messages.readPasswordLabel(), null, false),
+      new StringTextFormField(READ_MAX_STALENESS, messages.readMaxStalenessLabel(), null, false));
 
   @Override
   public String getName() {
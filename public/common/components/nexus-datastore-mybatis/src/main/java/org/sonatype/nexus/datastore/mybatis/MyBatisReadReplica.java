@@ -0,0 +1,198 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.datastore.mybatis;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nullable;
+import javax.sql.DataSource;
+
+import org.sonatype.goodies.common.ComponentSupport;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Optional read replica used by {@link MyBatisDataStore} to serve read-only sessions.
+ *
+ * The replica is only used while its replication lag is within the configured staleness limit; the lag is sampled
+ * at most once per {@link #CHECK_INTERVAL} so session routing stays cheap. If the lag can't be determined, or the
+ * replica is too far behind, read-only sessions fall back to the primary until the next successful check.
+ *
+ * Writes committed on this node are reported through {@link #writeCommitted()}; read-only sessions then also fall
+ * back to the primary until a later check confirms the replica has replayed the primary's WAL position from after
+ * the write, so callers always read their own writes.
+ *
+ * @since 3.89
+ */
+class MyBatisReadReplica
+    extends ComponentSupport
+{
+  static final Duration CHECK_INTERVAL = Duration.ofSeconds(1);
+
+  private static final String POSTGRES_PRIMARY_LSN_QUERY = "SELECT CAST(pg_current_wal_lsn() AS TEXT)";
+
+  private static final String POSTGRES_LAG_QUERY =
+      "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+          + " ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END,"
+          + " pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn), pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn)";
+
+  private final HikariDataSource dataSource;
+
+  private final DataSource primary;
+
+  private final long maxStalenessMillis;
+
+  private final boolean postgres;
+
+  private final Ticker ticker;
+
+  private final Lock checkLock = new ReentrantLock();
+
+  private volatile long nextCheckNanos;
+
+  private volatile boolean usable = true;
+
+  private volatile long lastWriteNanos;
+
+  private volatile long caughtUpNanos;
+
+  // when the previous check ran and the primary position it saw; only touched while holding checkLock
+  private long previousCheckNanos;
+
+  @Nullable
+  private String previousLsn;
+
+  MyBatisReadReplica(final HikariConfig config, final DataSource primary, final Duration maxStaleness) {
+    this(new HikariDataSource(config), primary, maxStaleness, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  MyBatisReadReplica(
+      final HikariDataSource dataSource,
+      final DataSource primary,
+      final Duration maxStaleness,
+      final Ticker ticker)
+  {
+    this.dataSource = checkNotNull(dataSource);
+    this.primary = checkNotNull(primary);
+    this.maxStalenessMillis = checkNotNull(maxStaleness).toMillis();
+    this.postgres = String.valueOf(dataSource.getJdbcUrl()).startsWith("jdbc:postgresql");
+    this.ticker = checkNotNull(ticker);
+    this.nextCheckNanos = ticker.read();
+    this.caughtUpNanos = nextCheckNanos;
+    this.previousCheckNanos = nextCheckNanos;
+    this.lastWriteNanos = caughtUpNanos - 1;
+  }
+
+  HikariDataSource getDataSource() {
+    return dataSource;
+  }
+
+  /**
+   * Is the replica currently within the staleness limit and caught up with the writes made on this node?
+   */
+  boolean isUsable() {
+    long now = ticker.read();
+    // only one caller samples the lag; the rest carry on with the last result instead of queueing behind the query
+    if (now - nextCheckNanos >= 0 && checkLock.tryLock()) {
+      try {
+        if (now - nextCheckNanos >= 0) {
+          usable = checkLag(now);
+          nextCheckNanos = now + TimeUnit.MILLISECONDS.toNanos(CHECK_INTERVAL.toMillis());
+        }
+      }
+      finally {
+        checkLock.unlock();
+      }
+    }
+    return usable && lastWriteNanos - caughtUpNanos < 0;
+  }
+
+  /**
+   * Records that a write was committed on the primary.
+   */
+  void writeCommitted() {
+    lastWriteNanos = ticker.read();
+  }
+
+  void close() {
+    dataSource.close();
+  }
+
+  private boolean checkLag(final long sampleNanos) {
+    if (!postgres) {
+      // only PostgreSQL exposes replication progress, assume the replica replays writes within one check interval
+      caughtUpNanos = previousCheckNanos;
+      previousCheckNanos = sampleNanos;
+      return !dataSource.isClosed();
+    }
+    try {
+      String lsn = primaryLsn();
+      try (Connection connection = dataSource.getConnection();
+          PreparedStatement statement = connection.prepareStatement(POSTGRES_LAG_QUERY)) {
+        statement.setString(1, lsn);
+        statement.setString(2, previousLsn != null ? previousLsn : lsn);
+        try (ResultSet resultSet = statement.executeQuery()) {
+          if (!resultSet.next()) {
+            return false;
+          }
+          if (resultSet.getBoolean(2)) {
+            caughtUpNanos = sampleNanos;
+          }
+          else if (previousLsn != null && resultSet.getBoolean(3)) {
+            caughtUpNanos = previousCheckNanos;
+          }
+          previousLsn = lsn;
+          previousCheckNanos = sampleNanos;
+          return withinLimit(resultSet.getLong(1));
+        }
+      }
+    }
+    catch (SQLException | RuntimeException e) {
+      log.warn("Unable to check read replica lag, using primary: {}", e.toString());
+      return false;
+    }
+  }
+
+  private String primaryLsn() throws SQLException {
+    try (Connection connection = primary.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(POSTGRES_PRIMARY_LSN_QUERY)) {
+      if (!resultSet.next()) {
+        throw new SQLException("Primary WAL position unavailable");
+      }
+      return resultSet.getString(1);
+    }
+  }
+
+  private boolean withinLimit(final long lagMillis) {
+    if (lagMillis > maxStalenessMillis) {
+      log.debug("Read replica lag {}ms exceeds {}ms, using primary", lagMillis, maxStalenessMillis);
+      return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.datastore.mybatis;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.goodies.common.ComponentSupport;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * MyBatis {@link Interceptor} that records latency and row counts for each mapped statement.
+ *
+ * Metrics are recorded per statement id (which for templated DAOs already includes the format, for example
+ * {@code MavenAssetDAO.readPath}) and aggregated per format for templated DAOs. Statements slower than the
+ * configured threshold are logged along with their SQL; bind parameters are only ever logged by name.
+ *
+ * @since 3.89
+ */
+@Intercepts({
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "update",
+        args = {MappedStatement.class, Object.class})
+})
+final class StatementMetricsInterceptor
+    extends ComponentSupport
+    implements Interceptor
+{
+  static final String PREFIX = "nexus.datastore";
+
+  private final MetricRegistry registry;
+
+  private final String storeName;
+
+  private final long slowThresholdNanos;
+
+  private final Map<String, String> formatsByNamespace = new ConcurrentHashMap<>();
+
+  private final Map<String, StatementMetrics> metricsById = new ConcurrentHashMap<>();
+
+  /**
+   * @param slowThresholdMillis statements slower than this are logged; zero or negative disables the slow-query log
+   */
+  StatementMetricsInterceptor(final MetricRegistry registry, final String storeName, final long slowThresholdMillis) {
+    this.registry = checkNotNull(registry);
+    this.storeName = checkNotNull(storeName);
+    this.slowThresholdNanos = slowThresholdMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis) : -1;
+  }
+
+  /**
+   * Records the format that a templated DAO namespace belongs to, so its statements are also aggregated per format.
+   */
+  void registerFormat(final String namespace, final String format) {
+    formatsByNamespace.put(namespace, format);
+  }
+
+  @Override
+  public Object plugin(final Object target) {
+    return target instanceof Executor ? Plugin.wrap(target, this) : target;
+  }
+
+  @Override
+  public Object intercept(final Invocation invocation) throws Throwable {
+    MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+    long start = System.nanoTime();
+    Object result = null;
+    try {
+      result = invocation.proceed();
+      return result;
+    }
+    finally {
+      long elapsed = System.nanoTime() - start;
+      int rows = countRows(result);
+      metricsFor(statement.getId()).record(elapsed, rows);
+      if (slowThresholdNanos > 0 && elapsed > slowThresholdNanos) {
+        logSlowStatement(statement, invocation.getArgs()[1], elapsed, rows);
+      }
+    }
+  }
+
+  private StatementMetrics metricsFor(final String statementId) {
+    StatementMetrics metrics = metricsById.get(statementId);
+    if (metrics == null) {
+      metrics = metricsById.computeIfAbsent(statementId, StatementMetrics::new);
+    }
+    return metrics;
+  }
+
+  private void logSlowStatement(
+      final MappedStatement statement,
+      @Nullable final Object parameter,
+      final long elapsedNanos,
+      final int rows)
+  {
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    try {
+      BoundSql boundSql = statement.getBoundSql(parameter);
+      String parameterNames = boundSql.getParameterMappings().stream()
+          .map(ParameterMapping::getProperty)
+          .collect(Collectors.joining(", "));
+      log.warn("Slow statement {} took {} ms ({} rows) [{}] with parameters [{}]",
+          statement.getId(), elapsedMillis, rows, boundSql.getSql().replaceAll("\\s+", " ").trim(), parameterNames);
+    }
+    catch (RuntimeException e) {
+      log.warn("Slow statement {} took {} ms ({} rows)", statement.getId(), elapsedMillis, rows);
+      log.debug("Unable to render SQL for {}", statement.getId(), e);
+    }
+  }
+
+  private static int countRows(@Nullable final Object result) {
+    if (result instanceof Collection<?> collection) {
+      return collection.size();
+    }
+    if (result instanceof Integer count) {
+      return Math.max(count, 0);
+    }
+    return 0;
+  }
+
+  private static String namespace(final String statementId) {
+    int lastDot = statementId.lastIndexOf('.');
+    return lastDot > 0 ? statementId.substring(0, lastDot) : statementId;
+  }
+
+  /**
+   * Metrics kept for each mapped statement, plus the shared per-format metrics where applicable.
+   */
+  private class StatementMetrics
+  {
+    final Timer latency;
+
+    final Histogram rows;
+
+    @Nullable
+    final Timer formatLatency;
+
+    StatementMetrics(final String statementId) {
+      String prefix = name(PREFIX, storeName, "statement", statementId);
+      latency = registry.timer(name(prefix, "latency"));
+      rows = registry.histogram(name(prefix, "rows"));
+
+      String format = formatsByNamespace.get(namespace(statementId));
+      formatLatency = format != null ? registry.timer(name(PREFIX, storeName, "format", format, "latency")) : null;
+    }
+
+    void record(final long elapsedNanos, final int rowCount) {
+      latency.update(elapsedNanos, TimeUnit.NANOSECONDS);
+      rows.update(rowCount);
+      if (formatLatency != null) {
+        formatLatency.update(elapsedNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+}
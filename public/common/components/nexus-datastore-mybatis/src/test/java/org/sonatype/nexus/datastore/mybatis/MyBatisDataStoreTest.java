@@ -20,8 +20,10 @@ import org.sonatype.goodies.testsupport.Test5Support;
 import org.sonatype.nexus.common.app.ApplicationDirectories;
 import org.sonatype.nexus.common.log.LogManager;
 import org.sonatype.nexus.datastore.TransactionalStoreSupport;
+import org.sonatype.nexus.datastore.api.DataAccessException;
 import org.sonatype.nexus.datastore.api.DataStoreConfiguration;
 import org.sonatype.nexus.security.PasswordHelper;
+import org.sonatype.nexus.transaction.TransactionIsolation;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -33,6 +35,7 @@ import org.springframework.context.ApplicationContext;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.verify;
@@ -121,4 +124,55 @@ class MyBatisDataStoreTest
 
     assertThat(postgresStore.isH2Database(), is(false));
   }
+
+  @Test
+  void testReadOnlySessionsUseReadReplica() throws Exception {
+    underTest.stop();
+    configuration.setAttributes(Map.of(
+        "jdbcUrl", "jdbc:h2:mem:${storeName}",
+        "readJdbcUrl", "jdbc:h2:mem:${storeName}-read",
+        "readMaxStaleness", "10"));
+    underTest.setConfiguration(configuration);
+    underTest.start();
+
+    assertThat(underTest.hasReadReplica(), is(true));
+
+    // the schema was only created on the primary, so reads which reach the replica can't see the table
+    try (MyBatisDataSession session = underTest.openSession()) {
+      assertThat(session.isReadReplica(), is(false));
+      assertThat(session.access(TestDAO.class).count(), is(0));
+    }
+    try (MyBatisDataSession session = underTest.openSession(TransactionIsolation.READ_ONLY)) {
+      assertThat(session.isReadReplica(), is(true));
+      assertThrows(DataAccessException.class, () -> session.access(TestDAO.class).count());
+    }
+  }
+
+  @Test
+  void testReadOnlySessionsSeeLocalWrites() throws Exception {
+    underTest.stop();
+    configuration.setAttributes(Map.of(
+        "jdbcUrl", "jdbc:h2:mem:${storeName}",
+        "readJdbcUrl", "jdbc:h2:mem:${storeName}-read",
+        "readMaxStaleness", "10"));
+    underTest.setConfiguration(configuration);
+    underTest.start();
+
+    try (MyBatisDataSession session = underTest.openSession()) {
+      session.access(TestDAO.class).add();
+      session.getTransaction().commit();
+    }
+
+    // replica hasn't been confirmed to include the write yet, so the primary serves the read
+    try (MyBatisDataSession session = underTest.openSession(TransactionIsolation.READ_ONLY)) {
+      assertThat(session.isReadReplica(), is(false));
+      assertThat(session.access(TestDAO.class).count(), is(1));
+    }
+  }
+
+  @Test
+  void testNoReadReplicaByDefault() {
+    assertThat(underTest.hasReadReplica(), is(false));
+    assertDoesNotThrow(() -> underTest.openSession(TransactionIsolation.READ_ONLY).close());
+  }
 }
@@ -0,0 +1,185 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.datastore.mybatis;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.sonatype.goodies.testsupport.Test5Support;
+
+import com.google.common.base.Ticker;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MyBatisReadReplicaTest
+    extends Test5Support
+{
+  @Mock
+  HikariDataSource dataSource;
+
+  @Mock
+  Connection connection;
+
+  @Mock
+  PreparedStatement statement;
+
+  @Mock
+  ResultSet resultSet;
+
+  @Mock
+  HikariDataSource primary;
+
+  @Mock
+  Connection primaryConnection;
+
+  @Mock
+  Statement primaryStatement;
+
+  @Mock
+  ResultSet primaryResultSet;
+
+  final AtomicLong nanos = new AtomicLong();
+
+  final Ticker ticker = new Ticker()
+  {
+    @Override
+    public long read() {
+      return nanos.get();
+    }
+  };
+
+  MyBatisReadReplica underTest;
+
+  @BeforeEach
+  void setup() throws SQLException {
+    when(dataSource.getJdbcUrl()).thenReturn("jdbc:postgresql://replica/nexus");
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true);
+    when(resultSet.getBoolean(2)).thenReturn(true);
+
+    when(primary.getConnection()).thenReturn(primaryConnection);
+    when(primaryConnection.createStatement()).thenReturn(primaryStatement);
+    when(primaryStatement.executeQuery(anyString())).thenReturn(primaryResultSet);
+    when(primaryResultSet.next()).thenReturn(true);
+    when(primaryResultSet.getString(1)).thenReturn("0/1000");
+
+    underTest = new MyBatisReadReplica(dataSource, primary, Duration.ofSeconds(5), ticker);
+  }
+
+  @Test
+  void usableWhenLagWithinLimit() throws SQLException {
+    when(resultSet.getLong(1)).thenReturn(1000L);
+
+    assertThat(underTest.isUsable(), is(true));
+  }
+
+  @Test
+  void unusableWhenLagExceedsLimit() throws SQLException {
+    when(resultSet.getLong(1)).thenReturn(6000L);
+
+    assertThat(underTest.isUsable(), is(false));
+  }
+
+  @Test
+  void unusableWhenLagCannotBeChecked() throws SQLException {
+    when(dataSource.getConnection()).thenThrow(new SQLException("replica down"));
+
+    assertThat(underTest.isUsable(), is(false));
+  }
+
+  @Test
+  void lagIsOnlyCheckedOncePerInterval() throws SQLException {
+    when(resultSet.getLong(1)).thenReturn(6000L, 0L);
+
+    assertThat(underTest.isUsable(), is(false));
+    assertThat(underTest.isUsable(), is(false));
+    verify(statement, times(1)).executeQuery();
+
+    nanos.addAndGet(MyBatisReadReplica.CHECK_INTERVAL.toNanos());
+
+    assertThat(underTest.isUsable(), is(true));
+    verify(statement, times(2)).executeQuery();
+  }
+
+  @Test
+  void primaryIsUsedAfterLocalWriteUntilReplicaCatchesUp() throws SQLException {
+    when(resultSet.getLong(1)).thenReturn(0L);
+    when(primaryResultSet.getString(1)).thenReturn("0/1000", "0/2000", "0/3000");
+    // replica has replayed neither position at the second check, but has replayed 0/2000 by the third
+    when(resultSet.getBoolean(2)).thenReturn(true, false, false);
+    when(resultSet.getBoolean(3)).thenReturn(true, false, true);
+
+    assertThat(underTest.isUsable(), is(true));
+
+    nanos.incrementAndGet();
+    underTest.writeCommitted();
+    assertThat(underTest.isUsable(), is(false));
+
+    nanos.addAndGet(MyBatisReadReplica.CHECK_INTERVAL.toNanos());
+    assertThat(underTest.isUsable(), is(false));
+
+    nanos.addAndGet(MyBatisReadReplica.CHECK_INTERVAL.toNanos());
+    assertThat(underTest.isUsable(), is(true));
+    verify(statement).setString(1, "0/3000");
+    verify(statement).setString(2, "0/2000");
+  }
+
+  @Test
+  void unusableWhenPrimaryPositionCannotBeRead() throws SQLException {
+    when(primary.getConnection()).thenThrow(new SQLException("primary down"));
+
+    assertThat(underTest.isUsable(), is(false));
+  }
+
+  @Test
+  void callersDoNotWaitForLagCheckInProgress() throws Exception {
+    CountDownLatch checking = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(statement.executeQuery()).thenAnswer(invocation -> {
+      checking.countDown();
+      release.await();
+      return resultSet;
+    });
+    when(resultSet.getLong(1)).thenReturn(6000L);
+
+    CompletableFuture<Boolean> check = CompletableFuture.supplyAsync(underTest::isUsable);
+    assertThat(checking.await(5, TimeUnit.SECONDS), is(true));
+
+    // last known state is reported while the slow check is still running
+    assertThat(underTest.isUsable(), is(true));
+
+    release.countDown();
+    assertThat(check.get(5, TimeUnit.SECONDS), is(false));
+    assertThat(underTest.isUsable(), is(false));
+    verify(statement, times(1)).executeQuery();
+  }
+}
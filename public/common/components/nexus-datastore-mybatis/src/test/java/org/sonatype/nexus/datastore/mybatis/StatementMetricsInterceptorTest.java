@@ -0,0 +1,110 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.datastore.mybatis;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.sonatype.goodies.testsupport.Test5Support;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class StatementMetricsInterceptorTest
+    extends Test5Support
+{
+  private static final String NAMESPACE = "org.example.MavenAssetDAO";
+
+  @Mock
+  Executor executor;
+
+  @Mock
+  SqlSource sqlSource;
+
+  final MetricRegistry registry = new MetricRegistry();
+
+  StatementMetricsInterceptor underTest;
+
+  @BeforeEach
+  void setup() {
+    underTest = new StatementMetricsInterceptor(registry, "nexus", 0);
+    underTest.registerFormat(NAMESPACE, "maven");
+  }
+
+  @Test
+  void recordsQueryLatencyAndRows() throws Throwable {
+    when(executor.query(any(), any(), any(), any())).thenReturn(List.of("a", "b", "c"));
+
+    underTest.intercept(query(NAMESPACE + ".readPath"));
+
+    String prefix = "nexus.datastore.nexus.statement." + NAMESPACE + ".readPath";
+    assertThat(registry.timer(prefix + ".latency").getCount(), is(1L));
+    assertThat(registry.histogram(prefix + ".rows").getSnapshot().getMax(), is(3L));
+    assertThat(registry.timer("nexus.datastore.nexus.format.maven.latency").getCount(), is(1L));
+  }
+
+  @Test
+  void recordsUpdateRowCount() throws Throwable {
+    when(executor.update(any(), any())).thenReturn(2);
+
+    underTest.intercept(update("org.example.ConfigDAO.write"));
+
+    String prefix = "nexus.datastore.nexus.statement.org.example.ConfigDAO.write";
+    assertThat(registry.histogram(prefix + ".rows").getSnapshot().getMax(), is(2L));
+    assertThat(registry.getTimers(), not(hasKey("nexus.datastore.nexus.format.config.latency")));
+  }
+
+  @Test
+  void recordsFailedStatements() throws Throwable {
+    when(executor.query(any(), any(), any(), any())).thenThrow(new IllegalStateException("expected"));
+
+    assertThrows(IllegalStateException.class, () -> underTest.intercept(query(NAMESPACE + ".browse")));
+
+    String prefix = "nexus.datastore.nexus.statement." + NAMESPACE + ".browse";
+    assertThat(registry.timer(prefix + ".latency").getCount(), is(1L));
+  }
+
+  private Invocation query(final String statementId) throws NoSuchMethodException {
+    Method method = Executor.class.getMethod("query", MappedStatement.class, Object.class, RowBounds.class,
+        ResultHandler.class);
+    return new Invocation(executor, method,
+        new Object[]{statement(statementId, SqlCommandType.SELECT), null, RowBounds.DEFAULT, null});
+  }
+
+  private Invocation update(final String statementId) throws NoSuchMethodException {
+    Method method = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+    return new Invocation(executor, method, new Object[]{statement(statementId, SqlCommandType.UPDATE), null});
+  }
+
+  private MappedStatement statement(final String statementId, final SqlCommandType type) {
+    return new MappedStatement.Builder(new Configuration(), statementId, sqlSource, type).build();
+  }
+}
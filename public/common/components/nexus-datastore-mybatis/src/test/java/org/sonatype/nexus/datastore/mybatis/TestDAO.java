@@ -17,5 +17,7 @@ import org.sonatype.nexus.datastore.api.DataAccess;
 public interface TestDAO
     extends DataAccess
 {
+  int count();
 
+  void add();
 }
@@ -67,6 +67,8 @@ public abstract class TransactionalStoreSupport<DAO>
       case SERIALIZABLE:
         log.debug("Opening session with serializable transaction isolation");
         return sessionSupplier.openSerializableTransactionSession(storeName);
+      case READ_ONLY:
+        return sessionSupplier.openReadOnlySession(storeName);
       default:
         return sessionSupplier.openSession(storeName);
     }
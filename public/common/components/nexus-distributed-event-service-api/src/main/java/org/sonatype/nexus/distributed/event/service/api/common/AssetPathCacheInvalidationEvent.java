@@ -0,0 +1,72 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.distributed.event.service.api.common;
+
+import java.util.List;
+
+import org.sonatype.nexus.distributed.event.service.api.EventType;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Indicates that cached asset lookups for the given content repository are stale on other nodes.
+ *
+ * An empty list of paths means every cached path in the content repository should be dropped.
+ */
+public class AssetPathCacheInvalidationEvent
+    extends DistributedEventSupport
+{
+  public static final String NAME = "AssetPathCacheInvalidationEvent";
+
+  private final String format;
+
+  private final int repositoryId;
+
+  private final List<String> paths;
+
+  @JsonCreator
+  public AssetPathCacheInvalidationEvent(
+      @JsonProperty("format") final String format,
+      @JsonProperty("repositoryId") final int repositoryId,
+      @JsonProperty("paths") final List<String> paths)
+  {
+    super(EventType.UPDATED);
+    this.format = checkNotNull(format);
+    this.repositoryId = repositoryId;
+    this.paths = paths != null ? List.copyOf(paths) : List.of();
+  }
+
+  public String getFormat() {
+    return format;
+  }
+
+  public int getRepositoryId() {
+    return repositoryId;
+  }
+
+  public List<String> getPaths() {
+    return paths;
+  }
+
+  @Override
+  public String toString() {
+    return "AssetPathCacheInvalidationEvent{" +
+        "format='" + format + '\'' +
+        ", repositoryId=" + repositoryId +
+        ", paths=" + paths +
+        '}';
+  }
+}
@@ -25,6 +25,7 @@ import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.goodies.common.Mutex;
 import org.sonatype.nexus.common.app.BaseUrlManager;
 import org.sonatype.nexus.common.event.EventManager;
+import org.sonatype.nexus.common.profiling.TaskExecutionEvent;
 import org.sonatype.nexus.quartz.internal.QuartzSchedulerSPI;
 import org.sonatype.nexus.scheduling.Cancelable;
 import org.sonatype.nexus.scheduling.Task;
@@ -143,10 +144,15 @@ public class QuartzTaskJob
           mayBlock();
 
           if (!taskFuture.isCancelled()) {
+            TaskExecutionEvent event = new TaskExecutionEvent(config.getId(), config.getTypeId(), config.getName());
+            boolean succeeded = false;
+            event.begin();
             try {
               context.setResult(task.call());
+              succeeded = true;
             }
             finally {
+              event.finish(succeeded);
               // put back any state task modified to have it persisted
               updateJobData(context.getJobDetail(), task.taskConfiguration());
             }
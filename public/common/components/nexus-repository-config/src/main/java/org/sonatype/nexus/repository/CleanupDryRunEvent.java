@@ -22,6 +22,11 @@ public class CleanupDryRunEvent
 
   public static final String STARTED_AT_IN_MILLISECONDS = "startedAt_in_milliseconds";
 
+  /**
+   * @since 3.89
+   */
+  public static final String COMPONENT_COUNT = "component_count";
+
   private final Map<String, Object> reference;
 
   public CleanupDryRunEvent(final Map<String, Object> reference) {
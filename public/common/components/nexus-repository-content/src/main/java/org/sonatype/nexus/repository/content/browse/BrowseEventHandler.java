@@ -228,6 +228,9 @@ public class BrowseEventHandler
       log.debug("Missing repository for event {}", event);
       return;
     }
+    if (!shouldHandle(repository.get())) {
+      return;
+    }
     // bump count if this is the first time we've seen this request key in this batch
     if (pendingAssets.put(requestKey(event), repository.get()) == null) {
       pendingCount.getAndIncrement();
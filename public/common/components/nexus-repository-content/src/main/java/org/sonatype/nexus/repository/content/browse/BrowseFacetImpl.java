@@ -14,6 +14,7 @@ package org.sonatype.nexus.repository.content.browse;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -34,6 +35,7 @@ import org.sonatype.nexus.repository.FacetSupport;
 import org.sonatype.nexus.repository.browse.node.BrowseNode;
 import org.sonatype.nexus.repository.browse.node.BrowsePath;
 import org.sonatype.nexus.repository.content.Component;
+import org.sonatype.nexus.repository.content.browse.store.BrowseNodeBatch;
 import org.sonatype.nexus.repository.content.browse.store.BrowseNodeDAO;
 import org.sonatype.nexus.repository.content.browse.store.BrowseNodeData;
 import org.sonatype.nexus.repository.content.browse.store.BrowseNodeManager;
@@ -43,6 +45,7 @@ import org.sonatype.nexus.repository.content.facet.ContentFacetSupport;
 import org.sonatype.nexus.repository.content.fluent.FluentAsset;
 import org.sonatype.nexus.repository.content.fluent.FluentAssets;
 import org.sonatype.nexus.repository.content.store.FormatStoreManager;
+import org.sonatype.nexus.scheduling.TaskInterruptedException;
 
 import com.google.common.base.Stopwatch;
 import org.springframework.beans.factory.annotation.Value;
@@ -81,23 +84,43 @@ public class BrowseFacetImpl
 
   private final int pageSize;
 
+  private final int parentCacheSize;
+
+  private final Duration parentCacheTtl;
+
+  private final boolean stagedRebuild;
+
   private String format;
 
   private BrowseNodeGenerator browseNodeGenerator;
 
   private BrowseNodeManager browseNodeManager;
 
+  public BrowseFacetImpl(
+      final List<FormatStoreManager> formatStoreManagersByFormatList,
+      final List<BrowseNodeGenerator> browseNodeGeneratorsByFormatList,
+      final int pageSize)
+  {
+    this(formatStoreManagersByFormatList, browseNodeGeneratorsByFormatList, pageSize, 0, Duration.ZERO, false);
+  }
+
   @Inject
   public BrowseFacetImpl(
       final List<FormatStoreManager> formatStoreManagersByFormatList,
       final List<BrowseNodeGenerator> browseNodeGeneratorsByFormatList,
-      @Value("${nexus.browse.rebuild.pageSize:1000}") final int pageSize)
+      @Value("${nexus.browse.rebuild.pageSize:1000}") final int pageSize,
+      @Value("${nexus.browse.parentCache.size:0}") final int parentCacheSize,
+      @Value("${nexus.browse.parentCache.ttl:30s}") final Duration parentCacheTtl,
+      @Value("${nexus.browse.rebuild.staged:true}") final boolean stagedRebuild)
   {
     this.formatStoreManagersByFormat =
         QualifierUtil.buildQualifierBeanMap(checkNotNull(formatStoreManagersByFormatList));
     this.browseNodeGeneratorsByFormat =
         QualifierUtil.buildQualifierBeanMap(checkNotNull(browseNodeGeneratorsByFormatList));
     this.pageSize = max(pageSize, 1);
+    this.parentCacheSize = max(parentCacheSize, 0);
+    this.parentCacheTtl = checkNotNull(parentCacheTtl);
+    this.stagedRebuild = stagedRebuild;
   }
 
   @Override
@@ -112,7 +135,7 @@ public class BrowseFacetImpl
         lookupFormatStoreManager(format).formatStore(storeName, BrowseNodeDAO.class);
 
     browseNodeGenerator = lookupBrowseNodeGenerator(format);
-    browseNodeManager = new BrowseNodeManager(browseNodeStore, repositoryId);
+    browseNodeManager = new BrowseNodeManager(browseNodeStore, repositoryId, parentCacheSize, parentCacheTtl);
   }
 
   @Guarded(by = STARTED)
@@ -132,13 +155,16 @@ public class BrowseFacetImpl
     FluentAssets lookup = facet(ContentFacet.class).assets();
 
     Map<Integer, Integer> componentsProcessed = newComponentCache();
+    BrowseNodeBatch batch = new BrowseNodeBatch();
 
     assetIds.stream()
         .map(lookup::find)
         .filter(Optional::isPresent)
         .map(Optional::get)
         .filter(fluentAsset -> !browseNodeManager.hasAssetNode(fluentAsset))
-        .forEach(fluentAsset -> createBrowseNodes(fluentAsset, componentsProcessed));
+        .forEach(fluentAsset -> addBrowsePaths(fluentAsset, componentsProcessed, batch));
+
+    browseNodeManager.createBrowseNodes(batch);
   }
 
   @Guarded(by = STARTED)
@@ -150,6 +176,10 @@ public class BrowseFacetImpl
   @Guarded(by = STARTED)
   @Override
   public void rebuildBrowseNodes(final Consumer<String> progressUpdater) {
+    if (stagedRebuild && rebuildFromStagedBrowseNodes(progressUpdater)) {
+      return;
+    }
+
     log.info("Deleting browse nodes for repository {}", getRepository().getName());
 
     browseNodeManager.deleteBrowseNodes();
@@ -204,93 +234,154 @@ public class BrowseFacetImpl
     return Optional.ofNullable(browseNodeManager.getByRequestPath(requestPath));
   }
 
+  /**
+   * Rebuild the browse nodes of the repository by staging the paths of every asset and then replacing the existing
+   * tree with one built from them. The old tree stays browsable while paths are staged, which is the slow part.
+   *
+   * @return {@code false} if the staged rebuild failed and the tree should be rebuilt incrementally instead
+   */
+  private boolean rebuildFromStagedBrowseNodes(final Consumer<String> progressUpdater) {
+    String repositoryName = getRepository().getName();
+    log.info("Staging browse nodes for repository {}", repositoryName);
+    try {
+      browseNodeManager.deleteStagedBrowseNodes();
+      forEachBrowseNodeBatch(progressUpdater, browseNodeManager::stageBrowseNodes);
+
+      log.info("Replacing browse nodes for repository {} with staged nodes", repositoryName);
+      Stopwatch sw = Stopwatch.createStarted();
+      int created = browseNodeManager.replaceWithStagedBrowseNodes();
+      log.info("Rebuilt {} browse nodes for repository {} in {} ms", created, repositoryName,
+          sw.elapsed(TimeUnit.MILLISECONDS));
+      return true;
+    }
+    catch (TaskInterruptedException e) {
+      log.warn("Rebuilding browse nodes for repository {} was cancelled, the tree may be incomplete until rebuilt",
+          repositoryName);
+      discardStagedBrowseNodes();
+      return true;
+    }
+    catch (Exception e) {
+      log.warn("Unable to rebuild browse nodes for repository {} from staged nodes, rebuilding incrementally",
+          repositoryName, e);
+      discardStagedBrowseNodes();
+      return false;
+    }
+  }
+
+  private void discardStagedBrowseNodes() {
+    try {
+      browseNodeManager.deleteStagedBrowseNodes();
+    }
+    catch (Exception e) {
+      log.warn("Unable to discard staged browse nodes for repository {}", getRepository().getName(), e);
+    }
+  }
+
   /**
    * Create browse nodes for every asset and their components in the repository.
    */
   private void createAllBrowseNodes(final Consumer<String> progressUpdater) {
-    String repositoryName = getRepository().getName();
     try {
-      FluentAssets assets = getRepository().facet(ContentFacet.class).assets();
-
-      long total = assets.count();
-      if (total > 0) {
-        // useful for formats that have multiple assets per component
-        Map<Integer, Integer> processedComponents = newComponentCache();
-        ProgressLogIntervalHelper progressLogger = new ProgressLogIntervalHelper(log, 60);
-        Stopwatch sw = Stopwatch.createStarted();
-
-        long processed = 0;
-
-        Continuation<FluentAsset> page = assets.browse(pageSize, null);
-        while (!page.isEmpty()) {
-          page.forEach(fluentAsset -> createBrowseNodes(fluentAsset, processedComponents));
-          processed += page.size();
-
-          long elapsed = sw.elapsed(TimeUnit.MILLISECONDS);
-          progressLogger.info("Processed {} / {} {} assets in {} ms",
-              processed, total, repositoryName, elapsed);
-          if (progressUpdater != null) {
-            long percentageComplete = BigDecimal.valueOf(processed)
-                .divide(BigDecimal.valueOf(total),
-                    2, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100))
-                .longValue();
-            progressUpdater.accept(
-                String.format("%d%% Complete", percentageComplete));
-          }
-
-          checkCancellation();
-
-          page = assets.browse(pageSize, page.nextContinuationToken());
+      forEachBrowseNodeBatch(progressUpdater, browseNodeManager::createBrowseNodes);
+    }
+    catch (Exception e) {
+      log.error("Unable to rebuild browse nodes for repository {}", getRepository().getName(), e);
+    }
+  }
+
+  /**
+   * Collect the browse paths of every asset and their components in the repository, a page at a time.
+   */
+  private void forEachBrowseNodeBatch(
+      final Consumer<String> progressUpdater,
+      final Consumer<BrowseNodeBatch> batchConsumer)
+  {
+    String repositoryName = getRepository().getName();
+    FluentAssets assets = getRepository().facet(ContentFacet.class).assets();
+
+    long total = assets.count();
+    if (total > 0) {
+      // useful for formats that have multiple assets per component
+      Map<Integer, Integer> processedComponents = newComponentCache();
+      ProgressLogIntervalHelper progressLogger = new ProgressLogIntervalHelper(log, 60);
+      Stopwatch sw = Stopwatch.createStarted();
+
+      long processed = 0;
+
+      Continuation<FluentAsset> page = assets.browse(pageSize, null);
+      while (!page.isEmpty()) {
+        BrowseNodeBatch batch = new BrowseNodeBatch();
+        page.forEach(fluentAsset -> addBrowsePaths(fluentAsset, processedComponents, batch));
+        batchConsumer.accept(batch);
+        processed += page.size();
+
+        long elapsed = sw.elapsed(TimeUnit.MILLISECONDS);
+        progressLogger.info("Processed {} / {} {} assets in {} ms",
+            processed, total, repositoryName, elapsed);
+        if (progressUpdater != null) {
+          long percentageComplete = BigDecimal.valueOf(processed)
+              .divide(BigDecimal.valueOf(total),
+                  2, RoundingMode.HALF_UP)
+              .multiply(BigDecimal.valueOf(100))
+              .longValue();
+          progressUpdater.accept(
+              String.format("%d%% Complete", percentageComplete));
         }
 
-        progressLogger.flush(); // ensure the final progress message is flushed
+        checkCancellation();
+
+        page = assets.browse(pageSize, page.nextContinuationToken());
       }
-    }
-    catch (Exception e) {
-      log.error("Unable to rebuild browse nodes for repository {}", repositoryName, e);
+
+      progressLogger.flush(); // ensure the final progress message is flushed
     }
   }
 
   /**
-   * Create browse nodes for an asset and it's component. Using a cache of component ids to limit component
+   * Add browse paths for an asset and it's component to the batch. Using a cache of component ids to limit component
    * nodes being recreated
    */
-  private void createBrowseNodes(final FluentAsset asset, final Map<Integer, Integer> componentsProcessed) {
+  private void addBrowsePaths(
+      final FluentAsset asset,
+      final Map<Integer, Integer> componentsProcessed,
+      final BrowseNodeBatch batch)
+  {
     if (browseNodeGenerator.hasMultipleAssetsPerComponent()) {
-      createAssetBrowseNodes(asset);
-      asset.component().ifPresent(component -> createComponentBrowseNodes(asset, component, componentsProcessed));
+      addAssetBrowsePaths(asset, batch);
+      asset.component()
+          .ifPresent(component -> addComponentBrowsePaths(asset, component, componentsProcessed, batch));
     }
     else {
-      createCombinedAssetAndComponentBrowseNodes(asset);
+      addCombinedAssetAndComponentBrowsePaths(asset, batch);
     }
   }
 
   /**
-   * Create browse nodes for each segment in an asset's path, assigning the asset to the final node
+   * Add browse paths for each segment in an asset's path, assigning the asset to the final node
    */
-  private void createAssetBrowseNodes(final FluentAsset asset) {
+  private void addAssetBrowsePaths(final FluentAsset asset, final BrowseNodeBatch batch) {
     List<BrowsePath> assetPaths = browseNodeGenerator.computeAssetPaths(asset);
     if (!assetPaths.isEmpty()) {
-      browseNodeManager.createBrowseNodes(assetPaths, node -> node.setAsset(asset));
+      batch.add(assetPaths, node -> node.setAsset(asset));
     }
   }
 
   /**
-   * Create browse nodes for each segment in an asset's component's path, assigning the component to the final node,
+   * Add browse paths for each segment in an asset's component's path, assigning the component to the final node,
    * if the asset has a component
    */
-  private void createComponentBrowseNodes(
+  private void addComponentBrowsePaths(
       final FluentAsset asset,
       final Component component,
-      final Map<Integer, Integer> componentsProcessed)
+      final Map<Integer, Integer> componentsProcessed,
+      final BrowseNodeBatch batch)
   {
     Integer internalComponentId = internalComponentId(component);
     // null will be returned when adding a key that isn't already in the cache
     if (componentsProcessed.put(internalComponentId, internalComponentId) == null) {
       List<BrowsePath> componentPaths = browseNodeGenerator.computeComponentPaths(asset);
       if (!componentPaths.isEmpty()) {
-        browseNodeManager.createBrowseNodes(componentPaths, node -> {
+        batch.add(componentPaths, node -> {
           node.setComponent(component);
         });
       }
@@ -298,12 +389,12 @@ public class BrowseFacetImpl
   }
 
   /**
-   * Create browse nodes for each segment in the asset's path, and assign the asset and component to the final node
+   * Add browse paths for each segment in the asset's path, and assign the asset and component to the final node
    */
-  private void createCombinedAssetAndComponentBrowseNodes(final FluentAsset asset) {
+  private void addCombinedAssetAndComponentBrowsePaths(final FluentAsset asset, final BrowseNodeBatch batch) {
     List<BrowsePath> assetPaths = browseNodeGenerator.computeAssetPaths(asset);
     if (!assetPaths.isEmpty()) {
-      browseNodeManager.createBrowseNodes(assetPaths, node -> {
+      batch.add(assetPaths, node -> {
         node.setAsset(asset);
         asset.component().ifPresent(node::setComponent);
       });
@@ -0,0 +1,185 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.browse.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.repository.browse.node.BrowsePath;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Browse paths to be created together by {@link BrowseNodeManager#createBrowseNodes(BrowseNodeBatch)}.
+ *
+ * Paths are folded into a tree as they are added, so parents shared by many paths (such as the group directories
+ * of a Maven repository) appear once however many assets sit beneath them.
+ *
+ * @since 3.89
+ */
+public class BrowseNodeBatch
+{
+  private final Map<String, PathNode> roots = new LinkedHashMap<>();
+
+  private final List<Entry> entries = new ArrayList<>();
+
+  private int nodeCount;
+
+  /**
+   * Adds browse nodes for the path, applying a final step to the last node.
+   */
+  public void add(final List<BrowsePath> paths, final Consumer<BrowseNodeData> finalStep) {
+    checkNotNull(finalStep);
+    if (paths.isEmpty()) {
+      return;
+    }
+    entries.add(new Entry(paths, finalStep));
+
+    Map<String, PathNode> siblings = roots;
+    PathNode parent = null;
+    PathNode node = null;
+    for (BrowsePath path : paths) {
+      node = siblings.get(path.getDisplayName());
+      if (node == null) {
+        node = new PathNode(parent, path.getDisplayName(), path.getRequestPath());
+        siblings.put(path.getDisplayName(), node);
+        nodeCount++;
+      }
+      else if (path.getRequestPath().endsWith("/")) {
+        // same rule as merging into the store: directory-style request paths replace earlier ones
+        node.requestPath = path.getRequestPath();
+      }
+      parent = node;
+      siblings = node.children;
+    }
+    node.finalSteps.add(finalStep);
+  }
+
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  /**
+   * Number of paths added to this batch.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Number of distinct browse nodes in this batch.
+   */
+  int nodeCount() {
+    return nodeCount;
+  }
+
+  Collection<PathNode> roots() {
+    return roots.values();
+  }
+
+  List<Entry> entries() {
+    return entries;
+  }
+
+  /**
+   * Paths as they were added, for creating them one at a time.
+   */
+  record Entry(List<BrowsePath> paths, Consumer<BrowseNodeData> finalStep)
+  {
+  }
+
+  /**
+   * Distinct browse node in the batch; {@link #nodeId} is filled in once the node is known to exist in the store.
+   */
+  static final class PathNode
+  {
+    @Nullable
+    private final PathNode parent;
+
+    private final String displayName;
+
+    private final String key;
+
+    private String requestPath;
+
+    private final List<Consumer<BrowseNodeData>> finalSteps = new ArrayList<>(1);
+
+    private final Map<String, PathNode> children = new LinkedHashMap<>();
+
+    @Nullable
+    Long nodeId;
+
+    private PathNode(@Nullable final PathNode parent, final String displayName, final String requestPath) {
+      this.parent = parent;
+      this.displayName = displayName;
+      this.requestPath = requestPath;
+      this.key = parent != null ? parent.key + '/' + escapeKey(displayName) : escapeKey(displayName);
+    }
+
+    @Nullable
+    PathNode parent() {
+      return parent;
+    }
+
+    String displayName() {
+      return displayName;
+    }
+
+    String requestPath() {
+      return requestPath;
+    }
+
+    /**
+     * Display names from the root down to this node, escaped and joined with {@code /}; identifies the node within
+     * the repository tree independently of its request path.
+     */
+    String key() {
+      return key;
+    }
+
+    /**
+     * Internal id of the parent node, or {@code 0} for top-level nodes; only valid once the parent is resolved.
+     */
+    long parentId() {
+      return parent != null ? checkNotNull(parent.nodeId, "Unresolved parent of %s", requestPath) : 0L;
+    }
+
+    /**
+     * Does this node end one of the paths, and so carry component or asset details?
+     */
+    boolean isFinal() {
+      return !finalSteps.isEmpty();
+    }
+
+    /**
+     * Applies the final steps of every path ending at this node.
+     */
+    void applyFinalSteps(final BrowseNodeData node) {
+      finalSteps.forEach(step -> step.accept(node));
+    }
+
+    Collection<PathNode> children() {
+      return children.values();
+    }
+
+    private static String escapeKey(final String displayName) {
+      return displayName.replace("\\", "\\\\").replace("/", "\\/");
+    }
+  }
+}
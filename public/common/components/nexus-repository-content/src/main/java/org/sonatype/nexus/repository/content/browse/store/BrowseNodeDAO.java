@@ -12,6 +12,7 @@
  */
 package org.sonatype.nexus.repository.content.browse.store;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
@@ -72,6 +73,82 @@ public interface BrowseNodeDAO
    */
   void mergeBrowseNode(BrowseNodeData browseNode);
 
+  /**
+   * Finds the browse nodes in the given repository with the given request paths.
+   *
+   * @param repositoryId the repository containing the browse nodes
+   * @param requestPaths the request paths to look for
+   * @return browse nodes found, with their internal ids and parent ids
+   * @since 3.89
+   */
+  List<BrowseNodeData> findByRequestPaths(
+      @Param("repositoryId") int repositoryId,
+      @Param("requestPaths") Collection<String> requestPaths);
+
+  /**
+   * Merges the given browse nodes with the tree of nodes in the content data store, in a single statement.
+   * No two nodes may share the same parent and display name.
+   *
+   * @param browseNodes the nodes to merge
+   * @return the merged nodes, with their internal ids and parent ids
+   * @since 3.89
+   */
+  List<BrowseNodeData> mergeBrowseNodes(@Param("browseNodes") List<BrowseNodeData> browseNodes);
+
+  /**
+   * Adds the given nodes to the staging table used to rebuild a repository tree.
+   *
+   * @param stagedNodes the nodes to stage, duplicates across calls are allowed
+   * @since 3.89
+   */
+  void stageBrowseNodes(@Param("stagedNodes") List<StagedBrowseNode> stagedNodes);
+
+  /**
+   * Gets the depth of the deepest node staged for the given repository.
+   *
+   * @param repositoryId the repository being rebuilt
+   * @return the maximum depth, or {@code null} if nothing is staged
+   * @since 3.89
+   */
+  @Nullable
+  Integer getMaxStagedDepth(@Param("repositoryId") int repositoryId);
+
+  /**
+   * Resolves the internal parent id of the staged nodes at the given depth, from the nodes built at the level above.
+   *
+   * @param repositoryId the repository being rebuilt
+   * @param depth the depth of the nodes to resolve
+   * @since 3.89
+   */
+  void linkStagedParents(@Param("repositoryId") int repositoryId, @Param("depth") int depth);
+
+  /**
+   * Creates one browse node per distinct parent and display name among the staged nodes at the given depth.
+   *
+   * @param repositoryId the repository being rebuilt
+   * @param depth the depth of the nodes to create
+   * @return the number of browse nodes created
+   * @since 3.89
+   */
+  int insertStagedBrowseNodes(@Param("repositoryId") int repositoryId, @Param("depth") int depth);
+
+  /**
+   * Records the internal ids of the browse nodes created for the staged nodes at the given depth.
+   *
+   * @param repositoryId the repository being rebuilt
+   * @param depth the depth of the nodes just created
+   * @since 3.89
+   */
+  void linkStagedBrowseNodes(@Param("repositoryId") int repositoryId, @Param("depth") int depth);
+
+  /**
+   * Deletes the nodes staged for the given repository.
+   *
+   * @param repositoryId the repository being rebuilt
+   * @since 3.89
+   */
+  void deleteStagedBrowseNodes(@Param("repositoryId") int repositoryId);
+
   /**
    * Trims leaf browse nodes in the given repository that no longer have a component or asset.
    *
@@ -12,9 +12,15 @@
  */
 package org.sonatype.nexus.repository.content.browse.store;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
@@ -24,9 +30,17 @@ import org.sonatype.nexus.repository.browse.node.BrowseNode;
 import org.sonatype.nexus.repository.browse.node.BrowsePath;
 import org.sonatype.nexus.repository.content.Asset;
 import org.sonatype.nexus.repository.content.Component;
+import org.sonatype.nexus.repository.content.browse.store.BrowseNodeBatch.PathNode;
 import org.sonatype.nexus.transaction.Transactional;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 import static org.sonatype.nexus.repository.content.store.InternalIds.internalAssetId;
 import static org.sonatype.nexus.repository.content.store.InternalIds.internalComponentId;
 
@@ -42,11 +56,53 @@ public class BrowseNodeManager
 
   private final int repositoryId;
 
+  /**
+   * Parent nodes recently seen in the store, by request path; {@code null} when disabled.
+   *
+   * Only this node's trims and deletes clear it, so it is off by default: in a cluster another node can remove a
+   * remembered parent and children merged under its old id would be orphaned.
+   */
+  @Nullable
+  private final Cache<String, BrowseNodeData> parentNodes;
+
+  /**
+   * Bumped whenever remembered parents are forgotten; parents found by a batch that overlapped that are not kept.
+   */
+  private final AtomicLong parentGeneration = new AtomicLong();
+
   static final int MAX_CHILDREN = 2000;
 
+  static final int LOOKUP_CHUNK_SIZE = 1000;
+
+  static final int MERGE_CHUNK_SIZE = 500;
+
   public BrowseNodeManager(final BrowseNodeStore<BrowseNodeDAO> browseNodeStore, final int repositoryId) {
+    this(browseNodeStore, repositoryId, 0, Duration.ZERO);
+  }
+
+  /**
+   * @param parentCacheSize maximum number of parent nodes to remember between batches, {@code 0} to disable
+   * @param parentCacheTtl how long a remembered parent node is trusted before it is looked up again
+   * @since 3.89
+   */
+  public BrowseNodeManager(
+      final BrowseNodeStore<BrowseNodeDAO> browseNodeStore,
+      final int repositoryId,
+      final int parentCacheSize,
+      final Duration parentCacheTtl)
+  {
     this.browseNodeStore = checkNotNull(browseNodeStore);
     this.repositoryId = repositoryId;
+    checkArgument(parentCacheSize >= 0, "Parent cache size must not be negative");
+    if (parentCacheSize > 0 && parentCacheTtl.compareTo(Duration.ZERO) > 0) {
+      this.parentNodes = CacheBuilder.newBuilder()
+          .maximumSize(parentCacheSize)
+          .expireAfterWrite(parentCacheTtl.toMillis(), TimeUnit.MILLISECONDS)
+          .build();
+    }
+    else {
+      this.parentNodes = null;
+    }
   }
 
   /**
@@ -125,25 +181,252 @@ public class BrowseNodeManager
     }
   }
 
+  /**
+   * Creates browse nodes for every path in the batch (runs in a single transaction).
+   *
+   * Each distinct node is written at most once: parents that already exist are found with one lookup, or from the
+   * parent cache, and the remaining nodes are merged a tree level at a time with multi-row statements. If the batch
+   * hits a duplicate key its paths are retried one at a time, so one bad path doesn't hold back the rest.
+   *
+   * @since 3.89
+   */
+  public void createBrowseNodes(final BrowseNodeBatch batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    long generation = parentGeneration.get();
+    Map<String, BrowseNodeData> parents;
+    try {
+      parents = Transactional.operation.withStore(browseNodeStore).call(() -> doCreateBrowseNodes(batch));
+    }
+    catch (DuplicateKeyException e) {
+      log.debug("Duplicate key creating {} browse paths in repository {}, creating them one at a time",
+          batch.size(), repositoryId, e);
+      batch.entries().forEach(entry -> createBrowseNodes(entry.paths(), entry.finalStep()));
+      return;
+    }
+    // only remember parents once they are committed
+    rememberParents(parents, generation);
+  }
+
+  /**
+   * Creates browse nodes for every path in the batch, returning the parent nodes it found or created.
+   */
+  protected Map<String, BrowseNodeData> doCreateBrowseNodes(final BrowseNodeBatch batch) {
+    Map<String, BrowseNodeData> existingParents = findParents(batch);
+    Map<String, BrowseNodeData> parents = new HashMap<>();
+    int merged = 0;
+
+    List<PathNode> level = new ArrayList<>(batch.roots());
+    while (!level.isEmpty()) {
+      List<PathNode> pending = new ArrayList<>();
+      List<PathNode> nextLevel = new ArrayList<>();
+      for (PathNode node : level) {
+        BrowseNodeData existing = node.isFinal() ? null : existingParents.get(node.requestPath());
+        if (isSameNode(existing, node)) {
+          node.nodeId = existing.nodeId;
+          parents.put(node.requestPath(), existing);
+        }
+        else {
+          pending.add(node);
+        }
+        nextLevel.addAll(node.children());
+      }
+      for (List<PathNode> chunk : Lists.partition(pending, MERGE_CHUNK_SIZE)) {
+        mergeBrowseNodes(chunk, parents);
+      }
+      merged += pending.size();
+      level = nextLevel;
+    }
+
+    log.debug("Created {} browse paths in repository {}: {} distinct nodes, {} merged", batch.size(), repositoryId,
+        batch.nodeCount(), merged);
+    return parents;
+  }
+
+  /**
+   * Finds the parent nodes of the batch that already exist, from the parent cache or with one lookup.
+   */
+  private Map<String, BrowseNodeData> findParents(final BrowseNodeBatch batch) {
+    Map<String, BrowseNodeData> found = new HashMap<>();
+    List<String> lookup = new ArrayList<>();
+
+    List<PathNode> nodes = new ArrayList<>(batch.roots());
+    for (int i = 0; i < nodes.size(); i++) {
+      PathNode node = nodes.get(i);
+      if (!node.isFinal()) {
+        BrowseNodeData cached = parentNodes != null ? parentNodes.getIfPresent(node.requestPath()) : null;
+        if (cached != null) {
+          found.put(node.requestPath(), cached);
+        }
+        else {
+          lookup.add(node.requestPath());
+        }
+      }
+      nodes.addAll(node.children());
+    }
+
+    for (List<String> chunk : Lists.partition(lookup, LOOKUP_CHUNK_SIZE)) {
+      browseNodeStore.findByRequestPaths(repositoryId, chunk).forEach(node -> found.put(node.getPath(), node));
+    }
+    return found;
+  }
+
+  /**
+   * Does the stored node sit where the batch expects it? Otherwise the batch node is merged, which resolves it.
+   */
+  private static boolean isSameNode(@Nullable final BrowseNodeData existing, final PathNode node) {
+    return existing != null && existing.parentId == node.parentId() && node.displayName().equals(existing.getName());
+  }
+
+  private void mergeBrowseNodes(final List<PathNode> nodes, final Map<String, BrowseNodeData> parents) {
+    Map<String, PathNode> byKey = new HashMap<>();
+    List<BrowseNodeData> data = new ArrayList<>(nodes.size());
+    for (PathNode node : nodes) {
+      BrowseNodeData browseNode = new BrowseNodeData();
+      browseNode.setRepositoryId(repositoryId);
+      browseNode.setRequestPath(node.requestPath());
+      browseNode.setDisplayName(node.displayName());
+      browseNode.setParentId(node.parentId());
+      node.applyFinalSteps(browseNode);
+      data.add(browseNode);
+      byKey.put(key(browseNode.parentId, node.displayName()), node);
+    }
+
+    for (BrowseNodeData merged : browseNodeStore.mergeBrowseNodes(data)) {
+      PathNode node = byKey.get(key(merged.parentId, merged.getName()));
+      if (node != null) {
+        node.nodeId = merged.nodeId;
+        if (!node.isFinal()) {
+          parents.put(node.requestPath(), merged);
+        }
+      }
+    }
+
+    for (PathNode node : nodes) {
+      checkState(node.nodeId != null, "Browse node was not merged (repositoryId = %s, path = %s)", repositoryId,
+          node.requestPath());
+    }
+  }
+
+  private static String key(final long parentId, final String displayName) {
+    return parentId + ":" + displayName;
+  }
+
+  /**
+   * Remembers parents found by a batch that started at the given generation, unless they were forgotten since.
+   */
+  @VisibleForTesting
+  void rememberParents(final Map<String, BrowseNodeData> parents, final long generation) {
+    if (parentNodes != null) {
+      parentNodes.putAll(parents);
+      if (parentGeneration.get() != generation) {
+        // overlapped a trim or delete, which may have removed some of these parents
+        parentNodes.invalidateAll();
+      }
+    }
+  }
+
+  @VisibleForTesting
+  long parentGeneration() {
+    return parentGeneration.get();
+  }
+
+  private void forgetParents() {
+    parentGeneration.incrementAndGet();
+    if (parentNodes != null) {
+      parentNodes.invalidateAll();
+    }
+  }
+
+  /**
+   * Forgets remembered parents before the removal, so this batch stops using them, and again after it, in case a
+   * batch that started in between remembered parents which the removal has since deleted.
+   */
+  private <T> T forgettingParents(final Supplier<T> removal) {
+    forgetParents();
+    try {
+      return removal.get();
+    }
+    finally {
+      forgetParents();
+    }
+  }
+
   /**
    * Trims any dangling browse nodes from the repository.
    */
   public void trimBrowseNodes() {
-    browseNodeStore.trimBrowseNodes(repositoryId);
+    forgettingParents(() -> browseNodeStore.trimBrowseNodes(repositoryId));
   }
 
   /**
    * Deletes all browse nodes associated with the repository.
    */
   public void deleteBrowseNodes() {
-    browseNodeStore.deleteBrowseNodes(repositoryId);
+    forgettingParents(() -> browseNodeStore.deleteBrowseNodes(repositoryId));
+  }
+
+  /**
+   * Stages every distinct node in the batch for a later {@link #replaceWithStagedBrowseNodes()} (runs in a single
+   * transaction). Nodes shared with earlier batches are staged again and folded together when the tree is built.
+   *
+   * @since 3.89
+   */
+  public void stageBrowseNodes(final BrowseNodeBatch batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    List<StagedBrowseNode> stagedNodes = new ArrayList<>(batch.nodeCount());
+    List<PathNode> level = new ArrayList<>(batch.roots());
+    for (int depth = 0; !level.isEmpty(); depth++) {
+      List<PathNode> nextLevel = new ArrayList<>();
+      for (PathNode node : level) {
+        stagedNodes.add(stagedNode(node, depth));
+        nextLevel.addAll(node.children());
+      }
+      level = nextLevel;
+    }
+    Transactional.operation.withStore(browseNodeStore).run(() -> Lists.partition(stagedNodes, MERGE_CHUNK_SIZE)
+        .forEach(browseNodeStore::stageBrowseNodes));
+  }
+
+  private StagedBrowseNode stagedNode(final PathNode node, final int depth) {
+    StagedBrowseNode stagedNode = new StagedBrowseNode();
+    stagedNode.setRepositoryId(repositoryId);
+    stagedNode.setRequestPath(node.requestPath());
+    stagedNode.setDisplayName(node.displayName());
+    stagedNode.setDepth(depth);
+    stagedNode.setPathKey(node.key());
+    stagedNode.setParentKey(node.parent() != null ? node.parent().key() : null);
+    node.applyFinalSteps(stagedNode);
+    return stagedNode;
+  }
+
+  /**
+   * Replaces the browse nodes of the repository with a tree built from the staged nodes, in a single transaction.
+   *
+   * @return the number of browse nodes created
+   * @since 3.89
+   */
+  public int replaceWithStagedBrowseNodes() {
+    return forgettingParents(() -> browseNodeStore.replaceWithStagedBrowseNodes(repositoryId));
+  }
+
+  /**
+   * Discards any nodes staged for the repository.
+   *
+   * @since 3.89
+   */
+  public void deleteStagedBrowseNodes() {
+    browseNodeStore.deleteStagedBrowseNodes(repositoryId);
   }
 
   /**
    * Deletes a browse node based on internal asset Id and node path.
    */
   public Long deleteByAssetIdAndPath(final Integer internalAssetId, final String path) {
-    Long parentNode = browseNodeStore.deleteByAssetIdAndPath(internalAssetId, path);
+    Long parentNode = forgettingParents(() -> browseNodeStore.deleteByAssetIdAndPath(internalAssetId, path));
     log.debug("Deleted browse node for asset id {} and path {} - Returned parent node {}", internalAssetId, path,
         parentNode);
     return parentNode;
@@ -153,7 +436,7 @@ public class BrowseNodeManager
    * Deletes a browse node based on internal asset Id
    */
   public Long deleteByAssetId(final Integer internalAssetId) {
-    Long parentNode = browseNodeStore.deleteByAssetId(internalAssetId);
+    Long parentNode = forgettingParents(() -> browseNodeStore.deleteByAssetId(internalAssetId));
     log.debug("Deleted browse node for asset id {} - Returned parent node {}", internalAssetId, parentNode);
     return parentNode;
   }
@@ -169,7 +452,10 @@ public class BrowseNodeManager
    * Deletes the browse node by its internal id.
    */
   public void delete(final Long internalNodeId) {
-    browseNodeStore.delete(internalNodeId);
+    forgettingParents(() -> {
+      browseNodeStore.delete(internalNodeId);
+      return null;
+    });
   }
 
   /**
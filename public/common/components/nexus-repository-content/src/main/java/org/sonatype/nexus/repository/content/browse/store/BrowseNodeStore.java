@@ -12,6 +12,7 @@
  */
 package org.sonatype.nexus.repository.content.browse.store;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +25,8 @@ import org.sonatype.nexus.transaction.Transactional;
 
 import jakarta.inject.Inject;
 
+import static org.sonatype.nexus.transaction.TransactionIsolation.READ_ONLY;
+
 /**
  * Browse node store.
  *
@@ -51,7 +54,7 @@ public class BrowseNodeStore<T extends BrowseNodeDAO>
    * @param filterParams parameter map for the optional filter
    * @return browse nodes found directly under the display path
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public List<BrowseNode> getByDisplayPath(
       final int repositoryId,
       final List<String> displayPath,
@@ -88,6 +91,86 @@ public class BrowseNodeStore<T extends BrowseNodeDAO>
     dao().mergeBrowseNode(browseNode);
   }
 
+  /**
+   * Finds the browse nodes in the given repository with the given request paths.
+   *
+   * @param repositoryId the repository containing the browse nodes
+   * @param requestPaths the request paths to look for
+   * @return browse nodes found, with their internal ids and parent ids
+   * @since 3.89
+   */
+  @Transactional
+  public List<BrowseNodeData> findByRequestPaths(final int repositoryId, final Collection<String> requestPaths) {
+    return dao().findByRequestPaths(repositoryId, requestPaths);
+  }
+
+  /**
+   * Merges the given browse nodes with the tree of nodes in the content data store, in a single statement.
+   *
+   * @param browseNodes the nodes to merge, no two sharing the same parent and display name
+   * @return the merged nodes, with their internal ids and parent ids
+   * @since 3.89
+   */
+  @Transactional
+  public List<BrowseNodeData> mergeBrowseNodes(final List<BrowseNodeData> browseNodes) {
+    return dao().mergeBrowseNodes(browseNodes);
+  }
+
+  /**
+   * Adds the given nodes to the staging area used to rebuild a repository tree.
+   *
+   * @param stagedNodes the nodes to stage
+   * @since 3.89
+   */
+  @Transactional
+  public void stageBrowseNodes(final List<StagedBrowseNode> stagedNodes) {
+    dao().stageBrowseNodes(stagedNodes);
+  }
+
+  /**
+   * Replaces the tree of browse nodes in the given repository with one built from its staged nodes, then clears the
+   * staging area. The new tree shares request paths and assets with the old one, so the old nodes are deleted first
+   * in committed batches; the new tree is then built with one set of statements per level, committing each level.
+   *
+   * @param repositoryId the repository being rebuilt
+   * @return the number of browse nodes created
+   * @since 3.89
+   */
+  @Transactional
+  public int replaceWithStagedBrowseNodes(final int repositoryId) {
+    log.debug("Replacing browse nodes in repository {} with staged nodes", repositoryId);
+
+    deleteBrowseNodes(repositoryId);
+
+    int created = 0;
+    Integer maxDepth = dao().getMaxStagedDepth(repositoryId);
+    if (maxDepth != null) {
+      for (int depth = 0; depth <= maxDepth; depth++) {
+        dao().linkStagedParents(repositoryId, depth);
+        created += dao().insertStagedBrowseNodes(repositoryId, depth);
+        if (depth < maxDepth) {
+          dao().linkStagedBrowseNodes(repositoryId, depth);
+        }
+        commitChangesSoFar();
+      }
+    }
+    dao().deleteStagedBrowseNodes(repositoryId);
+
+    log.debug("Replaced browse nodes in repository {} with {} staged nodes", repositoryId, created);
+    return created;
+  }
+
+  /**
+   * Deletes any nodes staged for the given repository.
+   *
+   * @param repositoryId the repository being rebuilt
+   * @since 3.89
+   */
+  @Transactional
+  public void deleteStagedBrowseNodes(final int repositoryId) {
+    dao().deleteStagedBrowseNodes(repositoryId);
+  }
+
   /**
    * Trims any dangling browse nodes from the given repository.
    *
@@ -195,7 +278,7 @@ public class BrowseNodeStore<T extends BrowseNodeDAO>
    * @param requestPath the request path of the node
    * @return the browse node or {@code null} if not found
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public BrowseNode getByRequestPath(final int repositoryId, final String requestPath) {
     return dao().getByRequestPath(repositoryId, requestPath)
         .stream()
@@ -210,7 +293,7 @@ public class BrowseNodeStore<T extends BrowseNodeDAO>
    * @param limit when positive limits the number of browse nodes returned
    * @return list of child nodes
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public List<BrowseNode> getChildByParentNodeId(final Long parentNodeId, final int limit, final int offset) {
     return dao().getChildByParentNodeId(parentNodeId, limit, offset);
   }
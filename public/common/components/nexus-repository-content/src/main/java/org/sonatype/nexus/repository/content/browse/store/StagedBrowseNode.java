@@ -0,0 +1,57 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.browse.store;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link BrowseNodeData} staged for a set-based rebuild of the repository tree.
+ *
+ * Staged nodes are linked to their parents by key rather than by internal id, because ids are only assigned when the
+ * tree is built; see {@link BrowseNodeStore#replaceWithStagedBrowseNodes(int)}.
+ *
+ * @since 3.89
+ */
+public class StagedBrowseNode
+    extends BrowseNodeData
+{
+  int depth; // NOSONAR: staging column
+
+  String pathKey; // NOSONAR: staging column
+
+  @Nullable
+  String parentKey; // NOSONAR: staging column
+
+  /**
+   * Sets the depth of this node in the tree, where top-level nodes have depth {@code 0}.
+   */
+  public void setDepth(final int depth) {
+    this.depth = depth;
+  }
+
+  /**
+   * Sets the key identifying this node within the repository tree.
+   */
+  public void setPathKey(final String pathKey) {
+    this.pathKey = checkNotNull(pathKey);
+  }
+
+  /**
+   * Sets the key of the parent node, {@code null} for top-level nodes.
+   */
+  public void setParentKey(@Nullable final String parentKey) {
+    this.parentKey = parentKey;
+  }
+}
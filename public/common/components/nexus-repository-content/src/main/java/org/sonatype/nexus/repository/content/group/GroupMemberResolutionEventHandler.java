@@ -0,0 +1,68 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.group;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.common.event.EventAware;
+import org.sonatype.nexus.repository.content.event.asset.AssetCreatedEvent;
+import org.sonatype.nexus.repository.content.event.asset.AssetDeletedEvent;
+import org.sonatype.nexus.repository.content.event.asset.AssetPurgedEvent;
+import org.sonatype.nexus.repository.group.GroupMemberResolutionCache;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import org.springframework.stereotype.Component;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Invalidates {@link GroupMemberResolutionCache} entries when content appears in or disappears from a repository,
+ * as that can change which group member serves a path first.
+ *
+ * @since 3.89
+ */
+@Component
+@Singleton
+public class GroupMemberResolutionEventHandler
+    extends ComponentSupport
+    implements EventAware // not asynchronous: entries should be gone before the next request is served
+{
+  private final GroupMemberResolutionCache memberResolutionCache;
+
+  @Inject
+  public GroupMemberResolutionEventHandler(final GroupMemberResolutionCache memberResolutionCache) {
+    this.memberResolutionCache = checkNotNull(memberResolutionCache);
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final AssetCreatedEvent event) {
+    memberResolutionCache.invalidatePath(event.getAsset().path());
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final AssetDeletedEvent event) {
+    memberResolutionCache.invalidatePath(event.getAsset().path());
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final AssetPurgedEvent event) {
+    // purge events only carry internal ids
+    memberResolutionCache.invalidateAll();
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.importtask;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Splitter;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Records how far a bulk import has progressed so an interrupted import can resume.
+ *
+ * Files are walked in {@link #PATH_ORDER} and handed out with increasing sequence numbers; the watermark is the last
+ * path for which it and every path before it have been handled, regardless of the order the workers finish in.
+ * Files which failed to import count as handled for the watermark but are recorded separately, so a resumed import
+ * retries them without holding back the rest of the import.
+ *
+ * @since 3.89
+ */
+class BulkImportCheckpoint
+{
+  /**
+   * Orders relative paths element by element, matching a walk which visits directory entries sorted by name.
+   */
+  static final Comparator<String> PATH_ORDER = (left, right) -> {
+    Iterator<String> l = Splitter.on('/').split(left).iterator();
+    Iterator<String> r = Splitter.on('/').split(right).iterator();
+    while (l.hasNext() && r.hasNext()) {
+      int result = l.next().compareTo(r.next());
+      if (result != 0) {
+        return result;
+      }
+    }
+    return Boolean.compare(l.hasNext(), r.hasNext());
+  };
+
+  private static final String DIRECTORY_KEY = "directory";
+
+  private static final String WATERMARK_KEY = "watermark";
+
+  private static final String FAILED_KEY_PREFIX = "failed.";
+
+  private final File file;
+
+  private final File directory;
+
+  @Nullable
+  private final String resumeAfter;
+
+  private final Set<String> retry;
+
+  private final Set<String> failed = new TreeSet<>(PATH_ORDER);
+
+  private final TreeMap<Long, String> pending = new TreeMap<>();
+
+  private final Set<Long> done = new HashSet<>();
+
+  @Nullable
+  private String watermark;
+
+  private BulkImportCheckpoint(
+      final File file,
+      final File directory,
+      @Nullable final String resumeAfter,
+      final Set<String> retry)
+  {
+    this.file = checkNotNull(file);
+    this.directory = checkNotNull(directory);
+    this.resumeAfter = resumeAfter;
+    this.retry = checkNotNull(retry);
+    this.watermark = resumeAfter;
+    // earlier failures stay recorded until they are imported
+    this.failed.addAll(retry);
+  }
+
+  /**
+   * Loads the checkpoint left behind by an earlier import of the same directory, if any.
+   */
+  static BulkImportCheckpoint load(final File file, final File directory) throws IOException {
+    String resumeAfter = null;
+    Set<String> retry = new HashSet<>();
+    if (file.isFile()) {
+      Properties properties = new Properties();
+      try (InputStream in = Files.newInputStream(file.toPath())) {
+        properties.load(in);
+      }
+      if (directory.getAbsolutePath().equals(properties.getProperty(DIRECTORY_KEY))) {
+        resumeAfter = properties.getProperty(WATERMARK_KEY);
+        for (String key : properties.stringPropertyNames()) {
+          if (key.startsWith(FAILED_KEY_PREFIX)) {
+            retry.add(properties.getProperty(key));
+          }
+        }
+      }
+    }
+    return new BulkImportCheckpoint(file, directory, resumeAfter, retry);
+  }
+
+  /**
+   * The path after which an earlier import was interrupted, or {@code null} when starting afresh.
+   */
+  @Nullable
+  String getResumeAfter() {
+    return resumeAfter;
+  }
+
+  /**
+   * Returns {@code true} if the path was already imported by an earlier import.
+   */
+  boolean isHandled(final String path) {
+    return resumeAfter != null && PATH_ORDER.compare(path, resumeAfter) <= 0 && !retry.contains(path);
+  }
+
+  synchronized void started(final long sequence, final String path) {
+    pending.put(sequence, path);
+  }
+
+  synchronized void completed(final long sequence) {
+    failed.remove(pending.get(sequence));
+    handled(sequence);
+  }
+
+  synchronized void failed(final long sequence) {
+    failed.add(pending.get(sequence));
+    handled(sequence);
+  }
+
+  private void handled(final long sequence) {
+    done.add(sequence);
+    while (!pending.isEmpty() && done.remove(pending.firstKey())) {
+      String path = pending.pollFirstEntry().getValue();
+      // retried failures come before the watermark they were resumed from
+      if (watermark == null || PATH_ORDER.compare(path, watermark) > 0) {
+        watermark = path;
+      }
+    }
+  }
+
+  @Nullable
+  synchronized String getWatermark() {
+    return watermark;
+  }
+
+  /**
+   * The paths which failed to import and have not been imported since.
+   */
+  synchronized Set<String> getFailed() {
+    return new TreeSet<>(failed);
+  }
+
+  /**
+   * Persists the current watermark and failed paths, replacing any earlier checkpoint for the same import.
+   */
+  void save() throws IOException {
+    Properties properties = new Properties();
+    synchronized (this) {
+      if (watermark == null && failed.isEmpty()) {
+        return;
+      }
+      if (watermark != null) {
+        properties.setProperty(WATERMARK_KEY, watermark);
+      }
+      int index = 0;
+      for (String path : failed) {
+        properties.setProperty(FAILED_KEY_PREFIX + index++, path);
+      }
+    }
+    properties.setProperty(DIRECTORY_KEY, directory.getAbsolutePath());
+
+    Path target = file.toPath();
+    Files.createDirectories(target.getParent());
+    Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+    try (OutputStream out = Files.newOutputStream(temp)) {
+      properties.store(out, null);
+    }
+    Files.move(temp, target, REPLACE_EXISTING, ATOMIC_MOVE);
+  }
+
+  /**
+   * Removes the checkpoint once the import has completed.
+   */
+  void delete() throws IOException {
+    Files.deleteIfExists(file.toPath());
+  }
+}
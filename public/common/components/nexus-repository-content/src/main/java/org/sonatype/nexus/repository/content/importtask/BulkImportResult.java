@@ -0,0 +1,74 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.importtask;
+
+/**
+ * Summary of a bulk import.
+ *
+ * @since 3.89
+ */
+public class BulkImportResult
+{
+  private final long imported;
+
+  private final long skipped;
+
+  private final long failed;
+
+  private final boolean completed;
+
+  public BulkImportResult(final long imported, final long skipped, final long failed, final boolean completed) {
+    this.imported = imported;
+    this.skipped = skipped;
+    this.failed = failed;
+    this.completed = completed;
+  }
+
+  /**
+   * Number of files imported into the repository.
+   */
+  public long getImported() {
+    return imported;
+  }
+
+  /**
+   * Number of files skipped, either because the format ignores them or because an earlier run already imported them.
+   */
+  public long getSkipped() {
+    return skipped;
+  }
+
+  /**
+   * Number of files which could not be imported.
+   */
+  public long getFailed() {
+    return failed;
+  }
+
+  /**
+   * {@code false} if the import was cancelled or interrupted before the whole directory was walked.
+   */
+  public boolean isCompleted() {
+    return completed;
+  }
+
+  @Override
+  public String toString() {
+    return "BulkImportResult{" +
+        "imported=" + imported +
+        ", skipped=" + skipped +
+        ", failed=" + failed +
+        ", completed=" + completed +
+        '}';
+  }
+}
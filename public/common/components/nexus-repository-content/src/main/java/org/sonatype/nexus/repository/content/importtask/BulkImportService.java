@@ -0,0 +1,433 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.importtask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.common.app.ApplicationDirectories;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.browse.node.BrowseNodeEventHandler;
+import org.sonatype.nexus.repository.browse.node.RebuildBrowseNodeFailedException;
+import org.sonatype.nexus.repository.browse.node.RebuildBrowseNodeService;
+import org.sonatype.nexus.repository.content.search.SearchEventHandler;
+import org.sonatype.nexus.repository.importtask.ImportFileConfiguration;
+import org.sonatype.nexus.repository.importtask.ImportResult;
+import org.sonatype.nexus.repository.importtask.ImportResult.FileAsset;
+import org.sonatype.nexus.repository.search.index.SearchIndexFacet;
+import org.sonatype.nexus.repository.upload.UploadManager;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.nexus.thread.NexusThreadFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+
+/**
+ * Imports a directory tree into a repository through a bounded parallel pipeline.
+ *
+ * A single walker visits the directory in a stable order and feeds a bounded queue; worker threads take files from
+ * the queue and hand them to the format's {@link UploadManager#handle(ImportFileConfiguration) import handler}, which
+ * hashes and hard links or copies each file into the blob store. Browse and search updates for the repository are
+ * deferred while importing and rebuilt once at the end. Progress is checkpointed under the work directory so a
+ * cancelled or interrupted import of the same directory resumes where it left off.
+ *
+ * @since 3.89
+ */
+@Component
+@Singleton
+public class BulkImportService
+    extends ComponentSupport
+{
+  private static final String CONFIG_PREFIX = "nexus.import.bulk.";
+
+  private static final String CHECKPOINT_DIRECTORY = "import";
+
+  private static final long POLL_MILLIS = 100;
+
+  private final UploadManager uploadManager;
+
+  private final RebuildBrowseNodeService rebuildBrowseNodeService;
+
+  private final List<BrowseNodeEventHandler> browseNodeEventHandlers;
+
+  private final List<SearchEventHandler> searchEventHandlers;
+
+  private final ApplicationDirectories applicationDirectories;
+
+  private final int threads;
+
+  private final int queueSize;
+
+  private final int batchSize;
+
+  private final Duration checkpointInterval;
+
+  @Inject
+  public BulkImportService(
+      final UploadManager uploadManager,
+      final RebuildBrowseNodeService rebuildBrowseNodeService,
+      final List<BrowseNodeEventHandler> browseNodeEventHandlers,
+      final List<SearchEventHandler> searchEventHandlers,
+      final ApplicationDirectories applicationDirectories,
+      @Value("${" + CONFIG_PREFIX + "threads:8}") final int threads,
+      @Value("${" + CONFIG_PREFIX + "queueSize:1000}") final int queueSize,
+      @Value("${" + CONFIG_PREFIX + "batchSize:500}") final int batchSize,
+      @Value("${" + CONFIG_PREFIX + "checkpointInterval:30s}") final Duration checkpointInterval)
+  {
+    this.uploadManager = checkNotNull(uploadManager);
+    this.rebuildBrowseNodeService = checkNotNull(rebuildBrowseNodeService);
+    this.browseNodeEventHandlers = checkNotNull(browseNodeEventHandlers);
+    this.searchEventHandlers = checkNotNull(searchEventHandlers);
+    this.applicationDirectories = checkNotNull(applicationDirectories);
+    checkArgument(threads > 0, CONFIG_PREFIX + "threads must be positive");
+    this.threads = threads;
+    checkArgument(queueSize > 0, CONFIG_PREFIX + "queueSize must be positive");
+    this.queueSize = queueSize;
+    checkArgument(batchSize > 0, CONFIG_PREFIX + "batchSize must be positive");
+    this.batchSize = batchSize;
+    this.checkpointInterval = checkNotNull(checkpointInterval);
+  }
+
+  /**
+   * Imports every file under the directory into the repository, using the path relative to the directory as the
+   * asset name.
+   *
+   * @param repository          the repository to import into
+   * @param directory           the base directory to import from
+   * @param hardLinkingEnabled  true to hard link files into the blob store instead of copying them
+   * @param canceled            polled while walking; returning {@code true} stops the import at a resumable point
+   * @param progressUpdater     receives periodic progress messages
+   */
+  public BulkImportResult importDirectory(
+      final Repository repository,
+      final File directory,
+      final boolean hardLinkingEnabled,
+      final BooleanSupplier canceled,
+      final Consumer<String> progressUpdater) throws IOException
+  {
+    checkNotNull(repository);
+    checkArgument(directory.isDirectory(), "%s is not a directory", directory);
+    checkNotNull(canceled);
+    checkNotNull(progressUpdater);
+
+    BulkImportCheckpoint checkpoint = BulkImportCheckpoint.load(checkpointFile(repository, directory), directory);
+    if (checkpoint.getResumeAfter() != null) {
+      log.info("Resuming import of {} into {} after {}", directory, repository.getName(), checkpoint.getResumeAfter());
+    }
+
+    Pipeline pipeline = new Pipeline(repository, directory, hardLinkingEnabled, checkpoint, canceled, progressUpdater);
+
+    deferIndexing(repository);
+    try {
+      pipeline.run();
+    }
+    finally {
+      resumeIndexing(repository);
+      pipeline.saveCheckpoint();
+      rebuildIndexes(repository, progressUpdater);
+    }
+
+    BulkImportResult result = pipeline.result();
+    log.info("Import of {} into {} finished: {}", directory, repository.getName(), result);
+    return result;
+  }
+
+  @VisibleForTesting
+  File checkpointFile(final Repository repository, final File directory) {
+    String name = repository.getName() + '-' + Integer.toHexString(directory.getAbsolutePath().hashCode());
+    return new File(applicationDirectories.getWorkDirectory(CHECKPOINT_DIRECTORY), name + ".properties");
+  }
+
+  private void deferIndexing(final Repository repository) {
+    browseNodeEventHandlers.forEach(handler -> handler.pauseEventProcessing(repository.getName()));
+    searchEventHandlers.forEach(handler -> handler.setProcessEvents(repository.getName(), false));
+  }
+
+  private void resumeIndexing(final Repository repository) {
+    browseNodeEventHandlers.forEach(handler -> handler.resumeEventProcessing(repository.getName()));
+    searchEventHandlers.forEach(handler -> handler.setProcessEvents(repository.getName(), true));
+  }
+
+  private void rebuildIndexes(final Repository repository, final Consumer<String> progressUpdater) {
+    try {
+      rebuildBrowseNodeService.rebuild(repository, progressUpdater);
+    }
+    catch (RebuildBrowseNodeFailedException e) {
+      log.error("Could not rebuild browse nodes for {} after import, run the rebuild browse task", repository, e);
+    }
+    try {
+      repository.optionalFacet(SearchIndexFacet.class).ifPresent(SearchIndexFacet::rebuildIndex);
+    }
+    catch (Exception e) {
+      log.error("Could not rebuild search index for {} after import, run the rebuild index task", repository, e);
+    }
+  }
+
+  /**
+   * A file queued for import.
+   */
+  private static class Item
+  {
+    private final long sequence;
+
+    private final File file;
+
+    private final String path;
+
+    private Item(final long sequence, final File file, final String path) {
+      this.sequence = sequence;
+      this.file = file;
+      this.path = path;
+    }
+  }
+
+  /**
+   * State of a single import: the walker runs on the calling thread and feeds the worker pool.
+   */
+  private class Pipeline
+  {
+    private final Repository repository;
+
+    private final File directory;
+
+    private final boolean hardLinkingEnabled;
+
+    private final BulkImportCheckpoint checkpoint;
+
+    private final BooleanSupplier canceled;
+
+    private final Consumer<String> progressUpdater;
+
+    private final BlockingQueue<Item> queue = new ArrayBlockingQueue<>(queueSize);
+
+    private final AtomicLong imported = new AtomicLong();
+
+    private final AtomicLong skipped = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean walking = true;
+
+    private boolean completed;
+
+    private long sequence;
+
+    private long lastCheckpoint = System.nanoTime();
+
+    private Pipeline(
+        final Repository repository,
+        final File directory,
+        final boolean hardLinkingEnabled,
+        final BulkImportCheckpoint checkpoint,
+        final BooleanSupplier canceled,
+        final Consumer<String> progressUpdater)
+    {
+      this.repository = repository;
+      this.directory = directory;
+      this.hardLinkingEnabled = hardLinkingEnabled;
+      this.checkpoint = checkpoint;
+      this.canceled = canceled;
+      this.progressUpdater = progressUpdater;
+    }
+
+    void run() throws IOException {
+      ExecutorService workers = Executors.newFixedThreadPool(threads,
+          new NexusThreadFactory("bulk-import", "bulk-import-" + repository.getName()));
+      try {
+        for (int i = 0; i < threads; i++) {
+          workers.execute(this::work);
+        }
+        completed = walk(directory.toPath(), "");
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        log.warn("Import of {} into {} was interrupted", directory, repository.getName());
+      }
+      finally {
+        if (!completed) {
+          // files still queued have not been started, so the checkpoint stays before them
+          queue.clear();
+        }
+        walking = false;
+        workers.shutdown();
+        awaitWorkers(workers);
+      }
+    }
+
+    /**
+     * Walks directory entries sorted by name so the order is stable across runs and matches the checkpoint order.
+     *
+     * @return {@code false} if the walk was cancelled
+     */
+    private boolean walk(final Path dir, final String prefix) throws IOException, InterruptedException {
+      List<Path> entries = new ArrayList<>();
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+        stream.forEach(entries::add);
+      }
+      entries.sort(Comparator.comparing(entry -> entry.getFileName().toString()));
+
+      for (Path entry : entries) {
+        String path = prefix + entry.getFileName();
+        if (Files.isDirectory(entry, NOFOLLOW_LINKS)) {
+          if (!walk(entry, path + '/')) {
+            return false;
+          }
+        }
+        else if (Files.isRegularFile(entry)) {
+          if (checkpoint.isHandled(path)) {
+            skipped.incrementAndGet();
+            continue;
+          }
+          if (!enqueue(new Item(sequence++, entry.toFile(), path))) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    private boolean enqueue(final Item item) throws InterruptedException {
+      checkpoint.started(item.sequence, item.path);
+      do {
+        if (canceled.getAsBoolean()) {
+          log.info("Import of {} into {} was cancelled", directory, repository.getName());
+          return false;
+        }
+        maybeCheckpoint();
+      }
+      while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS));
+      return true;
+    }
+
+    private void work() {
+      List<FileAsset> batch = new ArrayList<>(batchSize);
+      try {
+        Item item;
+        while ((item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) != null || walking) {
+          if (item != null) {
+            importFile(item, batch);
+            if (batch.size() >= batchSize) {
+              afterImport(batch);
+            }
+          }
+        }
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      finally {
+        afterImport(batch);
+      }
+    }
+
+    private void importFile(final Item item, final List<FileAsset> batch) {
+      try {
+        Content content = uploadManager.handle(
+            new ImportFileConfiguration(repository, item.file, item.path, hardLinkingEnabled));
+        if (content != null) {
+          imported.incrementAndGet();
+          batch.add(new FileAsset(item.file, item.path));
+        }
+        else {
+          skipped.incrementAndGet();
+        }
+        checkpoint.completed(item.sequence);
+      }
+      catch (Exception e) {
+        // failed files are recorded with the checkpoint so a resumed import retries them
+        checkpoint.failed(item.sequence);
+        failed.incrementAndGet();
+        log.warn("Could not import {} into {}", item.path, repository.getName(),
+            log.isDebugEnabled() ? e : e.toString());
+      }
+    }
+
+    private void afterImport(final List<FileAsset> batch) {
+      if (batch.isEmpty()) {
+        return;
+      }
+      try {
+        uploadManager.handleAfterImport(new ImportResult(repository, new ArrayList<>(batch)));
+      }
+      catch (Exception e) {
+        log.warn("Post-import handling failed for {} files in {}", batch.size(), repository.getName(), e);
+      }
+      batch.clear();
+    }
+
+    private void maybeCheckpoint() {
+      long now = System.nanoTime();
+      if (now - lastCheckpoint >= checkpointInterval.toNanos()) {
+        lastCheckpoint = now;
+        saveCheckpoint();
+        progressUpdater.accept(String.format("Imported %d files (%d skipped, %d failed) into %s",
+            imported.get(), skipped.get(), failed.get(), repository.getName()));
+      }
+    }
+
+    void saveCheckpoint() {
+      try {
+        // keep the checkpoint after a complete walk when files failed, so only those are retried next time
+        if (completed && checkpoint.getFailed().isEmpty()) {
+          checkpoint.delete();
+        }
+        else {
+          checkpoint.save();
+        }
+      }
+      catch (IOException e) {
+        log.warn("Could not update import checkpoint for {}", repository.getName(), e);
+      }
+    }
+
+    private void awaitWorkers(final ExecutorService workers) {
+      try {
+        while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+          log.info("Waiting for files still being imported into {}", repository.getName());
+        }
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        workers.shutdownNow();
+      }
+    }
+
+    BulkImportResult result() {
+      return new BulkImportResult(imported.get(), skipped.get(), failed.get(), completed);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.importtask;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import jakarta.inject.Inject;
+
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.RepositoryTaskSupport;
+import org.sonatype.nexus.repository.types.HostedType;
+import org.sonatype.nexus.scheduling.Cancelable;
+import org.sonatype.nexus.scheduling.spi.TaskResultStateStore;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Task to bulk import a directory tree into a hosted repository.
+ *
+ * @see BulkImportService
+ * @since 3.89
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+public class BulkImportTask
+    extends RepositoryTaskSupport
+    implements Cancelable
+{
+  public static final String DIRECTORY_FIELD_ID = "directory";
+
+  public static final String HARD_LINK_FIELD_ID = "hardLink";
+
+  private final BulkImportService bulkImportService;
+
+  private final TaskResultStateStore taskResultStateStore;
+
+  @Inject
+  public BulkImportTask(
+      final BulkImportService bulkImportService,
+      final TaskResultStateStore taskResultStateStore)
+  {
+    this.bulkImportService = checkNotNull(bulkImportService);
+    this.taskResultStateStore = checkNotNull(taskResultStateStore);
+  }
+
+  @Override
+  protected void execute(final Repository repository) {
+    File directory = new File(getConfiguration().getString(DIRECTORY_FIELD_ID));
+    boolean hardLink = getConfiguration().getBoolean(HARD_LINK_FIELD_ID, false);
+    try {
+      BulkImportResult result = bulkImportService.importDirectory(repository, directory, hardLink, this::isCanceled,
+          progressMessage -> updateProgress(taskResultStateStore, progressMessage));
+      updateProgress(taskResultStateStore, String.format("Imported %d files (%d skipped, %d failed) into %s",
+          result.getImported(), result.getSkipped(), result.getFailed(), repository.getName()));
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  protected boolean appliesTo(final Repository repository) {
+    return HostedType.NAME.equals(repository.getType().getValue());
+  }
+
+  @Override
+  public String getMessage() {
+    return "Bulk import " + getConfiguration().getString(DIRECTORY_FIELD_ID) + " into " + getRepositoryField();
+  }
+}
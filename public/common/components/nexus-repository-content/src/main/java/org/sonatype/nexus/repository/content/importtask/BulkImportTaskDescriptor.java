@@ -0,0 +1,67 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.importtask;
+
+import jakarta.inject.Singleton;
+
+import org.sonatype.nexus.common.upgrade.AvailabilityVersion;
+import org.sonatype.nexus.formfields.CheckboxFormField;
+import org.sonatype.nexus.formfields.FormField;
+import org.sonatype.nexus.formfields.RepositoryCombobox;
+import org.sonatype.nexus.formfields.StringTextFormField;
+import org.sonatype.nexus.repository.types.HostedType;
+import org.sonatype.nexus.scheduling.TaskDescriptorSupport;
+import org.springframework.stereotype.Component;
+
+import static org.sonatype.nexus.repository.RepositoryTaskSupport.REPOSITORY_NAME_FIELD_ID;
+import static org.sonatype.nexus.repository.content.importtask.BulkImportTask.DIRECTORY_FIELD_ID;
+import static org.sonatype.nexus.repository.content.importtask.BulkImportTask.HARD_LINK_FIELD_ID;
+
+/**
+ * Task descriptor for {@link BulkImportTask}.
+ *
+ * @since 3.89
+ */
+@AvailabilityVersion(from = "1.0")
+@Component
+@Singleton
+public class BulkImportTaskDescriptor
+    extends TaskDescriptorSupport
+{
+  public static final String TYPE_ID = "repository.import.bulk";
+
+  public static final String TASK_NAME = "Repository - Bulk import directory";
+
+  public BulkImportTaskDescriptor() {
+    super(TYPE_ID,
+        BulkImportTask.class,
+        TASK_NAME,
+        VISIBLE,
+        EXPOSED,
+        new RepositoryCombobox(
+            REPOSITORY_NAME_FIELD_ID,
+            "Repository",
+            "Select the hosted repository to import into",
+            FormField.MANDATORY).includingAnyOfTypes(HostedType.NAME),
+        new StringTextFormField(
+            DIRECTORY_FIELD_ID,
+            "Directory",
+            "Absolute path of the directory to import; an interrupted import of the same directory resumes",
+            FormField.MANDATORY),
+        new CheckboxFormField(
+            HARD_LINK_FIELD_ID,
+            "Hard link files",
+            "Hard link files into the blob store instead of copying them; requires the same file system",
+            FormField.OPTIONAL).withInitialValue(false));
+  }
+}
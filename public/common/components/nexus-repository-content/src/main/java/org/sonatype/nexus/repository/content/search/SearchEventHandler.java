@@ -18,6 +18,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -123,6 +124,8 @@ public abstract class SearchEventHandler
 
   private boolean processEvents = true;
 
+  private final Set<String> deferredRepositories = ConcurrentHashMap.newKeySet();
+
   public SearchEventHandler(
       final RepositoryManager repositoryManager,
       final PeriodicJobService periodicJobService,
@@ -188,6 +191,20 @@ public abstract class SearchEventHandler
     this.processEvents = processEvents;
   }
 
+  /**
+   * Allow event processing to be disabled for a single repository; its search index will need rebuilding afterwards.
+   *
+   * @since 3.89
+   */
+  public void setProcessEvents(final String repositoryName, final boolean processEvents) {
+    if (processEvents) {
+      deferredRepositories.remove(repositoryName);
+    }
+    else {
+      deferredRepositories.add(repositoryName);
+    }
+  }
+
   /**
    * Request update search indexes based on component id
    *
@@ -196,7 +213,7 @@ public abstract class SearchEventHandler
    * @param repository The repository
    */
   public void requestIndex(final String format, final int componentId, final Repository repository) {
-    if (processEvents && componentId > 0) {
+    if (processEvents && componentId > 0 && !deferredRepositories.contains(repository.getName())) {
       markComponentAsPending(requestKey(format, componentId), repoTag(INDEX, repository));
       maybeTriggerAsyncFlush();
     }
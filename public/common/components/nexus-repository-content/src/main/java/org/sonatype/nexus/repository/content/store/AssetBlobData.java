@@ -36,7 +36,7 @@ import static org.sonatype.nexus.common.hash.HashAlgorithm.SHA1;
  * @since 3.20
  */
 public class AssetBlobData
-    implements AssetBlob, ContinuationAware
+    implements Cloneable, AssetBlob, ContinuationAware
 {
   Integer assetBlobId; // NOSONAR: internal id
 
@@ -187,6 +187,20 @@ public class AssetBlobData
     this.externalMetadata = externalMetadata;
   }
 
+  /**
+   * Creates a shallow copy of this asset blob, including any state added by subclasses.
+   *
+   * @since 3.89
+   */
+  public AssetBlobData copy() {
+    try {
+      return (AssetBlobData) clone();
+    }
+    catch (CloneNotSupportedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   // ContinuationAware
 
   @Override
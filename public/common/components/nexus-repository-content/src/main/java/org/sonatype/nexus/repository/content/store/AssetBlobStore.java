@@ -39,6 +39,9 @@ import org.apache.ibatis.annotations.Param;
 public class AssetBlobStore<T extends AssetBlobDAO>
     extends ContentStoreSupport<T>
 {
+  @Nullable
+  private AssetPathCache assetPathCache;
+
   @Inject
   public AssetBlobStore(
       final DataSessionSupplier sessionSupplier,
@@ -48,6 +51,11 @@ public class AssetBlobStore<T extends AssetBlobDAO>
     super(sessionSupplier, contentStoreName, daoClass);
   }
 
+  @Inject
+  protected void setAssetPathCache(final AssetPathCache assetPathCache) {
+    this.assetPathCache = assetPathCache.isEnabled() ? assetPathCache : null;
+  }
+
   /**
    * Browse unused asset blobs in the content data store in a paged fashion.
    *
@@ -177,6 +185,7 @@ public class AssetBlobStore<T extends AssetBlobDAO>
   @Transactional
   public void deleteAssetBlobWithAsset(final BlobRef blobRef) {
     dao().deleteAssetBlobWithAsset(blobRef);
+    invalidateCachedAssets(blobRef);
   }
 
   /**
@@ -187,21 +196,25 @@ public class AssetBlobStore<T extends AssetBlobDAO>
   @Transactional
   public void setBlobCreated(final AssetBlob blob, final OffsetDateTime blobCreated) {
     dao().setBlobCreated(blob.blobRef(), blobCreated);
+    invalidateCachedAssets(blob.blobRef());
   }
 
   @Transactional
   public void setAddedToRepository(final AssetBlob blob, final OffsetDateTime addedToRepository) {
     dao().setAddedToRepository(blob.blobRef(), addedToRepository);
+    invalidateCachedAssets(blob.blobRef());
   }
 
   @Transactional
   public void setContentType(final AssetBlob blob, final String contentType) {
     dao().setContentType(blob.blobRef(), contentType);
+    invalidateCachedAssets(blob.blobRef());
   }
 
   @Transactional
   public void setChecksums(final AssetBlob blob, final Map<String, String> checksums) {
     dao().setChecksums(blob.blobRef(), checksums);
+    invalidateCachedAssets(blob.blobRef());
   }
 
   /**
@@ -212,6 +225,7 @@ public class AssetBlobStore<T extends AssetBlobDAO>
   @Transactional
   public void setCreatedBy(final AssetBlob blob, final String createdBy) {
     dao().setCreatedBy(blob.blobRef(), createdBy);
+    invalidateCachedAssets(blob.blobRef());
   }
 
   /**
@@ -222,6 +236,7 @@ public class AssetBlobStore<T extends AssetBlobDAO>
   @Transactional
   public void setCreatedByIP(final AssetBlob blob, final String createdByIP) {
     dao().setCreatedByIP(blob.blobRef(), createdByIP);
+    invalidateCachedAssets(blob.blobRef());
   }
 
   /**
@@ -229,6 +244,7 @@ public class AssetBlobStore<T extends AssetBlobDAO>
   @Transactional
   public void setExternalMetadata(final AssetBlob blob, final ExternalMetadata metadata) {
     dao().setExternalMetadata(blob.blobRef(), metadata);
+    invalidateCachedAssets(blob.blobRef());
   }
 
   /**
@@ -323,4 +339,13 @@ public class AssetBlobStore<T extends AssetBlobDAO>
   {
     return dao().readAssetBlobByPathAndRepository(blobRef, path, repository);
   }
+
+  private void invalidateCachedAssets(final BlobRef blobRef) {
+    if (assetPathCache != null) {
+      assetPathCache.pendingWrites(thisSession());
+      assetPathCache.invalidate(blobRef);
+      thisSession().postCommit(() -> assetPathCache.invalidate(blobRef));
+      thisSession().onRollback(() -> assetPathCache.invalidate(blobRef));
+    }
+  }
 }
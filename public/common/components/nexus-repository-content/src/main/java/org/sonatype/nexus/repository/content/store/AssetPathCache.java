@@ -0,0 +1,428 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.blobstore.api.BlobRef;
+import org.sonatype.nexus.common.collect.NestedAttributesMap;
+import org.sonatype.nexus.common.event.EventAware;
+import org.sonatype.nexus.common.event.EventHelper;
+import org.sonatype.nexus.common.event.EventManager;
+import org.sonatype.nexus.datastore.api.DataSession;
+import org.sonatype.nexus.distributed.event.service.api.common.AssetPathCacheInvalidationEvent;
+import org.sonatype.nexus.repository.content.Asset;
+import org.sonatype.nexus.repository.content.AssetBlob;
+import org.sonatype.nexus.repository.content.event.component.ComponentDeletedEvent;
+import org.sonatype.nexus.repository.content.event.component.ComponentPurgedEvent;
+import org.sonatype.nexus.repository.content.event.component.ComponentUpdatedEvent;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.MapMaker;
+import com.google.common.eventbus.Subscribe;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Arrays.stream;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Bounded near-cache of assets looked up by path, shared by all {@link AssetStore}s.
+ *
+ * Entries are fully materialized snapshots (asset, blob and component are loaded while the session is open) and
+ * callers always receive a private deep copy, so a cached entry never sees changes made by callers. Only successful
+ * lookups are cached, and only once the session they were made in commits without having written anything, so
+ * uncommitted state never reaches the cache. Lookups made through a read replica are served but never cached,
+ * because the replica may not have replayed a change yet and the stale row would then outlive its invalidation. Asset stores invalidate affected paths as soon as they write and again
+ * once the change commits or rolls back, at which point other nodes are told via
+ * {@link AssetPathCacheInvalidationEvent}. Entries are also indexed by blob and by component so those invalidations
+ * don't have to scan the cache.
+ *
+ * Direct changes to blob metadata and component events only invalidate the node where they happen; other nodes
+ * pick those up when their entries expire.
+ *
+ * @since 3.89
+ */
+@Component
+@Singleton
+public class AssetPathCache
+    extends ComponentSupport
+    implements EventAware
+{
+  private static final String CACHE_KEY_PREFIX = "nexus.content.assetPathCache.";
+
+  public static final String ENABLED_KEY = CACHE_KEY_PREFIX + "enabled";
+
+  public static final String MAX_SIZE_KEY = CACHE_KEY_PREFIX + "maxSize";
+
+  public static final String TTL_SECONDS_KEY = CACHE_KEY_PREFIX + "ttlSeconds";
+
+  private final EventManager eventManager;
+
+  @Nullable
+  private final Cache<Key, AssetData> cache;
+
+  private final Map<BlobRef, Set<Key>> keysByBlob = new ConcurrentHashMap<>();
+
+  private final Map<ComponentKey, Set<Key>> keysByComponent = new ConcurrentHashMap<>();
+
+  /**
+   * Sessions with uncommitted writes; weakly held in case a session is abandoned without committing or rolling back.
+   */
+  private final Set<DataSession<?>> writingSessions = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+
+  /**
+   * Bumped by every invalidation; a load that overlaps an invalidation is not allowed to stay in the cache.
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  @Inject
+  public AssetPathCache(
+      final EventManager eventManager,
+      @Value("${" + ENABLED_KEY + ":true}") final boolean enabled,
+      @Value("${" + MAX_SIZE_KEY + ":10000}") final int maxSize,
+      @Value("${" + TTL_SECONDS_KEY + ":60}") final int ttlSeconds)
+  {
+    this.eventManager = checkNotNull(eventManager);
+    if (enabled) {
+      checkArgument(maxSize > 0, MAX_SIZE_KEY + " must be positive");
+      checkArgument(ttlSeconds > 0, TTL_SECONDS_KEY + " must be positive");
+      this.cache = CacheBuilder.newBuilder()
+          .maximumSize(maxSize)
+          .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+          .<Key, AssetData>removalListener(this::onRemoval)
+          .recordStats()
+          .build();
+      registerMetrics(cache);
+      log.info("Asset path cache enabled with maxSize={} ttl={}s", maxSize, ttlSeconds);
+    }
+    else {
+      this.cache = null;
+    }
+  }
+
+  private static void registerMetrics(final Cache<Key, AssetData> cache) {
+    MetricRegistry registry = SharedMetricRegistries.getOrCreate("nexus");
+    String prefix = AssetPathCache.class.getName();
+    registry.gauge(name(prefix, "hits"), () -> (Gauge<Long>) () -> cache.stats().hitCount());
+    registry.gauge(name(prefix, "misses"), () -> (Gauge<Long>) () -> cache.stats().missCount());
+    registry.gauge(name(prefix, "hitRatio"), () -> (Gauge<Double>) () -> cache.stats().hitRate());
+    registry.gauge(name(prefix, "evictions"), () -> (Gauge<Long>) () -> cache.stats().evictionCount());
+    registry.gauge(name(prefix, "size"), () -> (Gauge<Long>) cache::size);
+  }
+
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  /**
+   * Returns a copy of the cached asset at the given path, using the loader to fetch it on a miss.
+   *
+   * The loader must run inside the given data session so lazy associations can be loaded before caching. Loaded
+   * assets are only cached after that session commits, and not at all if it has written anything or reads from
+   * a replica.
+   */
+  public Optional<Asset> get(
+      final String format,
+      final int repositoryId,
+      final String path,
+      final DataSession<?> session,
+      final Supplier<Optional<Asset>> loader)
+  {
+    if (cache == null) {
+      return loader.get();
+    }
+
+    Key key = new Key(format, repositoryId, path);
+    AssetData cached = cache.getIfPresent(key);
+    if (cached != null) {
+      return Optional.of(copyOf(cached));
+    }
+
+    long loadGeneration = generation.get();
+    Optional<Asset> loaded = loader.get();
+    if (loaded.isPresent() && loaded.get() instanceof AssetData && !session.isReadReplica()
+        && !writingSessions.contains(session)) {
+      AssetData snapshot = copyOf((AssetData) loaded.get());
+      session.postCommit(() -> {
+        // writes made later in the session may have registered after this hook, so check again
+        if (!writingSessions.contains(session)) {
+          put(key, snapshot, loadGeneration);
+        }
+      });
+    }
+    return loaded;
+  }
+
+  /**
+   * Notes that the given session has uncommitted writes; lookups made in that session are not cached.
+   */
+  public void pendingWrites(final DataSession<?> session) {
+    if (cache != null && writingSessions.add(session)) {
+      session.postCommit(() -> writingSessions.remove(session));
+      session.onRollback(() -> writingSessions.remove(session));
+    }
+  }
+
+  private void put(final Key key, final AssetData snapshot, final long loadGeneration) {
+    if (cache.asMap().putIfAbsent(key, snapshot) == null) {
+      index(key, snapshot);
+    }
+    if (generation.get() != loadGeneration) {
+      // raced with an invalidation, the snapshot may already be stale
+      cache.invalidate(key);
+    }
+  }
+
+  /**
+   * Drops the given paths from this node's cache; an empty collection drops the whole content repository.
+   */
+  public void invalidate(final String format, final int repositoryId, final Collection<String> paths) {
+    if (cache == null) {
+      return;
+    }
+    generation.incrementAndGet();
+    if (paths.isEmpty()) {
+      removeIf(key -> key.repositoryId == repositoryId && key.format.equals(format), value -> true);
+    }
+    else {
+      paths.forEach(path -> cache.invalidate(new Key(format, repositoryId, path)));
+    }
+  }
+
+  /**
+   * Drops the given paths from this node's cache and asks other nodes to do the same.
+   */
+  public void invalidateEverywhere(final String format, final int repositoryId, final List<String> paths) {
+    if (cache == null) {
+      return;
+    }
+    invalidate(format, repositoryId, paths);
+    if (!EventHelper.isReplicating()) {
+      eventManager.post(new AssetPathCacheInvalidationEvent(format, repositoryId, paths));
+    }
+  }
+
+  /**
+   * Drops every cached asset attached to the given blob; used when blob metadata is changed directly.
+   */
+  public void invalidate(final BlobRef blobRef) {
+    if (cache == null) {
+      return;
+    }
+    generation.incrementAndGet();
+    invalidateAll(keysByBlob.remove(blobRef));
+  }
+
+  @Subscribe
+  public void on(final AssetPathCacheInvalidationEvent event) {
+    if (!event.isLocal()) {
+      log.debug("Handling {}", event);
+      invalidate(event.getFormat(), event.getRepositoryId(), event.getPaths());
+    }
+  }
+
+  @Subscribe
+  public void on(final ComponentUpdatedEvent event) {
+    invalidateComponents(event.contentRepositoryId, Set.of(InternalIds.internalComponentId(event.getComponent())));
+  }
+
+  @Subscribe
+  public void on(final ComponentDeletedEvent event) {
+    invalidateComponents(event.contentRepositoryId, Set.of(InternalIds.internalComponentId(event.getComponent())));
+  }
+
+  @Subscribe
+  public void on(final ComponentPurgedEvent event) {
+    invalidateComponents(event.contentRepositoryId, stream(event.getComponentIds()).boxed().collect(toSet()));
+  }
+
+  /**
+   * Component ids are only unique per format, so this may drop a few unrelated entries from other formats.
+   */
+  private void invalidateComponents(final int repositoryId, final Set<Integer> componentIds) {
+    if (cache == null) {
+      return;
+    }
+    generation.incrementAndGet();
+    componentIds.forEach(
+        componentId -> invalidateAll(keysByComponent.remove(new ComponentKey(repositoryId, componentId))));
+  }
+
+  private void invalidateAll(@Nullable final Set<Key> keys) {
+    if (keys != null) {
+      cache.invalidateAll(keys);
+    }
+  }
+
+  private void removeIf(final Predicate<Key> keyFilter, final Predicate<AssetData> valueFilter) {
+    cache.asMap().entrySet().removeIf(entry -> keyFilter.test(entry.getKey()) && valueFilter.test(entry.getValue()));
+  }
+
+  private void index(final Key key, final AssetData snapshot) {
+    blobRef(snapshot).ifPresent(blobRef -> keysByBlob.compute(blobRef, (ref, keys) -> addKey(keys, key)));
+    componentKey(key, snapshot).ifPresent(
+        componentKey -> keysByComponent.compute(componentKey, (ck, keys) -> addKey(keys, key)));
+    if (cache.asMap().get(key) != snapshot) {
+      unindex(key, snapshot); // removed before it was indexed
+    }
+  }
+
+  private void onRemoval(final RemovalNotification<Key, AssetData> notification) {
+    unindex(notification.getKey(), notification.getValue());
+  }
+
+  private void unindex(final Key key, final AssetData snapshot) {
+    blobRef(snapshot).ifPresent(blobRef -> keysByBlob.computeIfPresent(blobRef, (ref, keys) -> removeKey(keys, key)));
+    componentKey(key, snapshot).ifPresent(
+        componentKey -> keysByComponent.computeIfPresent(componentKey, (ck, keys) -> removeKey(keys, key)));
+  }
+
+  private static Set<Key> addKey(@Nullable final Set<Key> keys, final Key key) {
+    Set<Key> result = keys != null ? keys : ConcurrentHashMap.newKeySet();
+    result.add(key);
+    return result;
+  }
+
+  @Nullable
+  private static Set<Key> removeKey(final Set<Key> keys, final Key key) {
+    keys.remove(key);
+    return keys.isEmpty() ? null : keys;
+  }
+
+  private static Optional<BlobRef> blobRef(final AssetData snapshot) {
+    return snapshot.blob().map(AssetBlob::blobRef);
+  }
+
+  private static Optional<ComponentKey> componentKey(final Key key, final AssetData snapshot) {
+    return Optional.ofNullable(snapshot.componentId)
+        .map(componentId -> new ComponentKey(key.repositoryId, componentId));
+  }
+
+  @VisibleForTesting
+  CacheStats stats() {
+    return cache != null ? cache.stats() : new CacheStats(0, 0, 0, 0, 0, 0);
+  }
+
+  @VisibleForTesting
+  int indexedKeys() {
+    return keysByBlob.values().stream().mapToInt(Set::size).sum()
+        + keysByComponent.values().stream().mapToInt(Set::size).sum();
+  }
+
+  /**
+   * Deep copies the asset, loading its blob and component if they haven't been fetched yet.
+   */
+  private static AssetData copyOf(final AssetData source) {
+    AssetData copy = new AssetData();
+    copy.repositoryId = source.repositoryId;
+    copy.assetId = source.assetId;
+    copy.setPath(source.path());
+    copy.setKind(source.kind());
+    copy.setComponent(source.component().map(c -> c instanceof ComponentData data ? copyOf(data) : c).orElse(null));
+    copy.setAssetBlob(source.blob().map(b -> b instanceof AssetBlobData data ? copyOf(data) : b).orElse(null));
+    copy.assetBlobId = source.assetBlobId;
+    copy.componentId = source.componentId;
+    copy.setLastDownloaded(source.lastDownloaded().orElse(null));
+    copy.setBlobStoreName(source.blobStoreName());
+    copy.setAssetBlobSize(source.assetBlobSize());
+    copyContent(source, copy);
+    return copy;
+  }
+
+  /**
+   * Deep copies the component; its list of assets is never populated when reached from an asset so isn't copied.
+   */
+  private static ComponentData copyOf(final ComponentData source) {
+    ComponentData copy = source.copy();
+    copy.setAssets(null);
+    copyContent(source, copy);
+    return copy;
+  }
+
+  private static AssetBlobData copyOf(final AssetBlobData source) {
+    AssetBlobData copy = source.copy();
+    if (source.checksums() != null) {
+      copy.setChecksums(new HashMap<>(source.checksums()));
+    }
+    return copy;
+  }
+
+  private static void copyContent(final AbstractRepositoryContent source, final AbstractRepositoryContent copy) {
+    copy.setAttributes(new NestedAttributesMap("attributes", deepCopy(source.attributes().backing())));
+    if (source.created() != null) {
+      copy.setCreated(source.created());
+    }
+    if (source.lastUpdated() != null) {
+      copy.setLastUpdated(source.lastUpdated());
+    }
+  }
+
+  private static Map<String, Object> deepCopy(final Map<String, Object> source) {
+    Map<String, Object> copy = new HashMap<>(source.size());
+    source.forEach((key, value) -> copy.put(key, deepCopyValue(value)));
+    return copy;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object deepCopyValue(final Object value) {
+    if (value instanceof Map) {
+      return deepCopy((Map<String, Object>) value);
+    }
+    if (value instanceof List) {
+      List<Object> copy = new ArrayList<>(((List<Object>) value).size());
+      ((List<Object>) value).forEach(element -> copy.add(deepCopyValue(element)));
+      return copy;
+    }
+    return value;
+  }
+
+  private record Key(String format, int repositoryId, String path)
+  {
+    private Key {
+      checkNotNull(format);
+      checkNotNull(path);
+    }
+  }
+
+  private record ComponentKey(int repositoryId, int componentId)
+  {
+  }
+}
@@ -52,6 +52,7 @@ import static java.util.Arrays.stream;
 import static org.sonatype.nexus.common.app.FeatureFlags.DATASTORE_CLUSTERED_ENABLED_NAMED_VALUE;
 import static org.sonatype.nexus.repository.content.AttributesHelper.applyAttributeChange;
 import static org.sonatype.nexus.repository.content.store.InternalIds.internalComponentId;
+import static org.sonatype.nexus.transaction.TransactionIsolation.READ_ONLY;
 
 /**
  * {@link Asset} store.
@@ -65,6 +66,9 @@ public class AssetStore<T extends AssetDAO>
 
   private final boolean clustered;
 
+  @Nullable
+  private AssetPathCache assetPathCache;
+
   @Inject
   public AssetStore(
       final DataSessionSupplier sessionSupplier,
@@ -76,6 +80,11 @@ public class AssetStore<T extends AssetDAO>
     this.clustered = clustered;
   }
 
+  @Inject
+  protected void setAssetPathCache(final AssetPathCache assetPathCache) {
+    this.assetPathCache = assetPathCache.isEnabled() ? assetPathCache : null;
+  }
+
   /**
    * Count all assets in the given repository.
    *
@@ -85,7 +94,7 @@ public class AssetStore<T extends AssetDAO>
    * @param filterParams parameter map for the optional filter
    * @return count of assets in the repository
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public int countAssets(
       final int repositoryId,
       @Nullable final String kind,
@@ -108,7 +117,7 @@ public class AssetStore<T extends AssetDAO>
    *
    * @see Continuation#nextContinuationToken()
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Continuation<Asset> browseAssets(
       final int repositoryId,
       @Nullable final String continuationToken,
@@ -130,7 +139,7 @@ public class AssetStore<T extends AssetDAO>
    * @return collection of assets and the next continuation token
    * @see Continuation#nextContinuationToken()
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Continuation<Asset> browseEagerAssets(
       final int repositoryId,
       @Nullable final String continuationToken,
@@ -159,7 +168,7 @@ public class AssetStore<T extends AssetDAO>
    * @see Continuation#nextContinuationToken()
    * @see AssetBlobCreatedContinuationToken
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Continuation<Asset> browseEagerAssets(
       final int repositoryId,
       @Nullable final String continuationToken,
@@ -186,7 +195,7 @@ public class AssetStore<T extends AssetDAO>
    *
    * @since 3.27
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Continuation<Asset> browseAssets(
       final Set<Integer> repositoryIds,
       @Nullable final String continuationToken,
@@ -204,7 +213,7 @@ public class AssetStore<T extends AssetDAO>
    * @param component the component to browse
    * @return collection of assets
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Collection<Asset> browseComponentAssets(final Component component) {
     return dao().browseComponentAssets(component);
   }
@@ -222,7 +231,7 @@ public class AssetStore<T extends AssetDAO>
    *          multiple assets with the same addedToRepository value as the last record.
    * @return batch of updated assets
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public List<AssetInfo> findUpdatedAssets(
       final int repositoryId,
       @Nullable final OffsetDateTime addedToRepository,
@@ -297,6 +306,7 @@ public class AssetStore<T extends AssetDAO>
   @Transactional
   public void createAsset(final AssetData asset) {
     dao().createAsset(asset, clustered);
+    invalidateCachedPath(asset);
 
     postCommitEvent(() -> new AssetCreatedEvent(asset));
   }
@@ -307,7 +317,7 @@ public class AssetStore<T extends AssetDAO>
    * @param assetId the internalId of the asset
    * @return asset if it was found
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Optional<Asset> readAsset(final int assetId) {
     return dao().readAsset(assetId);
   }
@@ -315,12 +325,17 @@ public class AssetStore<T extends AssetDAO>
   /**
    * Retrieves an asset located at the given path in the content data store.
    *
+   * Served from the {@link AssetPathCache} when enabled, in which case no statement is run on a cache hit.
+   *
    * @param repositoryId the repository containing the asset
    * @param path the path of the asset
    * @return asset if it was found
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Optional<Asset> readPath(final int repositoryId, final String path) {
+    if (assetPathCache != null) {
+      return assetPathCache.get(format, repositoryId, path, thisSession(), () -> dao().readPath(repositoryId, path));
+    }
     return dao().readPath(repositoryId, path);
   }
 
@@ -332,7 +347,7 @@ public class AssetStore<T extends AssetDAO>
    * @return asset if it was found
    * @since 3.32
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Optional<Asset> findByBlobRef(final int repositoryId, final BlobRef blobRef) {
     return dao().findByBlobRef(repositoryId, blobRef);
   }
@@ -345,7 +360,7 @@ public class AssetStore<T extends AssetDAO>
    * @param assetFilterParams parameter map for the optional filter.
    * @return collection of {@link AssetInfo}
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Collection<Asset> findByComponentIds(
       final Set<Integer> componentIds,
       final String assetFilter,
@@ -368,6 +383,7 @@ public class AssetStore<T extends AssetDAO>
   @Transactional
   public void updateAssetKind(final Asset asset) {
     dao().updateAssetKind(asset, clustered);
+    invalidateCachedPath(asset);
 
     postCommitEvent(() -> new AssetKindEvent(asset));
   }
@@ -380,6 +396,8 @@ public class AssetStore<T extends AssetDAO>
   @Transactional
   public void updateAssetPath(final Asset asset) {
     dao().updateAssetPath(asset, clustered);
+    // the previous path is not known here, so drop the whole repository
+    invalidateCachedPaths(InternalIds.contentRepositoryId(asset), List.of());
   }
 
   /**
@@ -403,6 +421,7 @@ public class AssetStore<T extends AssetDAO>
           .orElse(false);
       if (changesApplied) {
         dao().updateAssetAttributes(asset, clustered);
+        invalidateCachedPath(asset);
 
         postCommitEvent(() -> new AssetAttributesEvent(asset, changeSet.getChanges()));
       }
@@ -417,6 +436,7 @@ public class AssetStore<T extends AssetDAO>
   @Transactional
   public void updateAssetBlobLink(final Asset asset) {
     dao().updateAssetBlobLink(asset, clustered);
+    invalidateCachedPath(asset);
 
     postCommitEvent(() -> new AssetUploadedEvent(asset));
   }
@@ -429,6 +449,7 @@ public class AssetStore<T extends AssetDAO>
   @Transactional
   public void markAsDownloaded(final Asset asset) {
     dao().markAsDownloaded(asset);
+    invalidateCachedPath(asset);
 
     postCommitEvent(() -> new AssetDownloadedEvent(asset));
   }
@@ -445,6 +466,7 @@ public class AssetStore<T extends AssetDAO>
     boolean deleted = dao().deleteAsset(asset);
 
     if (deleted) {
+      invalidateCachedPath(asset);
       asset.component()
           .ifPresent(component -> dao().updateEntityVersion(internalComponentId(component), clustered));
       postCommitEvent(() -> new AssetDeletedEvent(asset));
@@ -486,6 +508,7 @@ public class AssetStore<T extends AssetDAO>
     }
 
     int[] assetIds = assets.stream().mapToInt(InternalIds::internalAssetId).toArray();
+    invalidateCachedPaths(repositoryId, assets.stream().map(Asset::path).toList());
     preCommitEvent(() -> new AssetPrePurgeEvent(repositoryId, assetIds));
     postCommitEvent(() -> new AssetPurgedEvent(repositoryId, assetIds));
 
@@ -517,6 +540,7 @@ public class AssetStore<T extends AssetDAO>
       commitChangesSoFar();
       deleted = true;
     }
+    invalidateCachedPaths(repositoryId, List.of());
     log.debug("Deleted all assets in repository {}", repositoryId);
     return deleted;
   }
@@ -539,6 +563,7 @@ public class AssetStore<T extends AssetDAO>
         break; // nothing left to purge
       }
       purged += purgeAssets(assetIds);
+      invalidateCachedPaths(repositoryId, List.of());
 
       preCommitEvent(() -> new AssetPrePurgeEvent(repositoryId, assetIds));
       postCommitEvent(() -> new AssetPurgedEvent(repositoryId, assetIds));
@@ -558,6 +583,7 @@ public class AssetStore<T extends AssetDAO>
   @Transactional
   public void created(final Asset asset, final OffsetDateTime created) {
     dao().created(InternalIds.internalAssetId(asset), created);
+    invalidateCachedPath(asset);
   }
 
   /**
@@ -570,6 +596,7 @@ public class AssetStore<T extends AssetDAO>
   @Transactional
   public void lastDownloaded(final Asset asset, final OffsetDateTime lastDownloaded) {
     dao().lastDownloaded(InternalIds.internalAssetId(asset), lastDownloaded);
+    invalidateCachedPath(asset);
   }
 
   /**
@@ -582,6 +609,7 @@ public class AssetStore<T extends AssetDAO>
   @Transactional
   public void lastUpdated(final Asset asset, final OffsetDateTime lastUpdated) {
     dao().lastUpdated(InternalIds.internalAssetId(asset), lastUpdated);
+    invalidateCachedPath(asset);
   }
 
   /**
@@ -590,11 +618,30 @@ public class AssetStore<T extends AssetDAO>
    * @param blobRef the blob reference
    * @return {@code true} if asset exists in all three: <format>_asset, <format>_asset_blob, <format>_component tables
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Boolean assetRecordsExist(final BlobRef blobRef, final String path, final String repository) {
     return dao().assetRecordsExist(blobRef, path, repository);
   }
 
+  private void invalidateCachedPath(final Asset asset) {
+    if (assetPathCache != null) {
+      invalidateCachedPaths(InternalIds.contentRepositoryId(asset), List.of(asset.path()));
+    }
+  }
+
+  /**
+   * Drops cached lookups straight away so this transaction reads its own writes, and again once the transaction
+   * ends in case a concurrent lookup cached the old state in the meantime. An empty list means every path.
+   */
+  private void invalidateCachedPaths(final int repositoryId, final List<String> paths) {
+    if (assetPathCache != null) {
+      assetPathCache.pendingWrites(thisSession());
+      assetPathCache.invalidate(format, repositoryId, paths);
+      thisSession().postCommit(() -> assetPathCache.invalidateEverywhere(format, repositoryId, paths));
+      thisSession().onRollback(() -> assetPathCache.invalidate(format, repositoryId, paths));
+    }
+  }
+
   private int purgeAssets(final int[] assetIds) {
     if ("H2".equals(thisSession().sqlDialect())) {
       // workaround lack of primitive array support in H2 (should be fixed in H2 1.4.201?)
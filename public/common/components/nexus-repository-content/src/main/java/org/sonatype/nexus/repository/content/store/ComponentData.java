@@ -26,7 +26,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public class ComponentData
     extends AbstractRepositoryContent
-    implements Component, ContinuationAware
+    implements Cloneable, Component, ContinuationAware
 {
   Integer componentId; // NOSONAR: internal id
 
@@ -142,6 +142,20 @@ public class ComponentData
     this.assets = assets;
   }
 
+  /**
+   * Creates a shallow copy of this component, including any state added by subclasses.
+   *
+   * @since 3.89
+   */
+  public ComponentData copy() {
+    try {
+      return (ComponentData) clone();
+    }
+    catch (CloneNotSupportedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   // ContinuationAware
 
   @Override
@@ -55,6 +55,7 @@ import static java.util.Arrays.stream;
 import static org.sonatype.nexus.common.app.FeatureFlags.DATASTORE_CLUSTERED_ENABLED_NAMED_VALUE;
 import static org.sonatype.nexus.repository.content.AttributesHelper.applyAttributeChange;
 import static org.sonatype.nexus.scheduling.CancelableHelper.checkCancellation;
+import static org.sonatype.nexus.transaction.TransactionIsolation.READ_ONLY;
 
 /**
  * {@link Component} store.
@@ -90,7 +91,7 @@ public class ComponentStore<T extends ComponentDAO>
    * @param filterParams parameter map for the optional filter
    * @return count of components in the repository
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public int countComponents(
       final int repositoryId,
       @Nullable final String kind,
@@ -109,7 +110,7 @@ public class ComponentStore<T extends ComponentDAO>
    * @param filterParams parameter map for the optional filter
    * @return count of components in the repository
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public int countComponentsWithAssetsBlobs(
       final int repositoryId,
       @Nullable final String kind,
@@ -141,7 +142,7 @@ public class ComponentStore<T extends ComponentDAO>
    * @return collection of components and the next continuation token
    * @see Continuation#nextContinuationToken()
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Continuation<Component> browseComponents(
       final int repositoryId,
       final int limit,
@@ -154,7 +155,7 @@ public class ComponentStore<T extends ComponentDAO>
         filterParams);
   }
 
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Continuation<ComponentData> browseComponentsEager(
       final Set<Integer> repositoryIds,
       final int limit,
@@ -191,7 +192,7 @@ public class ComponentStore<T extends ComponentDAO>
    * @return collection of components and the next continuation token
    * @see Continuation#nextContinuationToken()
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Continuation<Component> browseComponents(
       final Set<Integer> repositoryIds,
       final int limit,
@@ -210,7 +211,7 @@ public class ComponentStore<T extends ComponentDAO>
    * @return collection of components and the next continuation token
    * @see Continuation#nextContinuationToken()
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Continuation<Component> browseComponentsBySet(
       final int repositoryId,
       final ComponentSet componentSet,
@@ -227,7 +228,7 @@ public class ComponentStore<T extends ComponentDAO>
    * @param generator generator for the select
    * @param params parameters for the select
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Continuation<Component> selectComponents(
       final SqlGenerator<? extends SqlQueryParameters> generator,
       final SqlQueryParameters params)
@@ -241,7 +242,7 @@ public class ComponentStore<T extends ComponentDAO>
    * @param generator generator for the select
    * @param params parameters for the select
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Continuation<Component> selectComponentsWithAssets(
       final SqlGenerator<? extends SqlQueryParameters> generator,
       final SqlQueryParameters params)
@@ -257,7 +258,7 @@ public class ComponentStore<T extends ComponentDAO>
    * @param repositoryId the repository to browse
    * @return collection of component namespaces
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Collection<String> browseNamespaces(final int repositoryId) {
     return dao().browseNamespaces(repositoryId);
   }
@@ -269,7 +270,7 @@ public class ComponentStore<T extends ComponentDAO>
    * @param namespace the namespace to browse (empty string to browse components that don't have a namespace)
    * @return collection of component names
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Collection<String> browseNames(final int repositoryId, final String namespace) {
     return dao().browseNames(repositoryId, namespace);
   }
@@ -284,7 +285,7 @@ public class ComponentStore<T extends ComponentDAO>
    *
    * @see Continuation#nextContinuationToken()
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Continuation<ComponentSetData> browseSets(
       @Param("repositoryId") final int repositoryId,
       @Param("limit") final int limit,
@@ -301,7 +302,7 @@ public class ComponentStore<T extends ComponentDAO>
    * @param continuationToken optional token to continue from a previous request
    * @return collection of components with assets
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Continuation<Component> browseComponentsWithAssets(
       final int repositoryId,
       final int limit,
@@ -320,12 +321,12 @@ public class ComponentStore<T extends ComponentDAO>
    * @param name the name of the component
    * @return collection of component versions
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Collection<String> browseVersions(final int repositoryId, final String namespace, final String name) {
     return dao().browseVersions(repositoryId, namespace, name);
   }
 
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Collection<String> browseVersionsByRepoIds(
       final String namespace,
       final String name,
@@ -352,7 +353,7 @@ public class ComponentStore<T extends ComponentDAO>
    * @param componentId the internal id of the component
    * @return component if it was found
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Optional<Component> readComponent(final int componentId) {
     return dao().readComponent(componentId);
   }
@@ -366,7 +367,7 @@ public class ComponentStore<T extends ComponentDAO>
    * @param version the version of the component
    * @return component if it was found
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Optional<Component> readCoordinate(
       final int repositoryId,
       final String namespace,
@@ -385,7 +386,7 @@ public class ComponentStore<T extends ComponentDAO>
    * @param repositoryIds the repository ids containing the component
    * @return component if it was found
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Optional<Component> readCoordinateInRepoIds(
       final String namespace,
       final String name,
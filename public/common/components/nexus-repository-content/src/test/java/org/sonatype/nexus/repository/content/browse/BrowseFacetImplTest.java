@@ -13,6 +13,7 @@
 package org.sonatype.nexus.repository.content.browse;
 
 import java.lang.reflect.Field;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +35,7 @@ import org.sonatype.nexus.repository.content.store.FormatStoreManager;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Answers;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 
@@ -41,6 +43,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -73,31 +76,65 @@ public class BrowseFacetImplTest
 
   private BrowseFacetImpl underTest;
 
-  @SuppressWarnings("unchecked")
   @Before
   public void setUp() throws Exception {
     when(formatStoreManager.formatStore(any(), eq(BrowseNodeDAO.class))).thenReturn(browseNodeStore);
     when(repository.facet(ContentFacet.class)).thenReturn(contentFacet);
-    when(QualifierUtil.buildQualifierBeanMap(anyList()))
-        .thenReturn(Map.of("raw", formatStoreManager), Map.of("raw", browseNodeGenerator));
-
-    underTest = new BrowseFacetImpl(
-        List.of(), List.of(),
-        1000);
-    underTest.installDependencies(mock(EventManager.class));
-
     when(repository.getFormat()).thenReturn(new Format("raw")
     {
     });
     when(repository.getName()).thenReturn("My-Raw-Repository");
 
-    underTest.attach(repository);
-    underTest.init();
-    underTest.start();
+    underTest = startFacet(new BrowseFacetImpl(
+        List.of(), List.of(),
+        1000));
+  }
+
+  @SuppressWarnings("unchecked")
+  private BrowseFacetImpl startFacet(final BrowseFacetImpl facet) throws Exception {
+    when(QualifierUtil.buildQualifierBeanMap(anyList()))
+        .thenReturn(Map.of("raw", formatStoreManager), Map.of("raw", browseNodeGenerator));
+
+    facet.installDependencies(mock(EventManager.class));
+    facet.attach(repository);
+    facet.init();
+    facet.start();
 
     Field browseNodeManagerField = BrowseFacetImpl.class.getDeclaredField("browseNodeManager");
     browseNodeManagerField.setAccessible(true);
-    browseNodeManagerField.set(underTest, browseNodeManager);
+    browseNodeManagerField.set(facet, browseNodeManager);
+    return facet;
+  }
+
+  @Test
+  public void testRebuildIncrementally() {
+    underTest.rebuildBrowseNodes(null);
+
+    verify(browseNodeManager).deleteBrowseNodes();
+    verify(browseNodeManager, never()).replaceWithStagedBrowseNodes();
+  }
+
+  @Test
+  public void testRebuildFromStagedBrowseNodes() throws Exception {
+    underTest = startFacet(new BrowseFacetImpl(List.of(), List.of(), 1000, 0, Duration.ZERO, true));
+
+    underTest.rebuildBrowseNodes(null);
+
+    InOrder inOrder = inOrder(browseNodeManager);
+    inOrder.verify(browseNodeManager).deleteStagedBrowseNodes();
+    inOrder.verify(browseNodeManager).replaceWithStagedBrowseNodes();
+    verify(browseNodeManager, never()).deleteBrowseNodes();
+  }
+
+  @Test
+  public void testRebuildFallsBackWhenStagedRebuildFails() throws Exception {
+    underTest = startFacet(new BrowseFacetImpl(List.of(), List.of(), 1000, 0, Duration.ZERO, true));
+    when(browseNodeManager.replaceWithStagedBrowseNodes()).thenThrow(new IllegalStateException("duplicate path"));
+
+    underTest.rebuildBrowseNodes(null);
+
+    verify(browseNodeManager, times(2)).deleteStagedBrowseNodes();
+    verify(browseNodeManager).deleteBrowseNodes();
   }
 
   @Test
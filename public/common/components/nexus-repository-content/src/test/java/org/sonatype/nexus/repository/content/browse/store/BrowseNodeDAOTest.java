@@ -40,8 +40,11 @@ import org.junit.jupiter.api.Test;
 
 import static com.google.common.collect.ImmutableList.of;
 import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toSet;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
@@ -362,6 +365,46 @@ class BrowseNodeDAOTest
     }
   }
 
+  @Test
+  void testFindByRequestPaths() {
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      BrowseNodeDAO dao = session.access(TestBrowseNodeDAO.class);
+
+      List<BrowseNodeData> nodes = dao.findByRequestPaths(1, asList("/g/", "/g/1/", "/missing/"));
+      assertThat(nodes, hasSize(2));
+      assertThat(nodes.stream().map(BrowseNodeData::getNodeId).collect(toSet()),
+          containsInAnyOrder(gamma.getNodeId(), gammaOne.getNodeId()));
+
+      assertThat(dao.findByRequestPaths(2, asList("/g/", "/g/1/")), is(empty()));
+    }
+  }
+
+  @Test
+  void testMergeBrowseNodes() {
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      BrowseNodeDAO dao = session.access(TestBrowseNodeDAO.class);
+
+      BrowseNodeData existing = createNode(gamma, "one", "/g/1/");
+      BrowseNodeData added = createNode(gamma, "two", "/g/2");
+      added.dbAssetId = internalAssetId(asset2);
+
+      List<BrowseNodeData> merged = dao.mergeBrowseNodes(asList(existing, added));
+      assertThat(merged, hasSize(2));
+
+      BrowseNodeData mergedOne = merged.stream().filter(node -> "one".equals(node.getName())).findFirst().get();
+      assertThat(mergedOne.getNodeId(), is(gammaOne.getNodeId()));
+      assertThat(mergedOne.parentId, is(gamma.nodeId));
+
+      BrowseNodeData mergedTwo = merged.stream().filter(node -> "two".equals(node.getName())).findFirst().get();
+      assertThat(mergedTwo.getNodeId(), greaterThan(gammaOneAlpha.getNodeId()));
+      assertThat(mergedTwo.getPath(), is("/g/2"));
+
+      // merging again is idempotent and keeps the stored component
+      assertThat(dao.mergeBrowseNodes(asList(existing, added)), hasSize(2));
+      assertThat(getListing(dao, "gamma"), contains(sameNode(gammaOne), sameNode(added)));
+    }
+  }
+
   @Test
   void testDeleteByAssetIdAndPath() {
     assumeTrue(isPostgreSQL());
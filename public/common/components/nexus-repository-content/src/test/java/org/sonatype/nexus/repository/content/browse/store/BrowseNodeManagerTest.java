@@ -12,8 +12,12 @@
  */
 package org.sonatype.nexus.repository.content.browse.store;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
@@ -35,10 +39,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -154,6 +162,147 @@ public class BrowseNodeManagerTest
     verify(browseNodeStore, times(3)).mergeBrowseNode(any(BrowseNodeData.class));
   }
 
+  @Test
+  public void testCreateBatchMergesEachDistinctNodeOnce() {
+    AtomicLong nodeIds = new AtomicLong();
+    List<List<BrowseNodeData>> merges = captureMerges(nodeIds);
+
+    BrowseNodeBatch batch = new BrowseNodeBatch();
+    batch.add(mavenPaths("org/acme/app/1.0/app-1.0.jar"), node -> {
+    });
+    batch.add(mavenPaths("org/acme/app/1.0/app-1.0.pom"), node -> {
+    });
+    batch.add(mavenPaths("org/acme/lib/2.0/lib-2.0.jar"), node -> {
+    });
+
+    underTest.doCreateBrowseNodes(batch);
+
+    verify(browseNodeStore).findByRequestPaths(REPOSITORY_ID,
+        List.of("org/", "org/acme/", "org/acme/app/", "org/acme/lib/", "org/acme/app/1.0/", "org/acme/lib/2.0/"));
+
+    // one statement per tree level, each distinct node merged once
+    assertThat(merges, hasSize(5));
+    assertThat(merges.stream().mapToInt(List::size).sum(), is(9));
+    assertThat(merges.get(4).stream().map(BrowseNode::getName).collect(Collectors.toList()),
+        contains("app-1.0.jar", "app-1.0.pom", "lib-2.0.jar"));
+
+    BrowseNodeData acme = merges.get(1).get(0);
+    assertThat(merges.get(2).stream().map(node -> node.parentId).collect(Collectors.toSet()),
+        contains(acme.getNodeId()));
+  }
+
+  @Test
+  public void testCreateBatchReusesExistingParents() {
+    AtomicLong nodeIds = new AtomicLong(100);
+    List<List<BrowseNodeData>> merges = captureMerges(nodeIds);
+    when(browseNodeStore.findByRequestPaths(eq(REPOSITORY_ID), any())).thenReturn(List.of(
+        storedNode(1L, 0L, "org", "org/"),
+        storedNode(2L, 1L, "acme", "org/acme/"),
+        storedNode(3L, 2L, "app", "org/acme/app/"),
+        // stored under another parent, so merged rather than reused
+        storedNode(4L, 99L, "1.0", "org/acme/app/1.0/")));
+
+    BrowseNodeBatch batch = new BrowseNodeBatch();
+    batch.add(mavenPaths("org/acme/app/1.0/app-1.0.jar"), node -> node.setPackageUrl("pkg:maven/org.acme/app@1.0"));
+
+    underTest.doCreateBrowseNodes(batch);
+
+    assertThat(merges, hasSize(2));
+    BrowseNodeData version = merges.get(0).get(0);
+    assertThat(version.getPath(), is("org/acme/app/1.0/"));
+    assertThat(version.parentId, is(3L));
+
+    BrowseNodeData jar = merges.get(1).get(0);
+    assertThat(jar.parentId, is(version.getNodeId()));
+    assertThat(jar.getPackageUrl(), is("pkg:maven/org.acme/app@1.0"));
+  }
+
+  @Test
+  public void testRememberedParentsSkipLookupUntilTrimmed() {
+    underTest = new BrowseNodeManager(browseNodeStore, REPOSITORY_ID, 100, Duration.ofMinutes(1));
+    captureMerges(new AtomicLong());
+
+    BrowseNodeBatch first = new BrowseNodeBatch();
+    first.add(mavenPaths("org/acme/app/1.0/app-1.0.jar"), node -> {
+    });
+    underTest.rememberParents(underTest.doCreateBrowseNodes(first), underTest.parentGeneration());
+
+    BrowseNodeBatch second = new BrowseNodeBatch();
+    second.add(mavenPaths("org/acme/app/1.0/app-1.0.pom"), node -> {
+    });
+    underTest.doCreateBrowseNodes(second);
+
+    verify(browseNodeStore, times(1)).findByRequestPaths(eq(REPOSITORY_ID), any());
+
+    underTest.trimBrowseNodes();
+    underTest.doCreateBrowseNodes(second);
+
+    verify(browseNodeStore, times(2)).findByRequestPaths(eq(REPOSITORY_ID), any());
+  }
+
+  @Test
+  public void testParentsFromBatchOverlappingADeleteAreNotRemembered() {
+    underTest = new BrowseNodeManager(browseNodeStore, REPOSITORY_ID, 100, Duration.ofMinutes(1));
+    captureMerges(new AtomicLong());
+
+    BrowseNodeBatch first = new BrowseNodeBatch();
+    first.add(mavenPaths("org/acme/app/1.0/app-1.0.jar"), node -> {
+    });
+    long generation = underTest.parentGeneration();
+    Map<String, BrowseNodeData> parents = underTest.doCreateBrowseNodes(first);
+
+    // the delete starts after the batch found its parents but before it remembers them
+    underTest.deleteByAssetId(1);
+    underTest.rememberParents(parents, generation);
+
+    BrowseNodeBatch second = new BrowseNodeBatch();
+    second.add(mavenPaths("org/acme/app/1.0/app-1.0.pom"), node -> {
+    });
+    underTest.doCreateBrowseNodes(second);
+
+    verify(browseNodeStore, times(2)).findByRequestPaths(eq(REPOSITORY_ID), any());
+  }
+
+  private List<List<BrowseNodeData>> captureMerges(final AtomicLong nodeIds) {
+    List<List<BrowseNodeData>> merges = new ArrayList<>();
+    when(browseNodeStore.mergeBrowseNodes(anyList())).thenAnswer(invocation -> {
+      List<BrowseNodeData> nodes = new ArrayList<>(invocation.getArgument(0));
+      nodes.forEach(node -> node.setNodeId(nodeIds.incrementAndGet()));
+      merges.add(nodes);
+      return nodes;
+    });
+    return merges;
+  }
+
+  private static List<BrowsePath> mavenPaths(final String path) {
+    List<BrowsePath> paths = new ArrayList<>();
+    String[] segments = path.split("/");
+    StringBuilder requestPath = new StringBuilder();
+    for (int i = 0; i < segments.length; i++) {
+      requestPath.append(segments[i]);
+      if (i < segments.length - 1) {
+        requestPath.append('/');
+      }
+      paths.add(new BrowsePath(segments[i], requestPath.toString()));
+    }
+    return paths;
+  }
+
+  private static BrowseNodeData storedNode(
+      final long nodeId,
+      final long parentId,
+      final String displayName,
+      final String requestPath)
+  {
+    BrowseNodeData node = new BrowseNodeData();
+    node.setRepositoryId(REPOSITORY_ID);
+    node.setNodeId(nodeId);
+    node.setParentId(parentId);
+    node.setDisplayName(displayName);
+    node.setRequestPath(requestPath);
+    return node;
+  }
+
   private List<BrowsePath> createTestPaths() {
     return List.of(
         new BrowsePath("test", "Test"),
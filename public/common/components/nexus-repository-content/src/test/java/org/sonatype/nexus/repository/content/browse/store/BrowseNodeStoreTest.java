@@ -37,13 +37,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.sonatype.nexus.datastore.api.DataStoreManager.DEFAULT_DATASTORE_NAME;
 import static org.sonatype.nexus.repository.content.store.InternalIds.internalAssetId;
 import static org.sonatype.nexus.repository.content.store.InternalIds.internalComponentId;
+import static org.sonatype.nexus.repository.content.store.InternalIds.toExternalId;
 
 /**
  * Test {@link BrowseNodeStore}.
@@ -240,6 +245,81 @@ class BrowseNodeStoreTest
     }
   }
 
+  @Test
+  void testReplaceWithStagedBrowseNodes() {
+    // the same parent staged by two batches is folded into one node
+    browseNodeStore.stageBrowseNodes(asList(
+        stagedNode(0, null, "delta", "/d"),
+        stagedNode(1, "delta", "one", "/d/1")));
+    browseNodeStore.stageBrowseNodes(asList(
+        stagedNode(0, null, "delta", "/d/"),
+        stagedNode(1, "delta", "two", "/d/2")));
+
+    // assets move from the old tree to the new one
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      BrowseNodeDAO dao = session.access(TestBrowseNodeDAO.class);
+      StagedBrowseNode two = stagedNode(1, "delta", "two", "/d/2");
+      two.dbAssetId = internalAssetId(asset2);
+      dao.stageBrowseNodes(asList(two));
+      session.getTransaction().commit();
+    }
+
+    assertThat(browseNodeStore.replaceWithStagedBrowseNodes(1), is(3));
+
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      BrowseNodeDAO dao = session.access(TestBrowseNodeDAO.class);
+
+      List<BrowseNode> listing = getListing(dao);
+      assertThat(listing, hasSize(1));
+      assertThat(listing.get(0).getPath(), is("/d/"));
+
+      listing = getListing(dao, "delta");
+      assertThat(listing.stream().map(BrowseNode::getName).collect(toList()), contains("one", "two"));
+      assertThat(listing.get(0).getAssetId(), is(nullValue()));
+      assertThat(listing.get(1).getAssetId(), is(toExternalId(internalAssetId(asset2))));
+
+      assertThat(dao.getMaxStagedDepth(1), is(nullValue()));
+    }
+  }
+
+  @Test
+  void testReplaceWithNothingStaged() {
+    assertThat(browseNodeStore.replaceWithStagedBrowseNodes(1), is(0));
+
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      BrowseNodeDAO dao = session.access(TestBrowseNodeDAO.class);
+      assertThat(getListing(dao), is(empty()));
+    }
+  }
+
+  @Test
+  void testDeleteStagedBrowseNodes() {
+    browseNodeStore.stageBrowseNodes(asList(stagedNode(0, null, "delta", "/d/")));
+
+    browseNodeStore.deleteStagedBrowseNodes(1);
+
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      BrowseNodeDAO dao = session.access(TestBrowseNodeDAO.class);
+      assertThat(dao.getMaxStagedDepth(1), is(nullValue()));
+    }
+  }
+
+  private static StagedBrowseNode stagedNode(
+      final int depth,
+      @Nullable final String parentKey,
+      final String displayName,
+      final String requestPath)
+  {
+    StagedBrowseNode node = new StagedBrowseNode();
+    node.setRepositoryId(1);
+    node.setDepth(depth);
+    node.setParentKey(parentKey);
+    node.setPathKey(parentKey != null ? parentKey + '/' + displayName : displayName);
+    node.setDisplayName(displayName);
+    node.setRequestPath(requestPath);
+    return node;
+  }
+
   private static List<BrowseNode> getListing(final BrowseNodeDAO dao, final String... paths) {
     List<BrowseNode> listing = dao.getByDisplayPath(1, asList(paths), 100, null, null);
     listing.sort(byName);
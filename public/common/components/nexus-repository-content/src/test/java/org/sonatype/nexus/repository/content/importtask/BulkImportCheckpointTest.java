@@ -0,0 +1,169 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.importtask;
+
+import java.io.File;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.sonatype.nexus.repository.content.importtask.BulkImportCheckpoint.PATH_ORDER;
+
+/**
+ * Tests for {@link BulkImportCheckpoint}.
+ */
+public class BulkImportCheckpointTest
+    extends TestSupport
+{
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private File file;
+
+  private File directory;
+
+  @Before
+  public void setUp() throws Exception {
+    file = new File(temp.getRoot(), "import/checkpoint.properties");
+    directory = temp.newFolder("source");
+  }
+
+  @Test
+  public void pathsAreOrderedElementByElement() {
+    assertThat(PATH_ORDER.compare("a/b", "a-c"), lessThan(0));
+    assertThat(PATH_ORDER.compare("a/z", "a/b/c"), greaterThan(0));
+    assertThat(PATH_ORDER.compare("a/b", "a/b/c"), lessThan(0));
+    assertThat(PATH_ORDER.compare("a/b", "a/b"), is(0));
+  }
+
+  @Test
+  public void watermarkOnlyAdvancesPastContiguouslyCompletedFiles() throws Exception {
+    BulkImportCheckpoint checkpoint = BulkImportCheckpoint.load(file, directory);
+    checkpoint.started(0, "a/1");
+    checkpoint.started(1, "a/2");
+    checkpoint.started(2, "a/3");
+
+    checkpoint.completed(1);
+    assertThat(checkpoint.getWatermark(), nullValue());
+
+    checkpoint.completed(0);
+    assertThat(checkpoint.getWatermark(), is("a/2"));
+
+    checkpoint.completed(2);
+    assertThat(checkpoint.getWatermark(), is("a/3"));
+  }
+
+  @Test
+  public void failedFilesAreRecordedWithoutHoldingBackTheWatermark() throws Exception {
+    BulkImportCheckpoint checkpoint = BulkImportCheckpoint.load(file, directory);
+    checkpoint.started(0, "a/1");
+    checkpoint.started(1, "a/2");
+
+    checkpoint.failed(0);
+    assertThat(checkpoint.getWatermark(), is("a/1"));
+
+    checkpoint.completed(1);
+    assertThat(checkpoint.getWatermark(), is("a/2"));
+    assertThat(checkpoint.getFailed(), contains("a/1"));
+  }
+
+  @Test
+  public void failedFilesAreRetriedOnResume() throws Exception {
+    BulkImportCheckpoint checkpoint = BulkImportCheckpoint.load(file, directory);
+    checkpoint.started(0, "a/1");
+    checkpoint.started(1, "a/2");
+    checkpoint.started(2, "a/3");
+    checkpoint.failed(0);
+    checkpoint.completed(1);
+    checkpoint.failed(2);
+    checkpoint.save();
+
+    BulkImportCheckpoint resumed = BulkImportCheckpoint.load(file, directory);
+    assertThat(resumed.getResumeAfter(), is("a/3"));
+    assertThat(resumed.getFailed(), contains("a/1", "a/3"));
+    assertThat(resumed.isHandled("a/1"), is(false));
+    assertThat(resumed.isHandled("a/2"), is(true));
+    assertThat(resumed.isHandled("a/3"), is(false));
+
+    resumed.started(0, "a/1");
+    resumed.started(1, "a/3");
+    resumed.completed(0);
+    resumed.failed(1);
+    assertThat(resumed.getWatermark(), is("a/3"));
+    assertThat(resumed.getFailed(), contains("a/3"));
+
+    resumed.save();
+    assertThat(BulkImportCheckpoint.load(file, directory).getFailed(), contains("a/3"));
+  }
+
+  @Test
+  public void failuresAreKeptUntilRetried() throws Exception {
+    BulkImportCheckpoint checkpoint = BulkImportCheckpoint.load(file, directory);
+    checkpoint.started(0, "a/1");
+    checkpoint.failed(0);
+    checkpoint.save();
+
+    // a resumed import which stops before retrying still remembers the failure
+    BulkImportCheckpoint.load(file, directory).save();
+    assertThat(BulkImportCheckpoint.load(file, directory).getFailed(), contains("a/1"));
+  }
+
+  @Test
+  public void resumesFromSavedWatermark() throws Exception {
+    BulkImportCheckpoint checkpoint = BulkImportCheckpoint.load(file, directory);
+    checkpoint.started(0, "a/b/1");
+    checkpoint.completed(0);
+    checkpoint.save();
+
+    BulkImportCheckpoint resumed = BulkImportCheckpoint.load(file, directory);
+    assertThat(resumed.getResumeAfter(), is("a/b/1"));
+    assertThat(resumed.isHandled("a/a"), is(true));
+    assertThat(resumed.isHandled("a/b/1"), is(true));
+    assertThat(resumed.isHandled("a/b/2"), is(false));
+    assertThat(resumed.isHandled("a/c"), is(false));
+  }
+
+  @Test
+  public void ignoresCheckpointForOtherDirectory() throws Exception {
+    BulkImportCheckpoint checkpoint = BulkImportCheckpoint.load(file, directory);
+    checkpoint.started(0, "a");
+    checkpoint.completed(0);
+    checkpoint.save();
+
+    BulkImportCheckpoint other = BulkImportCheckpoint.load(file, temp.newFolder("other"));
+    assertThat(other.getResumeAfter(), nullValue());
+    assertThat(other.isHandled("a"), is(false));
+  }
+
+  @Test
+  public void deleteRemovesCheckpoint() throws Exception {
+    BulkImportCheckpoint checkpoint = BulkImportCheckpoint.load(file, directory);
+    checkpoint.started(0, "a");
+    checkpoint.completed(0);
+    checkpoint.save();
+    assertThat(file.isFile(), is(true));
+
+    checkpoint.delete();
+    assertThat(file.exists(), is(false));
+  }
+}
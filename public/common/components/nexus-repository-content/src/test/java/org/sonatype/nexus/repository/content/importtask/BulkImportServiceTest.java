@@ -0,0 +1,213 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.importtask;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.common.app.ApplicationDirectories;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.browse.node.BrowseNodeEventHandler;
+import org.sonatype.nexus.repository.browse.node.RebuildBrowseNodeService;
+import org.sonatype.nexus.repository.content.search.SearchEventHandler;
+import org.sonatype.nexus.repository.importtask.ImportFileConfiguration;
+import org.sonatype.nexus.repository.importtask.ImportResult;
+import org.sonatype.nexus.repository.search.index.SearchIndexFacet;
+import org.sonatype.nexus.repository.upload.UploadManager;
+import org.sonatype.nexus.repository.view.Content;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link BulkImportService}.
+ */
+public class BulkImportServiceTest
+    extends TestSupport
+{
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Mock
+  private UploadManager uploadManager;
+
+  @Mock
+  private RebuildBrowseNodeService rebuildBrowseNodeService;
+
+  @Mock
+  private BrowseNodeEventHandler browseNodeEventHandler;
+
+  @Mock
+  private SearchEventHandler searchEventHandler;
+
+  @Mock
+  private ApplicationDirectories applicationDirectories;
+
+  @Mock
+  private Repository repository;
+
+  @Mock
+  private SearchIndexFacet searchIndexFacet;
+
+  @Mock
+  private Content content;
+
+  @Mock
+  private Consumer<String> progressUpdater;
+
+  private File directory;
+
+  private BulkImportService underTest;
+
+  @Before
+  public void setUp() throws Exception {
+    directory = temp.newFolder("source");
+    write("org/foo/1.0/foo-1.0.jar");
+    write("org/foo/1.0/foo-1.0.pom");
+    write("org/foo/maven-metadata.xml");
+
+    when(applicationDirectories.getWorkDirectory("import")).thenReturn(temp.newFolder("work"));
+    when(repository.getName()).thenReturn("maven-releases");
+    when(repository.optionalFacet(SearchIndexFacet.class)).thenReturn(Optional.of(searchIndexFacet));
+    when(uploadManager.handle(any(ImportFileConfiguration.class))).thenReturn(content);
+
+    underTest = new BulkImportService(uploadManager, rebuildBrowseNodeService, singletonList(browseNodeEventHandler),
+        singletonList(searchEventHandler), applicationDirectories, 2, 1, 2, Duration.ofSeconds(30));
+  }
+
+  @Test
+  public void importsEveryFileWithIndexingDeferredUntilTheEnd() throws Exception {
+    BulkImportResult result = underTest.importDirectory(repository, directory, true, () -> false, progressUpdater);
+
+    assertThat(result.getImported(), is(3L));
+    assertThat(result.getSkipped(), is(0L));
+    assertThat(result.getFailed(), is(0L));
+    assertThat(result.isCompleted(), is(true));
+
+    verifyImported("org/foo/1.0/foo-1.0.jar");
+    verifyImported("org/foo/1.0/foo-1.0.pom");
+    verifyImported("org/foo/maven-metadata.xml");
+    verify(uploadManager, atLeastOnce()).handleAfterImport(any(ImportResult.class));
+
+    verify(browseNodeEventHandler).pauseEventProcessing("maven-releases");
+    verify(browseNodeEventHandler).resumeEventProcessing("maven-releases");
+    verify(searchEventHandler).setProcessEvents("maven-releases", false);
+    verify(searchEventHandler).setProcessEvents("maven-releases", true);
+    verify(rebuildBrowseNodeService).rebuild(repository, progressUpdater);
+    verify(searchIndexFacet).rebuildIndex();
+
+    assertThat(underTest.checkpointFile(repository, directory).exists(), is(false));
+  }
+
+  @Test
+  public void resumesAfterCheckpoint() throws Exception {
+    BulkImportCheckpoint checkpoint =
+        BulkImportCheckpoint.load(underTest.checkpointFile(repository, directory), directory);
+    checkpoint.started(0, "org/foo/1.0/foo-1.0.jar");
+    checkpoint.completed(0);
+    checkpoint.save();
+
+    BulkImportResult result = underTest.importDirectory(repository, directory, false, () -> false, progressUpdater);
+
+    assertThat(result.getImported(), is(2L));
+    assertThat(result.getSkipped(), is(1L));
+    verify(uploadManager, never()).handle(
+        new ImportFileConfiguration(repository, file("org/foo/1.0/foo-1.0.jar"), "org/foo/1.0/foo-1.0.jar", false));
+    verify(uploadManager).handle(
+        new ImportFileConfiguration(repository, file("org/foo/1.0/foo-1.0.pom"), "org/foo/1.0/foo-1.0.pom", false));
+  }
+
+  @Test
+  public void cancelledImportLeavesCheckpointAndStillRebuilds() throws Exception {
+    BulkImportResult result = underTest.importDirectory(repository, directory, true, () -> true, progressUpdater);
+
+    assertThat(result.isCompleted(), is(false));
+    assertThat(result.getImported(), is(0L));
+    verify(uploadManager, never()).handle(any(ImportFileConfiguration.class));
+    verify(browseNodeEventHandler).resumeEventProcessing("maven-releases");
+    verify(rebuildBrowseNodeService).rebuild(repository, progressUpdater);
+  }
+
+  @Test
+  public void countsSkippedAndFailedFiles() throws Exception {
+    File pom = file("org/foo/1.0/foo-1.0.pom");
+    File metadata = file("org/foo/maven-metadata.xml");
+    when(uploadManager.handle(new ImportFileConfiguration(repository, pom, "org/foo/1.0/foo-1.0.pom", true)))
+        .thenReturn(null);
+    when(uploadManager.handle(new ImportFileConfiguration(repository, metadata, "org/foo/maven-metadata.xml", true)))
+        .thenThrow(new RuntimeException("bad metadata"));
+
+    BulkImportResult result = underTest.importDirectory(repository, directory, true, () -> false, progressUpdater);
+
+    assertThat(result.getImported(), is(1L));
+    assertThat(result.getSkipped(), is(1L));
+    assertThat(result.getFailed(), is(1L));
+    assertThat(result.isCompleted(), is(true));
+  }
+
+  @Test
+  public void failedFilesAreRetriedByTheNextImport() throws Exception {
+    File metadata = file("org/foo/maven-metadata.xml");
+    ImportFileConfiguration metadataImport =
+        new ImportFileConfiguration(repository, metadata, "org/foo/maven-metadata.xml", true);
+    when(uploadManager.handle(metadataImport)).thenThrow(new RuntimeException("bad metadata"));
+
+    BulkImportResult first = underTest.importDirectory(repository, directory, true, () -> false, progressUpdater);
+
+    assertThat(first.getFailed(), is(1L));
+    assertThat(underTest.checkpointFile(repository, directory).exists(), is(true));
+
+    reset(uploadManager);
+    when(uploadManager.handle(any(ImportFileConfiguration.class))).thenReturn(content);
+
+    BulkImportResult second = underTest.importDirectory(repository, directory, true, () -> false, progressUpdater);
+
+    assertThat(second.getImported(), is(1L));
+    assertThat(second.getSkipped(), is(2L));
+    assertThat(second.getFailed(), is(0L));
+    verify(uploadManager).handle(metadataImport);
+    assertThat(underTest.checkpointFile(repository, directory).exists(), is(false));
+  }
+
+  private void verifyImported(final String path) throws Exception {
+    verify(uploadManager, times(1)).handle(new ImportFileConfiguration(repository, file(path), path, true));
+  }
+
+  private File file(final String path) {
+    return new File(directory, path);
+  }
+
+  private void write(final String path) throws Exception {
+    File file = file(path);
+    Files.createDirectories(file.getParentFile().toPath());
+    Files.write(file.toPath(), path.getBytes());
+  }
+}
@@ -0,0 +1,374 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.blobstore.api.BlobRef;
+import org.sonatype.nexus.common.event.EventManager;
+import org.sonatype.nexus.datastore.api.DataSession;
+import org.sonatype.nexus.distributed.event.service.api.common.AssetPathCacheInvalidationEvent;
+import org.sonatype.nexus.repository.content.Asset;
+import org.sonatype.nexus.repository.content.event.component.ComponentPurgedEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class AssetPathCacheTest
+    extends TestSupport
+{
+  private static final String FORMAT = "test";
+
+  @Mock
+  private EventManager eventManager;
+
+  private AssetPathCache underTest;
+
+  private AtomicInteger loads;
+
+  @Before
+  public void setup() {
+    underTest = new AssetPathCache(eventManager, true, 100, 60);
+    loads = new AtomicInteger();
+  }
+
+  @Test
+  public void hitsAreServedWithoutTheLoader() {
+    AssetData asset = asset(1, "/a/b.jar");
+
+    Optional<Asset> first = read(1, "/a/b.jar", loader(asset));
+    Optional<Asset> second = read(1, "/a/b.jar", loader(asset));
+
+    assertThat(loads.get(), is(1));
+    assertThat(first.get(), sameInstance(asset));
+    assertThat(second.get().path(), is("/a/b.jar"));
+    assertThat(second.get(), not(sameInstance(asset)));
+    assertThat(underTest.stats().hitCount(), is(1L));
+    assertThat(underTest.stats().missCount(), is(1L));
+  }
+
+  @Test
+  public void callersCannotChangeCachedEntries() {
+    AssetData asset = asset(1, "/a/b.jar");
+    asset.attributes().child("test").set("key", "original");
+    read(1, "/a/b.jar", loader(asset));
+
+    Asset copy = read(1, "/a/b.jar", loader(asset)).get();
+    copy.attributes().child("test").set("key", "changed");
+    asset.attributes().child("test").set("key", "changed");
+
+    Asset again = read(1, "/a/b.jar", loader(asset)).get();
+    assertThat(again.attributes().child("test").get("key"), is("original"));
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void nestedComponentAndBlobAreCopied() {
+    AssetData asset = asset(1, "/a/b.jar");
+    asset.setComponent(component(7));
+    asset.setAssetBlob(assetBlob("blob-1"));
+    read(1, "/a/b.jar", loader(asset));
+
+    Asset copy = read(1, "/a/b.jar", loader(asset)).get();
+    copy.component().get().attributes().set("key", "changed");
+    copy.blob().get().checksums().put("sha1", "changed");
+    asset.component().get().attributes().set("key", "changed");
+
+    Asset again = read(1, "/a/b.jar", loader(asset)).get();
+    assertThat(again.component().get(), not(sameInstance(copy.component().get())));
+    assertThat(again.component().get().attributes().get("key"), is("original"));
+    assertThat(again.blob().get().checksums().get("sha1"), is("original"));
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void missingAssetsAreNotCached() {
+    read(1, "/missing", loader(null));
+    read(1, "/missing", loader(null));
+
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void invalidatedPathsAreReloaded() {
+    AssetData asset = asset(1, "/a/b.jar");
+    read(1, "/a/b.jar", loader(asset));
+
+    underTest.invalidate(FORMAT, 1, List.of("/a/b.jar"));
+    read(1, "/a/b.jar", loader(asset));
+
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void lookupsAreOnlyCachedOnceTheSessionCommits() {
+    AssetData asset = asset(1, "/a/b.jar");
+    TestSession first = new TestSession();
+    TestSession second = new TestSession();
+
+    underTest.get(FORMAT, 1, "/a/b.jar", first.mock, loader(asset));
+    underTest.get(FORMAT, 1, "/a/b.jar", second.mock, loader(asset));
+    assertThat(loads.get(), is(2));
+
+    first.commit();
+    read(1, "/a/b.jar", loader(asset));
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void rolledBackLookupsAreNotCached() {
+    AssetData asset = asset(1, "/a/b.jar");
+    TestSession session = new TestSession();
+
+    underTest.get(FORMAT, 1, "/a/b.jar", session.mock, loader(asset));
+    session.rollback();
+
+    read(1, "/a/b.jar", loader(asset));
+    read(1, "/a/b.jar", loader(asset));
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void lookupsFromReadReplicasAreNotCached() {
+    AssetData asset = asset(1, "/a/b.jar");
+    TestSession replica = new TestSession();
+    when(replica.mock.isReadReplica()).thenReturn(true);
+
+    underTest.get(FORMAT, 1, "/a/b.jar", replica.mock, loader(asset));
+    replica.commit();
+
+    read(1, "/a/b.jar", loader(asset));
+    read(1, "/a/b.jar", loader(asset));
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void lookupsInSessionsWithWritesAreNotCached() {
+    AssetData asset = asset(1, "/a/b.jar");
+
+    TestSession writeThenRead = new TestSession();
+    underTest.pendingWrites(writeThenRead.mock);
+    underTest.get(FORMAT, 1, "/a/b.jar", writeThenRead.mock, loader(asset));
+    writeThenRead.commit();
+
+    TestSession readThenWrite = new TestSession();
+    underTest.get(FORMAT, 1, "/a/b.jar", readThenWrite.mock, loader(asset));
+    underTest.pendingWrites(readThenWrite.mock);
+    readThenWrite.commit();
+
+    read(1, "/a/b.jar", loader(asset));
+    read(1, "/a/b.jar", loader(asset));
+    assertThat(loads.get(), is(3));
+  }
+
+  @Test
+  public void blobChangesInvalidateAttachedAssets() {
+    AssetData first = asset(1, "/one");
+    first.setAssetBlob(assetBlob("blob-1"));
+    AssetData second = asset(1, "/two");
+    second.setAssetBlob(assetBlob("blob-2"));
+    read(1, "/one", loader(first));
+    read(1, "/two", loader(second));
+    assertThat(underTest.indexedKeys(), is(2));
+
+    underTest.invalidate(new BlobRef("default", "blob-1"));
+
+    read(1, "/one", loader(first));
+    read(1, "/two", loader(second));
+    assertThat(loads.get(), is(3));
+  }
+
+  @Test
+  public void indexesFollowTheCache() {
+    AssetData asset = asset(1, "/a/b.jar");
+    asset.setComponent(component(7));
+    asset.setAssetBlob(assetBlob("blob-1"));
+    read(1, "/a/b.jar", loader(asset));
+    assertThat(underTest.indexedKeys(), is(2));
+
+    underTest.invalidate(FORMAT, 1, List.of("/a/b.jar"));
+    assertThat(underTest.indexedKeys(), is(0));
+  }
+
+  @Test
+  public void emptyPathsInvalidateTheWholeRepository() {
+    read(1, "/one", loader(asset(1, "/one")));
+    read(1, "/two", loader(asset(1, "/two")));
+    read(2, "/one", loader(asset(2, "/one")));
+
+    underTest.invalidate(FORMAT, 1, List.of());
+
+    read(1, "/one", loader(asset(1, "/one")));
+    read(1, "/two", loader(asset(1, "/two")));
+    read(2, "/one", loader(asset(2, "/one")));
+    assertThat(loads.get(), is(5));
+  }
+
+  @Test
+  public void loadsThatRaceAnInvalidationAreDiscarded() {
+    AssetData asset = asset(1, "/a/b.jar");
+    read(1, "/a/b.jar", () -> {
+      loads.incrementAndGet();
+      underTest.invalidate(FORMAT, 1, List.of("/a/b.jar"));
+      return Optional.of(asset);
+    });
+
+    read(1, "/a/b.jar", loader(asset));
+
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void invalidationIsSharedWithOtherNodes() {
+    underTest.invalidateEverywhere(FORMAT, 1, List.of("/a/b.jar"));
+
+    ArgumentCaptor<AssetPathCacheInvalidationEvent> captor =
+        ArgumentCaptor.forClass(AssetPathCacheInvalidationEvent.class);
+    verify(eventManager).post(captor.capture());
+    assertThat(captor.getValue().getFormat(), is(FORMAT));
+    assertThat(captor.getValue().getRepositoryId(), is(1));
+    assertThat(captor.getValue().getPaths(), contains("/a/b.jar"));
+  }
+
+  @Test
+  public void onlyRemoteInvalidationEventsAreApplied() {
+    AssetData asset = asset(1, "/a/b.jar");
+    read(1, "/a/b.jar", loader(asset));
+
+    underTest.on(new AssetPathCacheInvalidationEvent(FORMAT, 1, List.of("/a/b.jar")));
+    read(1, "/a/b.jar", loader(asset));
+    assertThat(loads.get(), is(1));
+
+    AssetPathCacheInvalidationEvent remote = new AssetPathCacheInvalidationEvent(FORMAT, 1, List.of("/a/b.jar"));
+    remote.setRemoteNodeId("other-node");
+    underTest.on(remote);
+    read(1, "/a/b.jar", loader(asset));
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void purgedComponentsInvalidateTheirAssets() {
+    AssetData asset = asset(1, "/a/b.jar");
+    asset.componentId = 7;
+    read(1, "/a/b.jar", loader(asset));
+
+    underTest.on(new ComponentPurgedEvent(1, new int[]{7}));
+    read(1, "/a/b.jar", loader(asset));
+
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void disabledCacheAlwaysLoads() {
+    underTest = new AssetPathCache(eventManager, false, 0, 0);
+    AssetData asset = asset(1, "/a/b.jar");
+
+    read(1, "/a/b.jar", loader(asset));
+    read(1, "/a/b.jar", loader(asset));
+    underTest.invalidateEverywhere(FORMAT, 1, List.of("/a/b.jar"));
+
+    assertThat(underTest.isEnabled(), is(false));
+    assertThat(loads.get(), is(2));
+    verifyNoInteractions(eventManager);
+  }
+
+  private Optional<Asset> read(final int repositoryId, final String path, final Supplier<Optional<Asset>> loader) {
+    TestSession session = new TestSession();
+    Optional<Asset> result = underTest.get(FORMAT, repositoryId, path, session.mock, loader);
+    session.commit();
+    return result;
+  }
+
+  private Supplier<Optional<Asset>> loader(final AssetData asset) {
+    return () -> {
+      loads.incrementAndGet();
+      return Optional.ofNullable(asset);
+    };
+  }
+
+  private static AssetData asset(final int repositoryId, final String path) {
+    AssetData asset = new AssetData();
+    asset.setRepositoryId(repositoryId);
+    asset.setAssetId(path.hashCode());
+    asset.setPath(path);
+    asset.setKind("test");
+    return asset;
+  }
+
+  private static ComponentData component(final int componentId) {
+    ComponentData component = new ComponentData();
+    component.setRepositoryId(1);
+    component.setComponentId(componentId);
+    component.setNamespace("group");
+    component.setName("name");
+    component.setKind("test");
+    component.setVersion("1.0");
+    component.attributes().set("key", "original");
+    return component;
+  }
+
+  private static AssetBlobData assetBlob(final String blobId) {
+    AssetBlobData assetBlob = new AssetBlobData();
+    assetBlob.setAssetBlobId(blobId.hashCode());
+    assetBlob.setBlobRef(new BlobRef("default", blobId));
+    assetBlob.setContentType("application/java-archive");
+    assetBlob.setChecksums(new HashMap<>(Map.of("sha1", "original")));
+    return assetBlob;
+  }
+
+  /**
+   * Minimal session that records commit and rollback hooks.
+   */
+  private static class TestSession
+  {
+    final DataSession<?> mock = mock(DataSession.class);
+
+    final List<Runnable> postCommit = new ArrayList<>();
+
+    final List<Runnable> onRollback = new ArrayList<>();
+
+    TestSession() {
+      doAnswer(invocation -> postCommit.add(invocation.getArgument(0))).when(mock).postCommit(any());
+      doAnswer(invocation -> onRollback.add(invocation.getArgument(0))).when(mock).onRollback(any());
+    }
+
+    void commit() {
+      postCommit.forEach(Runnable::run);
+    }
+
+    void rollback() {
+      onRollback.forEach(Runnable::run);
+    }
+  }
+}
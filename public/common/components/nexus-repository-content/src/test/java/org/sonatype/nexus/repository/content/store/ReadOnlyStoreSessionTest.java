@@ -0,0 +1,141 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.content.store;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.sonatype.nexus.common.event.EventManager;
+import org.sonatype.nexus.datastore.api.DataSession;
+import org.sonatype.nexus.datastore.api.DataSessionSupplier;
+import org.sonatype.nexus.repository.content.facet.ContentFacetFinder;
+import org.sonatype.nexus.repository.content.store.example.TestAssetDAO;
+import org.sonatype.nexus.repository.content.store.example.TestComponentDAO;
+import org.sonatype.nexus.repository.content.store.example.TestContentRepositoryDAO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.sonatype.nexus.datastore.api.DataStoreManager.DEFAULT_DATASTORE_NAME;
+
+/**
+ * Checks which content store calls are routed to read-only sessions, and so to the read replica when configured.
+ */
+class ReadOnlyStoreSessionTest
+    extends ExampleContentTestSupport
+{
+  @Mock
+  ContentFacetFinder contentFacetFinder;
+
+  @Mock
+  EventManager eventManager;
+
+  final AtomicInteger readOnlySessions = new AtomicInteger();
+
+  final AtomicInteger primarySessions = new AtomicInteger();
+
+  int repositoryId;
+
+  AssetStore<TestAssetDAO> assetStore;
+
+  ComponentStore<TestComponentDAO> componentStore;
+
+  @BeforeEach
+  void setup() {
+    ContentRepositoryData contentRepository = generateContentRepository();
+    try (DataSession<?> session = sessionRule.openSession(DEFAULT_DATASTORE_NAME)) {
+      session.access(TestContentRepositoryDAO.class).createContentRepository(contentRepository);
+      session.getTransaction().commit();
+    }
+    repositoryId = contentRepository.repositoryId;
+
+    DataSessionSupplier sessions = new RecordingSessionSupplier();
+    assetStore = new AssetStore<>(sessions, false, "test", TestAssetDAO.class);
+    componentStore = new ComponentStore<>(sessions, false, "test", TestComponentDAO.class);
+    assetStore.setDependencies(contentFacetFinder, eventManager);
+    componentStore.setDependencies(contentFacetFinder, eventManager);
+  }
+
+  @Test
+  void writesUsePrimarySessions() {
+    componentStore.createComponent(generateComponent(repositoryId, "namespace", "name", "1.0"));
+    assetStore.createAsset(generateAsset(repositoryId, "/path"));
+
+    assertThat(primarySessions.get(), is(2));
+    assertThat(readOnlySessions.get(), is(0));
+  }
+
+  @Test
+  void readsAndBrowsingUseReadOnlySessions() {
+    componentStore.createComponent(generateComponent(repositoryId, "namespace", "name", "1.0"));
+    assetStore.createAsset(generateAsset(repositoryId, "/path"));
+    primarySessions.set(0);
+
+    assertThat(assetStore.countAssets(repositoryId, null, null, null), is(1));
+    assertThat(assetStore.browseAssets(repositoryId, null, null, null, null, 10).size(), is(1));
+    assertThat(assetStore.readPath(repositoryId, "/path").isPresent(), is(true));
+    assertThat(componentStore.countComponents(repositoryId, null, null, null), is(1));
+    assertThat(componentStore.browseComponents(repositoryId, 10, null, null, null, null).size(), is(1));
+    assertThat(componentStore.readCoordinate(repositoryId, "namespace", "name", "1.0").isPresent(), is(true));
+    assertThat(componentStore.browseNamespaces(repositoryId).size(), is(1));
+
+    assertThat(readOnlySessions.get(), is(7));
+    assertThat(primarySessions.get(), is(0));
+  }
+
+  @Test
+  void readsInsideWriteTransactionsJoinThePrimarySession() {
+    componentStore.getOrCreate(
+        () -> componentStore.readCoordinate(repositoryId, "namespace", "name", "1.0"),
+        () -> {
+          ComponentData component = generateComponent(repositoryId, "namespace", "name", "1.0");
+          componentStore.createComponent(component);
+          return component;
+        });
+
+    assertThat(primarySessions.get(), is(1));
+    assertThat(readOnlySessions.get(), is(0));
+  }
+
+  private class RecordingSessionSupplier
+      implements DataSessionSupplier
+  {
+    @Override
+    public DataSession<?> openSession(final String storeName) {
+      primarySessions.incrementAndGet();
+      return sessionRule.openSession(storeName);
+    }
+
+    @Override
+    public DataSession<?> openSerializableTransactionSession(final String storeName) {
+      primarySessions.incrementAndGet();
+      return sessionRule.openSerializableTransactionSession(storeName);
+    }
+
+    @Override
+    public DataSession<?> openReadOnlySession(final String storeName) {
+      readOnlySessions.incrementAndGet();
+      return sessionRule.openSession(storeName);
+    }
+
+    @Override
+    public Connection openConnection(final String storeName) throws SQLException {
+      return sessionRule.openConnection(storeName);
+    }
+  }
+}
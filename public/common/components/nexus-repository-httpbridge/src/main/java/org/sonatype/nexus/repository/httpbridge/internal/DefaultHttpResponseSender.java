@@ -12,6 +12,7 @@
  */
 package org.sonatype.nexus.repository.httpbridge.internal;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -25,6 +26,7 @@ import javax.servlet.http.HttpServletResponseWrapper;
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.repository.http.HttpMethods;
 import org.sonatype.nexus.repository.httpbridge.HttpResponseSender;
+import org.sonatype.nexus.repository.view.HandlerTimings;
 import org.sonatype.nexus.repository.view.Payload;
 import org.sonatype.nexus.repository.view.Request;
 import org.sonatype.nexus.repository.view.Response;
@@ -62,6 +64,8 @@ public class DefaultHttpResponseSender
     // add status followed by payload if we have one
     Status status = response.getStatus();
     String statusMessage = status.getMessage();
+    HandlerTimings timings = response.getAttributes().get(HandlerTimings.KEY, HandlerTimings.class);
+    TimedOutputStream timedOutput = null;
     try (Payload payload = response.getPayload()) {
       if (statusMessage == null) {
         httpResponse.setStatus(status.getCode());
@@ -91,7 +95,13 @@ public class DefaultHttpResponseSender
 
         if (request != null && !HttpMethods.HEAD.equals(request.getAction())) {
           try (InputStream input = payload.openInputStream(); OutputStream output = httpResponse.getOutputStream()) {
-            payload.copy(input, output);
+            if (timings != null) {
+              timedOutput = new TimedOutputStream(output, timings);
+              payload.copy(input, timedOutput);
+            }
+            else {
+              payload.copy(input, output);
+            }
           }
         }
       }
@@ -99,5 +109,44 @@ public class DefaultHttpResponseSender
         httpResponse.sendError(status.getCode(), statusMessage);
       }
     }
+    finally {
+      if (timings != null) {
+        timings.complete(timedOutput != null ? timedOutput.count : 0);
+      }
+    }
+  }
+
+  /**
+   * Counts the bytes written and reports the first one to the sampled request's {@link HandlerTimings}.
+   */
+  private static class TimedOutputStream
+      extends FilterOutputStream
+  {
+    private final HandlerTimings timings;
+
+    private long count;
+
+    TimedOutputStream(final OutputStream out, final HandlerTimings timings) {
+      super(out);
+      this.timings = timings;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      if (count == 0) {
+        timings.firstByte();
+      }
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      if (count == 0 && len > 0) {
+        timings.firstByte();
+      }
+      out.write(b, off, len);
+      count += len;
+    }
   }
 }
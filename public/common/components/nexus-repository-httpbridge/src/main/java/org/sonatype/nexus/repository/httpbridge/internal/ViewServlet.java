@@ -24,6 +24,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.sonatype.nexus.common.app.BaseUrlHolder;
+import org.sonatype.nexus.common.profiling.RepositoryRequestEvent;
 import org.sonatype.nexus.repository.BadRequestException;
 import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.http.HttpResponses;
@@ -182,7 +183,15 @@ public class ViewServlet
 
     // Dispatch the request
     Request request = buildRequest(httpRequest, path.getRemainingPath());
-    dispatchAndSend(request, facet, httpResponseSenderSelector.sender(repo), httpResponse);
+    RepositoryRequestEvent event = new RepositoryRequestEvent(
+        repo.getName(), repo.getFormat().getValue(), request.getAction(), request.getPath());
+    event.begin();
+    try {
+      dispatchAndSend(request, facet, httpResponseSenderSelector.sender(repo), httpResponse);
+    }
+    finally {
+      event.finish(httpResponse.getStatus());
+    }
   }
 
   /**
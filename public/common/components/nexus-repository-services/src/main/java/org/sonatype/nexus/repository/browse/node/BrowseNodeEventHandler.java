@@ -12,6 +12,8 @@
  */
 package org.sonatype.nexus.repository.browse.node;
 
+import org.sonatype.nexus.repository.Repository;
+
 /**
  * EventHandler that manages browse nodes realtime
  * 
@@ -34,4 +36,26 @@ public interface BrowseNodeEventHandler
    * resume processing, with the knowledge that anything added while in the paused state did not get added to browse
    */
   void resumeEventProcessing();
+
+  /**
+   * event handling for the given repository should only be carried out if this is true
+   *
+   * @since 3.89
+   */
+  boolean shouldHandle(Repository repository);
+
+  /**
+   * pause processing of events for a single repository, once this happens, rebuilding its browse nodes will be
+   * required after resuming processing
+   *
+   * @since 3.89
+   */
+  void pauseEventProcessing(String repositoryName);
+
+  /**
+   * resume processing for a single repository
+   *
+   * @since 3.89
+   */
+  void resumeEventProcessing(String repositoryName);
 }
@@ -12,9 +12,12 @@
  */
 package org.sonatype.nexus.repository.browse.node;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.sonatype.goodies.lifecycle.LifecycleSupport;
+import org.sonatype.nexus.repository.Repository;
 
 /**
  * Manages common tasks for the BrowseNodeEventHandler
@@ -27,6 +30,8 @@ public abstract class BrowseNodeEventHandlerSupport
 {
   private final AtomicBoolean pauseHandling = new AtomicBoolean(false);
 
+  private final Set<String> pausedRepositories = ConcurrentHashMap.newKeySet();
+
   @Override
   public boolean shouldHandle() {
     return !pauseHandling.get();
@@ -43,4 +48,21 @@ public abstract class BrowseNodeEventHandlerSupport
     log.info("BrowseNode event processing has been resumed");
     pauseHandling.set(false);
   }
+
+  @Override
+  public boolean shouldHandle(final Repository repository) {
+    return shouldHandle() && !pausedRepositories.contains(repository.getName());
+  }
+
+  @Override
+  public void pauseEventProcessing(final String repositoryName) {
+    log.info("BrowseNode event processing has been paused for {}", repositoryName);
+    pausedRepositories.add(repositoryName);
+  }
+
+  @Override
+  public void resumeEventProcessing(final String repositoryName) {
+    log.info("BrowseNode event processing has been resumed for {}", repositoryName);
+    pausedRepositories.remove(repositoryName);
+  }
 }
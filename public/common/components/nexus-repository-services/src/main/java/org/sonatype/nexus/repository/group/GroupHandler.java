@@ -17,6 +17,8 @@ import java.util.List;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
 import org.sonatype.goodies.common.ComponentSupport;
@@ -95,6 +97,15 @@ public class GroupHandler
     }
   }
 
+  @Inject
+  @Nullable
+  private GroupMemberResolutionCache memberResolutionCache;
+
+  @VisibleForTesting
+  void setMemberResolutionCache(@Nullable final GroupMemberResolutionCache memberResolutionCache) {
+    this.memberResolutionCache = memberResolutionCache;
+  }
+
   @Nonnull
   @Override
   public Response handle(@Nonnull final Context context) throws Exception {
@@ -127,14 +138,25 @@ public class GroupHandler
   /**
    * Returns the first OK response from member repositories or {@link HttpResponses#notFound()} if none of the members
    * responded with OK.
+   *
+   * When the member which last served the path is known it is asked first; see {@link GroupMemberResolutionCache}.
    */
   protected Response getFirst(
       @Nonnull final Context context,
       @Nonnull final List<Repository> members,
       @Nonnull final DispatchedRepositories dispatched) throws Exception
   {
-    int repositoryProxyCount = 0;
     final Request request = context.getRequest();
+    final Repository group = context.getRepository();
+    final boolean resolving = isResolvingMembers(group, members);
+    if (resolving) {
+      Response response = getFromResolvedMember(context, group, members, dispatched);
+      if (response != null) {
+        return response;
+      }
+    }
+
+    int repositoryProxyCount = 0;
     for (Repository member : members) {
       log.trace("Trying member: {}", member);
 
@@ -165,12 +187,64 @@ public class GroupHandler
         if (ProxyType.NAME.equals(member.getType().getValue())) {
           context.setAttribute(IQ_MEMBER_REPO_NAME, member.getName());
         }
+        if (resolving && response.getStatus().isSuccessful()) {
+          memberResolutionCache.putMember(group, request.getPath(), member);
+        }
         return response;
       }
     }
     return notFoundResponse(context);
   }
 
+  /**
+   * Resolved members are only used for walks over the full member list; a member found while walking a subset may not
+   * be the first to serve the path among all members.
+   */
+  private boolean isResolvingMembers(@Nullable final Repository group, final List<Repository> members) {
+    return memberResolutionCache != null && memberResolutionCache.isEnabled() && group != null &&
+        group.optionalFacet(GroupFacet.class).map(GroupFacet::members).filter(members::equals).isPresent();
+  }
+
+  /**
+   * Dispatches to the member which last served the path, returning {@code null} when it is unknown or no longer
+   * serves the path so the caller falls back to asking every member in order.
+   */
+  @Nullable
+  private Response getFromResolvedMember(
+      final Context context,
+      final Repository group,
+      final List<Repository> members,
+      final DispatchedRepositories dispatched) throws Exception
+  {
+    final Request request = context.getRequest();
+    String memberName = memberResolutionCache.getMember(group, request.getPath());
+    if (memberName == null) {
+      return null;
+    }
+
+    Repository member = members.stream().filter(it -> memberName.equals(it.getName())).findFirst().orElse(null);
+    if (member == null
+        || (member.getConfiguration() != null && !member.getConfiguration().isOnline())
+        || dispatched.contains(member)) {
+      memberResolutionCache.evict(group, request.getPath());
+      return null;
+    }
+    dispatched.add(member);
+
+    final Response response = member.facet(ViewFacet.class).dispatch(request, context);
+    log.trace("Resolved member {} response {}", member, response.getStatus());
+    if (!response.getStatus().isSuccessful()) {
+      memberResolutionCache.evict(group, request.getPath());
+      if (!isValidResponse(response)) {
+        return null;
+      }
+    }
+    if (ProxyType.NAME.equals(member.getType().getValue())) {
+      context.setAttribute(IQ_MEMBER_REPO_NAME, member.getName());
+    }
+    return response;
+  }
+
   /**
    * Returns all responses from all members as a linked map, where order is group member order.
    */
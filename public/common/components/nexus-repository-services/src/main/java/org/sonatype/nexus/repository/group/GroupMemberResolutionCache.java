@@ -0,0 +1,207 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.group;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.common.event.EventAware;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.manager.RepositoryDeletedEvent;
+import org.sonatype.nexus.repository.manager.RepositoryUpdatedEvent;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Remembers which member of a group last served a path, so {@link GroupHandler#getFirst} can dispatch straight to it
+ * instead of walking every member in order.
+ *
+ * Entries expire after a TTL and are invalidated when content at the path changes in any repository, or when any
+ * repository is updated or deleted. Since a member ahead of the remembered one could start serving the path without
+ * such a change (eg. a proxy whose remote gained it), the TTL bounds how long group ordering may be bypassed.
+ *
+ * Hits and misses of each group are published under {@value #METRICS_PREFIX}.
+ *
+ * @since 3.89
+ */
+@Component
+@Singleton
+public class GroupMemberResolutionCache
+    extends ComponentSupport
+    implements EventAware
+{
+  static final String METRICS_PREFIX = "nexus.group.memberResolution";
+
+  private final boolean enabled;
+
+  private final Duration ttl;
+
+  private final long maxSize;
+
+  private final MetricRegistry registry;
+
+  private final Map<String, GroupEntries> groups = new ConcurrentHashMap<>();
+
+  @Inject
+  public GroupMemberResolutionCache(
+      @Value("${nexus.group.memberResolutionCache.enabled:true}") final boolean enabled,
+      @Value("${nexus.group.memberResolutionCache.ttl:5m}") final Duration ttl,
+      @Value("${nexus.group.memberResolutionCache.maxSize:10000}") final long maxSize)
+  {
+    this(enabled, ttl, maxSize, SharedMetricRegistries.getOrCreate("nexus"));
+  }
+
+  @VisibleForTesting
+  GroupMemberResolutionCache(
+      final boolean enabled,
+      final Duration ttl,
+      final long maxSize,
+      final MetricRegistry registry)
+  {
+    checkArgument(maxSize > 0, "maxSize must be positive: %s", maxSize);
+    this.enabled = enabled;
+    this.ttl = checkNotNull(ttl);
+    this.maxSize = maxSize;
+    this.registry = checkNotNull(registry);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the name of the member which last served the path through the group, or {@code null} if unknown.
+   */
+  @Nullable
+  public String getMember(final Repository group, final String path) {
+    if (!enabled) {
+      return null;
+    }
+    GroupEntries entries = entries(group);
+    String member = entries.members.getIfPresent(key(path));
+    if (member != null) {
+      entries.hits.mark();
+    }
+    else {
+      entries.misses.mark();
+    }
+    return member;
+  }
+
+  /**
+   * Records the member which served the path through the group.
+   */
+  public void putMember(final Repository group, final String path, final Repository member) {
+    if (enabled) {
+      entries(group).members.put(key(path), member.getName());
+    }
+  }
+
+  /**
+   * Forgets the member which served the path through the group, eg. because it no longer does.
+   */
+  public void evict(final Repository group, final String path) {
+    GroupEntries entries = groups.get(group.getName());
+    if (entries != null) {
+      entries.members.invalidate(key(path));
+    }
+  }
+
+  /**
+   * Forgets the path in all groups; called when content at the path changes in any repository.
+   */
+  public void invalidatePath(final String path) {
+    String key = key(path);
+    groups.values().forEach(entries -> entries.members.invalidate(key));
+  }
+
+  /**
+   * Forgets all paths in all groups.
+   */
+  public void invalidateAll() {
+    groups.values().forEach(entries -> entries.members.invalidateAll());
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final RepositoryUpdatedEvent event) {
+    // membership, ordering and online status changes can affect any group containing the repository
+    invalidateAll();
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final RepositoryDeletedEvent event) {
+    String repositoryName = event.getRepository().getName();
+    groups.remove(repositoryName);
+    invalidateAll();
+
+    // match exact names, as another group's name may start with this one
+    Set<String> metricNames =
+        Set.of(name(METRICS_PREFIX, repositoryName, "hits"), name(METRICS_PREFIX, repositoryName, "misses"));
+    registry.removeMatching((metricName, metric) -> metricNames.contains(metricName));
+  }
+
+  private GroupEntries entries(final Repository group) {
+    return groups.computeIfAbsent(group.getName(), GroupEntries::new);
+  }
+
+  /**
+   * Request and asset paths differ in their leading slash for some formats.
+   */
+  private static String key(final String path) {
+    return path.startsWith("/") ? path.substring(1) : path;
+  }
+
+  /**
+   * Remembered members and metrics of one group.
+   */
+  private class GroupEntries
+  {
+    final Cache<String, String> members;
+
+    final Meter hits;
+
+    final Meter misses;
+
+    GroupEntries(final String groupName) {
+      this.members = CacheBuilder.newBuilder()
+          .expireAfterWrite(ttl)
+          .maximumSize(maxSize)
+          .build();
+      this.hits = registry.meter(name(METRICS_PREFIX, groupName, "hits"));
+      this.misses = registry.meter(name(METRICS_PREFIX, groupName, "misses"));
+    }
+  }
+}
@@ -14,6 +14,8 @@ package org.sonatype.nexus.repository.move;
 
 import java.time.OffsetDateTime;
 
+import javax.annotation.Nullable;
+
 /**
  * @since 3.28
  */
@@ -34,4 +36,23 @@ public interface ChangeRepositoryBlobStoreConfiguration
   OffsetDateTime getStarted();
 
   void setStarted(final OffsetDateTime processStartDate);
+
+  /**
+   * @return the continuation token to resume the move from, or {@code null} to start from the beginning
+   *
+   * @since 3.89
+   */
+  @Nullable
+  default String getCheckpoint() {
+    return null;
+  }
+
+  /**
+   * @return the number of blobs moved up to the {@link #getCheckpoint() checkpoint}
+   *
+   * @since 3.89
+   */
+  default long getBlobsMoved() {
+    return 0;
+  }
 }
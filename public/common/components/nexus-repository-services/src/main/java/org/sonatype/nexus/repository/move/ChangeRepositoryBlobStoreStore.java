@@ -48,4 +48,16 @@ public interface ChangeRepositoryBlobStoreStore
   void update(final String repository, final String sourceBlobStoreName, final String targetBlobStoreName);
 
   void remove(final String repository);
+
+  /**
+   * Records how far the move of a repository has progressed, so a restarted move can resume from the checkpoint
+   * rather than the beginning. Stores that do not track progress ignore this.
+   *
+   * @param continuationToken token of the last fully moved page of blobs
+   * @param blobsMoved        number of blobs moved so far
+   * @since 3.89
+   */
+  default void checkpoint(final String repository, @Nullable final String continuationToken, final long blobsMoved) {
+    // progress is not tracked by default
+  }
 }
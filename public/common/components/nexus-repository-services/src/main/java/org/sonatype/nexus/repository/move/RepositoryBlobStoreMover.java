@@ -0,0 +1,300 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.move;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.blobstore.api.Blob;
+import org.sonatype.nexus.blobstore.api.BlobId;
+import org.sonatype.nexus.blobstore.api.BlobStore;
+import org.sonatype.nexus.blobstore.api.BlobStoreManager;
+import org.sonatype.nexus.common.entity.Continuation;
+import org.sonatype.nexus.logging.task.ProgressLogIntervalHelper;
+import org.sonatype.nexus.scheduling.CancelableHelper;
+import org.sonatype.nexus.scheduling.TaskInterruptedException;
+import org.sonatype.nexus.thread.NexusThreadFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+/**
+ * Moves the blobs of a repository from one blob store to another with bounded parallelism.
+ *
+ * Blobs are moved a page at a time using {@link BlobStoreManager#moveBlob}, which takes the blob stores' internal move
+ * fast path when they support one. Once every blob of a page has moved, the page's continuation token is
+ * {@link ChangeRepositoryBlobStoreStore#checkpoint checkpointed} so a restarted move resumes from there; blobs of a
+ * partially moved page that already left the source are recognised and not moved again. Blobs found in neither blob
+ * store are skipped and reported separately from the moved ones.
+ *
+ * Throughput, skipped blobs and the estimated time remaining are published under {@value #METRICS_PREFIX} while a
+ * move runs.
+ *
+ * @since 3.89
+ */
+@Component
+@Singleton
+public class RepositoryBlobStoreMover
+    extends ComponentSupport
+{
+  static final String METRICS_PREFIX = "nexus.repository.move";
+
+  private static final int PROGRESS_INTERVAL_SECONDS = 60;
+
+  private final BlobStoreManager blobStoreManager;
+
+  @Nullable
+  private final ChangeRepositoryBlobStoreStore changeBlobStoreStore;
+
+  private final int concurrency;
+
+  private final int pageSize;
+
+  private final MetricRegistry registry;
+
+  @Inject
+  public RepositoryBlobStoreMover(
+      final BlobStoreManager blobStoreManager,
+      @Nullable final ChangeRepositoryBlobStoreStore changeBlobStoreStore,
+      @Value("${nexus.repository.move.concurrency:8}") final int concurrency,
+      @Value("${nexus.repository.move.pageSize:1000}") final int pageSize)
+  {
+    this(blobStoreManager, changeBlobStoreStore, concurrency, pageSize, SharedMetricRegistries.getOrCreate("nexus"));
+  }
+
+  @VisibleForTesting
+  RepositoryBlobStoreMover(
+      final BlobStoreManager blobStoreManager,
+      @Nullable final ChangeRepositoryBlobStoreStore changeBlobStoreStore,
+      final int concurrency,
+      final int pageSize,
+      final MetricRegistry registry)
+  {
+    checkArgument(concurrency > 0, "concurrency must be positive: %s", concurrency);
+    checkArgument(pageSize > 0, "pageSize must be positive: %s", pageSize);
+    this.blobStoreManager = checkNotNull(blobStoreManager);
+    this.changeBlobStoreStore = changeBlobStoreStore;
+    this.concurrency = concurrency;
+    this.pageSize = pageSize;
+    this.registry = checkNotNull(registry);
+  }
+
+  /**
+   * Moves the blobs of a repository, resuming from the last checkpoint recorded for it.
+   *
+   * @param repositoryName the repository being moved
+   * @param source         the blob store to move from
+   * @param target         the blob store to move to
+   * @param expectedBlobs  the number of blobs to move in total, used to estimate the time remaining; zero if unknown
+   * @param browse         returns the next page of items given a page size and continuation token
+   * @param blobIdOf       the blob of an item
+   * @param onMoved        called with each item and its blob in the target blob store, from the mover threads
+   * @return the total number of blobs moved, including those moved before resuming but not those skipped
+   */
+  public <T> long move(
+      final String repositoryName,
+      final BlobStore source,
+      final BlobStore target,
+      final long expectedBlobs,
+      final BiFunction<Integer, String, Continuation<T>> browse,
+      final Function<T, BlobId> blobIdOf,
+      final BiConsumer<T, Blob> onMoved)
+  {
+    checkArgument(source != target, "Source and target blob stores must differ");
+
+    ChangeRepositoryBlobStoreConfiguration previous =
+        changeBlobStoreStore != null ? changeBlobStoreStore.findByRepositoryName(repositoryName) : null;
+    String continuationToken = previous != null ? previous.getCheckpoint() : null;
+    long moved = continuationToken != null ? previous.getBlobsMoved() : 0;
+    long skipped = 0;
+    if (continuationToken != null) {
+      log.info("Resuming move of repository {} after {} blobs", repositoryName, moved);
+    }
+
+    MoveMetrics metrics = new MoveMetrics(repositoryName, expectedBlobs, moved);
+    ExecutorService executor = newFixedThreadPool(concurrency, new NexusThreadFactory("repository-move", repositoryName));
+    try (ProgressLogIntervalHelper progressLogger = new ProgressLogIntervalHelper(log, PROGRESS_INTERVAL_SECONDS)) {
+      Continuation<T> page = browse.apply(pageSize, continuationToken);
+      while (!page.isEmpty()) {
+        CancelableHelper.checkCancellation();
+
+        List<Future<Boolean>> futures = new ArrayList<>(page.size());
+        for (T item : page) {
+          futures.add(executor.submit(() -> moveBlob(item, source, target, blobIdOf, onMoved, metrics)));
+        }
+        int pageMoved = awaitAll(futures);
+        int pageSkipped = page.size() - pageMoved;
+
+        moved += pageMoved;
+        skipped += pageSkipped;
+        continuationToken = page.nextContinuationToken();
+        if (changeBlobStoreStore != null) {
+          changeBlobStoreStore.checkpoint(repositoryName, continuationToken, moved);
+        }
+        metrics.moved(pageMoved);
+        metrics.skipped.mark(pageSkipped);
+
+        progressLogger.info("Moved {} blobs of repository {} to blob store {} ({} blobs/s, about {}s remaining)",
+            moved, repositoryName, target.getBlobStoreConfiguration().getName(),
+            String.format("%.1f", metrics.blobs.getMeanRate()), metrics.secondsRemaining());
+
+        page = browse.apply(pageSize, continuationToken);
+      }
+      log.info("Moved {} blobs of repository {} to blob store {} in {}", moved, repositoryName,
+          target.getBlobStoreConfiguration().getName(), progressLogger.getElapsed());
+      if (skipped > 0) {
+        log.warn("Skipped {} blobs of repository {} which were in neither blob store", skipped, repositoryName);
+      }
+      return moved;
+    }
+    finally {
+      executor.shutdownNow();
+      metrics.remove();
+    }
+  }
+
+  /**
+   * @return {@code true} if the blob is now in the target blob store, {@code false} if it was skipped
+   */
+  private <T> boolean moveBlob(
+      final T item,
+      final BlobStore source,
+      final BlobStore target,
+      final Function<T, BlobId> blobIdOf,
+      final BiConsumer<T, Blob> onMoved,
+      final MoveMetrics metrics)
+  {
+    BlobId blobId = blobIdOf.apply(item);
+    Blob blob;
+    if (source.exists(blobId)) {
+      blob = blobStoreManager.moveBlob(blobId, source, target);
+    }
+    else {
+      // moved by an earlier run that stopped before it could checkpoint the page
+      blob = target.get(blobId, true);
+      if (blob == null) {
+        log.warn("Blob {} is in neither blob store {} nor {}, skipping", blobId,
+            source.getBlobStoreConfiguration().getName(), target.getBlobStoreConfiguration().getName());
+        return false;
+      }
+      log.debug("Blob {} was already moved to blob store {}", blobId, target.getBlobStoreConfiguration().getName());
+    }
+    onMoved.accept(item, blob);
+    metrics.bytes.mark(blob.getMetrics().getContentSize());
+    return true;
+  }
+
+  /**
+   * Waits for every move of the page to finish so none is left running, then rethrows the first failure.
+   *
+   * @return the number of blobs of the page which were moved rather than skipped
+   */
+  private static int awaitAll(final List<Future<Boolean>> futures) {
+    Throwable failure = null;
+    int moved = 0;
+    for (Future<Boolean> future : futures) {
+      try {
+        if (future.get()) {
+          moved++;
+        }
+      }
+      catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        futures.forEach(f -> f.cancel(true));
+        throw new TaskInterruptedException("Repository move was interrupted", false);
+      }
+    }
+    if (failure != null) {
+      Throwables.throwIfUnchecked(failure);
+      throw new RuntimeException(failure);
+    }
+    return moved;
+  }
+
+  /**
+   * Metrics published while a repository is being moved.
+   */
+  private class MoveMetrics
+  {
+    final String prefix;
+
+    final Meter blobs;
+
+    final Meter bytes;
+
+    final Meter skipped;
+
+    final long expectedBlobs;
+
+    volatile long moved;
+
+    MoveMetrics(final String repositoryName, final long expectedBlobs, final long moved) {
+      this.prefix = name(METRICS_PREFIX, repositoryName);
+      this.blobs = registry.meter(name(prefix, "blobs"));
+      this.bytes = registry.meter(name(prefix, "bytes"));
+      this.skipped = registry.meter(name(prefix, "skipped"));
+      this.expectedBlobs = expectedBlobs;
+      this.moved = moved;
+      registry.gauge(name(prefix, "moved"), () -> (Gauge<Long>) () -> this.moved);
+      registry.gauge(name(prefix, "secondsRemaining"), () -> (Gauge<Long>) this::secondsRemaining);
+    }
+
+    void moved(final int count) {
+      blobs.mark(count);
+      moved += count;
+    }
+
+    /**
+     * Estimated seconds until the move completes at the recent rate, or -1 when unknown.
+     */
+    long secondsRemaining() {
+      double rate = blobs.getMeanRate();
+      if (expectedBlobs <= 0 || rate <= 0) {
+        return -1;
+      }
+      return (long) Math.ceil(Math.max(expectedBlobs - moved, 0) / rate);
+    }
+
+    void remove() {
+      registry.removeMatching((metricName, metric) -> metricName.startsWith(prefix + '.'));
+    }
+  }
+}
@@ -252,6 +252,10 @@ public abstract class ProxyFacetSupport
   @Nullable
   private FirewallHeaderProvider firewallHeaderProvider;
 
+  @Inject
+  @Nullable
+  private UpstreamConcurrencyLimiter upstreamConcurrencyLimiter;
+
   private AntiSsrfHelper antiSsrfHelper;
 
   @Inject
@@ -417,12 +421,18 @@ public abstract class ProxyFacetSupport
   protected Content doGet(final Context context, @Nullable final Content staleContent) throws IOException {
     Content remote = null, content = staleContent;
     boolean nested = isDownloading();
+    UpstreamConcurrencyLimiter.Permit permit = null;
     try {
       if (!nested) {
         downloading.set(TRUE);
       }
       context.setAttribute(CTX_REQ_STOPWATCH, Stopwatch.createStarted());
+      // nested fetches already hold a slot for this remote; waiting on another one could deadlock
+      if (!nested && upstreamConcurrencyLimiter != null) {
+        permit = upstreamConcurrencyLimiter.acquire(getRemoteUrl());
+      }
       remote = fetch(context, content);
+      sampleUpstream(context, permit);
       if (remote != null) {
         content = store(context, remote);
         if (remote.equals(content)) {
@@ -432,16 +442,25 @@ public abstract class ProxyFacetSupport
       }
     }
     catch (ProxyServiceException e) {
+      // also thrown for authentication failures, which say nothing about upstream load and are released unsampled
+      if (isOverloaded(e.getHttpResponse().getStatusLine())) {
+        dropUpstream(permit);
+      }
       logContentOrThrow(content, context, e.getHttpResponse().getStatusLine(), e);
     }
     catch (IOException e) {
+      dropUpstream(permit);
       logContentOrThrow(content, context, null, e); // note this also takes care of RemoteBlockedIOException
     }
     catch (UncheckedIOException e) {
+      dropUpstream(permit);
       logContentOrThrow(content, context, null,
           e.getCause()); // "special" path (for now) for npm and similar peculiar formats
     }
     finally {
+      if (permit != null) {
+        permit.close();
+      }
       if (!nested) {
         downloading.remove();
       }
@@ -453,6 +472,33 @@ public abstract class ProxyFacetSupport
     return content;
   }
 
+  /**
+   * Feeds the outcome of a fetch into the upstream concurrency limit; overload responses count as drops.
+   */
+  private static void sampleUpstream(final Context context, @Nullable final UpstreamConcurrencyLimiter.Permit permit) {
+    if (permit == null) {
+      return;
+    }
+    HttpResponse response = context.getAttribute(HTTP_RESPONSE, HttpResponse.class);
+    if (response != null && isOverloaded(response.getStatusLine())) {
+      permit.dropped();
+    }
+    else {
+      permit.success();
+    }
+  }
+
+  private static boolean isOverloaded(@Nullable final StatusLine status) {
+    int statusCode = status != null ? status.getStatusCode() : 0;
+    return statusCode == HttpStatus.SC_TOO_MANY_REQUESTS || statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+  }
+
+  private static void dropUpstream(@Nullable final UpstreamConcurrencyLimiter.Permit permit) {
+    if (permit != null) {
+      permit.dropped();
+    }
+  }
+
   private void printOutboundLogging(final Context context) {
     try {
 
@@ -512,6 +558,10 @@ public abstract class ProxyFacetSupport
         // trace because the blocked status of a repo is typically discoverable in the UI and other log messages
         log.trace(logMessage, exception, repositoryName, contextUrl, statusLine, exception);
       }
+      else if (exception instanceof UpstreamConcurrencyLimitException) {
+        // debug because the limiter reports rejections through its own metrics
+        log.debug(logMessage, exception, repositoryName, contextUrl, statusLine, exception);
+      }
       else if (exception instanceof BypassHttpErrorException) {
         // debug because these are expected exceptions (e.g., 401 Unauthorized from Docker Hub)
         if (log.isDebugEnabled()) {
@@ -90,6 +90,9 @@ public class ProxyHandler
     catch (RemoteBlockedIOException e) {
       return HttpResponses.notFound(e.getMessage());
     }
+    catch (UpstreamConcurrencyLimitException e) {
+      return HttpResponses.serviceUnavailable(e.getMessage());
+    }
     catch (IOException | UncheckedIOException e) {
       return HttpResponses.badGateway();
     }
@@ -0,0 +1,338 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.proxy;
+
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nullable;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.google.common.annotations.VisibleForTesting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Adaptive limit on the number of concurrent proxy fetches sent to each remote host.
+ *
+ * Limits follow an additive-increase/multiplicative-decrease scheme: every fetch which completes within the latency
+ * threshold grows the limit by one (while the limit is actually being used), every fetch which fails, is answered
+ * with a 429 or 5xx, or is slower than the threshold shrinks it by the backoff ratio. Fetches over the limit wait up
+ * to the queue timeout for a slot and are then rejected with {@link UpstreamConcurrencyLimitException}.
+ *
+ * The current limit, in-flight and waiting fetches and rejections of each host are published under
+ * {@value #METRICS_PREFIX}.
+ *
+ * @since 3.89
+ */
+@Component
+@Singleton
+public class UpstreamConcurrencyLimiter
+    extends ComponentSupport
+{
+  static final String METRICS_PREFIX = "nexus.proxy.upstream";
+
+  private final boolean enabled;
+
+  private final int initialLimit;
+
+  private final int minLimit;
+
+  private final int maxLimit;
+
+  private final long latencyThresholdNanos;
+
+  private final double backoffRatio;
+
+  private final long queueTimeoutNanos;
+
+  private final MetricRegistry registry;
+
+  private final Map<String, HostLimit> limits = new ConcurrentHashMap<>();
+
+  @Inject
+  public UpstreamConcurrencyLimiter(
+      @Value("${nexus.proxy.concurrencyLimit.enabled:true}") final boolean enabled,
+      @Value("${nexus.proxy.concurrencyLimit.initialLimit:20}") final int initialLimit,
+      @Value("${nexus.proxy.concurrencyLimit.minLimit:2}") final int minLimit,
+      @Value("${nexus.proxy.concurrencyLimit.maxLimit:200}") final int maxLimit,
+      @Value("${nexus.proxy.concurrencyLimit.latencyThreshold:5s}") final Duration latencyThreshold,
+      @Value("${nexus.proxy.concurrencyLimit.backoffRatio:0.9}") final double backoffRatio,
+      @Value("${nexus.proxy.concurrencyLimit.queueTimeout:10s}") final Duration queueTimeout)
+  {
+    this(enabled, initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, queueTimeout,
+        SharedMetricRegistries.getOrCreate("nexus"));
+  }
+
+  @VisibleForTesting
+  UpstreamConcurrencyLimiter(
+      final boolean enabled,
+      final int initialLimit,
+      final int minLimit,
+      final int maxLimit,
+      final Duration latencyThreshold,
+      final double backoffRatio,
+      final Duration queueTimeout,
+      final MetricRegistry registry)
+  {
+    checkArgument(minLimit > 0, "minLimit must be positive: %s", minLimit);
+    checkArgument(minLimit <= initialLimit && initialLimit <= maxLimit,
+        "initialLimit must be between minLimit and maxLimit: %s", initialLimit);
+    checkArgument(backoffRatio > 0 && backoffRatio < 1, "backoffRatio must be between 0 and 1: %s", backoffRatio);
+    this.enabled = enabled;
+    this.initialLimit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.latencyThresholdNanos = latencyThreshold.toNanos();
+    this.backoffRatio = backoffRatio;
+    this.queueTimeoutNanos = queueTimeout.toNanos();
+    this.registry = checkNotNull(registry);
+    log.debug("Enabled: {}, limits: {}/{}/{}, latency threshold: {}, backoff ratio: {}, queue timeout: {}", enabled,
+        minLimit, initialLimit, maxLimit, latencyThreshold, backoffRatio, queueTimeout);
+  }
+
+  /**
+   * Waits for a slot to fetch from the host of the given remote URL; the returned permit must be closed.
+   *
+   * @throws UpstreamConcurrencyLimitException if no slot became available within the queue timeout
+   * @throws InterruptedIOException            if interrupted while waiting
+   */
+  public Permit acquire(final URI remoteUrl) throws UpstreamConcurrencyLimitException, InterruptedIOException {
+    String host = hostOf(remoteUrl);
+    if (!enabled || host == null) {
+      return Permit.UNLIMITED;
+    }
+    HostLimit limit = limits.computeIfAbsent(host, HostLimit::new);
+    limit.acquire();
+    return new Permit(limit);
+  }
+
+  /**
+   * Returns the current limit for the host of the given remote URL.
+   */
+  @VisibleForTesting
+  int getLimit(final URI remoteUrl) {
+    HostLimit limit = limits.get(hostOf(remoteUrl));
+    return limit != null ? limit.getLimit() : initialLimit;
+  }
+
+  @Nullable
+  private static String hostOf(final URI remoteUrl) {
+    String host = remoteUrl.getHost();
+    if (host == null) {
+      return null;
+    }
+    int port = remoteUrl.getPort();
+    if (port == -1) {
+      port = "https".equalsIgnoreCase(remoteUrl.getScheme()) ? 443 : 80;
+    }
+    return host.toLowerCase(Locale.ENGLISH) + ":" + port;
+  }
+
+  /**
+   * A slot for one fetch; report how the fetch went with {@link #success()} or {@link #dropped()} before closing.
+   * Permits closed without an outcome release their slot without affecting the limit.
+   */
+  public static class Permit
+      implements AutoCloseable
+  {
+    static final Permit UNLIMITED = new Permit(null);
+
+    @Nullable
+    private final HostLimit limit;
+
+    private final long startNanos = System.nanoTime();
+
+    private boolean sampled;
+
+    private boolean closed;
+
+    Permit(@Nullable final HostLimit limit) {
+      this.limit = limit;
+    }
+
+    /**
+     * The fetch completed; its latency since the permit was acquired decides whether the limit grows or shrinks.
+     */
+    public void success() {
+      sample(false);
+    }
+
+    /**
+     * The fetch failed or the upstream signalled overload.
+     */
+    public void dropped() {
+      sample(true);
+    }
+
+    private void sample(final boolean dropped) {
+      if (limit != null && !sampled) {
+        sampled = true;
+        limit.sample(System.nanoTime() - startNanos, dropped);
+      }
+    }
+
+    @Override
+    public void close() {
+      if (limit != null && !closed) {
+        closed = true;
+        limit.release();
+      }
+    }
+  }
+
+  /**
+   * Limit and in-flight count for one remote host.
+   */
+  private class HostLimit
+  {
+    private final String host;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition available = lock.newCondition();
+
+    private final Meter rejected;
+
+    private double limit = initialLimit;
+
+    private int inFlight;
+
+    private int waiting;
+
+    HostLimit(final String host) {
+      this.host = host;
+      String prefix = name(METRICS_PREFIX, host);
+      this.rejected = registry.meter(name(prefix, "rejected"));
+      registry.gauge(name(prefix, "limit"), () -> (Gauge<Integer>) this::getLimit);
+      registry.gauge(name(prefix, "inFlight"), () -> (Gauge<Integer>) this::getInFlight);
+      registry.gauge(name(prefix, "waiting"), () -> (Gauge<Integer>) this::getWaiting);
+    }
+
+    void acquire() throws UpstreamConcurrencyLimitException, InterruptedIOException {
+      lock.lock();
+      try {
+        if (inFlight >= (int) limit) {
+          waiting++;
+          try {
+            long remaining = queueTimeoutNanos;
+            while (inFlight >= (int) limit) {
+              if (remaining <= 0) {
+                rejected.mark();
+                log.debug("Rejecting fetch from {}; {} in flight at limit {}", host, inFlight, (int) limit);
+                throw new UpstreamConcurrencyLimitException(
+                    "Too many concurrent requests to " + host + ", try again later");
+              }
+              remaining = available.awaitNanos(remaining);
+            }
+          }
+          catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + host);
+          }
+          finally {
+            waiting--;
+          }
+        }
+        inFlight++;
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    void release() {
+      lock.lock();
+      try {
+        inFlight--;
+        available.signal();
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    void sample(final long latencyNanos, final boolean dropped) {
+      lock.lock();
+      try {
+        int before = (int) limit;
+        if (dropped || latencyNanos > latencyThresholdNanos) {
+          limit = Math.max(minLimit, limit * backoffRatio);
+        }
+        else if (inFlight * 2 >= limit) {
+          // only grow while the limit is in use, otherwise a quiet host would drift up to the maximum
+          limit = Math.min(maxLimit, limit + 1);
+        }
+        int after = (int) limit;
+        if (after > before) {
+          available.signalAll();
+        }
+        else if (after < before) {
+          log.debug("Reduced concurrency limit of {} to {}", host, after);
+        }
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    int getLimit() {
+      lock.lock();
+      try {
+        return (int) limit;
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    int getInFlight() {
+      lock.lock();
+      try {
+        return inFlight;
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+
+    int getWaiting() {
+      lock.lock();
+      try {
+        return waiting;
+      }
+      finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -64,6 +64,13 @@ public class RepositoryContentSelectorPermission
     this(selector.getName(), repository.getFormat().getValue(), repository.getName(), actions);
   }
 
+  /**
+   * @since 3.89
+   */
+  public String getSelector() {
+    return selector;
+  }
+
   public String getFormat() {
     return format;
   }
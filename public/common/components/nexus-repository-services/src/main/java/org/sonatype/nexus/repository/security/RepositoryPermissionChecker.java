@@ -21,6 +21,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
+import javax.annotation.Nullable;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
@@ -29,6 +30,7 @@ import org.sonatype.nexus.common.QualifierUtil;
 import org.sonatype.nexus.repository.Recipe;
 import org.sonatype.nexus.repository.Repository;
 import org.sonatype.nexus.repository.config.Configuration;
+import org.sonatype.nexus.repository.security.internal.RepositoryPermissionIndex;
 import org.sonatype.nexus.security.SecurityHelper;
 import org.sonatype.nexus.selector.SelectorConfiguration;
 import org.sonatype.nexus.selector.SelectorManager;
@@ -65,15 +67,31 @@ public class RepositoryPermissionChecker
 
   private final Map<String, Recipe> recipes;
 
-  @Inject
+  @Nullable
+  private final RepositoryPermissionIndex permissionIndex;
+
   public RepositoryPermissionChecker(
       final SecurityHelper securityHelper,
       final SelectorManager selectorManager,
       final List<Recipe> recipesList)
+  {
+    this(securityHelper, selectorManager, recipesList, null);
+  }
+
+  /**
+   * @since 3.89
+   */
+  @Inject
+  public RepositoryPermissionChecker(
+      final SecurityHelper securityHelper,
+      final SelectorManager selectorManager,
+      final List<Recipe> recipesList,
+      @Nullable final RepositoryPermissionIndex permissionIndex)
   {
     this.securityHelper = checkNotNull(securityHelper);
     this.selectorManager = checkNotNull(selectorManager);
     this.recipes = QualifierUtil.buildQualifierBeanMap(checkNotNull(recipesList));
+    this.permissionIndex = permissionIndex;
   }
 
   /**
@@ -99,11 +117,23 @@ public class RepositoryPermissionChecker
   }
 
   private boolean userHasRepositoryViewPermissionTo(final Repository repository, final String... actions) {
-    return securityHelper.anyPermitted(permissionsFor(repository, actions));
+    return anyPermitted(permissionsFor(repository, actions));
   }
 
   private boolean userHasRepositoryViewPermissionTo(final String action, final Repository repository) {
-    return securityHelper.anyPermitted(new RepositoryViewPermission(repository, action));
+    return anyPermitted(new RepositoryViewPermission(repository, action));
+  }
+
+  private boolean anyPermitted(final Permission... permissions) {
+    return permissionIndex != null
+        ? permissionIndex.anyPermitted(securityHelper.subject(), permissions)
+        : securityHelper.anyPermitted(permissions);
+  }
+
+  private boolean anyPermitted(final Subject subject, final Permission... permissions) {
+    return permissionIndex != null
+        ? permissionIndex.anyPermitted(subject, permissions)
+        : securityHelper.anyPermitted(subject, permissions);
   }
 
   private static Permission[] permissionsFor(final Repository repository, final String... actions) {
@@ -257,7 +287,9 @@ public class RepositoryPermissionChecker
     }
     Subject subject = securityHelper.subject();
     Permission[] permissions = Arrays.stream(repositories).map(permissionSupplier).toArray(Permission[]::new);
-    boolean[] results = securityHelper.isPermitted(subject, permissions);
+    boolean[] results = permissionIndex != null
+        ? permissionIndex.isPermitted(subject, permissions)
+        : securityHelper.isPermitted(subject, permissions);
 
     List<U> permittedRepositories = new ArrayList<>();
 
@@ -290,7 +322,7 @@ public class RepositoryPermissionChecker
       Permission[] permissions = selectors.stream()
           .map(s -> new RepositoryContentSelectorPermission(s, repository, singletonList(BROWSE)))
           .toArray(Permission[]::new);
-      if (securityHelper.anyPermitted(subject, permissions)) {
+      if (anyPermitted(subject, permissions)) {
         permittedRepositories.add(repository);
       }
     }
@@ -340,7 +372,7 @@ public class RepositoryPermissionChecker
           .map(s -> new RepositoryContentSelectorPermission(s.getName(), format,
               configuration.getRepositoryName(), singletonList(BROWSE)))
           .toArray(Permission[]::new);
-      if (securityHelper.anyPermitted(subject, permissions)) {
+      if (anyPermitted(subject, permissions)) {
         permittedRepositories.add(configuration);
       }
     }
@@ -389,7 +421,7 @@ public class RepositoryPermissionChecker
     return selectorManager.browseActive(repositoryNames, formats)
         .stream()
         .anyMatch(selector -> {
-          boolean hasPrivilege = securityHelper.anyPermitted(subject,
+          boolean hasPrivilege = anyPermitted(subject,
               Arrays.stream(actions)
                   .map(action -> new RepositoryContentSelectorPermission(selector, repository, singletonList(action)))
                   .toArray(Permission[]::new));
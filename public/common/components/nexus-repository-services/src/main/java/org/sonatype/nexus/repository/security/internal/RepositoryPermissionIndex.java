@@ -0,0 +1,242 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.security.internal;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.goodies.common.Time;
+import org.sonatype.nexus.common.event.EventAware;
+import org.sonatype.nexus.common.event.EventHelper;
+import org.sonatype.nexus.distributed.event.service.api.common.AuthorizationChangedDistributedEvent;
+import org.sonatype.nexus.repository.security.RepositoryAdminPermission;
+import org.sonatype.nexus.repository.security.RepositoryContentSelectorPermission;
+import org.sonatype.nexus.repository.security.RepositoryViewPermission;
+import org.sonatype.nexus.security.SecurityHelper;
+import org.sonatype.nexus.security.UserPrincipalsExpired;
+import org.sonatype.nexus.security.authz.AuthorizationConfigurationChanged;
+import org.sonatype.nexus.security.user.UserRoleMappingUpdatedEvent;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import org.apache.shiro.authz.Permission;
+import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.Subject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.security.BreadActions.ADD;
+import static org.sonatype.nexus.security.BreadActions.BROWSE;
+import static org.sonatype.nexus.security.BreadActions.DELETE;
+import static org.sonatype.nexus.security.BreadActions.EDIT;
+import static org.sonatype.nexus.security.BreadActions.READ;
+
+/**
+ * Per-subject index of repository permission checks, mapping each repository resource to a bitset of the
+ * {@link org.sonatype.nexus.security.BreadActions} the subject is known to be allowed or denied.
+ *
+ * Only single-action repository view, admin and content selector permissions are indexed; anything else goes straight
+ * to {@link SecurityHelper}. Each action is resolved against the subject's permissions the first time it is asked
+ * for, after which the same check is a map lookup. The whole index is dropped whenever authorization configuration,
+ * role mappings or users change, and entries also expire after a short time so changes in external realms are seen.
+ *
+ * @since 3.89
+ */
+@Component
+@Singleton
+public class RepositoryPermissionIndex
+    extends ComponentSupport
+    implements EventAware
+{
+  private static final List<String> ACTIONS = List.of(BROWSE, READ, EDIT, ADD, DELETE);
+
+  private final SecurityHelper securityHelper;
+
+  @Nullable
+  private final Cache<PrincipalCollection, ConcurrentMap<Resource, Integer>> subjects;
+
+  @Inject
+  public RepositoryPermissionIndex(
+      final SecurityHelper securityHelper,
+      @Value("${nexus.security.repositoryPermissionIndex.enabled:true}") final boolean enabled,
+      @Value("${nexus.security.repositoryPermissionIndex.maxSubjects:10000}") final int maxSubjects,
+      @Value("${nexus.security.repositoryPermissionIndex.timeToLive:2m}") final Time timeToLive)
+  {
+    this.securityHelper = checkNotNull(securityHelper);
+    if (enabled) {
+      this.subjects = CacheBuilder.newBuilder()
+          .maximumSize(maxSubjects)
+          .expireAfterWrite(timeToLive.toMillis(), TimeUnit.MILLISECONDS)
+          .build();
+    }
+    else {
+      this.subjects = null;
+    }
+  }
+
+  /**
+   * Check which of the given permissions the subject has.
+   *
+   * @see SecurityHelper#isPermitted(Subject, Permission...)
+   */
+  public boolean[] isPermitted(final Subject subject, final Permission... permissions) {
+    ConcurrentMap<Resource, Integer> index = index(subject);
+    if (index == null) {
+      return securityHelper.isPermitted(subject, permissions);
+    }
+    boolean[] results = new boolean[permissions.length];
+    for (int i = 0; i < permissions.length; i++) {
+      results[i] = isPermitted(index, subject, permissions[i]);
+    }
+    return results;
+  }
+
+  /**
+   * Check if the subject has ANY of the given permissions.
+   *
+   * @see SecurityHelper#anyPermitted(Subject, Permission...)
+   */
+  public boolean anyPermitted(final Subject subject, final Permission... permissions) {
+    ConcurrentMap<Resource, Integer> index = index(subject);
+    if (index == null) {
+      return securityHelper.anyPermitted(subject, permissions);
+    }
+    for (Permission permission : permissions) {
+      if (isPermitted(index, subject, permission)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Nullable
+  private ConcurrentMap<Resource, Integer> index(final Subject subject) {
+    PrincipalCollection principals = subject.getPrincipals();
+    if (subjects == null || principals == null || principals.isEmpty()) {
+      return null;
+    }
+    return subjects.asMap().computeIfAbsent(principals, k -> new ConcurrentHashMap<>());
+  }
+
+  private boolean isPermitted(
+      final ConcurrentMap<Resource, Integer> index,
+      final Subject subject,
+      final Permission permission)
+  {
+    List<String> actions = actions(permission);
+    int action = actions.size() == 1 ? ACTIONS.indexOf(actions.get(0)) : -1;
+    Resource resource = action >= 0 ? Resource.of(permission) : null;
+    if (resource == null) {
+      return securityHelper.anyPermitted(subject, permission);
+    }
+
+    int known = 1 << action;
+    int allowed = known << ACTIONS.size();
+    Integer bits = index.get(resource);
+    if (bits != null && (bits & known) != 0) {
+      return (bits & allowed) != 0;
+    }
+
+    boolean permitted = securityHelper.anyPermitted(subject, permission);
+    index.merge(resource, permitted ? known | allowed : known, (a, b) -> a | b);
+    return permitted;
+  }
+
+  /**
+   * Actions named by a repository permission; empty for permissions which are not indexed.
+   */
+  private static List<String> actions(final Permission permission) {
+    if (permission instanceof RepositoryViewPermission view) {
+      return view.getActions();
+    }
+    if (permission instanceof RepositoryAdminPermission admin) {
+      return admin.getActions();
+    }
+    if (permission instanceof RepositoryContentSelectorPermission content) {
+      return content.getActions();
+    }
+    return List.of();
+  }
+
+  @VisibleForTesting
+  int indexedResources(final Subject subject) {
+    ConcurrentMap<Resource, Integer> index = index(subject);
+    return index != null ? index.size() : 0;
+  }
+
+  @VisibleForTesting
+  void invalidate() {
+    if (subjects != null) {
+      subjects.invalidateAll();
+      log.debug("Repository permission index invalidated");
+    }
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final AuthorizationConfigurationChanged event) {
+    invalidate();
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final AuthorizationChangedDistributedEvent event) {
+    if (EventHelper.isReplicating()) {
+      invalidate();
+    }
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final UserRoleMappingUpdatedEvent event) {
+    invalidate();
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final UserPrincipalsExpired event) {
+    invalidate();
+  }
+
+  /**
+   * Repository resource named by a permission, excluding its action, so one entry holds the bits for every action.
+   */
+  private record Resource(String domain, String selector, String format, String name)
+  {
+    @Nullable
+    static Resource of(final Permission permission) {
+      if (permission instanceof RepositoryViewPermission view) {
+        return new Resource(RepositoryViewPermission.DOMAIN, "", view.getFormat(), view.getName());
+      }
+      if (permission instanceof RepositoryAdminPermission admin) {
+        return new Resource(RepositoryAdminPermission.DOMAIN, "", admin.getFormat(), admin.getName());
+      }
+      if (permission instanceof RepositoryContentSelectorPermission content) {
+        return new Resource(RepositoryContentSelectorPermission.DOMAIN, content.getSelector(), content.getFormat(),
+            content.getName());
+      }
+      return null;
+    }
+  }
+}
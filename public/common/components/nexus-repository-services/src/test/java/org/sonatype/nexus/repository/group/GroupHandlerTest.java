@@ -12,7 +12,9 @@
  */
 package org.sonatype.nexus.repository.group;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 import org.sonatype.goodies.testsupport.TestSupport;
 import org.sonatype.nexus.repository.Repository;
@@ -26,6 +28,7 @@ import org.sonatype.nexus.repository.view.Request;
 import org.sonatype.nexus.repository.view.Response;
 import org.sonatype.nexus.repository.view.ViewFacet;
 
+import com.codahale.metrics.MetricRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -34,9 +37,11 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -77,6 +82,12 @@ public class GroupHandlerTest
   @Mock
   private Configuration configuration2;
 
+  @Mock
+  private Repository group;
+
+  @Mock
+  private GroupFacet groupFacet;
+
   private GroupHandler underTest;
 
   @Before
@@ -287,4 +298,68 @@ public class GroupHandlerTest
     verify(viewFacet1, times(0)).dispatch(request, context);
     verify(viewFacet2, times(0)).dispatch(request, context);
   }
+
+  @Test
+  public void resolvedMemberIsAskedFirst() throws Exception {
+    GroupMemberResolutionCache cache = enableMemberResolution();
+    Response ok2 = ok();
+    setupDispatch(notFound(), ok2);
+
+    assertGetFirst(ok2);
+    assertGetFirst(ok2);
+
+    verify(viewFacet1, times(1)).dispatch(request, context);
+    verify(viewFacet2, times(2)).dispatch(request, context);
+    assertThat(cache.getMember(group, "/foo"), is("Proxy 2"));
+  }
+
+  @Test
+  public void fallsBackToMemberOrderWhenResolvedMemberNoLongerServesPath() throws Exception {
+    GroupMemberResolutionCache cache = enableMemberResolution();
+    cache.putMember(group, "/foo", proxy2);
+    Response ok1 = ok();
+    setupDispatch(ok1, notFound());
+
+    assertGetFirst(ok1);
+
+    verify(viewFacet2, times(1)).dispatch(request, context);
+    verify(viewFacet1, times(1)).dispatch(request, context);
+    assertThat(cache.getMember(group, "/foo"), is("Proxy 1"));
+  }
+
+  @Test
+  public void resolvedMemberIsSkippedWhenOffline() throws Exception {
+    GroupMemberResolutionCache cache = enableMemberResolution();
+    cache.putMember(group, "/foo", proxy2);
+    when(configuration2.isOnline()).thenReturn(false);
+    Response ok1 = ok();
+    setupDispatch(ok1, ok());
+
+    assertGetFirst(ok1);
+
+    verify(viewFacet2, never()).dispatch(request, context);
+  }
+
+  @Test
+  public void resolvedMembersAreNotUsedForSubsetsOfMembers() throws Exception {
+    GroupMemberResolutionCache cache = enableMemberResolution();
+    Response ok2 = ok();
+    setupDispatch(ok(), ok2);
+
+    assertThat(underTest.getFirst(context, asList(proxy2), new DispatchedRepositories()), is(ok2));
+
+    assertThat(cache.getMember(group, "/foo"), nullValue());
+  }
+
+  private GroupMemberResolutionCache enableMemberResolution() {
+    GroupMemberResolutionCache cache =
+        new GroupMemberResolutionCache(true, Duration.ofMinutes(5), 100, new MetricRegistry());
+    underTest.setMemberResolutionCache(cache);
+    when(context.getRepository()).thenReturn(group);
+    when(group.getName()).thenReturn("group");
+    when(group.optionalFacet(GroupFacet.class)).thenReturn(Optional.of(groupFacet));
+    when(groupFacet.members()).thenReturn(asList(proxy1, proxy2));
+    when(request.getPath()).thenReturn("/foo");
+    return cache;
+  }
 }
@@ -0,0 +1,137 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.group;
+
+import java.time.Duration;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.manager.RepositoryDeletedEvent;
+import org.sonatype.nexus.repository.manager.RepositoryUpdatedEvent;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link GroupMemberResolutionCache}.
+ */
+public class GroupMemberResolutionCacheTest
+    extends TestSupport
+{
+  @Mock
+  private Repository group;
+
+  @Mock
+  private Repository otherGroup;
+
+  @Mock
+  private Repository member;
+
+  private MetricRegistry registry;
+
+  private GroupMemberResolutionCache underTest;
+
+  @Before
+  public void setUp() {
+    when(group.getName()).thenReturn("maven-public");
+    when(otherGroup.getName()).thenReturn("raw-group");
+    when(member.getName()).thenReturn("maven-central");
+    registry = new MetricRegistry();
+    underTest = new GroupMemberResolutionCache(true, Duration.ofMinutes(5), 100, registry);
+  }
+
+  @Test
+  public void remembersMemberPerGroupAndPath() {
+    underTest.putMember(group, "/org/foo/foo.jar", member);
+
+    assertThat(underTest.getMember(group, "/org/foo/foo.jar"), is("maven-central"));
+    assertThat(underTest.getMember(group, "/org/bar/bar.jar"), nullValue());
+    assertThat(underTest.getMember(otherGroup, "/org/foo/foo.jar"), nullValue());
+
+    assertThat(registry.meter("nexus.group.memberResolution.maven-public.hits").getCount(), is(1L));
+    assertThat(registry.meter("nexus.group.memberResolution.maven-public.misses").getCount(), is(1L));
+    assertThat(registry.meter("nexus.group.memberResolution.raw-group.misses").getCount(), is(1L));
+  }
+
+  @Test
+  public void evictsSinglePath() {
+    underTest.putMember(group, "/org/foo/foo.jar", member);
+    underTest.putMember(group, "/org/bar/bar.jar", member);
+
+    underTest.evict(group, "/org/foo/foo.jar");
+
+    assertThat(underTest.getMember(group, "/org/foo/foo.jar"), nullValue());
+    assertThat(underTest.getMember(group, "/org/bar/bar.jar"), is("maven-central"));
+  }
+
+  @Test
+  public void invalidatesPathInAllGroupsRegardlessOfLeadingSlash() {
+    underTest.putMember(group, "/org/foo/foo.jar", member);
+    underTest.putMember(otherGroup, "/org/foo/foo.jar", member);
+
+    underTest.invalidatePath("org/foo/foo.jar");
+
+    assertThat(underTest.getMember(group, "/org/foo/foo.jar"), nullValue());
+    assertThat(underTest.getMember(otherGroup, "/org/foo/foo.jar"), nullValue());
+  }
+
+  @Test
+  public void removesGroupMetricsWhenTheGroupIsDeleted() {
+    underTest.getMember(group, "/org/foo/foo.jar");
+    underTest.getMember(otherGroup, "/org/foo/foo.jar");
+    assertThat(registry.getMeters().containsKey("nexus.group.memberResolution.maven-public.misses"), is(true));
+
+    underTest.on(new RepositoryDeletedEvent(group));
+
+    assertThat(registry.getMeters().containsKey("nexus.group.memberResolution.maven-public.hits"), is(false));
+    assertThat(registry.getMeters().containsKey("nexus.group.memberResolution.maven-public.misses"), is(false));
+    assertThat(registry.getMeters().containsKey("nexus.group.memberResolution.raw-group.misses"), is(true));
+  }
+
+  @Test
+  public void invalidatesAllOnRepositoryChanges() {
+    underTest.putMember(group, "/org/foo/foo.jar", member);
+    underTest.on(new RepositoryUpdatedEvent(member, null));
+    assertThat(underTest.getMember(group, "/org/foo/foo.jar"), nullValue());
+
+    underTest.putMember(group, "/org/foo/foo.jar", member);
+    underTest.on(new RepositoryDeletedEvent(member));
+    assertThat(underTest.getMember(group, "/org/foo/foo.jar"), nullValue());
+  }
+
+  @Test
+  public void entriesExpire() throws Exception {
+    underTest = new GroupMemberResolutionCache(true, Duration.ofMillis(10), 100, registry);
+    underTest.putMember(group, "/org/foo/foo.jar", member);
+
+    Thread.sleep(50);
+
+    assertThat(underTest.getMember(group, "/org/foo/foo.jar"), nullValue());
+  }
+
+  @Test
+  public void disabledCacheRemembersNothing() {
+    underTest = new GroupMemberResolutionCache(false, Duration.ofMinutes(5), 100, registry);
+    underTest.putMember(group, "/org/foo/foo.jar", member);
+
+    assertThat(underTest.getMember(group, "/org/foo/foo.jar"), nullValue());
+    assertThat(underTest.isEnabled(), is(false));
+  }
+}
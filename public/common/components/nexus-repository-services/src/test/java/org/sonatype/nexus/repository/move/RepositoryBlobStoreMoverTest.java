@@ -0,0 +1,198 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.move;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.blobstore.api.Blob;
+import org.sonatype.nexus.blobstore.api.BlobId;
+import org.sonatype.nexus.blobstore.api.BlobMetrics;
+import org.sonatype.nexus.blobstore.api.BlobStore;
+import org.sonatype.nexus.blobstore.api.BlobStoreConfiguration;
+import org.sonatype.nexus.blobstore.api.BlobStoreException;
+import org.sonatype.nexus.blobstore.api.BlobStoreManager;
+import org.sonatype.nexus.common.entity.Continuation;
+
+import com.codahale.metrics.MetricRegistry;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link RepositoryBlobStoreMover}.
+ */
+public class RepositoryBlobStoreMoverTest
+    extends TestSupport
+{
+  private static final String REPOSITORY = "maven-releases";
+
+  @Mock
+  private BlobStoreManager blobStoreManager;
+
+  @Mock
+  private ChangeRepositoryBlobStoreStore changeBlobStoreStore;
+
+  @Mock
+  private BlobStore source;
+
+  @Mock
+  private BlobStore target;
+
+  @Mock
+  private BlobStoreConfiguration targetConfiguration;
+
+  private final MetricRegistry registry = new MetricRegistry();
+
+  private final List<BlobId> blobIds = IntStream.range(0, 5).mapToObj(i -> new BlobId("blob-" + i)).toList();
+
+  private final Queue<BlobId> movedBlobIds = new ConcurrentLinkedQueue<>();
+
+  private RepositoryBlobStoreMover underTest;
+
+  @Before
+  public void setUp() {
+    underTest = new RepositoryBlobStoreMover(blobStoreManager, changeBlobStoreStore, 2, 2, registry);
+    when(target.getBlobStoreConfiguration()).thenReturn(targetConfiguration);
+  }
+
+  @Test
+  public void movesEveryBlobAndCheckpointsEachPage() {
+    when(source.exists(any())).thenReturn(true);
+    when(blobStoreManager.moveBlob(any(), eq(source), eq(target))).thenAnswer(i -> blob(i.getArgument(0)));
+
+    long moved = move();
+
+    assertThat(moved, is(5L));
+    assertThat(movedBlobIds, containsInAnyOrder(blobIds.toArray()));
+    verify(changeBlobStoreStore).checkpoint(REPOSITORY, "2", 2);
+    verify(changeBlobStoreStore).checkpoint(REPOSITORY, "4", 4);
+    verify(changeBlobStoreStore).checkpoint(REPOSITORY, "5", 5);
+    assertThat(registry.getMetrics().keySet(), empty());
+  }
+
+  @Test
+  public void resumesFromCheckpoint() {
+    ChangeRepositoryBlobStoreConfiguration previous = mock(ChangeRepositoryBlobStoreConfiguration.class);
+    when(previous.getCheckpoint()).thenReturn("2");
+    when(previous.getBlobsMoved()).thenReturn(2L);
+    when(changeBlobStoreStore.findByRepositoryName(REPOSITORY)).thenReturn(previous);
+    when(source.exists(any())).thenReturn(true);
+    when(blobStoreManager.moveBlob(any(), eq(source), eq(target))).thenAnswer(i -> blob(i.getArgument(0)));
+
+    long moved = move();
+
+    assertThat(moved, is(5L));
+    assertThat(movedBlobIds, containsInAnyOrder(blobIds.subList(2, 5).toArray()));
+    verify(blobStoreManager, never()).moveBlob(eq(blobIds.get(0)), any(), any());
+    verify(changeBlobStoreStore).checkpoint(REPOSITORY, "5", 5);
+  }
+
+  @Test
+  public void blobsAlreadyInTargetAreNotMovedAgain() {
+    when(source.exists(any())).thenReturn(false);
+    when(target.get(any(), eq(true))).thenAnswer(i -> blob(i.getArgument(0)));
+
+    long moved = move();
+
+    assertThat(moved, is(5L));
+    assertThat(movedBlobIds, hasSize(5));
+    verify(blobStoreManager, never()).moveBlob(any(), any(), any());
+  }
+
+  @Test
+  public void blobsInNeitherBlobStoreAreSkippedNotCountedAsMoved() {
+    BlobStoreConfiguration sourceConfiguration = mock(BlobStoreConfiguration.class);
+    when(source.getBlobStoreConfiguration()).thenReturn(sourceConfiguration);
+    when(source.exists(any())).thenAnswer(i -> !blobIds.get(1).equals(i.getArgument(0)));
+    when(blobStoreManager.moveBlob(any(), eq(source), eq(target))).thenAnswer(i -> blob(i.getArgument(0)));
+
+    long moved = move();
+
+    assertThat(moved, is(4L));
+    assertThat(movedBlobIds, hasSize(4));
+    verify(changeBlobStoreStore).checkpoint(REPOSITORY, "2", 1);
+    verify(changeBlobStoreStore).checkpoint(REPOSITORY, "5", 4);
+  }
+
+  @Test
+  public void failedPageIsNotCheckpointed() {
+    when(source.exists(any())).thenReturn(true);
+    when(blobStoreManager.moveBlob(any(), eq(source), eq(target))).thenAnswer(i -> {
+      BlobId blobId = i.getArgument(0);
+      if (blobId.equals(blobIds.get(3))) {
+        throw new BlobStoreException("failed", blobId);
+      }
+      return blob(blobId);
+    });
+
+    assertThrows(BlobStoreException.class, this::move);
+
+    verify(changeBlobStoreStore).checkpoint(REPOSITORY, "2", 2);
+    verify(changeBlobStoreStore, never()).checkpoint(eq(REPOSITORY), eq("4"), anyLong());
+    assertThat(registry.getMetrics().keySet(), empty());
+  }
+
+  private long move() {
+    return underTest.move(REPOSITORY, source, target, blobIds.size(), this::page, blobId -> blobId,
+        (blobId, blob) -> movedBlobIds.add(blobId));
+  }
+
+  private Continuation<BlobId> page(final int limit, final String continuationToken) {
+    int start = continuationToken == null ? 0 : Integer.parseInt(continuationToken);
+    int end = Math.min(start + limit, blobIds.size());
+    return new BlobIdPage(blobIds.subList(start, end), String.valueOf(end));
+  }
+
+  private static Blob blob(final BlobId blobId) {
+    Blob blob = mock(Blob.class);
+    when(blob.getMetrics()).thenReturn(new BlobMetrics(new DateTime(), "sha1", 100));
+    return blob;
+  }
+
+  private static class BlobIdPage
+      extends ArrayList<BlobId>
+      implements Continuation<BlobId>
+  {
+    private final String nextContinuationToken;
+
+    BlobIdPage(final List<BlobId> blobIds, final String nextContinuationToken) {
+      super(blobIds);
+      this.nextContinuationToken = nextContinuationToken;
+    }
+
+    @Override
+    public String nextContinuationToken() {
+      return nextContinuationToken;
+    }
+  }
+}
@@ -94,6 +94,12 @@ public class ProxyFacetSupportTest
   @Mock
   GracePeriodInterceptor gracePeriodInterceptor;
 
+  @Mock
+  UpstreamConcurrencyLimiter upstreamConcurrencyLimiter;
+
+  @Mock
+  UpstreamConcurrencyLimiter.Permit permit;
+
   @Spy
   @InjectMocks
   ProxyFacetSupport underTest = new ProxyFacetSupport()
@@ -212,6 +218,7 @@ public class ProxyFacetSupportTest
     underTest.configureCooperation(cooperationFactory,false, Duration.ofSeconds(0),
         Duration.ofSeconds(60), 10);
     underTest.buildCooperation();
+    doReturn(URI.create("http://example.com")).when(underTest).getRemoteUrl();
   }
 
   @Test
@@ -345,6 +352,86 @@ public class ProxyFacetSupportTest
     underTest.get(missingContext);
   }
 
+  @Test
+  public void testGet_upstreamPermitHeldForFetch() throws IOException {
+    when(upstreamConcurrencyLimiter.acquire(URI.create("http://example.com"))).thenReturn(permit);
+    when(cacheController.isStale(cacheInfo)).thenReturn(true);
+    doReturn(content).when(underTest).getCachedContent(cachedContext);
+
+    doReturn(reFetchedContent).when(underTest).fetch(cachedContext, content);
+    doReturn(storedContent).when(underTest).store(cachedContext, reFetchedContent);
+
+    assertThat(underTest.get(cachedContext), is(storedContent));
+    verify(permit).success();
+    verify(permit, never()).dropped();
+    verify(permit).close();
+  }
+
+  @Test
+  public void testGet_upstreamPermitDroppedOnFailure() throws IOException {
+    when(upstreamConcurrencyLimiter.acquire(URI.create("http://example.com"))).thenReturn(permit);
+    when(cacheController.isStale(cacheInfo)).thenReturn(true);
+    doReturn(content).when(underTest).getCachedContent(cachedContext);
+
+    doThrow(new IOException()).when(underTest).fetch(cachedContext, content);
+
+    assertThat(underTest.get(cachedContext), is(content));
+    verify(permit).dropped();
+    verify(permit, never()).success();
+    verify(permit).close();
+  }
+
+  @Test
+  public void testGet_upstreamPermitDroppedOnOverload() throws IOException {
+    when(upstreamConcurrencyLimiter.acquire(URI.create("http://example.com"))).thenReturn(permit);
+    when(cacheController.isStale(cacheInfo)).thenReturn(true);
+    doReturn(content).when(underTest).getCachedContent(cachedContext);
+
+    doThrow(new ProxyServiceException(new BasicHttpResponse(null, 503, "Offline")))
+        .when(underTest).fetch(cachedContext, content);
+
+    assertThat(underTest.get(cachedContext), is(content));
+    verify(permit).dropped();
+    verify(permit, never()).success();
+    verify(permit).close();
+  }
+
+  @Test
+  public void testGet_upstreamPermitReleasedUnsampledOnAuthFailure() throws IOException {
+    when(upstreamConcurrencyLimiter.acquire(URI.create("http://example.com"))).thenReturn(permit);
+    when(cacheController.isStale(cacheInfo)).thenReturn(true);
+    doReturn(content).when(underTest).getCachedContent(cachedContext);
+
+    doThrow(new ProxyServiceException(new BasicHttpResponse(null, 401, "Unauthorized")))
+        .when(underTest).fetch(cachedContext, content);
+
+    assertThat(underTest.get(cachedContext), is(content));
+    verify(permit, never()).dropped();
+    verify(permit, never()).success();
+    verify(permit).close();
+  }
+
+  @Test
+  public void testGet_upstreamLimitReached_contentReturnedIfCached() throws IOException {
+    when(upstreamConcurrencyLimiter.acquire(URI.create("http://example.com")))
+        .thenThrow(new UpstreamConcurrencyLimitException("busy"));
+    when(cacheController.isStale(cacheInfo)).thenReturn(true);
+    doReturn(content).when(underTest).getCachedContent(cachedContext);
+
+    assertThat(underTest.get(cachedContext), is(content));
+    verify(underTest, never()).fetch(any(), any());
+  }
+
+  @Test(expected = UpstreamConcurrencyLimitException.class)
+  public void testGet_upstreamLimitReached_thrownIfNotCached() throws IOException {
+    when(upstreamConcurrencyLimiter.acquire(URI.create("http://example.com")))
+        .thenThrow(new UpstreamConcurrencyLimitException("busy"));
+    when(cacheController.isStale(cacheInfo)).thenReturn(true);
+    doReturn(null).when(underTest).getCachedContent(missingContext);
+
+    underTest.get(missingContext);
+  }
+
   @Test
   public void testGet_MissingBlobException() throws IOException {
     RetryDeniedException e = new RetryDeniedException("Denied", new MissingBlobException(null));
@@ -144,6 +144,15 @@ public class ProxyHandlerTest
     assertStatusCode(underTest.handle(context), HttpStatus.NOT_FOUND);
   }
 
+  @Test
+  public void testUpstreamConcurrencyLimitExceptionReturns503ResponseWithMessage() throws Exception {
+    when(request.getAction()).thenReturn(HttpMethods.GET);
+    doThrow(new UpstreamConcurrencyLimitException("Too many")).when(proxyFacet).get(context);
+    Response response = underTest.handle(context);
+    assertStatusCode(response, HttpStatus.SERVICE_UNAVAILABLE);
+    assertStatusMessage(response, "Too many");
+  }
+
   @Test
   public void testIOExceptionReturns502Response() throws Exception {
     when(request.getAction()).thenReturn(HttpMethods.GET);
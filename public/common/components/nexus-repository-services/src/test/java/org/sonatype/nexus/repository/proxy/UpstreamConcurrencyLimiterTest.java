@@ -0,0 +1,196 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.proxy;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.repository.proxy.UpstreamConcurrencyLimiter.Permit;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+/**
+ * Tests for {@link UpstreamConcurrencyLimiter}.
+ */
+public class UpstreamConcurrencyLimiterTest
+    extends TestSupport
+{
+  private static final URI REMOTE = URI.create("https://repo.example.com/maven2/");
+
+  private static final URI OTHER_REMOTE = URI.create("http://other.example.com:8081/repository/npm/");
+
+  private static final String METRICS = UpstreamConcurrencyLimiter.METRICS_PREFIX + ".repo.example.com:443";
+
+  private MetricRegistry registry;
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    registry = new MetricRegistry();
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void limitGrowsWhileFastFetchesUseIt() throws Exception {
+    UpstreamConcurrencyLimiter underTest = limiter(2, Duration.ofMinutes(1), Duration.ofSeconds(1));
+
+    try (Permit first = underTest.acquire(REMOTE); Permit second = underTest.acquire(REMOTE)) {
+      first.success();
+      second.success();
+    }
+
+    assertThat(underTest.getLimit(REMOTE), is(4));
+    assertThat(gauge("limit"), is(4));
+    assertThat(gauge("inFlight"), is(0));
+  }
+
+  @Test
+  public void limitDoesNotGrowWhileMostlyUnused() throws Exception {
+    UpstreamConcurrencyLimiter underTest = limiter(10, Duration.ofMinutes(1), Duration.ofSeconds(1));
+
+    for (int i = 0; i < 5; i++) {
+      try (Permit permit = underTest.acquire(REMOTE)) {
+        permit.success();
+      }
+    }
+
+    assertThat(underTest.getLimit(REMOTE), is(10));
+  }
+
+  @Test
+  public void limitShrinksOnDropsAndSlowFetches() throws Exception {
+    UpstreamConcurrencyLimiter underTest = limiter(10, Duration.ZERO, Duration.ofSeconds(1));
+
+    try (Permit permit = underTest.acquire(REMOTE)) {
+      permit.dropped();
+    }
+    assertThat(underTest.getLimit(REMOTE), is(5));
+
+    try (Permit permit = underTest.acquire(REMOTE)) {
+      Thread.sleep(1);
+      permit.success();
+    }
+    assertThat(underTest.getLimit(REMOTE), is(2));
+
+    for (int i = 0; i < 2; i++) {
+      try (Permit permit = underTest.acquire(REMOTE)) {
+        permit.dropped();
+      }
+    }
+    assertThat("limit never drops below the minimum", underTest.getLimit(REMOTE), is(1));
+  }
+
+  @Test
+  public void permitsWithoutOutcomeDoNotChangeTheLimit() throws Exception {
+    UpstreamConcurrencyLimiter underTest = limiter(2, Duration.ofMinutes(1), Duration.ofSeconds(1));
+
+    try (Permit permit = underTest.acquire(REMOTE)) {
+      // no outcome reported
+    }
+
+    assertThat(underTest.getLimit(REMOTE), is(2));
+    assertThat(gauge("inFlight"), is(0));
+  }
+
+  @Test
+  public void excessFetchesWaitForASlot() throws Exception {
+    UpstreamConcurrencyLimiter underTest = limiter(2, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    Permit first = underTest.acquire(REMOTE);
+    Permit second = underTest.acquire(REMOTE);
+
+    CountDownLatch acquired = new CountDownLatch(1);
+    Future<?> waiter = executor.submit(() -> {
+      try (Permit third = underTest.acquire(REMOTE)) {
+        acquired.countDown();
+      }
+      return null;
+    });
+
+    assertThat(acquired.await(200, TimeUnit.MILLISECONDS), is(false));
+    assertThat(gauge("waiting"), is(1));
+
+    first.close();
+    assertThat(acquired.await(5, TimeUnit.SECONDS), is(true));
+    waiter.get(5, TimeUnit.SECONDS);
+    second.close();
+    assertThat(gauge("inFlight"), is(0));
+  }
+
+  @Test
+  public void excessFetchesAreRejectedAfterTheQueueTimeout() throws Exception {
+    UpstreamConcurrencyLimiter underTest = limiter(2, Duration.ofMinutes(1), Duration.ofMillis(50));
+    try (Permit first = underTest.acquire(REMOTE); Permit second = underTest.acquire(REMOTE)) {
+      assertThrows(UpstreamConcurrencyLimitException.class, () -> underTest.acquire(REMOTE));
+    }
+
+    assertThat(registry.meter(METRICS + ".rejected").getCount(), is(1L));
+    assertThat(gauge("waiting"), is(0));
+  }
+
+  @Test
+  public void limitsAreKeptPerHost() throws Exception {
+    UpstreamConcurrencyLimiter underTest = limiter(2, Duration.ofMinutes(1), Duration.ofMillis(50));
+    try (Permit first = underTest.acquire(REMOTE); Permit second = underTest.acquire(REMOTE)) {
+      try (Permit other = underTest.acquire(OTHER_REMOTE)) {
+        other.dropped();
+      }
+    }
+
+    assertThat(underTest.getLimit(REMOTE), is(2));
+    assertThat(underTest.getLimit(OTHER_REMOTE), is(1));
+  }
+
+  @Test
+  public void disabledLimiterDoesNotLimit() throws Exception {
+    UpstreamConcurrencyLimiter underTest = new UpstreamConcurrencyLimiter(false, 1, 1, 1, Duration.ofMinutes(1), 0.5,
+        Duration.ZERO, registry);
+
+    try (Permit first = underTest.acquire(REMOTE); Permit second = underTest.acquire(REMOTE)) {
+      first.dropped();
+      second.dropped();
+    }
+
+    assertThat(registry.getMetrics().isEmpty(), is(true));
+  }
+
+  private UpstreamConcurrencyLimiter limiter(
+      final int initialLimit,
+      final Duration latencyThreshold,
+      final Duration queueTimeout)
+  {
+    return new UpstreamConcurrencyLimiter(true, initialLimit, 1, 100, latencyThreshold, 0.5, queueTimeout, registry);
+  }
+
+  private int gauge(final String name) {
+    return (Integer) registry.getGauges().get(METRICS + "." + name).getValue();
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.security.internal;
+
+import java.util.List;
+
+import org.sonatype.goodies.common.Time;
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.repository.security.RepositoryAdminPermission;
+import org.sonatype.nexus.repository.security.RepositoryContentSelectorPermission;
+import org.sonatype.nexus.repository.security.RepositoryViewPermission;
+import org.sonatype.nexus.security.SecurityHelper;
+import org.sonatype.nexus.security.authz.AuthorizationConfigurationChanged;
+
+import org.apache.shiro.authz.Permission;
+import org.apache.shiro.subject.SimplePrincipalCollection;
+import org.apache.shiro.subject.Subject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.sonatype.nexus.security.BreadActions.BROWSE;
+import static org.sonatype.nexus.security.BreadActions.READ;
+
+public class RepositoryPermissionIndexTest
+    extends TestSupport
+{
+  private static final Permission BROWSE_MAVEN = new RepositoryViewPermission("maven2", "maven-central", BROWSE);
+
+  private static final Permission READ_MAVEN = new RepositoryViewPermission("maven2", "maven-central", READ);
+
+  private static final Permission BROWSE_NPM = new RepositoryViewPermission("npm", "npmjs", BROWSE);
+
+  @Mock
+  private SecurityHelper securityHelper;
+
+  @Mock
+  private Subject subject;
+
+  private RepositoryPermissionIndex underTest;
+
+  @Before
+  public void setup() {
+    when(subject.getPrincipals()).thenReturn(new SimplePrincipalCollection("admin", "NexusAuthorizingRealm"));
+    when(securityHelper.anyPermitted(same(subject), eq(BROWSE_MAVEN))).thenReturn(true);
+    when(securityHelper.anyPermitted(same(subject), eq(READ_MAVEN))).thenReturn(false);
+    when(securityHelper.anyPermitted(same(subject), eq(BROWSE_NPM))).thenReturn(false);
+
+    underTest = new RepositoryPermissionIndex(securityHelper, true, 100, Time.minutes(2));
+  }
+
+  @Test
+  public void testChecksAreRememberedPerAction() {
+    Permission[] permissions = {BROWSE_MAVEN, READ_MAVEN, BROWSE_NPM};
+
+    assertThat(underTest.isPermitted(subject, permissions), is(new boolean[]{true, false, false}));
+    assertThat(underTest.isPermitted(subject, permissions), is(new boolean[]{true, false, false}));
+    assertThat(underTest.anyPermitted(subject, READ_MAVEN, BROWSE_MAVEN), is(true));
+    assertThat(underTest.anyPermitted(subject, READ_MAVEN, BROWSE_NPM), is(false));
+
+    verify(securityHelper).anyPermitted(subject, BROWSE_MAVEN);
+    verify(securityHelper).anyPermitted(subject, READ_MAVEN);
+    verify(securityHelper).anyPermitted(subject, BROWSE_NPM);
+  }
+
+  @Test
+  public void testActionsOnTheSameRepositoryShareOneEntry() {
+    assertThat(underTest.isPermitted(subject, BROWSE_MAVEN, READ_MAVEN), is(new boolean[]{true, false}));
+    assertThat(underTest.indexedResources(subject), is(1));
+
+    assertThat(underTest.isPermitted(subject, BROWSE_NPM), is(new boolean[]{false}));
+    assertThat(underTest.indexedResources(subject), is(2));
+  }
+
+  @Test
+  public void testPermissionTypesAreKeptApart() {
+    Permission admin = new RepositoryAdminPermission("maven2", "maven-central", List.of(BROWSE));
+    Permission selector = new RepositoryContentSelectorPermission("sel", "maven2", "maven-central", List.of(BROWSE));
+
+    assertThat(underTest.isPermitted(subject, BROWSE_MAVEN, admin, selector), is(new boolean[]{true, false, false}));
+
+    verify(securityHelper).anyPermitted(subject, admin);
+    verify(securityHelper).anyPermitted(subject, selector);
+  }
+
+  @Test
+  public void testMultiActionPermissionsAreNotIndexed() {
+    Permission browseOrRead = new RepositoryViewPermission("maven2", "maven-central", List.of(BROWSE, READ));
+    when(securityHelper.anyPermitted(same(subject), eq(browseOrRead))).thenReturn(true);
+
+    assertThat(underTest.anyPermitted(subject, browseOrRead), is(true));
+    assertThat(underTest.anyPermitted(subject, browseOrRead), is(true));
+
+    verify(securityHelper, times(2)).anyPermitted(subject, browseOrRead);
+  }
+
+  @Test
+  public void testAuthorizationChangesInvalidate() {
+    underTest.anyPermitted(subject, BROWSE_MAVEN);
+    underTest.on(new AuthorizationConfigurationChanged());
+    underTest.anyPermitted(subject, BROWSE_MAVEN);
+
+    verify(securityHelper, times(2)).anyPermitted(subject, BROWSE_MAVEN);
+  }
+
+  @Test
+  public void testDisabledDelegates() {
+    underTest = new RepositoryPermissionIndex(securityHelper, false, 100, Time.minutes(2));
+    when(securityHelper.isPermitted(same(subject), any(Permission[].class))).thenReturn(new boolean[]{true});
+
+    assertThat(underTest.isPermitted(subject, BROWSE_MAVEN), is(new boolean[]{true}));
+    assertThat(underTest.isPermitted(subject, BROWSE_MAVEN), is(new boolean[]{true}));
+
+    verify(securityHelper, times(2)).isPermitted(subject, BROWSE_MAVEN);
+  }
+}
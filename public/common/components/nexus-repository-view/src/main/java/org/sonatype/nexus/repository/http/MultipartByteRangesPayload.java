@@ -0,0 +1,131 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.repository.view.Payload;
+
+import com.google.common.collect.Range;
+import com.google.common.io.ByteSource;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A wrapper {@link Payload} that returns several portions of the original payload as a
+ * {@code multipart/byteranges} body.
+ *
+ * Defined by <a href="https://www.rfc-editor.org/rfc/rfc7233#appendix-A">RFC 7233 Appendix A</a>
+ *
+ * @since 3.89
+ */
+class MultipartByteRangesPayload
+    implements Payload
+{
+  static final String MULTIPART_BYTERANGES = "multipart/byteranges";
+
+  private static final String CRLF = "\r\n";
+
+  private final Payload payload;
+
+  private final String boundary;
+
+  private final List<ByteSource> parts;
+
+  private final long size;
+
+  /**
+   * The endpoints of each Range are interpreted as the first and last byte positions to send.
+   */
+  public MultipartByteRangesPayload(
+      final Payload payload,
+      final List<Range<Long>> rangesToSend,
+      final String boundary)
+  {
+    checkArgument(!rangesToSend.isEmpty(), "At least one range is required");
+    this.payload = checkNotNull(payload);
+    this.boundary = checkNotNull(boundary);
+
+    List<ByteSource> sources = new ArrayList<>(rangesToSend.size() * 2 + 1);
+    long totalSize = 0;
+    for (Range<Long> range : rangesToSend) {
+      byte[] partHeader = partHeader(range);
+      long partSize = 1 + range.upperEndpoint() - range.lowerEndpoint();
+      sources.add(ByteSource.wrap(partHeader));
+      sources.add(new RangeSource(range.lowerEndpoint(), partSize));
+      totalSize += partHeader.length + partSize;
+    }
+    byte[] closingDelimiter = (CRLF + "--" + boundary + "--" + CRLF).getBytes(UTF_8);
+    sources.add(ByteSource.wrap(closingDelimiter));
+
+    this.parts = sources;
+    this.size = totalSize + closingDelimiter.length;
+  }
+
+  private byte[] partHeader(final Range<Long> range) {
+    StringBuilder header = new StringBuilder()
+        .append(CRLF).append("--").append(boundary).append(CRLF);
+    if (payload.getContentType() != null) {
+      header.append("Content-Type: ").append(payload.getContentType()).append(CRLF);
+    }
+    header.append("Content-Range: bytes ")
+        .append(range.lowerEndpoint()).append('-').append(range.upperEndpoint())
+        .append('/').append(payload.getSize())
+        .append(CRLF).append(CRLF);
+    return header.toString().getBytes(UTF_8);
+  }
+
+  /**
+   * Each range is only opened once the previous part has been sent.
+   */
+  @Override
+  public InputStream openInputStream() throws IOException {
+    return ByteSource.concat(parts).openStream();
+  }
+
+  @Override
+  public long getSize() {
+    return size;
+  }
+
+  @Nullable
+  @Override
+  public String getContentType() {
+    return MULTIPART_BYTERANGES + "; boundary=" + boundary;
+  }
+
+  private class RangeSource
+      extends ByteSource
+  {
+    private final long offset;
+
+    private final long length;
+
+    private RangeSource(final long offset, final long length) {
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public InputStream openStream() throws IOException {
+      return payload.openInputStream(offset, length);
+    }
+  }
+}
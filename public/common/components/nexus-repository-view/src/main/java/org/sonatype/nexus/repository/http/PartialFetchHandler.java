@@ -14,6 +14,7 @@ package org.sonatype.nexus.repository.http;
 
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 import javax.annotation.Nonnull;
 import jakarta.inject.Inject;
@@ -95,19 +96,16 @@ public class PartialFetchHandler
       return response;
     }
 
-    if (ranges.size() > 1) {
-      return HttpResponses.notImplemented("Multiple ranges not supported.");
-    }
-
     final String ifRangeHeader = getHeaderValue(context.getRequest(), HttpHeaders.IF_RANGE);
     if (ifRangeHeader != null && !ifRangeHeaderMatches(response, ifRangeHeader)) {
       return response;
     }
 
-    Range<Long> requestedRange = ranges.get(0);
-
     // Mutate the response
-    return partialResponse(response, payload, requestedRange);
+    if (ranges.size() > 1) {
+      return multipartResponse(response, payload, ranges);
+    }
+    return partialResponse(response, payload, ranges.get(0));
   }
 
   /**
@@ -132,6 +130,25 @@ public class PartialFetchHandler
     return builder.build();
   }
 
+  /**
+   * Mutate the response into a {@code multipart/byteranges} one that returns several parts of the payload.
+   */
+  private Response multipartResponse(
+      final Response response,
+      final Payload payload,
+      final List<Range<Long>> requestedRanges)
+  {
+    Response.Builder builder = new Response.Builder()
+        .copy(response)
+        .status(Status.success(HttpStatus.PARTIAL_CONTENT));
+
+    // ResponseSender takes care of Content-Type and Content-Length headers, via the payload
+    String boundary = UUID.randomUUID().toString().replace("-", "");
+    builder.payload(new MultipartByteRangesPayload(payload, requestedRanges, boundary));
+
+    return builder.build();
+  }
+
   private static boolean ifRangeHeaderMatches(final Response response, final String ifRangeHeader) {
     // If the if-range header starts with " it is an ETag
     if (ifRangeHeader.startsWith("\"")) {
@@ -12,19 +12,22 @@
  */
 package org.sonatype.nexus.repository.http;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 import org.sonatype.goodies.common.ComponentSupport;
 
+import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.Range;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import static java.util.Collections.singletonList;
-
 /**
  * Parses the "Range" request header.
  *
@@ -41,6 +44,11 @@ class RangeParser
 
   public static final List<Range<Long>> WHOLE_RANGE = Collections.emptyList();
 
+  /**
+   * Upper limit on the number of ranges in a single request; larger requests are served the complete content.
+   */
+  static final int MAX_RANGES = 32;
+
   /**
    * Returns a list of {@link Range}s, each indicating a range of byte indices (inclusive).
    *
@@ -48,6 +56,11 @@ class RangeParser
    * Range: bytes=500-999 (from byte 500 to byte 999)
    * Range: bytes=500- (from byte 500 to the end)
    * Range: bytes=-500 (the last 500 bytes, per the RFC)
+   * Range: bytes=0-10,500-999 (several of the above, separated by commas)
+   *
+   * Multiple ranges are sorted and any that overlap or touch are coalesced, as permitted by
+   * <a href="https://www.rfc-editor.org/rfc/rfc7233#section-4.1">RFC 7233 4.1</a>. Ranges that cannot be satisfied
+   * are dropped as long as at least one range can be.
    *
    * @return {@code null} if the requested range cannot be satisfied given the size of the content, or an empty list in
    *         the case of parsing errors
@@ -55,33 +68,29 @@ class RangeParser
   public List<Range<Long>> parseRangeSpec(final String rangeHeader, long size) {
     Range<Long> content = Range.closed(0L, size - 1L);
 
-    // TODO: Current limitation: only one Range of bytes supported in forms of "-X", "X-Y" (where X<Y) and "X-".
     if (!Strings.isNullOrEmpty(rangeHeader)) {
       try {
-        if (rangeHeader.startsWith("bytes=") && rangeHeader.length() > 6 && !rangeHeader.contains(",")) {
-          final String rangeSpec = rangeHeader.substring(6, rangeHeader.length());
-          if (rangeSpec.startsWith("-")) {
-            final long byteCount = Long.parseLong(rangeSpec.substring(1));
-            if (byteCount > size) {
-              return UNSATISFIABLE;
-            }
-            final Range<Long> suffix = Range.atLeast(size - byteCount);
-            return ensureSatisfiable(suffix, content);
+        if (rangeHeader.startsWith("bytes=") && rangeHeader.length() > 6) {
+          final List<String> rangeSpecs = Splitter.on(',').trimResults().splitToList(rangeHeader.substring(6));
+          if (rangeSpecs.size() > MAX_RANGES) {
+            log.warn("Too many HTTP Ranges ({}); sending complete content", rangeSpecs.size());
+            return WHOLE_RANGE;
           }
-          else if (rangeSpec.endsWith("-")) {
-            final Range<Long> requested = Range.atLeast(Long.parseLong(rangeSpec.substring(0, rangeSpec.length() - 1)));
-            return ensureSatisfiable(requested, content);
-          }
-          else if (rangeSpec.contains("-")) {
-            final String[] parts = rangeSpec.split("-");
-            return ensureSatisfiable(Range.closed(Long.parseLong(parts[0]), Long.parseLong(parts[1])), content);
-          }
-          else {
-            log.warn("Malformed HTTP Range value: {}, ignoring it", rangeHeader);
+          final List<Range<Long>> satisfiable = new ArrayList<>(rangeSpecs.size());
+          for (String rangeSpec : rangeSpecs) {
+            Range<Long> requested = parseByteRange(rangeSpec, size);
+            if (requested == null) {
+              log.warn("Malformed HTTP Range value: {}, ignoring it", rangeHeader);
+              return WHOLE_RANGE;
+            }
+            if (requested.isConnected(content)) {
+              satisfiable.add(requested.intersection(content));
+            }
           }
+          return satisfiable.isEmpty() ? UNSATISFIABLE : coalesce(satisfiable);
         }
         else {
-          log.warn("Unsupported non-byte or multiple HTTP Ranges: {}; sending complete content", rangeHeader);
+          log.warn("Unsupported non-byte HTTP Range: {}; sending complete content", rangeHeader);
         }
       }
       catch (Exception e) {
@@ -97,13 +106,54 @@ class RangeParser
     return WHOLE_RANGE;
   }
 
-  private List<Range<Long>> ensureSatisfiable(Range<Long> requested, Range<Long> content) {
-    if (requested.isConnected(content)) {
-      return singletonList(requested.intersection(content));
+  /**
+   * Parses a single byte range in forms of "-X", "X-Y" (where X<Y) and "X-".
+   *
+   * @return {@code null} if the byte range is malformed
+   */
+  @Nullable
+  private static Range<Long> parseByteRange(final String rangeSpec, final long size) {
+    if (rangeSpec.startsWith("-")) {
+      final long byteCount = Long.parseLong(rangeSpec.substring(1));
+      if (byteCount > size) {
+        // suffixes longer than the content are treated as starting past the end, i.e. not satisfiable
+        return Range.atLeast(size);
+      }
+      return Range.atLeast(size - byteCount);
+    }
+    else if (rangeSpec.endsWith("-")) {
+      return Range.atLeast(Long.parseLong(rangeSpec.substring(0, rangeSpec.length() - 1)));
+    }
+    else if (rangeSpec.contains("-")) {
+      final String[] parts = rangeSpec.split("-");
+      return Range.closed(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+    }
+    return null;
+  }
+
+  /**
+   * Sorts the ranges and merges any that overlap or are adjacent.
+   */
+  private static List<Range<Long>> coalesce(final List<Range<Long>> ranges) {
+    if (ranges.size() == 1) {
+      return ranges;
     }
-    else {
-      return UNSATISFIABLE;
+    List<Range<Long>> sorted = new ArrayList<>(ranges);
+    sorted.sort(Comparator.comparing(Range::lowerEndpoint));
+
+    List<Range<Long>> coalesced = new ArrayList<>(sorted.size());
+    Range<Long> current = sorted.get(0);
+    for (Range<Long> next : sorted.subList(1, sorted.size())) {
+      if (next.lowerEndpoint() <= current.upperEndpoint() + 1) {
+        current = Range.closed(current.lowerEndpoint(), Math.max(current.upperEndpoint(), next.upperEndpoint()));
+      }
+      else {
+        coalesced.add(current);
+        current = next;
+      }
     }
+    coalesced.add(current);
+    return coalesced;
   }
 
   private boolean isSatisfiable(final Range<Long> range, final long contentSize) {
@@ -13,6 +13,8 @@
 package org.sonatype.nexus.repository.httpclient.internal;
 
 import java.io.IOException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.Nullable;
 import javax.net.ssl.SSLPeerUnverifiedException;
@@ -82,6 +84,9 @@ public class BlockingHttpClient
 
   private RemoteConnectionStatus status = new RemoteConnectionStatus(UNINITIALISED);
 
+  // status observers may block, so use an explicit lock that lets virtual threads unmount while they wait
+  private final Lock statusLock = new ReentrantLock();
+
   public BlockingHttpClient(
       final CloseableHttpClient delegate,
       final HttpClientConfig config,
@@ -148,47 +153,65 @@ public class BlockingHttpClient
     }
   }
 
-  private synchronized void updateStatusToAvailable() {
-    if (autoBlock && blockedUntil != null) {
-      blockedUntil = null;
-      interruptCheckStatusThread();
-      autoBlockSequence.reset();
+  private void updateStatusToAvailable() {
+    statusLock.lock();
+    try {
+      if (autoBlock && blockedUntil != null) {
+        blockedUntil = null;
+        interruptCheckStatusThread();
+        autoBlockSequence.reset();
+      }
+      updateStatus(AVAILABLE);
+    }
+    finally {
+      statusLock.unlock();
     }
-    updateStatus(AVAILABLE);
   }
 
-  private synchronized void updateStatusToAvailableWithParams(
+  private void updateStatusToAvailableWithParams(
       final String reason,
       @Nullable final Integer statusCode,
       final HttpHost target)
   {
-    if (autoBlock && blockedUntil != null) {
-      blockedUntil = null;
-      interruptCheckStatusThread();
-      autoBlockSequence.reset();
+    statusLock.lock();
+    try {
+      if (autoBlock && blockedUntil != null) {
+        blockedUntil = null;
+        interruptCheckStatusThread();
+        autoBlockSequence.reset();
+      }
+      updateStatus(AVAILABLE, format("(Last Request %s)", reason), statusCode, target.toURI(), false);
+    }
+    finally {
+      statusLock.unlock();
     }
-    updateStatus(AVAILABLE, format("(Last Request %s)", reason), statusCode, target.toURI(), false);
   }
 
-  private synchronized void updateStatusToUnavailable(
+  private void updateStatusToUnavailable(
       final String reason,
       @Nullable final Integer statusCode,
       final HttpHost target)
   {
-    if (autoBlock) {
-      // avoid some other thread already increased the sequence
-      if (blockedUntil == null || blockedUntil.isBeforeNow()) {
-        blockedUntil = DateTime.now().plus(autoBlockSequence.next());
-        interruptCheckStatusThread();
-        String uri = target.toURI();
-        // TODO maybe find different means to schedule status checking
-        scheduleCheckStatus(uri, blockedUntil);
+    statusLock.lock();
+    try {
+      if (autoBlock) {
+        // avoid some other thread already increased the sequence
+        if (blockedUntil == null || blockedUntil.isBeforeNow()) {
+          blockedUntil = DateTime.now().plus(autoBlockSequence.next());
+          interruptCheckStatusThread();
+          String uri = target.toURI();
+          // TODO maybe find different means to schedule status checking
+          scheduleCheckStatus(uri, blockedUntil);
+        }
+        updateStatus(AUTO_BLOCKED_UNAVAILABLE, reason, statusCode, target.toURI(),
+            blockedUntil.isAfter(status.getBlockedUntil()));
+      }
+      else {
+        updateStatus(UNAVAILABLE, reason, statusCode, target.toURI(), false);
       }
-      updateStatus(AUTO_BLOCKED_UNAVAILABLE, reason, statusCode, target.toURI(),
-          blockedUntil.isAfter(status.getBlockedUntil()));
     }
-    else {
-      updateStatus(UNAVAILABLE, reason, statusCode, target.toURI(), false);
+    finally {
+      statusLock.unlock();
     }
   }
 
@@ -98,6 +98,11 @@ public class Content
     return payload.openInputStream();
   }
 
+  @Override
+  public InputStream openInputStream(final long offset, final long length) throws IOException {
+    return payload.openInputStream(offset, length);
+  }
+
   @Override
   public long getSize() {
     return payload.getSize();
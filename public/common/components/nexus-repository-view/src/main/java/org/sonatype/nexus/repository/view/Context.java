@@ -19,6 +19,7 @@ import java.util.ListIterator;
 import java.util.function.UnaryOperator;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.sonatype.nexus.common.collect.AttributesMap;
 import org.sonatype.nexus.repository.Repository;
@@ -50,6 +51,9 @@ public class Context
 
   private ListIterator<Handler> handlers;
 
+  @Nullable
+  private HandlerTimings handlerTimings;
+
   public Context(
       final Repository repository,
       final Request request)
@@ -78,6 +82,23 @@ public class Context
     return request;
   }
 
+  /**
+   * Measures the handlers invoked from now on with the given timings, or stops measuring when {@code null}.
+   *
+   * @since 3.89
+   */
+  public void setHandlerTimings(@Nullable final HandlerTimings handlerTimings) {
+    this.handlerTimings = handlerTimings;
+  }
+
+  /**
+   * @since 3.89
+   */
+  @Nullable
+  public HandlerTimings getHandlerTimings() {
+    return handlerTimings;
+  }
+
   /**
    * Invokes the next handler in the handler chain.
    *
@@ -91,11 +112,16 @@ public class Context
 
     // Invoke next handler
     Handler handler = handlers.next();
+    HandlerTimings timings = handlerTimings;
+    long enterNanos = timings != null ? timings.enter() : 0;
     try {
       log.debug("Proceeding: {}", handler);
       return handler.handle(this);
     }
     finally {
+      if (timings != null) {
+        timings.exit(handler, enterNanos);
+      }
       // retain handler position in-case of re-proceed
       if (handlers.hasPrevious()) {
         handlers.previous();
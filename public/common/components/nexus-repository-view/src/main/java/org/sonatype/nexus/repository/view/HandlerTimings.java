@@ -0,0 +1,159 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.view;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+import org.sonatype.nexus.common.collect.AttributeKey;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Per-request timing of the handler chain and of the response sent back to the client.
+ *
+ * Attach to a {@link Context} with {@link Context#setHandlerTimings(HandlerTimings)} to have {@link Context#proceed()}
+ * measure the self-time of each handler that runs afterwards, i.e. the time spent in the handler excluding the
+ * handlers it proceeded to. When stored in the {@link Response} attributes under {@link #KEY} the response sender
+ * reports the time to first byte and the number of bytes sent through {@link #firstByte()} and
+ * {@link #complete(long)}.
+ *
+ * Instances belong to a single request and are not thread-safe.
+ *
+ * @since 3.89
+ */
+public class HandlerTimings
+{
+  public static final String KEY = AttributeKey.get(HandlerTimings.class);
+
+  private static final int INITIAL_DEPTH = 16;
+
+  private final Consumer<HandlerTimings> onComplete;
+
+  private final long startNanos = System.nanoTime();
+
+  private long[] downstreamNanos = new long[INITIAL_DEPTH];
+
+  private int depth;
+
+  private String[] handlerNames = new String[INITIAL_DEPTH];
+
+  private long[] selfNanos = new long[INITIAL_DEPTH];
+
+  private int count;
+
+  private long firstByteNanos = -1;
+
+  private long bytesSent = -1;
+
+  public HandlerTimings(final Consumer<HandlerTimings> onComplete) {
+    this.onComplete = checkNotNull(onComplete);
+  }
+
+  /**
+   * Marks the start of a handler, returning the value to pass back to {@link #exit(Handler, long)}.
+   */
+  long enter() {
+    if (depth == downstreamNanos.length) {
+      downstreamNanos = Arrays.copyOf(downstreamNanos, depth * 2);
+    }
+    downstreamNanos[depth++] = 0;
+    return System.nanoTime();
+  }
+
+  /**
+   * Marks the end of a handler started at {@code enterNanos}.
+   */
+  void exit(final Handler handler, final long enterNanos) {
+    long elapsed = System.nanoTime() - enterNanos;
+    long downstream = downstreamNanos[--depth];
+    if (depth > 0) {
+      downstreamNanos[depth - 1] += elapsed;
+    }
+    if (count == handlerNames.length) {
+      handlerNames = Arrays.copyOf(handlerNames, count * 2);
+      selfNanos = Arrays.copyOf(selfNanos, count * 2);
+    }
+    handlerNames[count] = handlerName(handler);
+    selfNanos[count++] = Math.max(elapsed - downstream, 0);
+  }
+
+  /**
+   * Visits the self-time in nanoseconds of each handler measured so far, innermost handler first.
+   */
+  public void forEachHandler(final ObjLongConsumer<String> consumer) {
+    for (int i = 0; i < count; i++) {
+      consumer.accept(handlerNames[i], selfNanos[i]);
+    }
+  }
+
+  /**
+   * Nanoseconds since this request started.
+   */
+  public long elapsedNanos() {
+    return System.nanoTime() - startNanos;
+  }
+
+  /**
+   * Records that the first byte of the response body is being written; only the first call has any effect.
+   */
+  public void firstByte() {
+    if (firstByteNanos < 0) {
+      firstByteNanos = elapsedNanos();
+    }
+  }
+
+  /**
+   * Nanoseconds from the start of the request until the first byte of the response body, or -1 if no body was sent.
+   */
+  public long getFirstByteNanos() {
+    return firstByteNanos;
+  }
+
+  /**
+   * Number of response body bytes sent, or -1 if the response has not completed.
+   */
+  public long getBytesSent() {
+    return bytesSent;
+  }
+
+  /**
+   * Records that the response has been sent; only the first call has any effect.
+   */
+  public void complete(final long bytesSent) {
+    if (this.bytesSent < 0) {
+      this.bytesSent = Math.max(bytesSent, 0);
+      onComplete.accept(this);
+    }
+  }
+
+  /**
+   * Stable simple name for the handler type; lambdas and generated proxies are named after the class declaring them,
+   * as are anonymous classes.
+   */
+  static String handlerName(final Handler handler) {
+    String name = handler.getClass().getName();
+    int generated = name.indexOf("$$");
+    if (generated > 0) {
+      name = name.substring(0, generated);
+    }
+    name = name.substring(name.lastIndexOf('.') + 1);
+    int nested = name.lastIndexOf('$');
+    while (nested > 0 && name.chars().skip(nested + 1).allMatch(Character::isDigit)) {
+      name = name.substring(0, nested);
+      nested = name.lastIndexOf('$');
+    }
+    return nested > 0 ? name.substring(nested + 1) : name;
+  }
+}
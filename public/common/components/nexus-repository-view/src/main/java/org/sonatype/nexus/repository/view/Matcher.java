@@ -12,6 +12,8 @@
  */
 package org.sonatype.nexus.repository.view;
 
+import javax.annotation.Nullable;
+
 /**
  * View matcher.
  *
@@ -20,4 +22,26 @@ package org.sonatype.nexus.repository.view;
 public interface Matcher
 {
   boolean matches(Context context);
+
+  /**
+   * Returns a constraint satisfied by the path of every request this matcher accepts, or {@code null} if unknown.
+   *
+   * When a request path does not satisfy the constraint {@link #matches} must return {@code false} without modifying
+   * the context, allowing {@link Router} to skip this matcher entirely.
+   *
+   * @since 3.89
+   */
+  @Nullable
+  default PathConstraint pathConstraint() {
+    return null;
+  }
+
+  /**
+   * Returns {@code true} if {@link #matches} never modifies the context, regardless of outcome.
+   *
+   * @since 3.89
+   */
+  default boolean isStateless() {
+    return false;
+  }
 }
@@ -0,0 +1,154 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.view;
+
+import java.util.List;
+
+import org.sonatype.nexus.common.text.Strings2;
+
+import com.google.common.collect.ImmutableList;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Literal constraint on request paths, published by a {@link Matcher} so {@link Router} can skip routes whose
+ * matcher cannot possibly match without invoking it.
+ *
+ * @see Matcher#pathConstraint()
+ * @since 3.89
+ */
+public final class PathConstraint
+{
+  enum Kind
+  {
+    LITERAL, PREFIX, SUFFIX, ALL_OF, ANY_OF
+  }
+
+  private final Kind kind;
+
+  private final String value;
+
+  private final boolean ignoreCase;
+
+  private final List<PathConstraint> members;
+
+  private PathConstraint(
+      final Kind kind,
+      final String value,
+      final boolean ignoreCase,
+      final List<PathConstraint> members)
+  {
+    this.kind = kind;
+    this.ignoreCase = ignoreCase;
+    this.value = ignoreCase && kind != Kind.LITERAL ? Strings2.lower(value) : value;
+    this.members = members;
+  }
+
+  /**
+   * Path must equal the given literal.
+   */
+  public static PathConstraint literal(final String literal, final boolean ignoreCase) {
+    return new PathConstraint(Kind.LITERAL, checkNotNull(literal), ignoreCase, ImmutableList.of());
+  }
+
+  /**
+   * Path must start with the given prefix.
+   */
+  public static PathConstraint prefix(final String prefix, final boolean ignoreCase) {
+    return new PathConstraint(Kind.PREFIX, checkNotNull(prefix), ignoreCase, ImmutableList.of());
+  }
+
+  /**
+   * Path must end with the given suffix.
+   */
+  public static PathConstraint suffix(final String suffix, final boolean ignoreCase) {
+    return new PathConstraint(Kind.SUFFIX, checkNotNull(suffix), ignoreCase, ImmutableList.of());
+  }
+
+  /**
+   * Path must satisfy every one of the given constraints.
+   */
+  public static PathConstraint allOf(final List<PathConstraint> constraints) {
+    checkArgument(!constraints.isEmpty(), "At least one constraint required");
+    return constraints.size() == 1 ? constraints.get(0)
+        : new PathConstraint(Kind.ALL_OF, "", false, ImmutableList.copyOf(constraints));
+  }
+
+  /**
+   * Path must satisfy at least one of the given constraints.
+   */
+  public static PathConstraint anyOf(final List<PathConstraint> constraints) {
+    checkArgument(!constraints.isEmpty(), "At least one constraint required");
+    return constraints.size() == 1 ? constraints.get(0)
+        : new PathConstraint(Kind.ANY_OF, "", false, ImmutableList.copyOf(constraints));
+  }
+
+  /**
+   * Returns {@code true} if the given path satisfies this constraint; uses the same comparisons as the matchers.
+   */
+  public boolean test(final String path) {
+    switch (kind) {
+      case LITERAL:
+        return ignoreCase ? path.equalsIgnoreCase(value) : path.equals(value);
+      case PREFIX:
+        return ignoreCase ? Strings2.lower(path).startsWith(value) : path.startsWith(value);
+      case SUFFIX:
+        return ignoreCase ? Strings2.lower(path).endsWith(value) : path.endsWith(value);
+      case ALL_OF:
+        for (PathConstraint member : members) {
+          if (!member.test(path)) {
+            return false;
+          }
+        }
+        return true;
+      case ANY_OF:
+        for (PathConstraint member : members) {
+          if (member.test(path)) {
+            return true;
+          }
+        }
+        return false;
+      default:
+        throw new IllegalStateException("Unknown kind: " + kind);
+    }
+  }
+
+  Kind kind() {
+    return kind;
+  }
+
+  String value() {
+    return value;
+  }
+
+  boolean ignoreCase() {
+    return ignoreCase;
+  }
+
+  List<PathConstraint> members() {
+    return members;
+  }
+
+  @Override
+  public String toString() {
+    switch (kind) {
+      case ALL_OF:
+        return "allOf" + members;
+      case ANY_OF:
+        return "anyOf" + members;
+      default:
+        return Strings2.lower(kind.name()) + "('" + value + "'" + (ignoreCase ? ", ignoreCase" : "") + ")";
+    }
+  }
+}
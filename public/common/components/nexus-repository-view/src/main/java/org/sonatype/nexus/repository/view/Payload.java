@@ -34,6 +34,26 @@ public interface Payload
 
   InputStream openInputStream() throws IOException;
 
+  /**
+   * Opens a stream over at most {@code length} bytes of the payload starting at {@code offset}.
+   *
+   * Payloads backed by storage that can seek or fetch a range directly should override this; by default the full
+   * stream is opened and skipped forward.
+   *
+   * @since 3.89
+   */
+  default InputStream openInputStream(final long offset, final long length) throws IOException {
+    InputStream inputStream = openInputStream();
+    try {
+      ByteStreams.skipFully(inputStream, offset);
+    }
+    catch (IOException e) {
+      inputStream.close();
+      throw e;
+    }
+    return ByteStreams.limit(inputStream, length);
+  }
+
   long getSize();
 
   @Nullable
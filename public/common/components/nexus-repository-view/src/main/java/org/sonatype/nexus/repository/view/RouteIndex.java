@@ -0,0 +1,181 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.view;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Dispatch index over {@link Route}s, compiled from their {@link Matcher#pathConstraint() path constraints}.
+ *
+ * Case-sensitive literal prefixes and suffixes are kept in a pair of character tries, so a lookup walks the request
+ * path once in each direction to collect the routes it could satisfy; routes without an indexable constraint are
+ * always candidates. Candidates are tried in their original order and must still pass their own matcher, which
+ * preserves first-match semantics and any state the matcher records in the context.
+ *
+ * @since 3.89
+ */
+final class RouteIndex
+{
+  private final List<Route> routes;
+
+  private final PathConstraint[] constraints;
+
+  private final Node prefixes = new Node();
+
+  private final Node suffixes = new Node();
+
+  private final BitSet unindexed = new BitSet();
+
+  RouteIndex(final List<Route> routes) {
+    this.routes = List.copyOf(checkNotNull(routes));
+    this.constraints = new PathConstraint[routes.size()];
+    for (int i = 0; i < routes.size(); i++) {
+      Matcher matcher = routes.get(i).getMatcher();
+      PathConstraint constraint = matcher != null ? matcher.pathConstraint() : null;
+      List<Key> keys = constraint != null ? keys(constraint) : null;
+      constraints[i] = constraint;
+      if (keys == null) {
+        unindexed.set(i);
+      }
+      else {
+        for (Key key : keys) {
+          (key.suffix ? suffixes : prefixes).add(key.value, key.suffix, i);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the first route matching the given context, or {@code null} if none does.
+   */
+  @Nullable
+  Route find(final Context context) {
+    String path = context.getRequest().getPath();
+    if (path == null) {
+      return scan(context);
+    }
+
+    BitSet candidates = (BitSet) unindexed.clone();
+    prefixes.collect(path, false, candidates);
+    suffixes.collect(path, true, candidates);
+
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      PathConstraint constraint = constraints[i];
+      if (constraint != null && !constraint.test(path)) {
+        continue;
+      }
+      Route route = routes.get(i);
+      if (route.getMatcher().matches(context)) {
+        return route;
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private Route scan(final Context context) {
+    for (Route route : routes) {
+      if (route.getMatcher().matches(context)) {
+        return route;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the trie keys under which a constraint is indexed, any one of which a satisfying path must hit, or
+   * {@code null} if it cannot be indexed.
+   */
+  @Nullable
+  private static List<Key> keys(final PathConstraint constraint) {
+    switch (constraint.kind()) {
+      case LITERAL:
+      case PREFIX:
+        return constraint.ignoreCase() ? null : List.of(new Key(constraint.value(), false));
+      case SUFFIX:
+        return constraint.ignoreCase() ? null : List.of(new Key(constraint.value(), true));
+      case ALL_OF:
+        // every member must hold, so index by whichever is most selective
+        List<Key> best = null;
+        for (PathConstraint member : constraint.members()) {
+          List<Key> keys = keys(member);
+          if (keys != null && (best == null || shortest(keys) > shortest(best))) {
+            best = keys;
+          }
+        }
+        return best;
+      case ANY_OF:
+        List<Key> all = new ArrayList<>();
+        for (PathConstraint member : constraint.members()) {
+          List<Key> keys = keys(member);
+          if (keys == null) {
+            return null;
+          }
+          all.addAll(keys);
+        }
+        return all;
+      default:
+        return null;
+    }
+  }
+
+  private static int shortest(final List<Key> keys) {
+    return keys.stream().mapToInt(key -> key.value.length()).min().orElse(0);
+  }
+
+  private record Key(String value, boolean suffix)
+  {
+  }
+
+  /**
+   * Character trie node; {@link #routes} holds the routes whose key ends at this node.
+   */
+  private static final class Node
+  {
+    private final Map<Character, Node> children = new HashMap<>();
+
+    private final BitSet routes = new BitSet();
+
+    void add(final String key, final boolean reverse, final int route) {
+      Node node = this;
+      int length = key.length();
+      for (int i = 0; i < length; i++) {
+        char c = key.charAt(reverse ? length - 1 - i : i);
+        node = node.children.computeIfAbsent(c, k -> new Node());
+      }
+      node.routes.set(route);
+    }
+
+    void collect(final String path, final boolean reverse, final BitSet candidates) {
+      Node node = this;
+      int length = path.length();
+      for (int i = 0; node != null; i++) {
+        if (!node.routes.isEmpty()) {
+          candidates.or(node.routes);
+        }
+        if (i == length) {
+          break;
+        }
+        node = node.children.get(path.charAt(reverse ? length - 1 - i : i));
+      }
+    }
+  }
+}
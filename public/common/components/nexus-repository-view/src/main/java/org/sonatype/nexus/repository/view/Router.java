@@ -37,14 +37,14 @@ import static org.sonatype.nexus.repository.view.ViewUtils.copyLocalContextAttri
 public class Router
     extends ComponentSupport
 {
-  private final List<Route> routes;
-
   private final DefaultRoute defaultRoute;
 
+  private final RouteIndex routeIndex;
+
   public static final String LOCAL_ATTRIBUTE_PREFIX = "local.attribute.";
 
   public Router(final List<Route> routes, final DefaultRoute defaultRoute) {
-    this.routes = checkNotNull(routes, "Missing routes");
+    this.routeIndex = new RouteIndex(checkNotNull(routes, "Missing routes"));
     this.defaultRoute = checkNotNull(defaultRoute, "Missing default route");
   }
 
@@ -141,15 +141,11 @@ public class Router
   }
 
   /**
-   * Find the first matching route for the given context.
+   * Find the first matching route for the given context, skipping routes whose path constraint rules them out.
    */
   private Route findRoute(final Context context) {
-    for (Route route : routes) {
-      if (route.getMatcher().matches(context)) {
-        return route;
-      }
-    }
-    return defaultRoute;
+    Route route = routeIndex.find(context);
+    return route != null ? route : defaultRoute;
   }
 
   //
@@ -12,6 +12,11 @@
  */
 package org.sonatype.nexus.repository.view.handlers;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import jakarta.inject.Inject;
@@ -19,32 +24,84 @@ import jakarta.inject.Singleton;
 
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.common.collect.AttributeKey;
+import org.sonatype.nexus.common.event.EventAware;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.manager.RepositoryDeletedEvent;
 import org.sonatype.nexus.repository.view.Context;
 import org.sonatype.nexus.repository.view.Handler;
+import org.sonatype.nexus.repository.view.HandlerTimings;
 import org.sonatype.nexus.repository.view.Response;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * Simple timing handler.
  *
+ * A sample of requests, controlled by {@code nexus.repository.handlerTimings.sampleRate} (0 to disable, 1 for every
+ * request), additionally records latency histograms under {@value #PREFIX}:
+ * <ul>
+ * <li>{@code <repository>.request} - time spent in the handler chain</li>
+ * <li>{@code <repository>.firstByte} - time until the first byte of the response body was written</li>
+ * <li>{@code <repository>.bytesSent} - size of the response body sent</li>
+ * <li>{@code format.<format>.handler.<handler>} - self-time of each handler, excluding the handlers it called</li>
+ * </ul>
+ * Handler metrics are kept per format rather than per repository to bound the number of histograms. Repository metrics
+ * are removed from the registry when the repository is deleted.
+ *
  * @since 3.0
  */
 @Component
 @Singleton
 public class TimingHandler
     extends ComponentSupport
-    implements Handler
+    implements Handler, EventAware
 {
   public static final String ELAPSED_KEY = AttributeKey.get(TimingHandler.class, "elapsed");
 
+  static final String PREFIX = "nexus.repository.view";
+
   private final Handler meteringHandler;
 
+  private final MetricRegistry registry;
+
+  private final double sampleRate;
+
+  private final Map<String, RepositoryMetrics> metricsByRepository = new ConcurrentHashMap<>();
+
+  private final Map<String, Timer> handlerTimers = new ConcurrentHashMap<>();
+
+  public TimingHandler(@Nullable final Handler meteringHandler) {
+    this(meteringHandler, SharedMetricRegistries.getOrCreate("nexus"), 0);
+  }
+
   @Inject
-  public TimingHandler(@Qualifier("nexus.analytics.meteringHandler") @Nullable final Handler meteringHandler) {
+  public TimingHandler(
+      @Qualifier("nexus.analytics.meteringHandler") @Nullable final Handler meteringHandler,
+      @Value("${nexus.repository.handlerTimings.sampleRate:0.0}") final double sampleRate)
+  {
+    this(meteringHandler, SharedMetricRegistries.getOrCreate("nexus"), sampleRate);
+  }
+
+  @VisibleForTesting
+  TimingHandler(@Nullable final Handler meteringHandler, final MetricRegistry registry, final double sampleRate) {
+    checkArgument(sampleRate >= 0 && sampleRate <= 1, "sampleRate must be between 0 and 1: %s", sampleRate);
     this.meteringHandler = meteringHandler;
+    this.registry = checkNotNull(registry);
+    this.sampleRate = sampleRate;
   }
 
   @Nonnull
@@ -52,16 +109,114 @@ public class TimingHandler
   public Response handle(@Nonnull final Context context) throws Exception {
     Stopwatch watch = Stopwatch.createStarted();
 
+    RepositoryMetrics metrics = sampled() ? metricsFor(context.getRepository()) : null;
+    HandlerTimings timings = metrics != null ? startTimings(context, metrics) : null;
+    Response response = null;
     try {
       if (meteringHandler != null) {
         context.insertHandler(meteringHandler);
       }
-      return context.proceed();
+      response = context.proceed();
+      return response;
     }
     finally {
       String elapsed = watch.toString();
       context.getAttributes().set(ELAPSED_KEY, elapsed);
       log.trace("Timing: {}", elapsed);
+
+      if (timings != null) {
+        context.setHandlerTimings(null);
+        recordHandlers(context.getRepository(), metrics, timings);
+        if (response != null) {
+          // the response sender completes these once the body has been written
+          response.getAttributes().set(HandlerTimings.KEY, timings);
+        }
+      }
+    }
+  }
+
+  private boolean sampled() {
+    return sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+  }
+
+  /**
+   * Removes the metrics of a deleted repository from the shared registry.
+   */
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final RepositoryDeletedEvent event) {
+    RepositoryMetrics metrics = metricsByRepository.remove(event.getRepository().getName());
+    if (metrics != null) {
+      metrics.remove();
+    }
+  }
+
+  private HandlerTimings startTimings(final Context context, final RepositoryMetrics metrics) {
+    HandlerTimings timings = new HandlerTimings(metrics::recordResponse);
+    context.setHandlerTimings(timings);
+    return timings;
+  }
+
+  private void recordHandlers(
+      final Repository repository,
+      final RepositoryMetrics metrics,
+      final HandlerTimings timings)
+  {
+    // uses the metrics looked up at the start, so a request finishing after its repository was deleted can't
+    // register them again
+    metrics.request.update(timings.elapsedNanos(), TimeUnit.NANOSECONDS);
+    String format = repository.getFormat().getValue();
+    timings.forEachHandler((handler, nanos) -> handlerTimer(format, handler).update(nanos, TimeUnit.NANOSECONDS));
+  }
+
+  private RepositoryMetrics metricsFor(final Repository repository) {
+    RepositoryMetrics metrics = metricsByRepository.get(repository.getName());
+    if (metrics == null) {
+      metrics = metricsByRepository.computeIfAbsent(repository.getName(), RepositoryMetrics::new);
+    }
+    return metrics;
+  }
+
+  private Timer handlerTimer(final String format, final String handler) {
+    String timerName = name(PREFIX, "format", format, "handler", handler);
+    Timer timer = handlerTimers.get(timerName);
+    if (timer == null) {
+      timer = handlerTimers.computeIfAbsent(timerName, registry::timer);
+    }
+    return timer;
+  }
+
+  /**
+   * Metrics kept for each repository.
+   */
+  private class RepositoryMetrics
+  {
+    final String repositoryName;
+
+    final Timer request;
+
+    final Timer firstByte;
+
+    final Histogram bytesSent;
+
+    RepositoryMetrics(final String repositoryName) {
+      this.repositoryName = repositoryName;
+      request = registry.timer(name(PREFIX, repositoryName, "request"));
+      firstByte = registry.timer(name(PREFIX, repositoryName, "firstByte"));
+      bytesSent = registry.histogram(name(PREFIX, repositoryName, "bytesSent"));
+    }
+
+    void remove() {
+      registry.remove(name(PREFIX, repositoryName, "request"));
+      registry.remove(name(PREFIX, repositoryName, "firstByte"));
+      registry.remove(name(PREFIX, repositoryName, "bytesSent"));
+    }
+
+    void recordResponse(final HandlerTimings timings) {
+      if (timings.getFirstByteNanos() >= 0) {
+        firstByte.update(timings.getFirstByteNanos(), TimeUnit.NANOSECONDS);
+      }
+      bytesSent.update(timings.getBytesSent());
     }
   }
 }
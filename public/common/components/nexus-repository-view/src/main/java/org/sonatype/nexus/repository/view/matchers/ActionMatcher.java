@@ -46,6 +46,11 @@ public class ActionMatcher
     return allowedActions.contains(action);
   }
 
+  @Override
+  public boolean isStateless() {
+    return true;
+  }
+
   @Override
   public String toString() {
     return "ActionMatcher [allowedActions=" + allowedActions + "]";
@@ -27,4 +27,9 @@ public class AlwaysMatcher
   public boolean matches(final Context context) {
     return true;
   }
+
+  @Override
+  public boolean isStateless() {
+    return true;
+  }
 }
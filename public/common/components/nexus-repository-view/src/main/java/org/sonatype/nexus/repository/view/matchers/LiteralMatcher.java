@@ -15,6 +15,7 @@ package org.sonatype.nexus.repository.view.matchers;
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.repository.view.Context;
 import org.sonatype.nexus.repository.view.Matcher;
+import org.sonatype.nexus.repository.view.PathConstraint;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -53,6 +54,16 @@ public class LiteralMatcher
     }
   }
 
+  @Override
+  public PathConstraint pathConstraint() {
+    return PathConstraint.literal(literal, ignoreCase);
+  }
+
+  @Override
+  public boolean isStateless() {
+    return true;
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "{" +
@@ -27,4 +27,9 @@ public class NeverMatcher
   public boolean matches(final Context context) {
     return false;
   }
+
+  @Override
+  public boolean isStateless() {
+    return true;
+  }
 }
@@ -18,6 +18,7 @@ import java.util.regex.Pattern;
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.repository.view.Context;
 import org.sonatype.nexus.repository.view.Matcher;
+import org.sonatype.nexus.repository.view.PathConstraint;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -75,6 +76,39 @@ public class RegexMatcher
     return false;
   }
 
+  /**
+   * Constrains paths to the leading literal characters of the expression, when it has any.
+   */
+  @Override
+  public PathConstraint pathConstraint() {
+    String prefix = literalPrefix(pattern);
+    return prefix.isEmpty() ? null : PathConstraint.prefix(prefix, false);
+  }
+
+  /**
+   * Returns the characters every match must start with; conservative, so any construct not understood ends the scan.
+   */
+  private static String literalPrefix(final Pattern pattern) {
+    String regex = pattern.pattern();
+    if (pattern.flags() != 0 || regex.indexOf('|') >= 0) {
+      return "";
+    }
+    int start = regex.startsWith("^") ? 1 : 0;
+    int end = start;
+    while (end < regex.length() && isLiteral(regex.charAt(end))) {
+      end++;
+    }
+    // a trailing quantifier applies to the last literal character, which is then optional
+    if (end < regex.length() && "?*+{".indexOf(regex.charAt(end)) >= 0 && end > start) {
+      end--;
+    }
+    return regex.substring(start, end);
+  }
+
+  private static boolean isLiteral(final char c) {
+    return Character.isLetterOrDigit(c) || "/-_,:;=@!~%&#'\"<> ".indexOf(c) >= 0;
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "{" +
@@ -16,6 +16,7 @@ import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.common.text.Strings2;
 import org.sonatype.nexus.repository.view.Context;
 import org.sonatype.nexus.repository.view.Matcher;
+import org.sonatype.nexus.repository.view.PathConstraint;
 
 import com.google.common.annotations.VisibleForTesting;
 
@@ -61,6 +62,16 @@ public class SuffixMatcher
     }
   }
 
+  @Override
+  public PathConstraint pathConstraint() {
+    return PathConstraint.suffix(suffix, ignoreCase);
+  }
+
+  @Override
+  public boolean isStateless() {
+    return true;
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "{" +
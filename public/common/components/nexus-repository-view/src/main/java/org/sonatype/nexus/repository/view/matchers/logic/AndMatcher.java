@@ -12,11 +12,13 @@
  */
 package org.sonatype.nexus.repository.view.matchers.logic;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.repository.view.Context;
 import org.sonatype.nexus.repository.view.Matcher;
+import org.sonatype.nexus.repository.view.PathConstraint;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
@@ -56,6 +58,30 @@ public class AndMatcher
     return true;
   }
 
+  /**
+   * Combines the constraints of leading matchers up to and including the first stateful one, as any matcher after
+   * that may only be reached once the context has already been modified.
+   */
+  @Override
+  public PathConstraint pathConstraint() {
+    List<PathConstraint> constraints = new ArrayList<>();
+    for (Matcher matcher : matchers) {
+      PathConstraint constraint = matcher.pathConstraint();
+      if (constraint != null) {
+        constraints.add(constraint);
+      }
+      if (!matcher.isStateless()) {
+        break;
+      }
+    }
+    return constraints.isEmpty() ? null : PathConstraint.allOf(constraints);
+  }
+
+  @Override
+  public boolean isStateless() {
+    return matchers.stream().allMatch(Matcher::isStateless);
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "{" +
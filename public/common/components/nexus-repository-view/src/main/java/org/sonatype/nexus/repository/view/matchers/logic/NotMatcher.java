@@ -45,6 +45,11 @@ public class NotMatcher
     return !matcher.matches(context);
   }
 
+  @Override
+  public boolean isStateless() {
+    return matcher.isStateless();
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "{" +
@@ -12,11 +12,13 @@
  */
 package org.sonatype.nexus.repository.view.matchers.logic;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.repository.view.Context;
 import org.sonatype.nexus.repository.view.Matcher;
+import org.sonatype.nexus.repository.view.PathConstraint;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
@@ -56,6 +58,27 @@ public class OrMatcher
     return false;
   }
 
+  /**
+   * Constrained only when every alternative is, otherwise an unconstrained alternative may match any path.
+   */
+  @Override
+  public PathConstraint pathConstraint() {
+    List<PathConstraint> constraints = new ArrayList<>();
+    for (Matcher matcher : matchers) {
+      PathConstraint constraint = matcher.pathConstraint();
+      if (constraint == null) {
+        return null;
+      }
+      constraints.add(constraint);
+    }
+    return constraints.isEmpty() ? null : PathConstraint.anyOf(constraints);
+  }
+
+  @Override
+  public boolean isStateless() {
+    return matchers.stream().allMatch(Matcher::isStateless);
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "{" +
@@ -17,6 +17,7 @@ import java.util.Map;
 import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.repository.view.Context;
 import org.sonatype.nexus.repository.view.Matcher;
+import org.sonatype.nexus.repository.view.PathConstraint;
 import org.sonatype.nexus.repository.view.Request;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -77,6 +78,11 @@ public class TokenMatcher
     return true;
   }
 
+  @Override
+  public PathConstraint pathConstraint() {
+    return parser.getPathConstraint();
+  }
+
   @Override
   public String toString() {
     return "TokenMatcher [pattern=" + pattern + "]";
@@ -25,6 +25,7 @@ import java.util.regex.Pattern;
 import javax.annotation.Nullable;
 
 import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.repository.view.PathConstraint;
 
 /**
  * Parses path-like strings against a template pattern, a literal string with embedded variables. e.g. {@code
@@ -52,6 +53,9 @@ public class TokenParser
 
   private final Pattern pattern;
 
+  @Nullable
+  private final PathConstraint pathConstraint;
+
   public TokenParser(final String templatePattern) {
     final List<Token> tokens = new PatternParser(templatePattern).getTokens();
     pattern = Pattern.compile(regexp(tokens));
@@ -64,6 +68,8 @@ public class TokenParser
         variables.add((VariableToken) token);
       }
     }
+
+    pathConstraint = pathConstraint(tokens);
   }
 
   /**
@@ -101,6 +107,47 @@ public class TokenParser
     return pattern.toString();
   }
 
+  /**
+   * Returns the literal constraint every parsable path satisfies, or {@code null} if the pattern has no literal
+   * prefix or suffix.
+   */
+  @Nullable
+  PathConstraint getPathConstraint() {
+    return pathConstraint;
+  }
+
+  @Nullable
+  private static PathConstraint pathConstraint(final List<Token> tokens) {
+    int leading = 0;
+    while (leading < tokens.size() && tokens.get(leading) instanceof LiteralToken) {
+      leading++;
+    }
+    if (leading == tokens.size()) {
+      return PathConstraint.literal(literal(tokens), false);
+    }
+    int trailing = tokens.size();
+    while (tokens.get(trailing - 1) instanceof LiteralToken) {
+      trailing--;
+    }
+
+    List<PathConstraint> constraints = new ArrayList<>();
+    if (leading > 0) {
+      constraints.add(PathConstraint.prefix(literal(tokens.subList(0, leading)), false));
+    }
+    if (trailing < tokens.size()) {
+      constraints.add(PathConstraint.suffix(literal(tokens.subList(trailing, tokens.size())), false));
+    }
+    return constraints.isEmpty() ? null : PathConstraint.allOf(constraints);
+  }
+
+  private static String literal(final List<Token> tokens) {
+    StringBuilder b = new StringBuilder();
+    for (Token token : tokens) {
+      b.append(token.value);
+    }
+    return b.toString();
+  }
+
   private String regexp(final List<Token> tokens) {
     StringBuilder b = new StringBuilder();
     Set<String> previous = new HashSet<>();
@@ -46,6 +46,11 @@ public class BlobPayload
     return blob.getInputStream();
   }
 
+  @Override
+  public InputStream openInputStream(final long offset, final long length) throws IOException {
+    return blob.getInputStream(offset, length);
+  }
+
   @Override
   public long getSize() {
     return blob.getMetrics().getContentSize();
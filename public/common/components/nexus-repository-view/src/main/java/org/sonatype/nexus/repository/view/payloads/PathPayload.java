@@ -16,6 +16,8 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -24,6 +26,8 @@ import javax.annotation.Nullable;
 
 import org.sonatype.nexus.repository.view.Payload;
 
+import com.google.common.io.ByteStreams;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -46,6 +50,19 @@ public class PathPayload
     return new BufferedInputStream(Files.newInputStream(path, StandardOpenOption.READ));
   }
 
+  @Override
+  public InputStream openInputStream(final long offset, final long length) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      channel.position(offset);
+    }
+    catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return ByteStreams.limit(new BufferedInputStream(Channels.newInputStream(channel)), length);
+  }
+
   @Override
   public long getSize() {
     try {
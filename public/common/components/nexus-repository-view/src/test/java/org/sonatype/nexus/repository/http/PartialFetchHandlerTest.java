@@ -35,11 +35,14 @@ import static com.google.common.net.HttpHeaders.IF_RANGE;
 import static com.google.common.net.HttpHeaders.LAST_MODIFIED;
 import static com.google.common.net.HttpHeaders.RANGE;
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.apache.commons.lang3.ArrayUtils.subarray;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.core.IsSame.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
@@ -47,7 +50,6 @@ import static org.mockito.Mockito.when;
 import static org.sonatype.nexus.repository.http.HttpMethods.GET;
 import static org.sonatype.nexus.repository.http.HttpMethods.POST;
 import static org.sonatype.nexus.repository.http.HttpStatus.INTERNAL_SERVER_ERROR;
-import static org.sonatype.nexus.repository.http.HttpStatus.NOT_IMPLEMENTED;
 import static org.sonatype.nexus.repository.http.HttpStatus.OK;
 import static org.sonatype.nexus.repository.http.HttpStatus.PARTIAL_CONTENT;
 import static org.sonatype.nexus.repository.http.HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
@@ -146,13 +148,29 @@ public class PartialFetchHandlerTest
   public void testHandleWhenRangeParserReturnsMultipleRanges() throws Exception {
     Request request = createGetRequestBuilder().header(RANGE, RANGE_HEADER).build();
     Response response = createOkResponseBuilder().payload(PAYLOAD).build();
-    List<Range<Long>> multipleRanges = asList(ZERO_TO_TWO_RANGE, ZERO_TO_TWO_RANGE);
+    List<Range<Long>> multipleRanges = asList(ZERO_TO_TWO_RANGE, Range.closed(6L, 9L));
     when(rangeParser.parseRangeSpec(RANGE_HEADER, PAYLOAD.getSize())).thenReturn(multipleRanges);
 
     Response actualResponse = doHandle(request, response);
 
-    assertThat(actualResponse.getStatus().getCode(), is(NOT_IMPLEMENTED));
-    assertThat(actualResponse.getStatus().getMessage(), is("Multiple ranges not supported."));
+    assertThat(actualResponse.getStatus().getCode(), is(PARTIAL_CONTENT));
+    assertThat(actualResponse.getHeaders().get(CONTENT_RANGE), is(nullValue()));
+
+    Payload multipart = actualResponse.getPayload();
+    assertThat(multipart.getContentType(), startsWith("multipart/byteranges; boundary="));
+    String boundary = multipart.getContentType().substring("multipart/byteranges; boundary=".length());
+    String body = new String(bytesFromPayload(multipart), UTF_8);
+    assertThat(body, is(
+        "\r\n--" + boundary + "\r\n" +
+            "Content-Type: text/plain\r\n" +
+            "Content-Range: bytes 0-2/10\r\n\r\n" +
+            "the" +
+            "\r\n--" + boundary + "\r\n" +
+            "Content-Type: text/plain\r\n" +
+            "Content-Range: bytes 6-9/10\r\n\r\n" +
+            "load" +
+            "\r\n--" + boundary + "--\r\n"));
+    assertThat(multipart.getSize(), is((long) body.getBytes(UTF_8).length));
   }
 
   @Test
@@ -50,6 +50,13 @@ public class PartialPayloadTest
     assertThat(output, is(Bytes.toArray(asList(0, 1, 2))));
   }
 
+  @Test
+  public void middlePartial() throws IOException {
+    final byte[] output = partial(bytesPayload, Range.closed(4L, 6L));
+
+    assertThat(output, is(Bytes.toArray(asList(4, 5, 6))));
+  }
+
   @Test
   public void entireStream() throws IOException {
     final byte[] output = partial(bytesPayload, Range.closed(0L, 9L));
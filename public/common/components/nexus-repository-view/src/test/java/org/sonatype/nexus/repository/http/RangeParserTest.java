@@ -13,12 +13,16 @@
 package org.sonatype.nexus.repository.http;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.sonatype.goodies.testsupport.TestSupport;
 
 import com.google.common.collect.Range;
 import org.junit.Test;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -86,4 +90,42 @@ public class RangeParserTest
     final List<Range<Long>> ranges = parser.parseRangeSpec("bytes=5-100", 10L);
     assertThat(ranges.get(0), is(Range.closed(5L, 9L)));
   }
+
+  @Test
+  public void multipleRanges() {
+    final List<Range<Long>> ranges = parser.parseRangeSpec("bytes=0-9, 20-29,-5", 100L);
+    assertThat(ranges, contains(Range.closed(0L, 9L), Range.closed(20L, 29L), Range.closed(95L, 99L)));
+  }
+
+  @Test
+  public void multipleRangesAreSortedAndCoalesced() {
+    final List<Range<Long>> ranges = parser.parseRangeSpec("bytes=50-59,0-9,5-14,15-19", 100L);
+    assertThat(ranges, contains(Range.closed(0L, 19L), Range.closed(50L, 59L)));
+  }
+
+  @Test
+  public void unsatisfiableRangesAreDroppedFromMultipleRanges() {
+    final List<Range<Long>> ranges = parser.parseRangeSpec("bytes=0-4,200-300", 100L);
+    assertThat(ranges, contains(Range.closed(0L, 4L)));
+  }
+
+  @Test
+  public void multipleUnsatisfiableRanges() {
+    final List<Range<Long>> ranges = parser.parseRangeSpec("bytes=200-300,400-", 100L);
+    assertThat(ranges, is(nullValue()));
+  }
+
+  @Test
+  public void malformedRangeAmongMultipleRanges() {
+    final List<Range<Long>> ranges = parser.parseRangeSpec("bytes=0-4,oops", 100L);
+    assertThat(ranges, is(empty()));
+  }
+
+  @Test
+  public void tooManyRanges() {
+    final String header = "bytes=" + IntStream.rangeClosed(0, RangeParser.MAX_RANGES)
+        .mapToObj(i -> (i * 2) + "-" + (i * 2))
+        .collect(Collectors.joining(","));
+    assertThat(parser.parseRangeSpec(header, 1000L), is(empty()));
+  }
 }
@@ -0,0 +1,121 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.view;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.http.HttpResponses;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests for {@link HandlerTimings}.
+ */
+public class HandlerTimingsTest
+    extends TestSupport
+{
+  @Mock
+  private Repository repository;
+
+  @Mock
+  private Request request;
+
+  @Mock
+  private Matcher matcher;
+
+  @Test
+  public void measuresSelfTimeOfEachHandler() throws Exception {
+    List<HandlerTimings> completed = new ArrayList<>();
+    HandlerTimings timings = new HandlerTimings(completed::add);
+
+    Handler start = context -> {
+      context.setHandlerTimings(timings);
+      return context.proceed();
+    };
+    Route route = new Route(matcher, ImmutableList.of(start, new Outer(), new Inner()));
+
+    Response response = new Context(repository, request).start(route);
+
+    assertThat(response.getStatus().isSuccessful(), is(true));
+
+    Map<String, Long> selfNanos = new LinkedHashMap<>();
+    timings.forEachHandler(selfNanos::put);
+    assertThat(selfNanos.keySet(), contains("Inner", "Outer"));
+    assertThat(selfNanos.get("Inner"), greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50)));
+    assertThat(selfNanos.get("Outer"), greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10)));
+    assertThat(selfNanos.get("Outer"), lessThan(TimeUnit.MILLISECONDS.toNanos(50)));
+
+    timings.firstByte();
+    timings.complete(42);
+    timings.complete(7);
+    assertThat(completed, contains(sameInstance(timings)));
+    assertThat(timings.getBytesSent(), is(42L));
+    assertThat(timings.getFirstByteNanos(), greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(60)));
+  }
+
+  @Test
+  public void handlerNameIsStableForGeneratedClasses() {
+    Handler lambda = context -> HttpResponses.ok();
+    Handler anonymous = new Handler()
+    {
+      @Nonnull
+      @Override
+      public Response handle(@Nonnull final Context context) {
+        return HttpResponses.ok();
+      }
+    };
+
+    assertThat(HandlerTimings.handlerName(new Inner()), is("Inner"));
+    assertThat(HandlerTimings.handlerName(lambda), is("HandlerTimingsTest"));
+    assertThat(HandlerTimings.handlerName(anonymous), is("HandlerTimingsTest"));
+  }
+
+  private static class Outer
+      implements Handler
+  {
+    @Nonnull
+    @Override
+    public Response handle(@Nonnull final Context context) throws Exception {
+      Thread.sleep(10);
+      return context.proceed();
+    }
+  }
+
+  private static class Inner
+      implements Handler
+  {
+    @Nonnull
+    @Override
+    public Response handle(@Nonnull final Context context) throws Exception {
+      Thread.sleep(50);
+      return HttpResponses.ok();
+    }
+  }
+}
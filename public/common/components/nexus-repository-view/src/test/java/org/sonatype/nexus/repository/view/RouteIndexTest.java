@@ -0,0 +1,133 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.view;
+
+import java.util.List;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.view.matchers.ActionMatcher;
+import org.sonatype.nexus.repository.view.matchers.AlwaysMatcher;
+import org.sonatype.nexus.repository.view.matchers.LiteralMatcher;
+import org.sonatype.nexus.repository.view.matchers.RegexMatcher;
+import org.sonatype.nexus.repository.view.matchers.SuffixMatcher;
+import org.sonatype.nexus.repository.view.matchers.token.TokenMatcher;
+
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.sonatype.nexus.repository.view.matchers.logic.LogicMatchers.and;
+import static org.sonatype.nexus.repository.view.matchers.logic.LogicMatchers.or;
+
+/**
+ * Tests for {@link RouteIndex}.
+ */
+public class RouteIndexTest
+    extends TestSupport
+{
+  @Mock
+  private Repository repository;
+
+  @Mock
+  private Handler handler;
+
+  private Context context(final String action, final String path) {
+    return new Context(repository, new Request.Builder().action(action).path(path).build());
+  }
+
+  private Route route(final Matcher matcher) {
+    return new Route(matcher, List.of(handler));
+  }
+
+  @Test
+  public void firstMatchingRouteWinsAcrossIndexedAndUnindexedRoutes() {
+    Route metadata = route(new SuffixMatcher("/maven-metadata.xml"));
+    Route listing = route(and(new ActionMatcher("GET"), new SuffixMatcher("/")));
+    Route index = route(new TokenMatcher("/.index/{name}"));
+    Route any = route(new AlwaysMatcher());
+    Route catalog = route(new LiteralMatcher("/archetype-catalog.xml", false));
+    RouteIndex underTest = new RouteIndex(List.of(metadata, listing, index, any, catalog));
+
+    assertThat(underTest.find(context("GET", "/org/foo/maven-metadata.xml")), sameInstance(metadata));
+    assertThat(underTest.find(context("GET", "/org/foo/")), sameInstance(listing));
+    assertThat(underTest.find(context("PUT", "/org/foo/")), sameInstance(any));
+    assertThat(underTest.find(context("GET", "/.index/main.gz")), sameInstance(index));
+    assertThat(underTest.find(context("GET", "/archetype-catalog.xml")), sameInstance(any));
+  }
+
+  @Test
+  public void noRouteMatches() {
+    RouteIndex underTest = new RouteIndex(List.of(
+        route(new TokenMatcher("/{path:.+}.jar")),
+        route(or(new LiteralMatcher("/a", false), new RegexMatcher("/b/.*")))));
+
+    assertThat(underTest.find(context("GET", "/foo.pom")), is(nullValue()));
+    assertThat(underTest.find(context("GET", "/c/d")), is(nullValue()));
+  }
+
+  @Test
+  public void matcherIsSkippedWhenPathFailsItsConstraint() {
+    Matcher constrained = mock(Matcher.class);
+    when(constrained.pathConstraint()).thenReturn(PathConstraint.prefix("/a/", false));
+    when(constrained.matches(any())).thenReturn(true);
+    Route fallback = route(new AlwaysMatcher());
+    RouteIndex underTest = new RouteIndex(List.of(route(constrained), fallback));
+
+    assertThat(underTest.find(context("GET", "/b/c")), sameInstance(fallback));
+    verify(constrained, never()).matches(any());
+  }
+
+  @Test
+  public void matcherWithoutConstraintIsAlwaysInvoked() {
+    Matcher unconstrained = mock(Matcher.class);
+    Route fallback = route(new AlwaysMatcher());
+    RouteIndex underTest = new RouteIndex(List.of(route(unconstrained), fallback));
+
+    Context context = context("GET", "/b/c");
+    assertThat(underTest.find(context), sameInstance(fallback));
+    verify(unconstrained).matches(context);
+  }
+
+  @Test
+  public void caseInsensitiveConstraintsAreHonoured() {
+    Route literal = route(new LiteralMatcher("/Index.HTML"));
+    Route suffix = route(new SuffixMatcher(".JAR", true));
+    RouteIndex underTest = new RouteIndex(List.of(literal, suffix));
+
+    assertThat(underTest.find(context("GET", "/index.html")), sameInstance(literal));
+    assertThat(underTest.find(context("GET", "/foo.jar")), sameInstance(suffix));
+    assertThat(underTest.find(context("GET", "/foo.pom")), is(nullValue()));
+  }
+
+  @Test
+  public void tokensOfMatchingRouteArePreserved() {
+    Route upload = route(and(new TokenMatcher("/{path:.+}"), new ActionMatcher("PUT")));
+    Route download = route(new TokenMatcher("/{path:.+}.jar"));
+    RouteIndex underTest = new RouteIndex(List.of(upload, download));
+
+    Context context = context("GET", "/org/foo.jar");
+    assertThat(underTest.find(context), sameInstance(download));
+    TokenMatcher.State state = context.getAttributes().require(TokenMatcher.State.class);
+    assertThat(state.pattern(), is("/{path:.+}.jar"));
+    assertThat(state.getTokens().get("path"), is("org/foo"));
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.repository.view.handlers;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.common.collect.AttributesMap;
+import org.sonatype.nexus.repository.Format;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.http.HttpResponses;
+import org.sonatype.nexus.repository.manager.RepositoryDeletedEvent;
+import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.HandlerTimings;
+import org.sonatype.nexus.repository.view.Response;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link TimingHandler}.
+ */
+public class TimingHandlerTest
+    extends TestSupport
+{
+  @Mock
+  private Context context;
+
+  @Mock
+  private Repository repository;
+
+  private final MetricRegistry registry = new MetricRegistry();
+
+  @Before
+  public void setUp() throws Exception {
+    when(context.getAttributes()).thenReturn(new AttributesMap());
+    when(context.proceed()).thenAnswer(invocation -> HttpResponses.ok());
+  }
+
+  @Test
+  public void sampledRequestsAreRecorded() throws Exception {
+    when(repository.getName()).thenReturn("test");
+    when(repository.getFormat()).thenReturn(new Format("test-format") { });
+    when(context.getRepository()).thenReturn(repository);
+    TimingHandler underTest = new TimingHandler(null, registry, 1);
+
+    Response response = underTest.handle(context);
+
+    ArgumentCaptor<HandlerTimings> timingsCaptor = ArgumentCaptor.forClass(HandlerTimings.class);
+    InOrder order = inOrder(context);
+    order.verify(context).setHandlerTimings(timingsCaptor.capture());
+    order.verify(context).proceed();
+    order.verify(context).setHandlerTimings(null);
+
+    HandlerTimings timings = response.getAttributes().get(HandlerTimings.KEY, HandlerTimings.class);
+    assertThat(timings, sameInstance(timingsCaptor.getValue()));
+    assertThat(context.getAttributes().get(TimingHandler.ELAPSED_KEY), notNullValue());
+    assertThat(registry.timer("nexus.repository.view.test.request").getCount(), is(1L));
+    assertThat(registry.histogram("nexus.repository.view.test.bytesSent").getCount(), is(0L));
+
+    timings.firstByte();
+    timings.complete(1024);
+
+    assertThat(registry.timer("nexus.repository.view.test.firstByte").getCount(), is(1L));
+    assertThat(registry.histogram("nexus.repository.view.test.bytesSent").getSnapshot().getMax(), is(1024L));
+  }
+
+  @Test
+  public void unsampledRequestsAreOnlyTimed() throws Exception {
+    TimingHandler underTest = new TimingHandler(null, registry, 0);
+
+    Response response = underTest.handle(context);
+
+    verify(context, never()).setHandlerTimings(any());
+    assertThat(response.getAttributes().get(HandlerTimings.KEY), nullValue());
+    assertThat(context.getAttributes().get(TimingHandler.ELAPSED_KEY), notNullValue());
+    assertThat(registry.getMetrics().keySet(), empty());
+  }
+
+  @Test
+  public void repositoryMetricsAreRemovedWhenTheRepositoryIsDeleted() throws Exception {
+    Repository other = mock(Repository.class);
+    when(other.getName()).thenReturn("other");
+    when(other.getFormat()).thenReturn(new Format("test-format") { });
+    when(repository.getName()).thenReturn("test");
+    when(repository.getFormat()).thenReturn(new Format("test-format") { });
+    when(context.getRepository()).thenReturn(repository, repository, other, other);
+    TimingHandler underTest = new TimingHandler(null, registry, 1);
+    underTest.handle(context);
+    underTest.handle(context);
+
+    underTest.on(new RepositoryDeletedEvent(repository));
+
+    assertThat(registry.getNames(), not(hasItem(startsWith("nexus.repository.view.test."))));
+    assertThat(registry.getNames(), hasItems("nexus.repository.view.other.request",
+        "nexus.repository.view.other.firstByte", "nexus.repository.view.other.bytesSent"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void sampleRateMustBeAFraction() {
+    new TimingHandler(null, registry, 1.5);
+  }
+}
@@ -170,4 +170,14 @@ public class TokenParserTest
     assertThat(tokens.get("version"), is(equalTo("8.1.16.v20140903")));
     assertThat(tokens.get("ext"), is(equalTo("pom")));
   }
+
+  @Test
+  public void pathConstraintFromLiteralPrefixAndSuffix() {
+    assertThat(new TokenParser("/{group:.+}/{name}.jar").getPathConstraint().toString(),
+        is("allOf[prefix('/'), suffix('.jar')]"));
+    assertThat(new TokenParser("/.index/{name}").getPathConstraint().toString(), is("prefix('/.index/')"));
+    assertThat(new TokenParser("/archetype-catalog.xml").getPathConstraint().toString(),
+        is("literal('/archetype-catalog.xml')"));
+    assertThat(new TokenParser("{path:.+}").getPathConstraint(), is(nullValue()));
+  }
 }
@@ -42,6 +42,7 @@ import org.apache.ibatis.annotations.Param;
 import org.springframework.beans.factory.annotation.Value;
 
 import static org.sonatype.nexus.scheduling.CancelableHelper.checkCancellation;
+import static org.sonatype.nexus.transaction.TransactionIsolation.READ_ONLY;
 import org.springframework.stereotype.Component;
 
 /**
@@ -163,7 +164,7 @@ public class SearchStore
   /**
    * Search for components using the given {@link SqlSearchQueryCondition}
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public Collection<SearchResult> searchComponents(
       final int limit,
       final int offset,
@@ -185,7 +186,7 @@ public class SearchStore
    *
    * @return count of all {@link SearchResultData} in the given format
    */
-  @Transactional
+  @Transactional(isolation = READ_ONLY)
   public long count(@Nullable final SqlSearchQueryConditionGroup queryConditionGroup) {
     SqlSearchRequest request = prepareSearchRequest(queryConditionGroup);
     log.debug("Search request - filters: {}, filter values: {}", request.filter, request.filterParams);
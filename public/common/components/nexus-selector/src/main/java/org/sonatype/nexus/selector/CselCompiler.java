@@ -0,0 +1,290 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.selector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.parser.ASTAndNode;
+import org.apache.commons.jexl3.parser.ASTEQNode;
+import org.apache.commons.jexl3.parser.ASTERNode;
+import org.apache.commons.jexl3.parser.ASTIdentifier;
+import org.apache.commons.jexl3.parser.ASTJexlScript;
+import org.apache.commons.jexl3.parser.ASTNENode;
+import org.apache.commons.jexl3.parser.ASTOrNode;
+import org.apache.commons.jexl3.parser.ASTReferenceExpression;
+import org.apache.commons.jexl3.parser.ASTSWNode;
+import org.apache.commons.jexl3.parser.ASTStringLiteral;
+import org.apache.commons.jexl3.parser.JexlNode;
+
+/**
+ * Walks the script, compiling a CSEL expression into a tree of Java predicates so it can be evaluated without the
+ * JEXL interpreter.
+ *
+ * Only the constructs accepted by {@link CselValidator} are compiled, with every operand either a string literal or
+ * an identifier. Regular expressions are compiled once, and their leading literal characters are checked with a
+ * simple {@link String#startsWith} before the regex itself is run.
+ *
+ * @since 3.89
+ */
+class CselCompiler
+    extends ParserVisitorSupport
+{
+  private final Map<String, Integer> variables = new LinkedHashMap<>();
+
+  /**
+   * Compiles the given CSEL script, returning {@code null} if it uses anything that must be left to JEXL.
+   */
+  @Nullable
+  public static CompiledCsel compile(final ASTJexlScript script) {
+    if (script.jjtGetNumChildren() != 1) {
+      return null;
+    }
+    CselCompiler compiler = new CselCompiler();
+    try {
+      Object compiled = script.jjtGetChild(0).jjtAccept(compiler, null);
+      if (compiled instanceof Condition) {
+        return new CompiledCsel(compiler.variables.keySet().toArray(new String[0]), (Condition) compiled);
+      }
+    }
+    catch (JexlException | PatternSyntaxException e) {
+      compiler.log.debug("CSEL expression will be interpreted: {}", e.getMessage());
+    }
+    return null;
+  }
+
+  private CselCompiler() {
+    // use compile
+  }
+
+  @Override
+  protected Object doVisit(final JexlNode node, final Object data) {
+    throw new JexlException(node, "Expression not supported by CSEL compiler");
+  }
+
+  /**
+   * Compile `a || b`
+   */
+  @Override
+  protected Object visit(final ASTOrNode node, final Object data) {
+    Condition[] conditions = conditions(node);
+    return (Condition) values -> {
+      for (Condition condition : conditions) {
+        if (condition.test(values)) {
+          return true;
+        }
+      }
+      return false;
+    };
+  }
+
+  /**
+   * Compile `a && b`
+   */
+  @Override
+  protected Object visit(final ASTAndNode node, final Object data) {
+    Condition[] conditions = conditions(node);
+    return (Condition) values -> {
+      for (Condition condition : conditions) {
+        if (!condition.test(values)) {
+          return false;
+        }
+      }
+      return true;
+    };
+  }
+
+  /**
+   * Compile `a == b`
+   */
+  @Override
+  protected Object visit(final ASTEQNode node, final Object data) {
+    Operand left = operand(node, LEFT);
+    Operand right = operand(node, RIGHT);
+    return (Condition) values -> left.value(values).equals(right.value(values));
+  }
+
+  /**
+   * Compile `a != b`
+   */
+  @Override
+  protected Object visit(final ASTNENode node, final Object data) {
+    Operand left = operand(node, LEFT);
+    Operand right = operand(node, RIGHT);
+    return (Condition) values -> !left.value(values).equals(right.value(values));
+  }
+
+  /**
+   * Compile `a =~ "regex"`, matching the entire value
+   */
+  @Override
+  protected Object visit(final ASTERNode node, final Object data) {
+    Operand left = operand(node, LEFT);
+    Operand right = operand(node, RIGHT);
+    if (right.literal == null) {
+      return (Condition) values -> left.value(values).matches(right.value(values));
+    }
+    Pattern pattern = Pattern.compile(right.literal);
+    String prefix = literalPrefix(right.literal);
+    if (prefix.isEmpty()) {
+      return (Condition) values -> pattern.matcher(left.value(values)).matches();
+    }
+    return (Condition) values -> {
+      String value = left.value(values);
+      return value.startsWith(prefix) && pattern.matcher(value).matches();
+    };
+  }
+
+  /**
+   * Compile `a =^ "something"`
+   */
+  @Override
+  protected Object visit(final ASTSWNode node, final Object data) {
+    Operand left = operand(node, LEFT);
+    Operand right = operand(node, RIGHT);
+    return (Condition) values -> left.value(values).startsWith(right.value(values));
+  }
+
+  /**
+   * Compile `( expression )`
+   */
+  @Override
+  protected Object visit(final ASTReferenceExpression node, final Object data) {
+    if (node.jjtGetNumChildren() != 1) {
+      return doVisit(node, data);
+    }
+    return node.jjtGetChild(0).jjtAccept(this, data);
+  }
+
+  @Override
+  protected Object visit(final ASTStringLiteral node, final Object data) {
+    return new Operand(node.getLiteral(), -1);
+  }
+
+  @Override
+  protected Object visit(final ASTIdentifier node, final Object data) {
+    return new Operand(null, variables.computeIfAbsent(node.getName(), name -> variables.size()));
+  }
+
+  private Condition[] conditions(final JexlNode node) {
+    Condition[] conditions = new Condition[node.jjtGetNumChildren()];
+    for (int i = 0; i < conditions.length; i++) {
+      Object compiled = node.jjtGetChild(i).jjtAccept(this, null);
+      if (!(compiled instanceof Condition)) {
+        throw new JexlException(node, "Expected condition");
+      }
+      conditions[i] = (Condition) compiled;
+    }
+    return conditions;
+  }
+
+  private Operand operand(final JexlNode node, final int index) {
+    Object compiled = node.jjtGetChild(index).jjtAccept(this, null);
+    if (!(compiled instanceof Operand)) {
+      throw new JexlException(node, "Expected string literal or identifier");
+    }
+    return (Operand) compiled;
+  }
+
+  /**
+   * Returns the characters every match of the regex must start with; any construct not understood ends the scan.
+   */
+  private static String literalPrefix(final String regex) {
+    if (regex.indexOf('|') >= 0) {
+      return "";
+    }
+    int end = 0;
+    while (end < regex.length() && isLiteral(regex.charAt(end))) {
+      end++;
+    }
+    // a trailing quantifier applies to the last literal character, which is then optional
+    if (end > 0 && end < regex.length() && "?*+{".indexOf(regex.charAt(end)) >= 0) {
+      end--;
+    }
+    return regex.substring(0, end);
+  }
+
+  private static boolean isLiteral(final char c) {
+    return Character.isLetterOrDigit(c) || "/-_,:;=@!~%&'\"<> ".indexOf(c) >= 0;
+  }
+
+  /**
+   * Compiled boolean expression over resolved variable values.
+   */
+  private interface Condition
+  {
+    boolean test(String[] values);
+  }
+
+  /**
+   * Compiled operand; either a string literal or the index of a resolved variable value.
+   */
+  private static final class Operand
+  {
+    @Nullable
+    private final String literal;
+
+    private final int index;
+
+    private Operand(@Nullable final String literal, final int index) {
+      this.literal = literal;
+      this.index = index;
+    }
+
+    private String value(final String[] values) {
+      return literal != null ? literal : values[index];
+    }
+  }
+
+  /**
+   * Compiled CSEL expression.
+   */
+  static final class CompiledCsel
+  {
+    private final String[] variables;
+
+    private final Condition condition;
+
+    private CompiledCsel(final String[] variables, final Condition condition) {
+      this.variables = variables;
+      this.condition = condition;
+    }
+
+    /**
+     * Evaluates the expression against the given source, returning {@code null} when a variable is undefined or not a
+     * string; such cases are left to JEXL so error reporting and type coercion stay exactly as before.
+     */
+    @Nullable
+    Boolean evaluate(final VariableSource source) {
+      Set<String> names = source.getVariableSet();
+      String[] values = new String[variables.length];
+      for (int i = 0; i < variables.length; i++) {
+        if (!names.contains(variables[i])) {
+          return null;
+        }
+        Object value = source.get(variables[i]).orElse(null);
+        if (!(value instanceof String)) {
+          return null;
+        }
+        values[i] = (String) value;
+      }
+      return condition.test(values);
+    }
+  }
+}
@@ -12,6 +12,12 @@
  */
 package org.sonatype.nexus.selector;
 
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.selector.CselCompiler.CompiledCsel;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -26,10 +32,41 @@ public class CselSelector
 
   private final CselToSql cselToSql;
 
+  @Nullable
+  private final CompiledCsel compiled;
+
   public CselSelector(final CselToSql cselToSql, final JexlExpression expression) {
     super(expression);
     this.cselToSql = checkNotNull(cselToSql);
+    this.compiled = CselCompiler.compile(expression.getSyntaxTree());
+  }
+
+  /**
+   * Evaluates the compiled form of this expression, falling back to JEXL when it cannot be compiled or the source
+   * does not supply string values for its variables.
+   *
+   * Each {@link VariableSource} describes a single item, so the result is remembered against it; repeated permission
+   * checks of the same item against this selector during a request are then free.
+   */
+  @Override
+  public boolean evaluate(final VariableSource source) {
+    Map<Selector, Boolean> selections = source.selections;
+    Boolean selected = selections.get(this);
+    if (selected == null) {
+      selected = doEvaluate(source);
+      selections.put(this, selected);
+    }
+    return selected;
+  }
 
+  private boolean doEvaluate(final VariableSource source) {
+    if (compiled != null) {
+      Boolean selected = compiled.evaluate(source);
+      if (selected != null) {
+        return selected;
+      }
+    }
+    return super.evaluate(source);
   }
 
   @Override
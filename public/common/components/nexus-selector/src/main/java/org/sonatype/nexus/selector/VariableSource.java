@@ -14,8 +14,10 @@ package org.sonatype.nexus.selector;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +31,11 @@ public class VariableSource
 
   private final Set<String> variableSet;
 
+  /**
+   * Results of selectors already evaluated against this source, see {@link CselSelector#evaluate}.
+   */
+  final Map<Selector, Boolean> selections = new ConcurrentHashMap<>();
+
   public VariableSource(final List<VariableResolver> resolvers) {
     this.resolvers = Collections.unmodifiableList(resolvers);
     Set<String> variables = resolvers.stream()
@@ -0,0 +1,203 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.selector;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.parser.ASTJexlScript;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link CselSelector} and its compiled evaluation.
+ */
+public class CselSelectorTest
+    extends TestSupport
+{
+  private static final String[] LITERALS = {
+      "'maven2'", "'npm'", "'/org/apache/.*'", "'/org/'", "'/org/apache/maven/foo.jar'", "'.*[.]jar'",
+      "'/org/a?pache.*'", "'1.0'", "'1.00'", "''", "'/org|/com.*'", "'/org/(apache|eclipse)/.*'", "'o{0}/org.*'"
+  };
+
+  private static final String[][] SOURCES = {
+      {"maven2", "/org/apache/maven/foo.jar"}, {"npm", "/org/"}, {"1.0", "1.00"}, {"", ""},
+      {"maven2", "/org|/com/x"}, {"maven2", "/org/eclipse/foo.jar"}
+  };
+
+  private final JexlEngine engine = new JexlEngine();
+
+  @Mock
+  private CselToSql<SelectorSqlBuilder> cselToSql;
+
+  @Mock
+  private VariableResolver pathResolver;
+
+  private static VariableSource source(final String format, final String path) {
+    return new VariableSourceBuilder()
+        .addResolver(new ConstantVariableResolver(format, "format"))
+        .addResolver(new ConstantVariableResolver(path, "path"))
+        .build();
+  }
+
+  private CselSelector buildSelector(final String expression) {
+    return new CselSelector(cselToSql, engine.buildExpression(expression, false));
+  }
+
+  @Test
+  public void testSupportedExpressionsAreCompiled() {
+    assertNotNull(CselCompiler.compile(engine.parseExpression(
+        "format == 'maven2' && (path =^ '/org/' || path =~ '/com/.*\\.jar') && path != '/org/x'")));
+  }
+
+  @Test
+  public void testUnsupportedExpressionsAreNotCompiled() {
+    assertNull(CselCompiler.compile(engine.parseExpression("path")));
+    assertNull(CselCompiler.compile(engine.parseExpression("(path == 'a') == (format == 'b')")));
+    assertNull(CselCompiler.compile(engine.parseExpression("path =~ '['")));
+  }
+
+  @Test
+  public void testEquality() {
+    assertTrue(buildSelector("format == 'maven2'").evaluate(source("maven2", "/a")));
+    assertFalse(buildSelector("format == 'maven2'").evaluate(source("npm", "/a")));
+    assertTrue(buildSelector("'npm' != format").evaluate(source("maven2", "/a")));
+  }
+
+  @Test
+  public void testStartsWith() {
+    assertTrue(buildSelector("path =^ '/org/apache/'").evaluate(source("maven2", "/org/apache/foo.jar")));
+    assertFalse(buildSelector("path =^ '/org/apache/'").evaluate(source("maven2", "/org/eclipse/foo.jar")));
+  }
+
+  @Test
+  public void testRegexMatchesEntirePath() {
+    CselSelector selector = buildSelector("path =~ '/org/apache/.*\\.jar'");
+
+    assertTrue(selector.evaluate(source("maven2", "/org/apache/foo.jar")));
+    assertFalse(selector.evaluate(source("maven2", "/org/apache/foo.jar.sha1")));
+    assertFalse(selector.evaluate(source("maven2", "/com/org/apache/foo.jar")));
+  }
+
+  @Test
+  public void testLogicalOperators() {
+    CselSelector selector = buildSelector("format == 'maven2' && (path =^ '/org/' || path =^ '/com/')");
+
+    assertTrue(selector.evaluate(source("maven2", "/com/foo")));
+    assertFalse(selector.evaluate(source("maven2", "/net/foo")));
+    assertFalse(selector.evaluate(source("npm", "/org/foo")));
+  }
+
+  @Test(expected = JexlException.class)
+  public void testUndefinedVariableIsLeftToJexl() {
+    VariableSource source = new VariableSourceBuilder()
+        .addResolver(new ConstantVariableResolver("maven2", "format"))
+        .build();
+
+    buildSelector("path =^ '/org/'").evaluate(source);
+  }
+
+  @Test
+  public void testCompiledEvaluationMatchesJexl() {
+    Random random = new Random(7);
+    int compiled = 0;
+    for (int i = 0; i < 2000; i++) {
+      String expression = randomExpression(random, 0);
+      ASTJexlScript script = engine.parseExpression(expression);
+      if (CselCompiler.compile(script) == null) {
+        continue;
+      }
+      compiled++;
+      JexlSelector jexl = new JexlSelector(engine.buildExpression(expression, false));
+      CselSelector csel = buildSelector(expression);
+      for (String[] values : SOURCES) {
+        assertThat(expression + " with " + List.of(values),
+            evaluate(csel, source(values[0], values[1])), is(evaluate(jexl, source(values[0], values[1]))));
+      }
+    }
+    assertThat(compiled, greaterThan(1000));
+  }
+
+  private static String randomExpression(final Random random, final int depth) {
+    switch (random.nextInt(depth > 2 ? 4 : 7)) {
+      case 0:
+        return randomOperand(random) + " == " + randomOperand(random);
+      case 1:
+        return randomOperand(random) + " != " + randomOperand(random);
+      case 2:
+        return randomOperand(random) + " =~ " + randomOperand(random);
+      case 3:
+        return randomOperand(random) + " =^ " + randomOperand(random);
+      case 4:
+        return randomExpression(random, depth + 1) + " && " + randomExpression(random, depth + 1);
+      case 5:
+        return randomExpression(random, depth + 1) + " || " + randomExpression(random, depth + 1);
+      default:
+        return "(" + randomExpression(random, depth + 1) + ")";
+    }
+  }
+
+  private static String randomOperand(final Random random) {
+    switch (random.nextInt(5)) {
+      case 0:
+        return "format";
+      case 1:
+        return "path";
+      default:
+        return LITERALS[random.nextInt(LITERALS.length)];
+    }
+  }
+
+  /**
+   * Evaluates the selector, describing any failure so differences in error behaviour are also detected.
+   */
+  private static String evaluate(final Selector selector, final VariableSource source) {
+    try {
+      return String.valueOf(selector.evaluate(source));
+    }
+    catch (RuntimeException e) {
+      return e.getClass().getSimpleName();
+    }
+  }
+
+  @Test
+  public void testResultIsRememberedPerSource() {
+    when(pathResolver.getVariableSet()).thenReturn(Set.of("path"));
+    when(pathResolver.resolve("path")).thenReturn(Optional.of("/org/foo"));
+    VariableSource source = new VariableSource(List.of(pathResolver));
+    CselSelector selector = buildSelector("path =^ '/org/'");
+
+    assertTrue(selector.evaluate(source));
+    assertTrue(selector.evaluate(source));
+    verify(pathResolver, times(1)).resolve("path");
+
+    assertTrue(selector.evaluate(new VariableSource(List.of(pathResolver))));
+    verify(pathResolver, times(2)).resolve("path");
+  }
+}
@@ -12,16 +12,72 @@
  */
 package org.sonatype.nexus.bootstrap.jetty;
 
+import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.SharedMetricRegistries;
+import org.eclipse.jetty.util.VirtualThreads;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.codahale.metrics.MetricRegistry.name;
 
 /**
  * Extension of {@link io.dropwizard.metrics.jetty12.InstrumentedQueuedThreadPool} that restores the default
  * constructor.
+ *
+ * When {@link #setVirtualThreadsEnabled(boolean) virtual threads} are enabled, and the runtime supports them, Jetty
+ * hands blocking work such as servlet request handling to virtual threads while this pool keeps running the selectors
+ * and other non-blocking tasks.
  */
 public final class InstrumentedQueuedThreadPool // NOSONAR
     extends io.dropwizard.metrics.jetty12.InstrumentedQueuedThreadPool
 {
+  private static final Logger log = LoggerFactory.getLogger(InstrumentedQueuedThreadPool.class);
+
+  private final MetricRegistry registry;
+
+  private boolean virtualThreadsEnabled;
+
   public InstrumentedQueuedThreadPool() {
-    super(SharedMetricRegistries.getOrCreate("nexus"));
+    this(SharedMetricRegistries.getOrCreate("nexus"));
+  }
+
+  private InstrumentedQueuedThreadPool(final MetricRegistry registry) {
+    super(registry);
+    this.registry = registry;
+  }
+
+  /**
+   * @since 3.89
+   */
+  public boolean isVirtualThreadsEnabled() {
+    return virtualThreadsEnabled;
+  }
+
+  /**
+   * Requests that blocking tasks run on virtual threads; only honoured on Java 21 or later.
+   *
+   * @since 3.89
+   */
+  public void setVirtualThreadsEnabled(final boolean virtualThreadsEnabled) {
+    this.virtualThreadsEnabled = virtualThreadsEnabled;
+  }
+
+  @Override
+  protected void doStart() throws Exception {
+    if (virtualThreadsEnabled && getVirtualThreadsExecutor() == null) {
+      if (VirtualThreads.areSupported()) {
+        String prefix = getName() + "-virtual-";
+        setVirtualThreadsExecutor(new InstrumentedVirtualThreadsExecutor(
+            VirtualThreads.getNamedVirtualThreadsExecutor(prefix),
+            registry,
+            name(QueuedThreadPool.class, getName(), "virtual")));
+        log.info("Handling requests on virtual threads");
+      }
+      else {
+        log.warn("Virtual threads require Java 21 or later; handling requests on platform threads");
+      }
+    }
+    super.doStart();
   }
 }
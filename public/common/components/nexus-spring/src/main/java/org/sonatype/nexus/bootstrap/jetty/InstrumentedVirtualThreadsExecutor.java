@@ -0,0 +1,73 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.bootstrap.jetty;
+
+import java.util.concurrent.Executor;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link Executor} that records metrics for the tasks it hands off to virtual threads.
+ *
+ * Virtual threads are not pooled, so the utilization gauges of the platform thread pool no longer describe request
+ * load; these metrics report how many tasks were submitted, how many are running and how long they took instead.
+ *
+ * @since 3.89
+ */
+final class InstrumentedVirtualThreadsExecutor
+    implements Executor
+{
+  private final Executor delegate;
+
+  private final Meter submitted;
+
+  private final Counter running;
+
+  private final Timer duration;
+
+  private final Meter rejected;
+
+  InstrumentedVirtualThreadsExecutor(final Executor delegate, final MetricRegistry registry, final String prefix) {
+    this.delegate = checkNotNull(delegate);
+    this.submitted = registry.meter(name(prefix, "submitted"));
+    this.running = registry.counter(name(prefix, "running"));
+    this.duration = registry.timer(name(prefix, "duration"));
+    this.rejected = registry.meter(name(prefix, "rejected"));
+  }
+
+  @Override
+  public void execute(final Runnable task) {
+    submitted.mark();
+    try {
+      delegate.execute(() -> {
+        running.inc();
+        try (Timer.Context ignored = duration.time()) {
+          task.run();
+        }
+        finally {
+          running.dec();
+        }
+      });
+    }
+    catch (RuntimeException e) {
+      rejected.mark();
+      throw e;
+    }
+  }
+}
@@ -23,5 +23,14 @@ public enum TransactionIsolation
    *
    * See also {@link SerializedAccessException} which will be thrown on failure.
    */
-  SERIALIZABLE
+  SERIALIZABLE,
+
+  /**
+   * Read-only transaction with standard isolation. Stores configured with a read replica may route these transactions
+   * to the replica, so they must not write and may observe slightly stale data; stores without a replica treat this
+   * like {@link #STANDARD}.
+   *
+   * @since 3.89
+   */
+  READ_ONLY
 }
@@ -32,7 +32,7 @@ public interface TransactionalStore<S extends TransactionalSession<?>>
    */
   default S openSession(final TransactionIsolation isolationLevel) {
     switch (isolationLevel) {
-      case STANDARD:
+      case STANDARD, READ_ONLY:
         return openSession();
       default:
         throw new UnsupportedOperationException();
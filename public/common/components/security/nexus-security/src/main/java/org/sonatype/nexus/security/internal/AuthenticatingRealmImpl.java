@@ -14,6 +14,7 @@ package org.sonatype.nexus.security.internal;
 
 import java.util.ConcurrentModificationException;
 
+import javax.annotation.Nullable;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
@@ -78,13 +79,27 @@ public class AuthenticatingRealmImpl
 
   private final Integer configuredIterations;
 
+  public AuthenticatingRealmImpl(
+      final SecurityConfigurationManager configuration,
+      final PasswordService passwordService,
+      final boolean orient,
+      final String nexusPasswordAlgorithm,
+      final Integer configuredIterations)
+  {
+    this(configuration, passwordService, orient, nexusPasswordAlgorithm, configuredIterations, null);
+  }
+
+  /**
+   * @since 3.89
+   */
   @Inject
   public AuthenticatingRealmImpl(
       final SecurityConfigurationManager configuration,
       final PasswordService passwordService,
       @Value("${nexus.orient.enabled:false}") final boolean orient,
       @Value(FeatureFlags.NEXUS_SECURITY_PASSWORD_ALGORITHM_NAMED_VALUE) final String nexusPasswordAlgorithm,
-      @Value(FeatureFlags.NEXUS_SECURITY_PASSWORD_ITERATIONS_NAMED_VALUE) final Integer configuredIterations)
+      @Value(FeatureFlags.NEXUS_SECURITY_PASSWORD_ITERATIONS_NAMED_VALUE) final Integer configuredIterations,
+      @Nullable final CredentialsVerificationCache credentialsVerificationCache)
   {
     this.configuration = configuration;
     this.passwordService = passwordService;
@@ -93,7 +108,9 @@ public class AuthenticatingRealmImpl
 
     PasswordMatcher passwordMatcher = new PasswordMatcher();
     passwordMatcher.setPasswordService(this.passwordService);
-    setCredentialsMatcher(passwordMatcher);
+    setCredentialsMatcher(credentialsVerificationCache != null
+        ? credentialsVerificationCache.wrap(passwordMatcher)
+        : passwordMatcher);
     setName(DEFAULT_REALM_NAME);
     setAuthenticationCachingEnabled(true);
     this.orient = orient;
@@ -0,0 +1,224 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.security.internal;
+
+import java.nio.CharBuffer;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.goodies.common.Time;
+import org.sonatype.nexus.common.event.EventAware;
+import org.sonatype.nexus.distributed.event.service.api.common.UserPasswordChangedDistributedEvent;
+import org.sonatype.nexus.security.UserPrincipalsExpired;
+import org.sonatype.nexus.security.authc.LogoutEvent;
+import org.sonatype.nexus.security.authc.UserPasswordChanged;
+import org.sonatype.nexus.security.role.RoleEvent;
+import org.sonatype.nexus.security.user.UserDeletedEvent;
+import org.sonatype.nexus.security.user.UserRoleMappingUpdatedEvent;
+import org.sonatype.nexus.security.user.UserUpdatedEvent;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.apache.shiro.authc.AuthenticationInfo;
+import org.apache.shiro.authc.AuthenticationToken;
+import org.apache.shiro.authc.UsernamePasswordToken;
+import org.apache.shiro.authc.credential.CredentialsMatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Short-lived memory of successful username/password verifications.
+ *
+ * Verifying a password against its stored hash deliberately costs many hash iterations, which adds up when build tools
+ * send Basic credentials on every request. When enabled, {@link #wrap(CredentialsMatcher)} remembers each successful
+ * match under a keyed hash of the username, the presented password and the stored hash, so a repeat of the same
+ * credentials skips the expensive check until the entry expires. The presented password itself is never kept and the
+ * key is only meaningful to this process. Failed matches are never remembered.
+ *
+ * Entries for a user are dropped when their password, account or role mappings change or they log out, and all entries
+ * are dropped when any role changes.
+ *
+ * @since 3.89
+ */
+@Component
+@Singleton
+public class CredentialsVerificationCache
+    extends ComponentSupport
+    implements EventAware
+{
+  @Nullable
+  private final Cache<HashCode, String> verified;
+
+  private final HashFunction keyFunction;
+
+  @Inject
+  public CredentialsVerificationCache(
+      @Value("${nexus.security.credentialsCache.enabled:false}") final boolean enabled,
+      @Value("${nexus.security.credentialsCache.maxSize:1000}") final int maxSize,
+      @Value("${nexus.security.credentialsCache.timeToLive:1m}") final Time timeToLive)
+  {
+    byte[] salt = new byte[32];
+    new SecureRandom().nextBytes(salt);
+    this.keyFunction = Hashing.hmacSha256(salt);
+
+    if (enabled) {
+      this.verified = CacheBuilder.newBuilder()
+          .maximumSize(maxSize)
+          .expireAfterWrite(timeToLive.toMillis(), TimeUnit.MILLISECONDS)
+          .recordStats()
+          .build();
+      registerMetrics(verified);
+      log.info("Credentials verification cache enabled; maxSize={}, timeToLive={}", maxSize, timeToLive);
+    }
+    else {
+      this.verified = null;
+    }
+  }
+
+  private static void registerMetrics(final Cache<HashCode, String> cache) {
+    MetricRegistry registry = SharedMetricRegistries.getOrCreate("nexus");
+    String prefix = name(CredentialsVerificationCache.class);
+    registry.gauge(name(prefix, "hits"), () -> (Gauge<Long>) () -> cache.stats().hitCount());
+    registry.gauge(name(prefix, "misses"), () -> (Gauge<Long>) () -> cache.stats().missCount());
+    registry.gauge(name(prefix, "size"), () -> (Gauge<Long>) cache::size);
+  }
+
+  /**
+   * Returns a matcher remembering successful username/password matches of the given matcher, or the given matcher
+   * itself when the cache is disabled.
+   */
+  public CredentialsMatcher wrap(final CredentialsMatcher matcher) {
+    if (verified == null) {
+      return matcher;
+    }
+    return (token, info) -> {
+      HashCode key = key(token, info);
+      if (key == null) {
+        return matcher.doCredentialsMatch(token, info);
+      }
+      if (verified.getIfPresent(key) != null) {
+        return true;
+      }
+      boolean match = matcher.doCredentialsMatch(token, info);
+      if (match) {
+        verified.put(key, ((UsernamePasswordToken) token).getUsername());
+      }
+      return match;
+    };
+  }
+
+  @Nullable
+  private HashCode key(final AuthenticationToken token, final AuthenticationInfo info) {
+    if (!(token instanceof UsernamePasswordToken upToken)
+        || upToken.getUsername() == null || upToken.getPassword() == null) {
+      return null;
+    }
+    CharSequence stored;
+    if (info.getCredentials() instanceof char[] chars) {
+      stored = CharBuffer.wrap(chars);
+    }
+    else if (info.getCredentials() instanceof String string) {
+      stored = string;
+    }
+    else {
+      return null;
+    }
+    return keyFunction.newHasher()
+        .putString(upToken.getUsername(), UTF_8)
+        .putByte((byte) 0)
+        .putString(CharBuffer.wrap(upToken.getPassword()), UTF_8)
+        .putByte((byte) 0)
+        .putString(stored, UTF_8)
+        .hash();
+  }
+
+  @VisibleForTesting
+  void invalidate(@Nullable final String userId) {
+    if (verified == null) {
+      return;
+    }
+    if (userId == null) {
+      verified.invalidateAll();
+    }
+    else {
+      verified.asMap().values().removeIf(userId::equalsIgnoreCase);
+    }
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final UserPasswordChanged event) {
+    invalidate(event.getUserId());
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final UserPasswordChangedDistributedEvent event) {
+    if (!event.isLocal()) {
+      invalidate(event.getUserId());
+    }
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final UserUpdatedEvent event) {
+    invalidate(event.getUser().getUserId());
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final UserDeletedEvent event) {
+    invalidate(event.getUser().getUserId());
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final UserRoleMappingUpdatedEvent event) {
+    invalidate(event.getUserId());
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final UserPrincipalsExpired event) {
+    invalidate(event.getUserId());
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final RoleEvent event) {
+    invalidate(null);
+  }
+
+  @AllowConcurrentEvents
+  @Subscribe
+  public void on(final LogoutEvent event) {
+    invalidate(event.getPrincipal());
+  }
+}
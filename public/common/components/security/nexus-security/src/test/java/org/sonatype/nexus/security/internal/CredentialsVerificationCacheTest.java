@@ -0,0 +1,111 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2008-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.nexus.security.internal;
+
+import org.sonatype.goodies.common.Time;
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.security.authc.LogoutEvent;
+import org.sonatype.nexus.security.authc.UserPasswordChanged;
+
+import org.apache.shiro.authc.AuthenticationInfo;
+import org.apache.shiro.authc.SimpleAuthenticationInfo;
+import org.apache.shiro.authc.UsernamePasswordToken;
+import org.apache.shiro.authc.credential.CredentialsMatcher;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CredentialsVerificationCacheTest
+    extends TestSupport
+{
+  private static final AuthenticationInfo ADMIN = new SimpleAuthenticationInfo("admin", "$hash$1".toCharArray(), "r");
+
+  @Mock
+  private CredentialsMatcher delegate;
+
+  private CredentialsMatcher underTest;
+
+  private CredentialsVerificationCache cache;
+
+  @Before
+  public void setup() {
+    when(delegate.doCredentialsMatch(any(), any())).thenAnswer(
+        i -> "secret".equals(new String(((UsernamePasswordToken) i.getArgument(0)).getPassword())));
+
+    cache = new CredentialsVerificationCache(true, 100, Time.minutes(1));
+    underTest = cache.wrap(delegate);
+  }
+
+  @Test
+  public void testSuccessfulMatchIsRemembered() {
+    UsernamePasswordToken token = new UsernamePasswordToken("admin", "secret");
+
+    assertThat(underTest.doCredentialsMatch(token, ADMIN), is(true));
+    assertThat(underTest.doCredentialsMatch(new UsernamePasswordToken("admin", "secret"), ADMIN), is(true));
+
+    verify(delegate, times(1)).doCredentialsMatch(any(), any());
+  }
+
+  @Test
+  public void testFailedMatchIsNotRemembered() {
+    UsernamePasswordToken token = new UsernamePasswordToken("admin", "wrong");
+
+    assertThat(underTest.doCredentialsMatch(token, ADMIN), is(false));
+    assertThat(underTest.doCredentialsMatch(token, ADMIN), is(false));
+
+    verify(delegate, times(2)).doCredentialsMatch(any(), any());
+  }
+
+  @Test
+  public void testStoredHashChangeIsNotMatched() {
+    AuthenticationInfo rehashed = new SimpleAuthenticationInfo("admin", "$hash$2".toCharArray(), "r");
+
+    underTest.doCredentialsMatch(new UsernamePasswordToken("admin", "secret"), ADMIN);
+    underTest.doCredentialsMatch(new UsernamePasswordToken("admin", "secret"), rehashed);
+
+    verify(delegate, times(2)).doCredentialsMatch(any(), any());
+  }
+
+  @Test
+  public void testPasswordChangeInvalidates() {
+    underTest.doCredentialsMatch(new UsernamePasswordToken("admin", "secret"), ADMIN);
+    cache.on(new UserPasswordChanged("admin"));
+    underTest.doCredentialsMatch(new UsernamePasswordToken("admin", "secret"), ADMIN);
+
+    verify(delegate, times(2)).doCredentialsMatch(any(), any());
+  }
+
+  @Test
+  public void testLogoutInvalidates() {
+    underTest.doCredentialsMatch(new UsernamePasswordToken("admin", "secret"), ADMIN);
+    cache.on(new LogoutEvent("admin", "NexusAuthenticatingRealm"));
+    underTest.doCredentialsMatch(new UsernamePasswordToken("admin", "secret"), ADMIN);
+
+    verify(delegate, times(2)).doCredentialsMatch(any(), any());
+  }
+
+  @Test
+  public void testDisabledReturnsDelegate() {
+    CredentialsVerificationCache disabled = new CredentialsVerificationCache(false, 100, Time.minutes(1));
+
+    assertThat(disabled.wrap(delegate), sameInstance(delegate));
+  }
+}
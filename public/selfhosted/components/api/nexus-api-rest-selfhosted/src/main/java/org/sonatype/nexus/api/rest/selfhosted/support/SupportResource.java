@@ -12,16 +12,25 @@
  */
 package org.sonatype.nexus.api.rest.selfhosted.support;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.StreamingOutput;
 
 import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.common.profiling.ContinuousProfiler;
 import org.sonatype.nexus.internal.support.SupportZipXO;
 import org.sonatype.nexus.rest.Resource;
+import org.sonatype.nexus.rest.WebApplicationMessageException;
 import org.sonatype.nexus.supportzip.SupportZipGenerator;
 import org.sonatype.nexus.common.log.SupportZipGeneratorRequest;
 import org.sonatype.nexus.supportzip.SupportZipGenerator.Result;
@@ -32,6 +41,7 @@ import org.apache.shiro.authz.annotation.RequiresAuthentication;
 import org.apache.shiro.authz.annotation.RequiresPermissions;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -40,6 +50,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM;
 import static org.sonatype.nexus.common.supportzip.SupportZipConstants.REST_SUPPORT_RESOURCE_URI;
+import static org.sonatype.nexus.repository.http.HttpStatus.BAD_REQUEST;
+import static org.sonatype.nexus.repository.http.HttpStatus.CONFLICT;
 import static org.sonatype.nexus.repository.http.HttpStatus.FORBIDDEN;
 import static org.sonatype.nexus.repository.http.HttpStatus.OK;
 
@@ -58,11 +70,16 @@ public class SupportResource
     extends ComponentSupport
     implements Resource
 {
+  private static final int MAX_PROFILING_MINUTES = 24 * 60;
+
   private final SupportZipGenerator supportZipGenerator;
 
+  private final ContinuousProfiler continuousProfiler;
+
   @Autowired
-  public SupportResource(final SupportZipGenerator supportZipGenerator) {
+  public SupportResource(final SupportZipGenerator supportZipGenerator, final ContinuousProfiler continuousProfiler) {
     this.supportZipGenerator = checkNotNull(supportZipGenerator);
+    this.continuousProfiler = checkNotNull(continuousProfiler);
   }
 
   @RequiresAuthentication
@@ -98,4 +115,46 @@ public class SupportResource
     Result result = supportZipGenerator.generate(request);
     return new SupportZipXO(result.getLocalPath(), result.getFilename(), result.getSize(), result.isTruncated());
   }
+
+  /**
+   * @since 3.89
+   */
+  @RequiresAuthentication
+  @RequiresPermissions("nexus:atlas:create")
+  @ApiOperation("Downloads the most recent window of the continuous profiling recording in JFR format")
+  @ApiResponses({
+      @ApiResponse(code = OK, message = "successful operation"),
+      @ApiResponse(code = BAD_REQUEST, message = "Window is out of range"),
+      @ApiResponse(code = FORBIDDEN, message = "Insufficient permissions to download profiling data"),
+      @ApiResponse(code = CONFLICT, message = "Continuous profiling is not enabled")
+  })
+  @Produces(APPLICATION_OCTET_STREAM)
+  @POST
+  @Path("/profiling")
+  public Response profiling(
+      @ApiParam("Number of minutes of recording to include")
+      @QueryParam("minutes") @DefaultValue("10") final int minutes)
+  {
+    if (minutes < 1 || minutes > MAX_PROFILING_MINUTES) {
+      throw new WebApplicationMessageException(Status.BAD_REQUEST,
+          "\"Minutes must be between 1 and " + MAX_PROFILING_MINUTES + "\"");
+    }
+    if (!continuousProfiler.isRecording()) {
+      throw new WebApplicationMessageException(Status.CONFLICT, "\"Continuous profiling is not enabled\"");
+    }
+
+    String name = "profiling-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".jfr";
+
+    StreamingOutput entity = output -> {
+      File recording = File.createTempFile("profiling-", ".jfr");
+      try {
+        continuousProfiler.dump(Duration.ofMinutes(minutes), recording.toPath());
+        Files.copy(recording.toPath(), output);
+      }
+      finally {
+        Files.deleteIfExists(recording.toPath());
+      }
+    };
+    return Response.ok(entity).header("Content-Disposition", "attachment; filename=\"" + name + "\"").build();
+  }
 }